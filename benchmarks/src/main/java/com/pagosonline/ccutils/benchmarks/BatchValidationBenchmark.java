@@ -0,0 +1,62 @@
+package com.pagosonline.ccutils.benchmarks;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.pagosonline.ccutils.validators.CreditCardBatchResult;
+import com.pagosonline.ccutils.validators.CreditCardValidator;
+
+/**
+ * Throughput of the fork/join batch validation by pool parallelism, to check it scales with the
+ * number of cores.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BatchValidationBenchmark {
+
+	/** The number of cards of a batch. */
+	private static final int CARDS = 1 << 20;
+
+	@Param({ "1", "2", "4", "8" })
+	private int parallelism;
+
+	private String[] numbers;
+
+	private ForkJoinPool pool;
+
+	@Setup
+	public void setUp() {
+
+		numbers = new CardNumbers(CARDS, 42L).getNumbers();
+		pool = new ForkJoinPool(parallelism);
+	}
+
+	@TearDown
+	public void tearDown() {
+
+		pool.shutdown();
+	}
+
+	@Benchmark
+	public CreditCardBatchResult validateAll() {
+
+		return CreditCardValidator.VALIDATOR.validateAll(numbers, pool);
+	}
+}
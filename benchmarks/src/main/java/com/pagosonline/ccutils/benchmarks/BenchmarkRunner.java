@@ -0,0 +1,36 @@
+package com.pagosonline.ccutils.benchmarks;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs the benchmarks with the JMH command line options, always adding the GC profiler so the
+ * allocation rate per operation is reported along the throughput and the average time.
+ */
+public final class BenchmarkRunner {
+
+	/**
+	 * Default constructor.
+	 */
+	private BenchmarkRunner() {
+	}
+
+	/**
+	 * Runs the benchmarks.
+	 *
+	 * @param args the JMH command line options, for example a benchmark name pattern
+	 * @throws Exception if the options are not valid or a benchmark fails
+	 */
+	public static void main(String[] args) throws Exception {
+
+		Options options = new OptionsBuilder()
+				.parent(new CommandLineOptions(args))
+				.addProfiler(GCProfiler.class)
+				.build();
+
+		new Runner(options).run();
+	}
+}
@@ -0,0 +1,101 @@
+package com.pagosonline.ccutils.benchmarks;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.pagosonline.ccutils.bin.BinCache;
+import com.pagosonline.ccutils.bin.BinTable;
+import com.pagosonline.ccutils.model.CreditCardType;
+import com.pagosonline.ccutils.validators.CreditCardValidatorDelegate;
+
+/**
+ * Finds the types of numbers sharing a few hundred BINs, with and without a {@link BinCache}, by BIN
+ * table size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BinCacheBenchmark {
+
+	/** The number of distinct BINs. */
+	private static final int BINS = 256;
+
+	/** The number of numbers looked up, a power of two. */
+	private static final int NUMBERS = 1 << 16;
+
+	/** The number of ranges of the BIN table, 0 for no table. */
+	@Param({ "0", "300000" })
+	private int ranges;
+
+	private CreditCardValidatorDelegate uncached;
+
+	private CreditCardValidatorDelegate cached;
+
+	private String[] numbers;
+
+	private int index;
+
+	@Setup
+	public void setUp() throws IOException {
+
+		Random random = new Random(42L);
+		BinTable table = null;
+
+		if (ranges > 0) {
+
+			StringBuilder file = new StringBuilder();
+
+			for (int i = 0; i < ranges; i++) {
+				int start = random.nextInt(100000000);
+				file.append(String.format("%08d-%08d%n", start, Math.min(99999999, start + random.nextInt(1000))));
+			}
+			table = BinTable.read(new StringReader(file.toString()), CreditCardType.VISA);
+		}
+
+		uncached = new CreditCardValidatorDelegate(null, table);
+		cached = new CreditCardValidatorDelegate(null, table, new BinCache(4 * BINS));
+
+		String[] hot = new CardNumbers(BINS, 42L).getNumbers();
+		numbers = new String[NUMBERS];
+
+		for (int i = 0; i < NUMBERS; i++) {
+
+			String bin = hot[random.nextInt(BINS)];
+			StringBuilder number = new StringBuilder(bin.substring(0, 8));
+
+			while (number.length() < bin.length()) {
+				number.append(random.nextInt(10));
+			}
+			numbers[i] = number.toString();
+		}
+	}
+
+	@Benchmark
+	public CreditCardType uncached() {
+
+		return uncached.findCreditCardType(numbers[index++ & (NUMBERS - 1)]);
+	}
+
+	@Benchmark
+	public CreditCardType cached() {
+
+		return cached.findCreditCardType(numbers[index++ & (NUMBERS - 1)]);
+	}
+}
@@ -0,0 +1,93 @@
+package com.pagosonline.ccutils.benchmarks;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.pagosonline.ccutils.bin.BinTable;
+import com.pagosonline.ccutils.model.CreditCardType;
+import com.pagosonline.ccutils.model.FundingType;
+import com.pagosonline.ccutils.model.ProductTier;
+
+/**
+ * Lookups in a {@link BinTable} of random 8 digit ranges, by table size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BinTableBenchmark {
+
+	/** The issuer countries of the ranges. */
+	private static final String[] COUNTRIES = { "AR", "BR", "CO", "MX", "PE", "US" };
+
+	/** The number of numbers looked up, a power of two. */
+	private static final int NUMBERS = 1 << 16;
+
+	@Param({ "1000", "300000" })
+	private int ranges;
+
+	private BinTable table;
+
+	private String[] numbers;
+
+	private int index;
+
+	@Setup
+	public void setUp() throws IOException {
+
+		Random random = new Random(42L);
+		CreditCardType[] types = CreditCardType.values();
+		FundingType[] fundings = FundingType.values();
+		ProductTier[] tiers = ProductTier.values();
+		StringBuilder file = new StringBuilder();
+
+		for (int i = 0; i < ranges; i++) {
+
+			int start = random.nextInt(100000000);
+			int end = Math.min(99999999, start + random.nextInt(1000));
+
+			file.append(String.format("%08d-%08d,", start, end)).append(types[random.nextInt(types.length)])
+					.append(',').append(COUNTRIES[random.nextInt(COUNTRIES.length)])
+					.append(',').append(fundings[random.nextInt(fundings.length)])
+					.append(',').append(tiers[random.nextInt(tiers.length)]).append('\n');
+		}
+		table = BinTable.read(new StringReader(file.toString()), null);
+		numbers = new CardNumbers(NUMBERS, 42L).getNumbers();
+	}
+
+	@Benchmark
+	public CreditCardType findCreditCardType() {
+
+		return table.findCreditCardType(numbers[index++ & (NUMBERS - 1)]);
+	}
+
+	@Benchmark
+	public void findMetadata(Blackhole blackhole) {
+
+		int range = table.indexOf(numbers[index++ & (NUMBERS - 1)]);
+
+		if (range >= 0) {
+			blackhole.consume(table.getType(range));
+			blackhole.consume(table.getCountry(range));
+			blackhole.consume(table.getFundingType(range));
+			blackhole.consume(table.getProductTier(range));
+		}
+	}
+}
@@ -0,0 +1,69 @@
+package com.pagosonline.ccutils.benchmarks;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.pagosonline.ccutils.model.CardBrand;
+import com.pagosonline.ccutils.validators.CardBrandClassifier;
+import com.pagosonline.ccutils.validators.CardBrandPrecedence;
+
+/**
+ * Finds the brands of a mix of card numbers with custom brands compiled with the built-in types,
+ * whose cost should not grow with the number of custom brands.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CardBrandClassifierBenchmark {
+
+	/** The number of numbers looked up, a power of two. */
+	private static final int NUMBERS = 1 << 16;
+
+	@Param({ "0", "10", "50" })
+	private int brands;
+
+	private CardBrandClassifier classifier;
+
+	private String[] numbers;
+
+	private int next;
+
+	@Setup
+	public void setUp() throws IOException {
+
+		StringBuilder rules = new StringBuilder();
+
+		// half of the brands override BIN ranges of the built-in types, half cover unused prefixes
+		for (int i = 0; i < brands; i++) {
+			rules.append("BRAND").append(i).append(',')
+					.append(i % 2 == 0 ? 400000 + i * 1000 : 9000 + i * 10).append('-')
+					.append(i % 2 == 0 ? 400000 + i * 1000 + 499 : 9000 + i * 10 + 7).append(",16 19,LUHN\n");
+		}
+
+		classifier = new CardBrandClassifier(CardBrand.read(new StringReader(rules.toString())),
+				CardBrandPrecedence.CUSTOM_FIRST);
+		numbers = new CardNumbers(NUMBERS, 42L).getNumbers();
+	}
+
+	@Benchmark
+	public CardBrand findCardBrand() {
+
+		return classifier.findCardBrand(numbers[next++ & (NUMBERS - 1)]);
+	}
+}
@@ -0,0 +1,208 @@
+package com.pagosonline.ccutils.benchmarks;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import com.pagosonline.ccutils.model.CreditCardType;
+import com.pagosonline.ccutils.validators.CreditCardValidator;
+
+/**
+ * Generates a realistic mix of card numbers from the BIN lists of the library tests.
+ *
+ * The directory of the BIN lists is read from the <code>ccutils.bin.directory</code> system
+ * property, by default <code>src/test/resources</code> of the library is looked up from the
+ * repository root and from this module directory.
+ */
+final class CardNumbers {
+
+	/** The system property with the directory of the BIN lists. */
+	static final String BIN_DIRECTORY_PROPERTY = "ccutils.bin.directory";
+
+	/** The default directories of the BIN lists. */
+	private static final String[] DEFAULT_DIRECTORIES = { "src/test/resources", "../src/test/resources" };
+
+	/** The card lengths tried for each BIN, the first one detected as the BIN type is used. */
+	private static final int[] LENGTHS = { 16, 15, 14, 13, 19 };
+
+	/**
+	 * The BIN lists with their type and their share of the traffic, in percent.
+	 */
+	private enum Source {
+
+		VISA("VISA-BIN.txt", CreditCardType.VISA, 45),
+		MASTERCARD("Mastercard-BIN.txt", CreditCardType.MASTERCARD, 30),
+		AMEX("Amex-BIN.txt", CreditCardType.AMEX, 8),
+		DINERS("Diners-BIN.txt", CreditCardType.DINERS, 3),
+		NARANJA("TNaranja-BIN.txt", CreditCardType.NARANJA, 3),
+		CABAL("CABAL-BIN.txt", CreditCardType.CABAL, 3),
+		SHOPPING("Shopping-BIN.txt", CreditCardType.SHOPPING, 2),
+		CENCOSUD("Cencosud-BIN.txt", CreditCardType.CENCOSUD, 2),
+		ARGENCARD("Argencard-BIN.txt", CreditCardType.ARGENCARD, 2),
+		CODENSA("Codensa-BIN.txt", CreditCardType.CODENSA, 2);
+
+		private final String file;
+
+		private final CreditCardType type;
+
+		private final int share;
+
+		private Source(String file, CreditCardType type, int share) {
+			this.file = file;
+			this.type = type;
+			this.share = share;
+		}
+	}
+
+	/** The generated numbers. */
+	private final String[] numbers;
+
+	/** The type of each generated number. */
+	private final CreditCardType[] types;
+
+	/**
+	 * Generates a mix of valid card numbers.
+	 *
+	 * @param count the number of cards
+	 * @param seed the random seed
+	 */
+	CardNumbers(int count, long seed) {
+
+		Random random = new Random(seed);
+		Path directory = binDirectory();
+		List<List<String>> bins = new ArrayList<>();
+
+		for (Source source : Source.values()) {
+			bins.add(readBins(directory.resolve(source.file)));
+		}
+
+		numbers = new String[count];
+		types = new CreditCardType[count];
+
+		for (int i = 0; i < count; i++) {
+
+			Source source = pick(random);
+			List<String> sourceBins = bins.get(source.ordinal());
+			String bin = sourceBins.get(random.nextInt(sourceBins.size()));
+
+			numbers[i] = generate(bin, source.type, random);
+			types[i] = source.type;
+		}
+	}
+
+	/**
+	 * Gets the generated numbers.
+	 *
+	 * @return the numbers
+	 */
+	String[] getNumbers() {
+		return numbers;
+	}
+
+	/**
+	 * Gets the type of each generated number.
+	 *
+	 * @return the types
+	 */
+	CreditCardType[] getTypes() {
+		return types;
+	}
+
+	/**
+	 * Changes the check digit of a valid number so the luhn check fails.
+	 *
+	 * @param number the valid number
+	 * @return the invalid number
+	 */
+	static String invalidate(String number) {
+
+		int last = number.length() - 1;
+		char checkDigit = (char) ('0' + (number.charAt(last) - '0' + 1) % 10);
+
+		return number.substring(0, last) + checkDigit;
+	}
+
+	private static Source pick(Random random) {
+
+		int value = random.nextInt(100);
+
+		for (Source source : Source.values()) {
+			value -= source.share;
+			if (value < 0) {
+				return source;
+			}
+		}
+		return Source.VISA;
+	}
+
+	private static String generate(String bin, CreditCardType type, Random random) {
+
+		String number = null;
+
+		for (int length : LENGTHS) {
+
+			number = withCheckDigit(bin, length, random);
+
+			if (CreditCardValidator.findCreditCardType(number) == type) {
+				return number;
+			}
+		}
+		return number;
+	}
+
+	private static String withCheckDigit(String bin, int length, Random random) {
+
+		StringBuilder number = new StringBuilder(bin);
+
+		while (number.length() < length - 1) {
+			number.append(random.nextInt(10));
+		}
+
+		int sum = 0;
+
+		for (int i = number.length() - 1, doubled = 1; i >= 0; i--, doubled ^= 1) {
+			int digit = (number.charAt(i) - '0') << doubled;
+			sum += digit > 9 ? digit - 9 : digit;
+		}
+
+		return number.append((10 - sum % 10) % 10).toString();
+	}
+
+	private static Path binDirectory() {
+
+		String configured = System.getProperty(BIN_DIRECTORY_PROPERTY);
+
+		if (configured != null) {
+			return Paths.get(configured);
+		}
+
+		for (String directory : DEFAULT_DIRECTORIES) {
+			if (Files.isDirectory(Paths.get(directory))) {
+				return Paths.get(directory);
+			}
+		}
+		throw new IllegalStateException("BIN lists not found, set the " + BIN_DIRECTORY_PROPERTY + " property");
+	}
+
+	private static List<String> readBins(Path file) {
+
+		List<String> bins = new ArrayList<>();
+
+		try {
+			for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+				if (!line.trim().isEmpty()) {
+					bins.add(line.trim());
+				}
+			}
+		} catch (IOException e) {
+			throw new UncheckedIOException(e);
+		}
+		return bins;
+	}
+}
@@ -0,0 +1,50 @@
+package com.pagosonline.ccutils.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.pagosonline.ccutils.format.CreditCardFormatUtils;
+
+/**
+ * Benchmarks of {@link CreditCardFormatUtils} over a mix of card numbers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CreditCardFormatUtilsBenchmark {
+
+	/** The number of cards, a power of two. */
+	private static final int CARDS = 4096;
+
+	/** The mask to cycle over the cards. */
+	private static final int MASK = CARDS - 1;
+
+	private String[] numbers;
+
+	private int index;
+
+	@Setup
+	public void setUp() {
+
+		numbers = new CardNumbers(CARDS, 42L).getNumbers();
+	}
+
+	@Benchmark
+	public String mask() {
+
+		return CreditCardFormatUtils.mask(numbers[index++ & MASK]);
+	}
+}
@@ -0,0 +1,67 @@
+package com.pagosonline.ccutils.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.pagosonline.ccutils.model.CreditCardType;
+import com.pagosonline.ccutils.validators.CreditCardTypeIndex;
+import com.pagosonline.ccutils.validators.CreditCardValidatorDelegate;
+
+/**
+ * Finds the types of a mix of card numbers with the automaton and with a {@link CreditCardTypeIndex}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CreditCardTypeIndexBenchmark {
+
+	/** The number of numbers looked up, a power of two. */
+	private static final int NUMBERS = 1 << 16;
+
+	private CreditCardValidatorDelegate automaton;
+
+	private CreditCardTypeIndex index;
+
+	private String[] numbers;
+
+	private int next;
+
+	@Setup
+	public void setUp() {
+
+		automaton = new CreditCardValidatorDelegate(null);
+		index = CreditCardTypeIndex.build();
+		numbers = new CardNumbers(NUMBERS, 42L).getNumbers();
+	}
+
+	@Benchmark
+	public CreditCardType automaton() {
+
+		return automaton.findCreditCardType(numbers[next++ & (NUMBERS - 1)]);
+	}
+
+	@Benchmark
+	public CreditCardType index() {
+
+		return index.findCreditCardType(numbers[next++ & (NUMBERS - 1)]);
+	}
+
+	@Benchmark
+	public CreditCardTypeIndex build() {
+
+		return CreditCardTypeIndex.build();
+	}
+}
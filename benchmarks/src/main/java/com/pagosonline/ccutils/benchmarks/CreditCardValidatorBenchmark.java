@@ -0,0 +1,136 @@
+package com.pagosonline.ccutils.benchmarks;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.pagosonline.ccutils.model.CreditCardCountry;
+import com.pagosonline.ccutils.model.CreditCardType;
+import com.pagosonline.ccutils.validators.CreditCardValidator;
+
+/**
+ * Benchmarks of the {@link CreditCardValidator} entry points over a mix of card numbers.
+ */
+@State(Scope.Thread)
+@BenchmarkMode({ Mode.Throughput, Mode.AverageTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CreditCardValidatorBenchmark {
+
+	/** The number of cards, a power of two. */
+	private static final int CARDS = 4096;
+
+	/** The mask to cycle over the cards. */
+	private static final int MASK = CARDS - 1;
+
+	private String[] numbers;
+
+	private String[] invalidNumbers;
+
+	private CreditCardType[] types;
+
+	private String[] securityCodes;
+
+	private String[] countries;
+
+	private String[] expirationDates;
+
+	private Date paymentDate;
+
+	private int index;
+
+	@Setup
+	public void setUp() {
+
+		CardNumbers cards = new CardNumbers(CARDS, 42L);
+		numbers = cards.getNumbers();
+		types = cards.getTypes();
+		invalidNumbers = new String[CARDS];
+		securityCodes = new String[CARDS];
+		countries = new String[CARDS];
+		expirationDates = new String[CARDS];
+
+		Calendar calendar = Calendar.getInstance();
+		int year = calendar.get(Calendar.YEAR);
+
+		for (int i = 0; i < CARDS; i++) {
+			invalidNumbers[i] = CardNumbers.invalidate(numbers[i]);
+			securityCodes[i] = types[i] == CreditCardType.AMEX ? "1234" : "123";
+			countries[i] = (i & 1) == 0 ? CreditCardCountry.AR.name() : CreditCardCountry.PE.name();
+			expirationDates[i] = String.format("%04d/%02d", year - 1 + i % 6, 1 + i % 12);
+		}
+
+		paymentDate = calendar.getTime();
+	}
+
+	@Benchmark
+	public CreditCardType findCreditCardType() {
+
+		return CreditCardValidator.findCreditCardType(numbers[next()]);
+	}
+
+	@Benchmark
+	public boolean findTypeAndCheckNumber() {
+
+		String number = numbers[next()];
+
+		return CreditCardValidator.VALIDATOR.checkNumber(number, CreditCardValidator.findCreditCardType(number)).isValid();
+	}
+
+	@Benchmark
+	public int classifyAndValidate() {
+
+		return CreditCardValidator.classifyAndValidate(numbers[next()]);
+	}
+
+	@Benchmark
+	public void validate() {
+
+		int i = next();
+		CreditCardValidator.validate(numbers[i], types[i]);
+	}
+
+	@Benchmark
+	public void validateInvalid(Blackhole blackhole) {
+
+		int i = next();
+
+		try {
+			CreditCardValidator.validate(invalidNumbers[i], types[i]);
+		} catch (IllegalArgumentException e) {
+			blackhole.consume(e);
+		}
+	}
+
+	@Benchmark
+	public void validateSecurityCode() {
+
+		int i = next();
+		CreditCardValidator.validateSecurityCode(securityCodes[i], types[i], countries[i]);
+	}
+
+	@Benchmark
+	public boolean willExpireOnPaymentDate() {
+
+		return CreditCardValidator.willExpireOnPaymentDate(expirationDates[next()], paymentDate);
+	}
+
+	private int next() {
+
+		return index++ & MASK;
+	}
+}
@@ -0,0 +1,96 @@
+package com.pagosonline.ccutils.benchmarks;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.pagosonline.ccutils.validators.LuhnBatch;
+import com.pagosonline.ccutils.validators.LuhnCheck;
+
+/**
+ * Time to validate a column of fixed width numbers with {@link LuhnBatch}, with the vector and the
+ * scalar implementations, against checking each number with {@link LuhnCheck}. Needs Java 17 or
+ * later for the vector implementation.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LuhnBatchBenchmark {
+
+	/** The number of numbers of a column. */
+	private static final int COUNT = 4096;
+
+	@Param({ "16", "19" })
+	private int width;
+
+	private byte[] column;
+
+	private ByteBuffer buffer;
+
+	private boolean[] results;
+
+	@Setup
+	public void setUp() {
+
+		StringBuilder builder = new StringBuilder();
+
+		for (String number : new CardNumbers(COUNT, 42L).getNumbers()) {
+
+			String digits = number.replaceAll("[^0-9]", "");
+
+			if (digits.length() > width) {
+				digits = digits.substring(digits.length() - width);
+			}
+			for (int i = digits.length(); i < width; i++) {
+				builder.append('0');
+			}
+			builder.append(digits);
+		}
+
+		column = builder.toString().getBytes(StandardCharsets.US_ASCII);
+		buffer = ByteBuffer.wrap(column);
+		results = new boolean[COUNT];
+	}
+
+	@Benchmark
+	@Fork(jvmArgsAppend = { "--add-modules", "jdk.incubator.vector" })
+	public int vector() {
+
+		return LuhnBatch.validate(column, 0, width, COUNT, results);
+	}
+
+	@Benchmark
+	@Fork(jvmArgsAppend = { "--add-modules", "jdk.incubator.vector", "-Dccutils.luhn.vector=false" })
+	public int scalar() {
+
+		return LuhnBatch.validate(column, 0, width, COUNT, results);
+	}
+
+	@Benchmark
+	public int perNumber() {
+
+		int valid = 0;
+
+		for (int i = 0; i < COUNT; i++) {
+			if (LuhnCheck.isValid(buffer, i * width, i * width + width)) {
+				valid++;
+			}
+		}
+		return valid;
+	}
+}
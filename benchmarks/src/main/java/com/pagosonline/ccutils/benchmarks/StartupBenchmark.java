@@ -0,0 +1,59 @@
+package com.pagosonline.ccutils.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.MessageSource;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+
+import com.pagosonline.ccutils.model.CreditCardCountry;
+import com.pagosonline.ccutils.model.CreditCardType;
+import com.pagosonline.ccutils.validators.CreditCardValidationCode;
+import com.pagosonline.ccutils.validators.CreditCardValidator;
+import com.pagosonline.ccutils.validators.CreditCardValidatorDelegate;
+
+/**
+ * Cold start of the validators, measured once per fresh JVM.
+ *
+ * {@link #messageBundles()} is the first use of the validators, which load the message bundles
+ * directly. {@link #springContexts()} is what their static initializers used to do: start one
+ * application context each and get the message source bean from it.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 0)
+@Measurement(iterations = 1)
+@Fork(10)
+public class StartupBenchmark {
+
+	/** The application context of the library. */
+	private static final String APPLICATION_CONTEXT = "application-context.xml";
+
+	@Benchmark
+	public String messageBundles() {
+
+		CreditCardValidator.validate("4111111111111111", CreditCardType.VISA);
+		CreditCardValidator.validateSecurityCode("1234", CreditCardType.AMEX, CreditCardCountry.AR.name());
+
+		return CreditCardValidator.validateCard("4111111111111112", CreditCardType.VISA, "123",
+				CreditCardCountry.AR.name(), "2000/01").getMessage(CreditCardValidationCode.NUMBER_NOT_VALID);
+	}
+
+	@Benchmark
+	@SuppressWarnings("resource")
+	public Object springContexts() {
+
+		MessageSource validatorSource = (MessageSource) new ClassPathXmlApplicationContext(APPLICATION_CONTEXT)
+				.getBean("creditCardMessageSource");
+		MessageSource securityCodeSource = (MessageSource) new ClassPathXmlApplicationContext(APPLICATION_CONTEXT)
+				.getBean("creditCardMessageSource");
+
+		return new Object[] { new CreditCardValidatorDelegate(validatorSource), securityCodeSource };
+	}
+}
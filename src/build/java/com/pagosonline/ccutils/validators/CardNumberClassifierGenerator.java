@@ -0,0 +1,296 @@
+package com.pagosonline.ccutils.validators;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import com.pagosonline.ccutils.bin.BinLookup;
+
+/**
+ * Generates the source of a {@link CardNumberClassifier} of nested <code>switch</code> statements
+ * on the leading digits and the number of digits, from the automaton of the credit card type
+ * specs. The build runs it after compiling the library and compiles the generated
+ * class, which {@link CreditCardValidatorDelegate} loads instead of walking the automaton. It is a
+ * build tool, compiled from its own source root and left out of the library.
+ *
+ * The generated class has a method by automaton state and number of digits read, up to
+ * {@value BinLookup#BIN_DIGITS} digits. Each switches on the next digit, or on the number of digits
+ * once every number with the digits read matches the same expression whatever its other digits.
+ * The few numbers whose expression depends on the digits after the BIN, and the numbers of more than
+ * {@value #MAX_DIGITS} digits, are found with the automaton, so the results are always the same.
+ *
+ * @since 4.9.5
+ */
+public final class CardNumberClassifierGenerator {
+
+	/** The maximum number of digits of the numbers classified without the automaton. */
+	static final int MAX_DIGITS = CardNumberAutomaton.MAX_UNIFORM_DIGITS;
+
+	/** The number of leading digits the generated code switches on. */
+	private static final int MAX_DEPTH = BinLookup.BIN_DIGITS;
+
+	/** The bits of a digit in the packed leading digits. */
+	private static final int DIGIT_BITS = 4;
+
+	/** The expression of the results found with the automaton. */
+	private static final String FALLBACK = "CreditCardValidatorDelegate.typesAutomaton().find(number)";
+
+	/** The automaton. */
+	private final CardNumberAutomaton automaton;
+
+	/** The fingerprint of the regular expressions the automaton was compiled from. */
+	private final int fingerprint;
+
+	/** The generated methods. */
+	private final StringBuilder methods = new StringBuilder();
+
+	/** The states and depths of the methods already generated or pending. */
+	private final Set<Long> generated = new HashSet<>();
+
+	/** The states and depths of the methods to generate. */
+	private final Deque<int[]> pending = new ArrayDeque<>();
+
+	/**
+	 * Instantiates a new generator.
+	 *
+	 * @param automaton the automaton
+	 * @param fingerprint the fingerprint of the regular expressions the automaton was compiled from
+	 */
+	private CardNumberClassifierGenerator(CardNumberAutomaton automaton, int fingerprint) {
+
+		this.automaton = automaton;
+		this.fingerprint = fingerprint;
+	}
+
+	/**
+	 * Writes the source of the classifier of the credit card types.
+	 *
+	 * @param args the source directory
+	 * @throws IOException if the source cannot be written
+	 */
+	public static void main(final String[] args) throws IOException {
+
+		if (args.length != 1) {
+			throw new IllegalArgumentException("Usage: CardNumberClassifierGenerator <source directory>");
+		}
+
+		Path file = Paths.get(args[0], CardNumberClassifierGenerator.class.getPackage().getName().replace('.', '/'),
+				CreditCardValidatorDelegate.GENERATED_CLASSIFIER + ".java");
+
+		Files.createDirectories(file.getParent());
+		Files.write(file, generate(CreditCardValidatorDelegate.typesAutomaton(),
+				CreditCardValidatorDelegate.typesFingerprint()).getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Generates the source of the classifier of an automaton. The classifier falls back to
+	 * {@link CreditCardValidatorDelegate#typesAutomaton()}, so the automaton must be that one.
+	 *
+	 * @param automaton the automaton
+	 * @param fingerprint the fingerprint of the regular expressions the automaton was compiled from,
+	 *        see {@link CreditCardValidatorDelegate#typesFingerprint()}
+	 * @return the source
+	 */
+	static String generate(final CardNumberAutomaton automaton, final int fingerprint) {
+
+		return new CardNumberClassifierGenerator(automaton, fingerprint).generate();
+	}
+
+	/**
+	 * Generates the source of the classifier.
+	 *
+	 * @return the source
+	 */
+	private String generate() {
+
+		String root = method(0, 0);
+
+		while (!pending.isEmpty()) {
+			int[] node = pending.poll();
+			generateMethod(node[0], node[1]);
+		}
+
+		StringBuilder source = new StringBuilder();
+
+		source.append("package ").append(CardNumberClassifierGenerator.class.getPackage().getName()).append(";\n\n");
+		source.append("/**\n");
+		source.append(" * Generated by {@code CardNumberClassifierGenerator} from the credit card type regular\n");
+		source.append(" * expressions, do not edit.\n");
+		source.append(" */\n");
+		source.append("final class ").append(CreditCardValidatorDelegate.GENERATED_CLASSIFIER).append(" implements CardNumberClassifier {\n\n");
+		source.append("\t/** The fingerprint of the regular expressions the class was generated from. */\n");
+		source.append("\tstatic final int FINGERPRINT = ").append(fingerprint).append(";\n\n");
+		source.append("\t@Override\n");
+		source.append("\tpublic int find(final CharSequence number) {\n\n");
+		source.append("\t\tint prefix = 0;\n");
+		source.append("\t\tint digits = 0;\n\n");
+		source.append("\t\tfor (int i = 0, length = number.length(); i < length; i++) {\n\n");
+		source.append("\t\t\tint digit = number.charAt(i) - '0';\n\n");
+		source.append("\t\t\tif (digit >= 0 && digit <= 9) {\n\n");
+		source.append("\t\t\t\tif (digits < ").append(MAX_DEPTH).append(") {\n");
+		source.append("\t\t\t\t\tprefix |= digit << ").append(DIGIT_BITS * (MAX_DEPTH - 1)).append(" - ")
+				.append(DIGIT_BITS).append(" * digits;\n");
+		source.append("\t\t\t\t}\n");
+		source.append("\t\t\t\tdigits++;\n");
+		source.append("\t\t\t}\n");
+		source.append("\t\t}\n\n");
+		source.append("\t\treturn digits > ").append(MAX_DIGITS).append(" ? ").append(FALLBACK).append(" : ")
+				.append(root).append(";\n");
+		source.append("\t}\n");
+		source.append(methods);
+		source.append("}\n");
+
+		return source.toString();
+	}
+
+	/**
+	 * Returns the call of the method of a state and depth, queuing it if it is not generated yet.
+	 *
+	 * @param state the state
+	 * @param depth the number of digits read
+	 * @return the call
+	 */
+	private String method(int state, int depth) {
+
+		if (generated.add((long) state << 8 | depth)) {
+			pending.add(new int[] { state, depth });
+		}
+		return "s" + state + "d" + depth + "(prefix, digits, number)";
+	}
+
+	/**
+	 * Generates the method of a state and depth.
+	 *
+	 * @param state the state
+	 * @param depth the number of digits read, at most the number of digits of the number
+	 */
+	private void generateMethod(int state, int depth) {
+
+		methods.append("\n\tprivate static int s").append(state).append('d').append(depth)
+				.append("(final int prefix, final int digits, final CharSequence number) {\n\n");
+
+		if (depth == MAX_DEPTH || isUniform(state, depth)) {
+
+			// the expression only depends on the number of digits
+			Map<String, List<Integer>> cases = new LinkedHashMap<>();
+
+			for (int digits = depth; digits <= MAX_DIGITS; digits++) {
+				addCase(cases, result(automaton.uniform(state, digits - depth)), digits);
+			}
+			appendSwitch("digits", cases);
+		} else {
+
+			methods.append("\t\tif (digits == ").append(depth).append(") {\n");
+			methods.append("\t\t\treturn ").append(result(automaton.accept(state))).append(";\n");
+			methods.append("\t\t}\n\n");
+
+			Map<String, List<Integer>> cases = new LinkedHashMap<>();
+
+			for (int digit = 0; digit <= 9; digit++) {
+
+				int next = automaton.next(state, digit);
+				addCase(cases, next < 0 ? result(CardNumberAutomaton.NO_MATCH) : method(next, depth + 1), digit);
+			}
+			appendSwitch("prefix >>> " + DIGIT_BITS * (MAX_DEPTH - 1 - depth) + " & 0xF", cases);
+		}
+
+		methods.append("\t}\n");
+	}
+
+	/**
+	 * Tells if every number with a state after some digits matches the same expression whatever its
+	 * other digits, for each number of digits.
+	 *
+	 * @param state the state
+	 * @param depth the number of digits read
+	 * @return true if the expression only depends on the number of digits
+	 */
+	private boolean isUniform(int state, int depth) {
+
+		for (int remaining = 1; depth + remaining <= MAX_DIGITS; remaining++) {
+			if (automaton.uniform(state, remaining) == CardNumberAutomaton.MIXED) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	/**
+	 * Returns the expression of a result.
+	 *
+	 * @param index the expression index, {@link CardNumberAutomaton#NO_MATCH} or
+	 *        {@link CardNumberAutomaton#MIXED}
+	 * @return the expression
+	 */
+	private static String result(int index) {
+
+		return index == CardNumberAutomaton.MIXED ? FALLBACK : String.valueOf(index);
+	}
+
+	/**
+	 * Adds a case label to the labels of a result.
+	 *
+	 * @param cases the labels by result
+	 * @param result the result
+	 * @param label the label
+	 */
+	private static void addCase(Map<String, List<Integer>> cases, String result, int label) {
+
+		List<Integer> labels = cases.get(result);
+
+		if (labels == null) {
+			labels = new ArrayList<>();
+			cases.put(result, labels);
+		}
+		labels.add(label);
+	}
+
+	/**
+	 * Appends a switch returning the result of each label, the most frequent result being the
+	 * default.
+	 *
+	 * @param selector the switch expression
+	 * @param cases the labels by result
+	 */
+	private void appendSwitch(String selector, Map<String, List<Integer>> cases) {
+
+		String otherwise = null;
+
+		for (Map.Entry<String, List<Integer>> entry : cases.entrySet()) {
+			if (otherwise == null || entry.getValue().size() > cases.get(otherwise).size()) {
+				otherwise = entry.getKey();
+			}
+		}
+
+		if (cases.size() == 1) {
+			methods.append("\t\treturn ").append(otherwise).append(";\n");
+			return;
+		}
+
+		methods.append("\t\tswitch (").append(selector).append(") {\n");
+
+		for (Map.Entry<String, List<Integer>> entry : cases.entrySet()) {
+			if (!entry.getKey().equals(otherwise)) {
+
+				for (int label : entry.getValue()) {
+					methods.append("\t\tcase ").append(label).append(":\n");
+				}
+				methods.append("\t\t\treturn ").append(entry.getKey()).append(";\n");
+			}
+		}
+
+		methods.append("\t\tdefault:\n");
+		methods.append("\t\t\treturn ").append(otherwise).append(";\n");
+		methods.append("\t\t}\n");
+	}
+}
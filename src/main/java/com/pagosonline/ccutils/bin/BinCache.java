@@ -0,0 +1,392 @@
+package com.pagosonline.ccutils.bin;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.pagosonline.ccutils.model.CreditCardType;
+
+/**
+ * A bounded cache of the credit card types found for a BIN and a number of digits.
+ *
+ * The key of a number is its first {@value BinLookup#BIN_DIGITS} digits and its number of digits,
+ * packed in a long by {@link #key(CharSequence)}, so the cache never holds a full number. The
+ * entries are packed longs in a fixed table of sets of {@value #WAYS} slots; a lookup probes a
+ * single set and a full set evicts with the CLOCK algorithm, the entries read since the hand last
+ * passed being spared once. Lookups and updates do not lock.
+ *
+ * Each entry belongs to the generation of the data it was found with, see
+ * {@link #getGeneration(Object)}: changing the data drops every entry at once.
+ *
+ * @since 4.9.5
+ */
+public final class BinCache {
+
+	/** The value returned by {@link #key(CharSequence)} when a number cannot be cached. */
+	public static final long NO_KEY = -1;
+
+	/** The maximum number of digits of a cached number. */
+	public static final int MAX_DIGITS = 31;
+
+	/** The number of slots of a set. */
+	private static final int WAYS = 4;
+
+	/** The bits of the number of digits in a key. */
+	private static final int DIGITS_BITS = 5;
+
+	/** The mask of the key of an entry. */
+	private static final long KEY_MASK = 0xFFFFFFFFL;
+
+	/** The shift of the type ordinal plus one of an entry, 0 for an empty slot. */
+	private static final int TYPE_SHIFT = 32;
+
+	/** The shift of the generation of an entry. */
+	private static final int GENERATION_SHIFT = 40;
+
+	/** The mask of a generation. */
+	private static final int GENERATION_MASK = 0xFFFF;
+
+	/** The referenced bit of an entry, set when it is read. */
+	private static final long REFERENCED = 1L << 56;
+
+	/** The powers of ten up to the BIN digits. */
+	private static final long[] POWERS = { 1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L };
+
+	/** The credit card types by ordinal. */
+	private static final CreditCardType[] TYPES = CreditCardType.values();
+
+	/** The entries, {@link #WAYS} consecutive slots by set. */
+	private final AtomicLongArray entries;
+
+	/** The number of sets minus one. */
+	private final int sets;
+
+	/** The data of the entries and its generation. */
+	private volatile Generation generation = new Generation(null, 0);
+
+	/** The slot of a set the next eviction starts from, updated without synchronization. */
+	private int hand;
+
+	/** The number of lookups that found an entry. */
+	private final LongAdder hits = new LongAdder();
+
+	/** The number of lookups that found no entry. */
+	private final LongAdder misses = new LongAdder();
+
+	/** The number of entries evicted to make room for another. */
+	private final LongAdder evictions = new LongAdder();
+
+	/**
+	 * Instantiates a new BIN cache.
+	 *
+	 * @param capacity the maximum number of entries, rounded up to a power of two
+	 * @throws IllegalArgumentException if the capacity is not positive or too large
+	 */
+	public BinCache(final int capacity) {
+
+		if (capacity <= 0 || capacity > 1 << 30) {
+			throw new IllegalArgumentException("The capacity must be between 1 and 2^30: " + capacity);
+		}
+
+		int slots = Math.max(WAYS, Integer.highestOneBit(capacity - 1) << 1);
+
+		this.entries = new AtomicLongArray(slots);
+		this.sets = slots / WAYS - 1;
+	}
+
+	/**
+	 * Returns the key of a number: its first {@value BinLookup#BIN_DIGITS} digits and its number of
+	 * digits. Characters that are not digits are skipped.
+	 *
+	 * @param number the number
+	 * @return the key, {@link #NO_KEY} if the number has no digits or more than {@value #MAX_DIGITS}
+	 */
+	public static long key(final CharSequence number) {
+
+		long bin = 0;
+		int digits = 0;
+
+		for (int i = 0, length = number.length(); i < length; i++) {
+
+			int digit = number.charAt(i) - '0';
+
+			if (digit >= 0 && digit <= 9) {
+
+				if (digits < BinLookup.BIN_DIGITS) {
+					bin = bin * 10 + digit;
+				}
+
+				if (++digits > MAX_DIGITS) {
+					return NO_KEY;
+				}
+			}
+		}
+
+		return digits == 0 ? NO_KEY : key(bin, digits);
+	}
+
+	/**
+	 * Returns the key of a BIN and a number of digits.
+	 *
+	 * @param bin the first digits of the number, at most {@value BinLookup#BIN_DIGITS}
+	 * @param digits the number of digits, from 1 to {@value #MAX_DIGITS}
+	 * @return the key
+	 */
+	public static long key(final long bin, final int digits) {
+
+		return bin << DIGITS_BITS | digits;
+	}
+
+	/**
+	 * Returns the generation of the entries found with some data, starting a new generation when
+	 * the data changes.
+	 *
+	 * @param source the data the types are found with, for example a {@link BinLookup#snapshot()}
+	 * @return the generation
+	 */
+	public int getGeneration(final Object source) {
+
+		Generation current = generation;
+
+		if (current.source == source) {
+			return current.value;
+		}
+
+		synchronized (this) {
+
+			current = generation;
+
+			if (current.source != source) {
+				current = new Generation(source, (current.value + 1) & GENERATION_MASK);
+				generation = current;
+			}
+			return current.value;
+		}
+	}
+
+	/**
+	 * Drops every entry.
+	 */
+	public synchronized void clear() {
+
+		Generation current = generation;
+		generation = new Generation(current.source, (current.value + 1) & GENERATION_MASK);
+	}
+
+	/**
+	 * Gets the cached type of a key.
+	 *
+	 * @param key the key
+	 * @param generation the generation of the data, see {@link #getGeneration(Object)}
+	 * @return the type, null if it is not cached
+	 */
+	public CreditCardType get(final long key, final int generation) {
+
+		int set = set(key);
+
+		for (int slot = set; slot < set + WAYS; slot++) {
+
+			long entry = entries.get(slot);
+
+			if ((entry & KEY_MASK) == key && isLive(entry, generation)) {
+
+				if ((entry & REFERENCED) == 0) {
+					entries.compareAndSet(slot, entry, entry | REFERENCED);
+				}
+				hits.increment();
+				return TYPES[type(entry) - 1];
+			}
+		}
+
+		misses.increment();
+		return null;
+	}
+
+	/**
+	 * Caches the type of a key.
+	 *
+	 * @param key the key
+	 * @param type the type
+	 * @param generation the generation of the data the type was found with
+	 */
+	public void put(final long key, final CreditCardType type, final int generation) {
+
+		int set = set(key);
+		long added = key | (long) (type.ordinal() + 1) << TYPE_SHIFT
+				| (long) (generation & GENERATION_MASK) << GENERATION_SHIFT;
+
+		for (int slot = set; slot < set + WAYS; slot++) {
+
+			long entry = entries.get(slot);
+
+			if (!isLive(entry, generation) || (entry & KEY_MASK) == key) {
+
+				if (entries.compareAndSet(slot, entry, added)) {
+					return;
+				}
+			}
+		}
+
+		int start = hand++;
+
+		for (int i = 0; i < 2 * WAYS; i++) {
+
+			int slot = set + ((start + i) & (WAYS - 1));
+			long entry = entries.get(slot);
+
+			if ((entry & REFERENCED) != 0) {
+				entries.compareAndSet(slot, entry, entry & ~REFERENCED);
+			} else if (entries.compareAndSet(slot, entry, added)) {
+				evictions.increment();
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Returns the keys of the entries of the current generation, to warm another cache up.
+	 *
+	 * @return the keys
+	 */
+	public long[] keys() {
+
+		int current = generation.value;
+		long[] keys = new long[entries.length()];
+		int count = 0;
+
+		for (int slot = 0; slot < entries.length(); slot++) {
+
+			long entry = entries.get(slot);
+
+			if (isLive(entry, current)) {
+				keys[count++] = entry & KEY_MASK;
+			}
+		}
+		return Arrays.copyOf(keys, count);
+	}
+
+	/**
+	 * Returns a number with the BIN and the number of digits of a key, padded with zeros.
+	 *
+	 * @param key the key
+	 * @return the number, null if the key is not valid
+	 */
+	public static String sample(final long key) {
+
+		int digits = (int) (key & (1 << DIGITS_BITS) - 1);
+
+		if (key < 0 || digits == 0 || key >>> DIGITS_BITS >= POWERS[Math.min(digits, BinLookup.BIN_DIGITS)]) {
+			return null;
+		}
+
+		char[] number = new char[digits];
+		long bin = key >>> DIGITS_BITS;
+
+		Arrays.fill(number, '0');
+
+		for (int i = Math.min(digits, BinLookup.BIN_DIGITS) - 1; i >= 0; i--, bin /= 10) {
+			number[i] = (char) ('0' + bin % 10);
+		}
+		return new String(number);
+	}
+
+	/**
+	 * Gets the maximum number of entries.
+	 *
+	 * @return the capacity
+	 */
+	public int getCapacity() {
+
+		return entries.length();
+	}
+
+	/**
+	 * Gets the number of lookups that found an entry.
+	 *
+	 * @return the hits
+	 */
+	public long getHits() {
+
+		return hits.sum();
+	}
+
+	/**
+	 * Gets the number of lookups that found no entry.
+	 *
+	 * @return the misses
+	 */
+	public long getMisses() {
+
+		return misses.sum();
+	}
+
+	/**
+	 * Gets the number of entries evicted to make room for another.
+	 *
+	 * @return the evictions
+	 */
+	public long getEvictions() {
+
+		return evictions.sum();
+	}
+
+	/**
+	 * Returns the first slot of the set of a key.
+	 *
+	 * @param key the key
+	 * @return the slot
+	 */
+	private int set(final long key) {
+
+		long hash = key * 0x9E3779B97F4A7C15L;
+
+		return ((int) (hash >>> 32) & sets) * WAYS;
+	}
+
+	/**
+	 * Tells if an entry holds a type of the given generation.
+	 *
+	 * @param entry the entry
+	 * @param generation the generation
+	 * @return true if the entry is live
+	 */
+	private static boolean isLive(final long entry, final int generation) {
+
+		return type(entry) != 0 && (int) (entry >>> GENERATION_SHIFT & GENERATION_MASK) == (generation & GENERATION_MASK);
+	}
+
+	/**
+	 * Returns the type ordinal plus one of an entry.
+	 *
+	 * @param entry the entry
+	 * @return the type ordinal plus one, 0 for an empty slot
+	 */
+	private static int type(final long entry) {
+
+		return (int) (entry >>> TYPE_SHIFT & 0xFF);
+	}
+
+	/**
+	 * The data of the entries and its generation.
+	 */
+	private static final class Generation {
+
+		/** The data. */
+		private final Object source;
+
+		/** The generation. */
+		private final int value;
+
+		/**
+		 * Instantiates a new generation.
+		 *
+		 * @param source the data
+		 * @param value the generation
+		 */
+		Generation(Object source, int value) {
+
+			this.source = source;
+			this.value = value;
+		}
+	}
+}
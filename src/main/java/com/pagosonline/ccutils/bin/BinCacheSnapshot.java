@@ -0,0 +1,237 @@
+package com.pagosonline.ccutils.bin;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Saves the keys of a {@link BinCache} to a local file, so a restarted instance can warm its cache
+ * up before serving, see
+ * {@link com.pagosonline.ccutils.validators.CreditCardValidatorDelegate#warmUp(long[])}.
+ *
+ * The file holds the keys only, BINs and numbers of digits, never full numbers nor types: the types
+ * are found again with the data in service when warming up. Its layout, big endian, is a 24 bytes
+ * header followed by the keys as unsigned ints:
+ *
+ * <pre>
+ *  0 int   magic "CCBC"
+ *  4 short version
+ *  6 short reserved
+ *  8 int   number of keys
+ * 12 int   CRC32 of the keys
+ * 16 long  creation time in milliseconds
+ * </pre>
+ *
+ * @since 4.9.5
+ */
+public final class BinCacheSnapshot implements Closeable {
+
+	/** The class logger. */
+	private static final Logger LOGGER = LoggerFactory.getLogger(BinCacheSnapshot.class);
+
+	/** The magic number, "CCBC". */
+	private static final int MAGIC = 0x43434243;
+
+	/** The version of the layout. */
+	private static final short VERSION = 1;
+
+	/** The header length. */
+	private static final int HEADER_LENGTH = 24;
+
+	/** The offset of the version. */
+	private static final int VERSION_OFFSET = 4;
+
+	/** The offset of the number of keys. */
+	private static final int COUNT_OFFSET = 8;
+
+	/** The offset of the checksum. */
+	private static final int CRC_OFFSET = 12;
+
+	/** The offset of the creation time. */
+	private static final int CREATED_OFFSET = 16;
+
+	/** The saved cache. */
+	private final BinCache cache;
+
+	/** The file. */
+	private final Path file;
+
+	/** The periodic saves executor, null if the cache is not saved periodically. */
+	private ScheduledExecutorService scheduler;
+
+	/** The shutdown hook saving the cache, null if none. */
+	private Thread shutdownHook;
+
+	/**
+	 * Instantiates a new BIN cache snapshot.
+	 *
+	 * @param cache the cache
+	 * @param file the file
+	 */
+	public BinCacheSnapshot(final BinCache cache, final Path file) {
+
+		this.cache = cache;
+		this.file = file;
+	}
+
+	/**
+	 * Saves the keys of the cache to the file, replacing it atomically.
+	 *
+	 * @throws IOException if the file cannot be written
+	 */
+	public void save() throws IOException {
+
+		write(cache.keys(), file);
+	}
+
+	/**
+	 * Saves the keys of the cache when the JVM shuts down.
+	 *
+	 * @return this snapshot
+	 */
+	public synchronized BinCacheSnapshot saveOnShutdown() {
+
+		if (shutdownHook == null) {
+			shutdownHook = new Thread(this::saveQuietly, "bin-cache-snapshot");
+			Runtime.getRuntime().addShutdownHook(shutdownHook);
+		}
+		return this;
+	}
+
+	/**
+	 * Saves the keys of the cache periodically, on a daemon thread.
+	 *
+	 * @param period the time between saves
+	 * @param unit the unit of the period
+	 * @return this snapshot
+	 * @throws IllegalArgumentException if the period is not positive
+	 */
+	public synchronized BinCacheSnapshot saveEvery(final long period, final TimeUnit unit) {
+
+		if (period <= 0) {
+			throw new IllegalArgumentException("The period must be positive: " + period);
+		}
+
+		if (scheduler == null) {
+			scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+				Thread thread = new Thread(task, "bin-cache-snapshot");
+				thread.setDaemon(true);
+				return thread;
+			});
+			scheduler.scheduleWithFixedDelay(this::saveQuietly, period, period, unit);
+		}
+		return this;
+	}
+
+	/**
+	 * Stops the periodic and shutdown saves.
+	 */
+	@Override
+	public synchronized void close() {
+
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+			scheduler = null;
+		}
+
+		if (shutdownHook != null) {
+			try {
+				Runtime.getRuntime().removeShutdownHook(shutdownHook);
+			} catch (IllegalStateException e) {
+				// already shutting down, the hook runs anyway
+			}
+			shutdownHook = null;
+		}
+	}
+
+	/**
+	 * Writes cache keys to a file, replacing it atomically.
+	 *
+	 * @param keys the keys, see {@link BinCache#keys()}
+	 * @param output the file
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void write(final long[] keys, final Path output) throws IOException {
+
+		ByteBuffer buffer = ByteBuffer.allocate(HEADER_LENGTH + keys.length * Integer.BYTES);
+
+		// through Buffer, the ByteBuffer override does not exist on Java 8
+		((Buffer) buffer).position(HEADER_LENGTH);
+		for (long key : keys) {
+			buffer.putInt((int) key);
+		}
+
+		CRC32 crc = new CRC32();
+		crc.update(buffer.array(), HEADER_LENGTH, buffer.capacity() - HEADER_LENGTH);
+
+		buffer.putInt(0, MAGIC);
+		buffer.putShort(VERSION_OFFSET, VERSION);
+		buffer.putInt(COUNT_OFFSET, keys.length);
+		buffer.putInt(CRC_OFFSET, (int) crc.getValue());
+		buffer.putLong(CREATED_OFFSET, System.currentTimeMillis());
+
+		BinFiles.writeAtomically(buffer, output);
+	}
+
+	/**
+	 * Reads the cache keys of a file.
+	 *
+	 * @param input the file
+	 * @return the keys
+	 * @throws IOException if the file cannot be read or is not a valid snapshot
+	 */
+	public static long[] read(final Path input) throws IOException {
+
+		ByteBuffer buffer = ByteBuffer.wrap(Files.readAllBytes(input));
+
+		if (buffer.capacity() < HEADER_LENGTH || buffer.getInt(0) != MAGIC) {
+			throw new IOException(input + " is not a BIN cache snapshot");
+		}
+
+		if (buffer.getShort(VERSION_OFFSET) != VERSION) {
+			throw new IOException(input + " has the unsupported version " + buffer.getShort(VERSION_OFFSET));
+		}
+
+		int count = buffer.getInt(COUNT_OFFSET);
+
+		if (count < 0 || (long) count * Integer.BYTES != buffer.capacity() - HEADER_LENGTH) {
+			throw new IOException(input + " is truncated or corrupt");
+		}
+
+		CRC32 crc = new CRC32();
+		crc.update(buffer.array(), HEADER_LENGTH, buffer.capacity() - HEADER_LENGTH);
+
+		if ((int) crc.getValue() != buffer.getInt(CRC_OFFSET)) {
+			throw new IOException(input + " has a wrong checksum");
+		}
+
+		long[] keys = new long[count];
+
+		for (int i = 0; i < count; i++) {
+			keys[i] = buffer.getInt(HEADER_LENGTH + i * Integer.BYTES) & 0xFFFFFFFFL;
+		}
+		return keys;
+	}
+
+	/**
+	 * Saves the keys of the cache, logging the errors.
+	 */
+	private void saveQuietly() {
+
+		try {
+			save();
+		} catch (IOException e) {
+			LOGGER.error("The BIN cache snapshot " + file + " cannot be saved", e);
+		}
+	}
+}
@@ -0,0 +1,149 @@
+package com.pagosonline.ccutils.bin;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+import com.pagosonline.ccutils.model.CreditCardType;
+
+/**
+ * Compiles BIN files into a binary BIN database, read by {@link MappedBinDatabase}.
+ *
+ * Usage: {@code BinDatabaseCompiler OUTPUT TYPE=FILE...}, for example
+ * {@code BinDatabaseCompiler bins.db VISA=VISA-BIN.txt MASTERCARD=Mastercard-BIN.txt}.
+ *
+ * @since 4.9.5
+ */
+public final class BinDatabaseCompiler {
+
+	/**
+	 * Default constructor.
+	 */
+	private BinDatabaseCompiler() {
+	}
+
+	/**
+	 * Compiles the BIN files given in the command line.
+	 *
+	 * @param args the output file and the BIN files as TYPE=FILE
+	 * @throws IOException if a file cannot be read or written
+	 */
+	public static void main(final String[] args) throws IOException {
+
+		if (args.length < 2) {
+			System.err.println("Usage: BinDatabaseCompiler OUTPUT TYPE=FILE...");
+			System.exit(2);
+			return;
+		}
+
+		Map<CreditCardType, Path> files = new LinkedHashMap<>();
+
+		for (int i = 1; i < args.length; i++) {
+
+			int equals = args[i].indexOf('=');
+			CreditCardType type = equals > 0 ? CreditCardType.fromString(args[i].substring(0, equals)) : null;
+
+			if (type == null) {
+				throw new IllegalArgumentException("the BIN file must be given as TYPE=FILE: " + args[i]);
+			}
+			files.put(type, Paths.get(args[i].substring(equals + 1)));
+		}
+
+		BinTable table = BinTable.load(files);
+		write(table, Paths.get(args[0]));
+
+		System.out.println(table.size() + " ranges written to " + args[0]);
+	}
+
+	/**
+	 * Writes a BIN table as a binary BIN database. The file is written next to the output and then
+	 * moved over it, so readers never see a partial file.
+	 *
+	 * @param table the table
+	 * @param output the database file
+	 * @throws IOException if the file cannot be written
+	 */
+	public static void write(final BinTable table, final Path output) throws IOException {
+
+		CreditCardType[] types = CreditCardType.values();
+		String[] typeNames = new String[types.length];
+
+		for (CreditCardType type : types) {
+			typeNames[type.ordinal()] = type.name();
+		}
+
+		String[] countries = table.getCountryCodes();
+		int recordsOffset = BinDatabaseFormat.HEADER_LENGTH + dictionaryLength(typeNames)
+				+ dictionaryLength(countries);
+		ByteBuffer buffer = ByteBuffer.allocate(recordsOffset + table.size() * BinDatabaseFormat.RECORD_WIDTH);
+
+		// through Buffer, the ByteBuffer overrides do not exist on Java 8
+		((Buffer) buffer).position(BinDatabaseFormat.HEADER_LENGTH);
+		putDictionary(buffer, typeNames);
+		putDictionary(buffer, countries);
+
+		for (int i = 0; i < table.size(); i++) {
+
+			int record = buffer.position();
+
+			buffer.putInt(record, (int) table.getStart(i));
+			buffer.putInt(record + BinDatabaseFormat.END_OFFSET, (int) table.getEnd(i));
+			buffer.put(record + BinDatabaseFormat.TYPE_OFFSET, (byte) table.getType(i).ordinal());
+			buffer.put(record + BinDatabaseFormat.FUNDING_OFFSET, (byte) table.getFundingType(i).ordinal());
+			buffer.put(record + BinDatabaseFormat.TIER_OFFSET, (byte) table.getProductTier(i).ordinal());
+			buffer.putShort(record + BinDatabaseFormat.COUNTRY_OFFSET, (short) table.getCountryIndex(i));
+			((Buffer) buffer).position(record + BinDatabaseFormat.RECORD_WIDTH);
+		}
+
+		CRC32 crc = new CRC32();
+		crc.update(buffer.array(), BinDatabaseFormat.HEADER_LENGTH, buffer.capacity() - BinDatabaseFormat.HEADER_LENGTH);
+
+		buffer.putInt(0, BinDatabaseFormat.MAGIC);
+		buffer.putShort(BinDatabaseFormat.VERSION_OFFSET, BinDatabaseFormat.VERSION);
+		buffer.putShort(BinDatabaseFormat.RECORD_WIDTH_OFFSET, BinDatabaseFormat.RECORD_WIDTH);
+		buffer.putInt(BinDatabaseFormat.COUNT_OFFSET, table.size());
+		buffer.putInt(BinDatabaseFormat.RECORDS_OFFSET, recordsOffset);
+		buffer.putInt(BinDatabaseFormat.CRC_OFFSET, (int) crc.getValue());
+		buffer.putLong(BinDatabaseFormat.CREATED_OFFSET, System.currentTimeMillis());
+
+		BinFiles.writeAtomically(buffer, output);
+	}
+
+	/**
+	 * Computes the length of a dictionary.
+	 *
+	 * @param names the names of the dictionary
+	 * @return the length in bytes
+	 */
+	private static int dictionaryLength(String[] names) {
+
+		int length = 2;
+
+		for (String name : names) {
+			length += 2 + name.getBytes(StandardCharsets.UTF_8).length;
+		}
+		return length;
+	}
+
+	/**
+	 * Writes a dictionary: its size and each name as a short length and UTF-8 bytes.
+	 *
+	 * @param buffer the buffer
+	 * @param names the names of the dictionary
+	 */
+	private static void putDictionary(ByteBuffer buffer, String[] names) {
+
+		buffer.putShort((short) names.length);
+
+		for (String name : names) {
+			byte[] bytes = name.getBytes(StandardCharsets.UTF_8);
+			buffer.putShort((short) bytes.length).put(bytes);
+		}
+	}
+}
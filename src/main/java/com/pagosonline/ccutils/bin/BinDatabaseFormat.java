@@ -0,0 +1,92 @@
+package com.pagosonline.ccutils.bin;
+
+/**
+ * The layout of a binary BIN database file, all numbers big endian.
+ *
+ * <pre>
+ *  0  int    magic, "CCBN"
+ *  4  short  format version
+ *  6  short  record width in bytes
+ *  8  int    number of records
+ * 12  int    offset of the first record
+ * 16  int    CRC32 of the bytes after the header
+ * 20  long   creation time in milliseconds
+ * 28  int    reserved
+ * 32         type dictionary: a short count, then each type name as a short length and UTF-8 bytes
+ *            country dictionary (version 2): the same layout, with the ISO 3166 alpha-2 codes
+ *            records sorted by first BIN:
+ *             0  int    first BIN
+ *             4  int    last BIN
+ *             8  byte   type index
+ *             9  byte   funding type ordinal (version 2)
+ *            10  byte   product tier ordinal (version 2)
+ *            12  short  country index, -1 if not known (version 2)
+ * </pre>
+ *
+ * Readers accept records wider than they know, so columns can be appended to the records. The
+ * version 1 records are 12 bytes wide, without metadata.
+ *
+ * @since 4.9.5
+ */
+final class BinDatabaseFormat {
+
+	/** The magic number: "CCBN". */
+	static final int MAGIC = 0x4343424E;
+
+	/** The format version. */
+	static final short VERSION = 2;
+
+	/** The header length. */
+	static final int HEADER_LENGTH = 32;
+
+	/** The record width written. */
+	static final short RECORD_WIDTH = 16;
+
+	/** The minimum record width read: the first BIN, the last BIN and the type. */
+	static final int MIN_RECORD_WIDTH = 9;
+
+	/** The offset of the version. */
+	static final int VERSION_OFFSET = 4;
+
+	/** The offset of the record width. */
+	static final int RECORD_WIDTH_OFFSET = 6;
+
+	/** The offset of the number of records. */
+	static final int COUNT_OFFSET = 8;
+
+	/** The offset of the offset of the first record. */
+	static final int RECORDS_OFFSET = 12;
+
+	/** The offset of the checksum. */
+	static final int CRC_OFFSET = 16;
+
+	/** The offset of the creation time. */
+	static final int CREATED_OFFSET = 20;
+
+	/** The offset of the last BIN in a record. */
+	static final int END_OFFSET = 4;
+
+	/** The offset of the type index in a record. */
+	static final int TYPE_OFFSET = 8;
+
+	/** The offset of the funding type in a record. */
+	static final int FUNDING_OFFSET = 9;
+
+	/** The offset of the product tier in a record. */
+	static final int TIER_OFFSET = 10;
+
+	/** The offset of the country index in a record. */
+	static final int COUNTRY_OFFSET = 12;
+
+	/** The minimum record width with metadata. */
+	static final int MIN_METADATA_RECORD_WIDTH = 14;
+
+	/** The first version with metadata. */
+	static final int METADATA_VERSION = 2;
+
+	/**
+	 * Default constructor.
+	 */
+	private BinDatabaseFormat() {
+	}
+}
@@ -0,0 +1,50 @@
+package com.pagosonline.ccutils.bin;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes the binary files of the BIN package, the databases and the cache snapshots.
+ *
+ * @since 4.9.5
+ */
+final class BinFiles {
+
+	/**
+	 * Default constructor.
+	 */
+	private BinFiles() {
+	}
+
+	/**
+	 * Writes the whole content of a buffer to a temporary file next to a file, forces it to the
+	 * disk and moves it over the file, so readers see either the old or the new content.
+	 *
+	 * @param buffer the content, from 0 to its capacity
+	 * @param output the file
+	 * @throws IOException if the file cannot be written
+	 */
+	static void writeAtomically(final ByteBuffer buffer, final Path output) throws IOException {
+
+		Path absolute = output.toAbsolutePath();
+		Path temporary = absolute.resolveSibling(absolute.getFileName() + ".tmp");
+
+		try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+				StandardOpenOption.TRUNCATE_EXISTING)) {
+
+			// through Buffer, the ByteBuffer override does not exist on Java 8
+			((Buffer) buffer).clear();
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			channel.force(true);
+		}
+		Files.move(temporary, absolute, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+}
@@ -0,0 +1,122 @@
+package com.pagosonline.ccutils.bin;
+
+import java.nio.ByteBuffer;
+
+import com.pagosonline.ccutils.model.CreditCardType;
+
+/**
+ * Finds the credit card type of a number by its BIN: its first {@value #BIN_DIGITS} digits.
+ *
+ * The implementations must be safe to use from several threads.
+ *
+ * @since 4.9.5
+ */
+public interface BinLookup {
+
+	/** The number of digits of the BINs looked up. Shorter prefixes are ranges of BINs. */
+	int BIN_DIGITS = 8;
+
+	/** The value returned by {@link #bin(CharSequence)} for numbers with fewer digits than a BIN. */
+	long NO_BIN = -1;
+
+	/** The value of {@link #getFallbackStamp(long)} while the answer for a BIN may still come. */
+	long PENDING = -1;
+
+	/**
+	 * Finds the credit card type of a BIN.
+	 *
+	 * @param bin the BIN, the first {@value #BIN_DIGITS} digits of a number
+	 * @return the credit card type, null if the BIN is not known
+	 */
+	CreditCardType findCreditCardType(long bin);
+
+	/**
+	 * Finds the credit card type of a number. Characters that are not digits are skipped.
+	 *
+	 * @param number the number
+	 * @return the credit card type, null if the number is too short or its BIN is not known
+	 */
+	default CreditCardType findCreditCardType(final CharSequence number) {
+
+		long bin = bin(number);
+
+		return bin == NO_BIN ? null : findCreditCardType(bin);
+	}
+
+	/**
+	 * Finds the credit card type of a number held in ASCII in a region of a byte buffer.
+	 * Bytes that are not digits are skipped.
+	 *
+	 * @param number the buffer, read with absolute gets
+	 * @param from the index of the first byte, inclusive
+	 * @param to the index of the last byte, exclusive
+	 * @return the credit card type, null if the number is too short or its BIN is not known
+	 */
+	default CreditCardType findCreditCardType(final ByteBuffer number, final int from, final int to) {
+
+		long bin = 0;
+		int digits = 0;
+
+		for (int i = from; i < to && digits < BIN_DIGITS; i++) {
+
+			int digit = number.get(i) - '0';
+
+			if (digit >= 0 && digit <= 9) {
+				bin = bin * 10 + digit;
+				digits++;
+			}
+		}
+
+		return digits < BIN_DIGITS ? null : findCreditCardType(bin);
+	}
+
+	/**
+	 * Returns a stamp telling if a type found without this lookup, because it had no answer for a
+	 * BIN, may be cached: {@link #PENDING} while the answer for the BIN may still come, otherwise a
+	 * value that changes whenever such a late answer comes. A fallback type may be cached if the
+	 * stamps read before and after the lookup are equal and not {@link #PENDING}.
+	 *
+	 * @param bin the BIN, the first {@value #BIN_DIGITS} digits of a number
+	 * @return the stamp, always 0 for the lookups that answer at once
+	 */
+	default long getFallbackStamp(final long bin) {
+
+		return 0;
+	}
+
+	/**
+	 * Returns a lookup that does not change, to make several lookups against the same data, for
+	 * example reading the metadata of the range found by a {@link BinMetadataLookup}.
+	 *
+	 * @return this lookup if it does not change, the data in service otherwise
+	 */
+	default BinLookup snapshot() {
+
+		return this;
+	}
+
+	/**
+	 * Returns the BIN of a number: its first {@value #BIN_DIGITS} digits.
+	 * Characters that are not digits are skipped.
+	 *
+	 * @param number the number
+	 * @return the BIN, {@link #NO_BIN} if the number has fewer digits
+	 */
+	static long bin(final CharSequence number) {
+
+		long bin = 0;
+		int digits = 0;
+
+		for (int i = 0, length = number.length(); i < length && digits < BIN_DIGITS; i++) {
+
+			int digit = number.charAt(i) - '0';
+
+			if (digit >= 0 && digit <= 9) {
+				bin = bin * 10 + digit;
+				digits++;
+			}
+		}
+
+		return digits < BIN_DIGITS ? NO_BIN : bin;
+	}
+}
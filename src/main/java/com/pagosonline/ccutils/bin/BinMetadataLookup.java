@@ -0,0 +1,70 @@
+package com.pagosonline.ccutils.bin;
+
+import com.pagosonline.ccutils.model.CreditCardType;
+import com.pagosonline.ccutils.model.FundingType;
+import com.pagosonline.ccutils.model.ProductTier;
+
+/**
+ * A {@link BinLookup} that also knows the issuer country, the funding type and the product tier
+ * of its BIN ranges.
+ *
+ * The lookups return the index of the range holding a BIN, and the data of the range is read
+ * with the accessors, so looking up a BIN does not create objects.
+ *
+ * @since 4.9.5
+ */
+public interface BinMetadataLookup extends BinLookup {
+
+	/**
+	 * Finds the range holding a BIN.
+	 *
+	 * @param bin the BIN, the first {@value #BIN_DIGITS} digits of a number
+	 * @return the index of the range, -1 if none holds it
+	 */
+	int indexOf(long bin);
+
+	/**
+	 * Finds the range holding the BIN of a number. Characters that are not digits are skipped.
+	 *
+	 * @param number the number
+	 * @return the index of the range, -1 if the number is too short or no range holds its BIN
+	 */
+	default int indexOf(final CharSequence number) {
+
+		long bin = BinLookup.bin(number);
+
+		return bin == NO_BIN ? -1 : indexOf(bin);
+	}
+
+	/**
+	 * Gets the credit card type of a range.
+	 *
+	 * @param index the index of the range
+	 * @return the credit card type
+	 */
+	CreditCardType getType(int index);
+
+	/**
+	 * Gets the issuer country of a range.
+	 *
+	 * @param index the index of the range
+	 * @return the ISO 3166 alpha-2 code of the country, null if not known
+	 */
+	String getCountry(int index);
+
+	/**
+	 * Gets the funding type of a range.
+	 *
+	 * @param index the index of the range
+	 * @return the funding type
+	 */
+	FundingType getFundingType(int index);
+
+	/**
+	 * Gets the product tier of a range.
+	 *
+	 * @param index the index of the range
+	 * @return the product tier
+	 */
+	ProductTier getProductTier(int index);
+}
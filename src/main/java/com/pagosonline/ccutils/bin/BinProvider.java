@@ -0,0 +1,21 @@
+package com.pagosonline.ccutils.bin;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A source of BIN attributes, for example a remote BIN service, used through a
+ * {@link ProviderBinLookup}.
+ *
+ * @since 4.9.5
+ */
+public interface BinProvider {
+
+	/**
+	 * Looks the attributes of a BIN up. The lookup must not block the calling thread.
+	 *
+	 * @param bin the BIN, the first {@value BinLookup#BIN_DIGITS} digits of a number
+	 * @return the future attributes, completed with null if the BIN is not known or exceptionally
+	 *         if the provider failed
+	 */
+	CompletableFuture<BinRecord> lookup(long bin);
+}
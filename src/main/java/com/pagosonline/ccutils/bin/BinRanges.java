@@ -0,0 +1,410 @@
+package com.pagosonline.ccutils.bin;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+import com.pagosonline.ccutils.model.CreditCardType;
+import com.pagosonline.ccutils.model.FundingType;
+import com.pagosonline.ccutils.model.ProductTier;
+
+/**
+ * Collects BIN ranges, possibly overlapping, and flattens them into a {@link BinTable}.
+ *
+ * Each line of a BIN file is a prefix or a range of prefixes with an optional type, issuer
+ * country, funding type and product tier:
+ * <code>prefix[-prefix][,TYPE[,COUNTRY[,FUNDING[,TIER]]]]</code>. Empty fields are not known.
+ * Text after a '#' is a comment. The prefixes are
+ * normalized to {@value BinLookup#BIN_DIGITS} digits: a shorter prefix covers all the BINs it
+ * starts and a longer one is truncated.
+ *
+ * @since 4.9.5
+ */
+final class BinRanges {
+
+	/** The powers of ten up to the BIN length. */
+	private static final long[] POWERS = { 1L, 10L, 100L, 1000L, 10000L, 100000L, 1000000L, 10000000L, 100000000L };
+
+	/** The types, to resolve the ordinals. */
+	private static final CreditCardType[] TYPES = CreditCardType.values();
+
+	/** The funding types, to resolve the ordinals. */
+	private static final FundingType[] FUNDINGS = FundingType.values();
+
+	/** The product tiers, to resolve the ordinals. */
+	private static final ProductTier[] TIERS = ProductTier.values();
+
+	/** The first BIN of each range. */
+	private long[] starts = new long[64];
+
+	/** The last BIN of each range. */
+	private long[] ends = new long[64];
+
+	/** The type ordinal of each range. */
+	private byte[] types = new byte[64];
+
+	/** The issuer country index of each range, -1 if not known. */
+	private short[] countries = new short[64];
+
+	/** The funding type ordinal of each range. */
+	private byte[] fundings = new byte[64];
+
+	/** The product tier ordinal of each range. */
+	private byte[] tiers = new byte[64];
+
+	/** The country codes by index. */
+	private final List<String> countryCodes = new ArrayList<>();
+
+	/** The country indexes by code. */
+	private final Map<String, Short> countryIndexes = new HashMap<>();
+
+	/** The number of ranges. */
+	private int size;
+
+	/**
+	 * Adds a range.
+	 *
+	 * @param start the first BIN, inclusive
+	 * @param end the last BIN, inclusive
+	 * @param type the credit card type
+	 */
+	void add(long start, long end, CreditCardType type) {
+
+		add(start, end, type, null, FundingType.UNKNOWN, ProductTier.UNKNOWN);
+	}
+
+	/**
+	 * Adds a range with its metadata.
+	 *
+	 * @param start the first BIN, inclusive
+	 * @param end the last BIN, inclusive
+	 * @param type the credit card type
+	 * @param country the ISO 3166 alpha-2 code of the issuer country, null if not known
+	 * @param funding the funding type
+	 * @param tier the product tier
+	 */
+	void add(long start, long end, CreditCardType type, String country, FundingType funding, ProductTier tier) {
+
+		if (start < 0 || start > end || end >= POWERS[BinLookup.BIN_DIGITS]) {
+			throw new IllegalArgumentException("the BIN range is not valid: " + start + "-" + end);
+		}
+		if (type == null || funding == null || tier == null) {
+			throw new IllegalArgumentException("the BIN range type, funding type and product tier cannot be null");
+		}
+
+		if (size == starts.length) {
+			starts = Arrays.copyOf(starts, size * 2);
+			ends = Arrays.copyOf(ends, size * 2);
+			types = Arrays.copyOf(types, size * 2);
+			countries = Arrays.copyOf(countries, size * 2);
+			fundings = Arrays.copyOf(fundings, size * 2);
+			tiers = Arrays.copyOf(tiers, size * 2);
+		}
+		starts[size] = start;
+		ends[size] = end;
+		types[size] = (byte) type.ordinal();
+		countries[size] = countryIndex(country);
+		fundings[size] = (byte) funding.ordinal();
+		tiers[size] = (byte) tier.ordinal();
+		size++;
+	}
+
+	/**
+	 * Reads the ranges of a BIN file.
+	 *
+	 * @param reader the reader of the file
+	 * @param defaultType the type of the lines without type, null if every line must have one
+	 * @param source the name of the file, used by the error messages
+	 * @throws IOException if the file cannot be read
+	 */
+	void read(BufferedReader reader, CreditCardType defaultType, String source) throws IOException {
+
+		String line;
+		int lineNumber = 0;
+
+		while ((line = reader.readLine()) != null) {
+
+			lineNumber++;
+			int comment = line.indexOf('#');
+			String entry = (comment >= 0 ? line.substring(0, comment) : line).trim();
+
+			if (!entry.isEmpty()) {
+				try {
+					addEntry(entry, defaultType);
+				} catch (IllegalArgumentException e) {
+					throw new IllegalArgumentException(source + ":" + lineNumber + ": " + e.getMessage(), e);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Flattens the ranges: where several ranges overlap, the narrowest one wins, and among ranges
+	 * of the same width the last one added.
+	 *
+	 * @return the table
+	 */
+	BinTable build() {
+
+		Integer[] order = new Integer[size];
+
+		for (int i = 0; i < size; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, (a, b) -> Long.compare(starts[a], starts[b]));
+
+		// the boundaries where the covering ranges can change
+		long[] points = new long[size * 2];
+
+		for (int i = 0; i < size; i++) {
+			points[2 * i] = starts[i];
+			points[2 * i + 1] = ends[i] + 1;
+		}
+		Arrays.sort(points);
+
+		PriorityQueue<Integer> active = new PriorityQueue<>(Math.max(1, size), (a, b) -> {
+			int width = Long.compare(ends[a] - starts[a], ends[b] - starts[b]);
+			return width != 0 ? width : Integer.compare(b, a);
+		});
+
+		long[] flatStarts = new long[size * 2];
+		long[] flatEnds = new long[size * 2];
+		int[] flatRanges = new int[size * 2];
+		int count = 0;
+		int next = 0;
+
+		for (int p = 0; p < points.length; p++) {
+
+			long point = points[p];
+
+			if (p + 1 < points.length && points[p + 1] == point) {
+				continue;
+			}
+			while (next < size && starts[order[next]] <= point) {
+				active.add(order[next++]);
+			}
+			while (!active.isEmpty() && ends[active.peek()] < point) {
+				active.poll();
+			}
+			if (active.isEmpty() || p + 1 == points.length) {
+				continue;
+			}
+
+			long end = points[p + 1] - 1;
+			int range = active.peek();
+
+			if (count > 0 && flatEnds[count - 1] == point - 1 && sameData(flatRanges[count - 1], range)) {
+				flatEnds[count - 1] = end;
+			} else {
+				flatStarts[count] = point;
+				flatEnds[count] = end;
+				flatRanges[count] = range;
+				count++;
+			}
+		}
+
+		byte[] flatTypes = new byte[count];
+		short[] flatCountries = new short[count];
+		byte[] flatFundings = new byte[count];
+		byte[] flatTiers = new byte[count];
+
+		for (int i = 0; i < count; i++) {
+			flatTypes[i] = types[flatRanges[i]];
+			flatCountries[i] = countries[flatRanges[i]];
+			flatFundings[i] = fundings[flatRanges[i]];
+			flatTiers[i] = tiers[flatRanges[i]];
+		}
+
+		return new BinTable(Arrays.copyOf(flatStarts, count), Arrays.copyOf(flatEnds, count), flatTypes,
+				flatCountries, flatFundings, flatTiers, countryCodes.toArray(new String[countryCodes.size()]));
+	}
+
+	/**
+	 * Checks if two ranges have the same data, so that they can be merged when they are adjacent.
+	 *
+	 * @param a the index of a range
+	 * @param b the index of another range
+	 * @return true if the ranges have the same type and metadata
+	 */
+	private boolean sameData(int a, int b) {
+
+		return types[a] == types[b] && countries[a] == countries[b] && fundings[a] == fundings[b]
+				&& tiers[a] == tiers[b];
+	}
+
+	/**
+	 * Returns the index of a country code, adding it to the dictionary if new.
+	 *
+	 * @param country the ISO 3166 alpha-2 code, null if not known
+	 * @return the index, -1 if not known
+	 */
+	private short countryIndex(String country) {
+
+		if (country == null) {
+			return -1;
+		}
+		if (country.length() != 2 || !Character.isLetter(country.charAt(0)) || !Character.isLetter(country.charAt(1))) {
+			throw new IllegalArgumentException("the country must be an ISO 3166 alpha-2 code: " + country);
+		}
+
+		String code = country.toUpperCase(Locale.ROOT);
+		Short index = countryIndexes.get(code);
+
+		if (index == null) {
+			if (countryCodes.size() == Short.MAX_VALUE) {
+				throw new IllegalArgumentException("too many countries");
+			}
+			index = (short) countryCodes.size();
+			countryCodes.add(code);
+			countryIndexes.put(code, index);
+		}
+		return index;
+	}
+
+	/**
+	 * Adds the range of a line of a BIN file.
+	 *
+	 * @param entry the line without comment and surrounding whitespace
+	 * @param defaultType the type of the lines without type
+	 */
+	private void addEntry(String entry, CreditCardType defaultType) {
+
+		String[] fields = entry.split(",", -1);
+
+		if (fields.length > 5) {
+			throw new IllegalArgumentException("the BIN range has too many fields: " + entry);
+		}
+
+		String range = fields[0].trim();
+		String name = field(fields, 1);
+		String country = field(fields, 2);
+		String funding = field(fields, 3);
+		String tier = field(fields, 4);
+
+		CreditCardType type = name != null ? CreditCardType.fromString(name) : defaultType;
+		FundingType fundingType = funding != null ? FundingType.fromString(funding) : FundingType.UNKNOWN;
+		ProductTier productTier = tier != null ? ProductTier.fromString(tier) : ProductTier.UNKNOWN;
+
+		if (type == null) {
+			throw new IllegalArgumentException(name != null ? "unknown credit card type: " + name
+					: "the BIN range has no type: " + entry);
+		}
+		if (fundingType == null) {
+			throw new IllegalArgumentException("unknown funding type: " + funding);
+		}
+		if (productTier == null) {
+			throw new IllegalArgumentException("unknown product tier: " + tier);
+		}
+
+		int dash = range.indexOf('-');
+		String first = (dash >= 0 ? range.substring(0, dash) : range).trim();
+		String last = (dash >= 0 ? range.substring(dash + 1) : range).trim();
+
+		add(low(first), high(last), type, country, fundingType, productTier);
+	}
+
+	/**
+	 * Returns a field of a line of a BIN file.
+	 *
+	 * @param fields the fields
+	 * @param index the index of the field
+	 * @return the field without surrounding whitespace, null if missing or empty
+	 */
+	private static String field(String[] fields, int index) {
+
+		String field = index < fields.length ? fields[index].trim() : "";
+
+		return field.isEmpty() ? null : field;
+	}
+
+	/**
+	 * Returns the first BIN starting with a prefix.
+	 *
+	 * @param prefix the prefix
+	 * @return the BIN
+	 */
+	static long low(String prefix) {
+
+		int digits = Math.min(prefix.length(), BinLookup.BIN_DIGITS);
+
+		return parse(prefix, digits) * POWERS[BinLookup.BIN_DIGITS - digits];
+	}
+
+	/**
+	 * Returns the last BIN starting with a prefix.
+	 *
+	 * @param prefix the prefix
+	 * @return the BIN
+	 */
+	static long high(String prefix) {
+
+		int digits = Math.min(prefix.length(), BinLookup.BIN_DIGITS);
+
+		return low(prefix) + POWERS[BinLookup.BIN_DIGITS - digits] - 1;
+	}
+
+	/**
+	 * Parses the first digits of a prefix, checking all of its characters are digits.
+	 *
+	 * @param prefix the prefix
+	 * @param digits the number of digits parsed
+	 * @return the value of the digits
+	 */
+	private static long parse(String prefix, int digits) {
+
+		if (prefix.isEmpty()) {
+			throw new IllegalArgumentException("the BIN prefix cannot be empty");
+		}
+
+		long value = 0;
+
+		for (int i = 0; i < prefix.length(); i++) {
+
+			int digit = prefix.charAt(i) - '0';
+
+			if (digit < 0 || digit > 9) {
+				throw new IllegalArgumentException("the BIN prefix is not a number: " + prefix);
+			}
+			if (i < digits) {
+				value = value * 10 + digit;
+			}
+		}
+		return value;
+	}
+
+	/**
+	 * Returns the type of an ordinal.
+	 *
+	 * @param ordinal the ordinal
+	 * @return the type
+	 */
+	static CreditCardType type(byte ordinal) {
+		return TYPES[ordinal];
+	}
+
+	/**
+	 * Returns the funding type of an ordinal.
+	 *
+	 * @param ordinal the ordinal
+	 * @return the funding type, {@link FundingType#UNKNOWN} if out of range
+	 */
+	static FundingType funding(int ordinal) {
+		return ordinal < FUNDINGS.length ? FUNDINGS[ordinal] : FundingType.UNKNOWN;
+	}
+
+	/**
+	 * Returns the product tier of an ordinal.
+	 *
+	 * @param ordinal the ordinal
+	 * @return the product tier, {@link ProductTier#UNKNOWN} if out of range
+	 */
+	static ProductTier tier(int ordinal) {
+		return ordinal < TIERS.length ? TIERS[ordinal] : ProductTier.UNKNOWN;
+	}
+}
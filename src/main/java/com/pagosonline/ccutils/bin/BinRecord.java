@@ -0,0 +1,123 @@
+package com.pagosonline.ccutils.bin;
+
+import java.util.Objects;
+
+import com.pagosonline.ccutils.model.CreditCardType;
+import com.pagosonline.ccutils.model.FundingType;
+import com.pagosonline.ccutils.model.ProductTier;
+
+/**
+ * The attributes of a BIN returned by a {@link BinProvider}.
+ *
+ * @since 4.9.5
+ */
+public final class BinRecord {
+
+	/** The credit card type. */
+	private final CreditCardType type;
+
+	/** The ISO 3166 alpha-2 code of the issuer country, null if not known. */
+	private final String country;
+
+	/** The funding type. */
+	private final FundingType fundingType;
+
+	/** The product tier. */
+	private final ProductTier productTier;
+
+	/**
+	 * Instantiates a new BIN record.
+	 *
+	 * @param type the credit card type
+	 * @param country the ISO 3166 alpha-2 code of the issuer country, null if not known
+	 * @param fundingType the funding type, null if not known
+	 * @param productTier the product tier, null if not known
+	 * @throws IllegalArgumentException if the type is null
+	 */
+	public BinRecord(final CreditCardType type, final String country, final FundingType fundingType,
+			final ProductTier productTier) {
+
+		if (type == null) {
+			throw new IllegalArgumentException("The credit card type is required");
+		}
+
+		this.type = type;
+		this.country = country;
+		this.fundingType = fundingType != null ? fundingType : FundingType.UNKNOWN;
+		this.productTier = productTier != null ? productTier : ProductTier.UNKNOWN;
+	}
+
+	/**
+	 * Gets the credit card type.
+	 *
+	 * @return the credit card type
+	 */
+	public CreditCardType getType() {
+
+		return type;
+	}
+
+	/**
+	 * Gets the issuer country.
+	 *
+	 * @return the ISO 3166 alpha-2 code of the country, null if not known
+	 */
+	public String getCountry() {
+
+		return country;
+	}
+
+	/**
+	 * Gets the funding type.
+	 *
+	 * @return the funding type
+	 */
+	public FundingType getFundingType() {
+
+		return fundingType;
+	}
+
+	/**
+	 * Gets the product tier.
+	 *
+	 * @return the product tier
+	 */
+	public ProductTier getProductTier() {
+
+		return productTier;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean equals(final Object other) {
+
+		if (!(other instanceof BinRecord)) {
+			return false;
+		}
+
+		BinRecord record = (BinRecord) other;
+
+		return type == record.type && Objects.equals(country, record.country) && fundingType == record.fundingType
+				&& productTier == record.productTier;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+
+		return Objects.hash(type, country, fundingType, productTier);
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+
+		return type + "," + (country != null ? country : "") + "," + fundingType + "," + productTier;
+	}
+}
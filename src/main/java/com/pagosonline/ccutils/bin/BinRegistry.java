@@ -0,0 +1,266 @@
+package com.pagosonline.ccutils.bin;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.pagosonline.ccutils.model.CreditCardType;
+
+/**
+ * A BIN lookup over the BIN files of a directory, rebuilt when they change.
+ *
+ * The files are the <code>*.txt</code> files of the directory, in name order. A file named
+ * <code>TYPE-BIN.txt</code>, for example <code>VISA-BIN.txt</code>, gives its type to the lines
+ * without type. The lookups are answered by an immutable {@link BinTable} snapshot. A reload
+ * builds a new table and publishes it with a single reference swap, so the lookups never block
+ * nor see a partially built table. A reload that fails keeps the table in service.
+ *
+ * @since 4.9.5
+ */
+public final class BinRegistry implements BinLookup, Closeable {
+
+	/** The class logger. */
+	private static final Logger LOGGER = LoggerFactory.getLogger(BinRegistry.class);
+
+	/** The suffix of the BIN files. */
+	private static final String FILE_SUFFIX = ".txt";
+
+	/** The suffix of the BIN files named after their type. */
+	private static final String TYPE_SUFFIX = "-BIN.txt";
+
+	/** The time the watcher waits for more changes before reloading, in milliseconds. */
+	private static final long QUIET_PERIOD = 200;
+
+	/** The directory of the BIN files. */
+	private final Path directory;
+
+	/** The snapshot in service. */
+	private final AtomicReference<Snapshot> snapshot = new AtomicReference<>();
+
+	/** The error of the last reload, null if it succeeded. */
+	private volatile Exception lastError;
+
+	/** The directory watch service, null if the directory is not watched. */
+	private final WatchService watchService;
+
+	/** The thread that reloads the files when they change, null if the directory is not watched. */
+	private final Thread watcher;
+
+	/**
+	 * Instantiates a new BIN registry, loading the BIN files of a directory.
+	 *
+	 * @param directory the directory of the BIN files
+	 * @param watch true to reload the files on a background thread when they change
+	 * @throws IOException if the files cannot be read or the directory cannot be watched
+	 * @throws IllegalArgumentException if a line of the files is not valid
+	 */
+	public BinRegistry(final Path directory, final boolean watch) throws IOException {
+
+		this.directory = directory;
+		reload();
+
+		if (watch) {
+			watchService = directory.getFileSystem().newWatchService();
+			directory.register(watchService, StandardWatchEventKinds.ENTRY_CREATE, StandardWatchEventKinds.ENTRY_DELETE,
+					StandardWatchEventKinds.ENTRY_MODIFY);
+
+			watcher = new Thread(this::watch, "bin-registry-" + directory.getFileName());
+			watcher.setDaemon(true);
+			watcher.start();
+		} else {
+			watchService = null;
+			watcher = null;
+		}
+	}
+
+	/**
+	 * Rebuilds the table from the BIN files and puts it in service.
+	 *
+	 * @throws IOException if the files cannot be read, the table in service is kept
+	 * @throws IllegalArgumentException if a line of the files is not valid, the table in service is kept
+	 */
+	public synchronized void reload() throws IOException {
+
+		try {
+			BinTable table = load();
+			Snapshot current = snapshot.get();
+
+			snapshot.set(new Snapshot(table, current != null ? current.version + 1 : 1, System.currentTimeMillis()));
+			lastError = null;
+		} catch (IOException | RuntimeException e) {
+			lastError = e;
+			throw e;
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see com.pagosonline.ccutils.bin.BinLookup#findCreditCardType(long)
+	 */
+	@Override
+	public CreditCardType findCreditCardType(final long bin) {
+
+		return snapshot.get().table.findCreditCardType(bin);
+	}
+
+	/**
+	 * Returns the table in service.
+	 *
+	 * @return the table
+	 */
+	@Override
+	public BinTable snapshot() {
+
+		return snapshot.get().table;
+	}
+
+	/**
+	 * Gets the version of the table in service, incremented by each successful reload.
+	 *
+	 * @return the version, 1 for the table loaded by the constructor
+	 */
+	public long getVersion() {
+
+		return snapshot.get().version;
+	}
+
+	/**
+	 * Gets the time the table in service was loaded.
+	 *
+	 * @return the time in milliseconds
+	 */
+	public long getLastReload() {
+
+		return snapshot.get().loaded;
+	}
+
+	/**
+	 * Gets the error of the last reload.
+	 *
+	 * @return the error, null if the last reload succeeded
+	 */
+	public Exception getLastError() {
+
+		return lastError;
+	}
+
+	/**
+	 * Stops watching the directory.
+	 *
+	 * @throws IOException if the watch service cannot be closed
+	 */
+	@Override
+	public void close() throws IOException {
+
+		if (watchService != null) {
+			watchService.close();
+			watcher.interrupt();
+		}
+	}
+
+	/**
+	 * Loads the BIN files of the directory into a new table.
+	 *
+	 * @return the table
+	 * @throws IOException if the files cannot be read
+	 */
+	private BinTable load() throws IOException {
+
+		List<Path> files = new ArrayList<>();
+
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + FILE_SUFFIX)) {
+			for (Path file : stream) {
+				if (Files.isRegularFile(file)) {
+					files.add(file);
+				}
+			}
+		}
+		Collections.sort(files);
+
+		BinRanges ranges = new BinRanges();
+
+		for (Path file : files) {
+
+			String name = file.getFileName().toString();
+			CreditCardType type = name.endsWith(TYPE_SUFFIX)
+					? CreditCardType.fromString(name.substring(0, name.length() - TYPE_SUFFIX.length())) : null;
+
+			try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+				ranges.read(reader, type, name);
+			}
+		}
+		return ranges.build();
+	}
+
+	/**
+	 * Reloads the files when they change, until the watch service is closed.
+	 */
+	private void watch() {
+
+		try {
+			while (true) {
+
+				WatchKey key = watchService.take();
+
+				// waits for the writes of the files to end
+				do {
+					key.pollEvents();
+					key.reset();
+				} while ((key = watchService.poll(QUIET_PERIOD, TimeUnit.MILLISECONDS)) != null);
+
+				try {
+					reload();
+					LOGGER.info("BIN registry {} reloaded, version {}", directory, getVersion());
+				} catch (IOException | RuntimeException e) {
+					LOGGER.error("BIN registry " + directory + " reload failed, keeping version " + getVersion(), e);
+				}
+			}
+		} catch (InterruptedException | ClosedWatchServiceException e) {
+			// closed
+		}
+	}
+
+	/**
+	 * An immutable table in service with its version.
+	 */
+	private static final class Snapshot {
+
+		/** The table. */
+		private final BinTable table;
+
+		/** The version. */
+		private final long version;
+
+		/** The time the table was loaded, in milliseconds. */
+		private final long loaded;
+
+		/**
+		 * Instantiates a new snapshot.
+		 *
+		 * @param table the table
+		 * @param version the version
+		 * @param loaded the time the table was loaded, in milliseconds
+		 */
+		Snapshot(BinTable table, long version, long loaded) {
+
+			this.table = table;
+			this.version = version;
+			this.loaded = loaded;
+		}
+	}
+}
@@ -0,0 +1,247 @@
+package com.pagosonline.ccutils.bin;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Map;
+
+import com.pagosonline.ccutils.model.CreditCardType;
+import com.pagosonline.ccutils.model.FundingType;
+import com.pagosonline.ccutils.model.ProductTier;
+
+/**
+ * An immutable table of disjoint BIN ranges, kept in parallel primitive arrays sorted by BIN and
+ * searched with a binary search. The type and the metadata of the ranges are primitive columns
+ * too, so the table does not create an object per range: a table of a million ranges takes 21MB.
+ *
+ * The tables are loaded from BIN files, see {@link BinRanges} for their format. Overlapping
+ * ranges are flattened, the narrowest range wins.
+ *
+ * @since 4.9.5
+ */
+public final class BinTable implements BinMetadataLookup {
+
+	/** The first BIN of each range, sorted. */
+	private final long[] starts;
+
+	/** The last BIN of each range. */
+	private final long[] ends;
+
+	/** The type ordinal of each range. */
+	private final byte[] types;
+
+	/** The issuer country index of each range, -1 if not known. */
+	private final short[] countries;
+
+	/** The funding type ordinal of each range. */
+	private final byte[] fundings;
+
+	/** The product tier ordinal of each range. */
+	private final byte[] tiers;
+
+	/** The country codes by index. */
+	private final String[] countryCodes;
+
+	/**
+	 * Instantiates a new BIN table.
+	 *
+	 * @param starts the first BIN of each range, sorted
+	 * @param ends the last BIN of each range
+	 * @param types the type ordinal of each range
+	 * @param countries the issuer country index of each range, -1 if not known
+	 * @param fundings the funding type ordinal of each range
+	 * @param tiers the product tier ordinal of each range
+	 * @param countryCodes the country codes by index
+	 */
+	BinTable(long[] starts, long[] ends, byte[] types, short[] countries, byte[] fundings, byte[] tiers,
+			String[] countryCodes) {
+
+		this.starts = starts;
+		this.ends = ends;
+		this.types = types;
+		this.countries = countries;
+		this.fundings = fundings;
+		this.tiers = tiers;
+		this.countryCodes = countryCodes;
+	}
+
+	/**
+	 * Loads a BIN file.
+	 *
+	 * @param file the file
+	 * @param defaultType the type of the lines without type, null if every line must have one
+	 * @return the table
+	 * @throws IOException if the file cannot be read
+	 * @throws IllegalArgumentException if a line is not valid
+	 */
+	public static BinTable load(final Path file, final CreditCardType defaultType) throws IOException {
+
+		BinRanges ranges = new BinRanges();
+
+		try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			ranges.read(reader, defaultType, file.toString());
+		}
+		return ranges.build();
+	}
+
+	/**
+	 * Loads several BIN files into one table, each with the type of its lines without type.
+	 * Among equal ranges, the one of the last file wins.
+	 *
+	 * @param files the files by the type of their lines without type
+	 * @return the table
+	 * @throws IOException if a file cannot be read
+	 * @throws IllegalArgumentException if a line is not valid
+	 */
+	public static BinTable load(final Map<CreditCardType, Path> files) throws IOException {
+
+		BinRanges ranges = new BinRanges();
+
+		for (Map.Entry<CreditCardType, Path> file : files.entrySet()) {
+			try (BufferedReader reader = Files.newBufferedReader(file.getValue(), StandardCharsets.UTF_8)) {
+				ranges.read(reader, file.getKey(), file.getValue().toString());
+			}
+		}
+		return ranges.build();
+	}
+
+	/**
+	 * Reads a BIN file.
+	 *
+	 * @param reader the reader of the file, it is not closed
+	 * @param defaultType the type of the lines without type, null if every line must have one
+	 * @return the table
+	 * @throws IOException if the file cannot be read
+	 * @throws IllegalArgumentException if a line is not valid
+	 */
+	public static BinTable read(final Reader reader, final CreditCardType defaultType) throws IOException {
+
+		BinRanges ranges = new BinRanges();
+
+		ranges.read(reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader),
+				defaultType, "reader");
+
+		return ranges.build();
+	}
+
+	/* (non-Javadoc)
+	 * @see com.pagosonline.ccutils.bin.BinLookup#findCreditCardType(long)
+	 */
+	@Override
+	public CreditCardType findCreditCardType(final long bin) {
+
+		int index = indexOf(bin);
+
+		return index < 0 ? null : BinRanges.type(types[index]);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.pagosonline.ccutils.bin.BinMetadataLookup#indexOf(long)
+	 */
+	@Override
+	public int indexOf(final long bin) {
+
+		int low = 0;
+		int high = starts.length - 1;
+
+		// the last range starting at or before the BIN
+		while (low <= high) {
+
+			int middle = (low + high) >>> 1;
+
+			if (starts[middle] <= bin) {
+				low = middle + 1;
+			} else {
+				high = middle - 1;
+			}
+		}
+
+		return high >= 0 && bin <= ends[high] ? high : -1;
+	}
+
+	/**
+	 * Gets the number of ranges.
+	 *
+	 * @return the number of ranges
+	 */
+	public int size() {
+		return starts.length;
+	}
+
+	/**
+	 * Gets the first BIN of a range.
+	 *
+	 * @param index the index of the range
+	 * @return the BIN
+	 */
+	public long getStart(final int index) {
+		return starts[index];
+	}
+
+	/**
+	 * Gets the last BIN of a range.
+	 *
+	 * @param index the index of the range
+	 * @return the BIN
+	 */
+	public long getEnd(final int index) {
+		return ends[index];
+	}
+
+	/* (non-Javadoc)
+	 * @see com.pagosonline.ccutils.bin.BinMetadataLookup#getType(int)
+	 */
+	@Override
+	public CreditCardType getType(final int index) {
+		return BinRanges.type(types[index]);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.pagosonline.ccutils.bin.BinMetadataLookup#getCountry(int)
+	 */
+	@Override
+	public String getCountry(final int index) {
+
+		int country = countries[index];
+
+		return country < 0 ? null : countryCodes[country];
+	}
+
+	/* (non-Javadoc)
+	 * @see com.pagosonline.ccutils.bin.BinMetadataLookup#getFundingType(int)
+	 */
+	@Override
+	public FundingType getFundingType(final int index) {
+		return BinRanges.funding(fundings[index]);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.pagosonline.ccutils.bin.BinMetadataLookup#getProductTier(int)
+	 */
+	@Override
+	public ProductTier getProductTier(final int index) {
+		return BinRanges.tier(tiers[index]);
+	}
+
+	/**
+	 * Gets the issuer country codes, indexed as {@link #getCountryIndex(int)}.
+	 *
+	 * @return a copy of the country codes
+	 */
+	String[] getCountryCodes() {
+		return countryCodes.clone();
+	}
+
+	/**
+	 * Gets the issuer country index of a range.
+	 *
+	 * @param index the index of the range
+	 * @return the index in {@link #getCountryCodes()}, -1 if not known
+	 */
+	int getCountryIndex(final int index) {
+		return countries[index];
+	}
+}
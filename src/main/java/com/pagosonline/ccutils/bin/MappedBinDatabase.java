@@ -0,0 +1,307 @@
+package com.pagosonline.ccutils.bin;
+
+import java.io.IOException;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+
+import com.pagosonline.ccutils.model.CreditCardType;
+import com.pagosonline.ccutils.model.FundingType;
+import com.pagosonline.ccutils.model.ProductTier;
+
+/**
+ * A binary BIN database, written by {@link BinDatabaseCompiler}, memory mapped and searched in
+ * place. Opening it does not copy the records to the heap, so all the JVMs of a host share the
+ * page cache copy of the file.
+ *
+ * @since 4.9.5
+ */
+public final class MappedBinDatabase implements BinMetadataLookup {
+
+	/** The mapped file. */
+	private final ByteBuffer buffer;
+
+	/** The types by index in the type dictionary, null if not known by this version. */
+	private final CreditCardType[] types;
+
+	/** The country codes by index in the country dictionary. */
+	private final String[] countries;
+
+	/** True if the records have metadata. */
+	private final boolean metadata;
+
+	/** The number of records. */
+	private final int count;
+
+	/** The offset of the first record. */
+	private final int recordsOffset;
+
+	/** The record width. */
+	private final int recordWidth;
+
+	/** The format version. */
+	private final int version;
+
+	/** The creation time in milliseconds. */
+	private final long created;
+
+	/**
+	 * Instantiates a new mapped BIN database, checking its header and checksum.
+	 *
+	 * @param buffer the mapped file
+	 * @param source the name of the file, used by the error messages
+	 * @throws IOException if the file is not a valid BIN database
+	 */
+	private MappedBinDatabase(ByteBuffer buffer, String source) throws IOException {
+
+		if (buffer.capacity() < BinDatabaseFormat.HEADER_LENGTH || buffer.getInt(0) != BinDatabaseFormat.MAGIC) {
+			throw new IOException(source + " is not a BIN database");
+		}
+
+		this.buffer = buffer;
+		this.version = buffer.getShort(BinDatabaseFormat.VERSION_OFFSET);
+		this.recordWidth = buffer.getShort(BinDatabaseFormat.RECORD_WIDTH_OFFSET);
+		this.count = buffer.getInt(BinDatabaseFormat.COUNT_OFFSET);
+		this.recordsOffset = buffer.getInt(BinDatabaseFormat.RECORDS_OFFSET);
+		this.created = buffer.getLong(BinDatabaseFormat.CREATED_OFFSET);
+
+		if (version > BinDatabaseFormat.VERSION) {
+			throw new IOException(source + " has the unsupported version " + version);
+		}
+		if (recordWidth < BinDatabaseFormat.MIN_RECORD_WIDTH || count < 0 || recordsOffset < BinDatabaseFormat.HEADER_LENGTH
+				|| (long) recordsOffset + (long) count * recordWidth != buffer.capacity()) {
+			throw new IOException(source + " is truncated or corrupt");
+		}
+		if (checksum(buffer) != buffer.getInt(BinDatabaseFormat.CRC_OFFSET)) {
+			throw new IOException(source + " has a wrong checksum");
+		}
+
+		this.metadata = version >= BinDatabaseFormat.METADATA_VERSION
+				&& recordWidth >= BinDatabaseFormat.MIN_METADATA_RECORD_WIDTH;
+
+		String[] typeNames = readDictionary(buffer, BinDatabaseFormat.HEADER_LENGTH);
+
+		// 256 entries, so any type byte can be resolved
+		this.types = new CreditCardType[256];
+
+		for (int i = 0; i < typeNames.length && i < types.length; i++) {
+			types[i] = CreditCardType.fromString(typeNames[i]);
+		}
+
+		this.countries = version >= BinDatabaseFormat.METADATA_VERSION
+				? readDictionary(buffer, skipDictionary(buffer, BinDatabaseFormat.HEADER_LENGTH)) : new String[0];
+	}
+
+	/**
+	 * Opens a BIN database file.
+	 *
+	 * @param file the file
+	 * @return the database
+	 * @throws IOException if the file cannot be read or is not a valid BIN database
+	 */
+	public static MappedBinDatabase open(final Path file) throws IOException {
+
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+
+			if (channel.size() > Integer.MAX_VALUE) {
+				throw new IOException(file + " is too large");
+			}
+			// the mapping stays valid once the channel is closed
+			return new MappedBinDatabase(channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size()),
+					file.toString());
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see com.pagosonline.ccutils.bin.BinLookup#findCreditCardType(long)
+	 */
+	@Override
+	public CreditCardType findCreditCardType(final long bin) {
+
+		int index = indexOf(bin);
+
+		return index < 0 ? null : getType(index);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.pagosonline.ccutils.bin.BinMetadataLookup#indexOf(long)
+	 */
+	@Override
+	public int indexOf(final long bin) {
+
+		int low = 0;
+		int high = count - 1;
+
+		while (low <= high) {
+
+			int middle = (low + high) >>> 1;
+
+			if (buffer.getInt(recordsOffset + middle * recordWidth) <= bin) {
+				low = middle + 1;
+			} else {
+				high = middle - 1;
+			}
+		}
+
+		return high >= 0 && bin <= buffer.getInt(recordsOffset + high * recordWidth + BinDatabaseFormat.END_OFFSET)
+				? high : -1;
+	}
+
+	/**
+	 * Gets the number of records.
+	 *
+	 * @return the number of records
+	 */
+	public int size() {
+		return count;
+	}
+
+	/**
+	 * Gets the first BIN of a record.
+	 *
+	 * @param index the index of the record
+	 * @return the BIN
+	 */
+	public long getStart(final int index) {
+		return buffer.getInt(recordsOffset + index * recordWidth);
+	}
+
+	/**
+	 * Gets the last BIN of a record.
+	 *
+	 * @param index the index of the record
+	 * @return the BIN
+	 */
+	public long getEnd(final int index) {
+		return buffer.getInt(recordsOffset + index * recordWidth + BinDatabaseFormat.END_OFFSET);
+	}
+
+	/**
+	 * Gets the credit card type of a record.
+	 *
+	 * @param index the index of the record
+	 * @return the credit card type, null if the type is not known by this version
+	 */
+	@Override
+	public CreditCardType getType(final int index) {
+		return types[buffer.get(recordsOffset + index * recordWidth + BinDatabaseFormat.TYPE_OFFSET) & 0xFF];
+	}
+
+	/* (non-Javadoc)
+	 * @see com.pagosonline.ccutils.bin.BinMetadataLookup#getCountry(int)
+	 */
+	@Override
+	public String getCountry(final int index) {
+
+		if (!metadata) {
+			return null;
+		}
+
+		int country = buffer.getShort(recordsOffset + index * recordWidth + BinDatabaseFormat.COUNTRY_OFFSET);
+
+		return country < 0 || country >= countries.length ? null : countries[country];
+	}
+
+	/* (non-Javadoc)
+	 * @see com.pagosonline.ccutils.bin.BinMetadataLookup#getFundingType(int)
+	 */
+	@Override
+	public FundingType getFundingType(final int index) {
+
+		return metadata ? BinRanges.funding(buffer.get(recordsOffset + index * recordWidth
+				+ BinDatabaseFormat.FUNDING_OFFSET) & 0xFF) : FundingType.UNKNOWN;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.pagosonline.ccutils.bin.BinMetadataLookup#getProductTier(int)
+	 */
+	@Override
+	public ProductTier getProductTier(final int index) {
+
+		return metadata ? BinRanges.tier(buffer.get(recordsOffset + index * recordWidth
+				+ BinDatabaseFormat.TIER_OFFSET) & 0xFF) : ProductTier.UNKNOWN;
+	}
+
+	/**
+	 * Gets the format version of the file.
+	 *
+	 * @return the version
+	 */
+	public int getVersion() {
+		return version;
+	}
+
+	/**
+	 * Gets the time the file was compiled.
+	 *
+	 * @return the creation time in milliseconds
+	 */
+	public long getCreated() {
+		return created;
+	}
+
+	/**
+	 * Computes the checksum of the bytes after the header.
+	 *
+	 * @param buffer the mapped file
+	 * @return the checksum
+	 */
+	private static int checksum(ByteBuffer buffer) {
+
+		ByteBuffer content = buffer.duplicate();
+		((Buffer) content).position(BinDatabaseFormat.HEADER_LENGTH);
+
+		CRC32 crc = new CRC32();
+		crc.update(content);
+
+		return (int) crc.getValue();
+	}
+
+	/**
+	 * Reads a dictionary: its size and each name as a short length and UTF-8 bytes.
+	 *
+	 * @param buffer the mapped file
+	 * @param offset the offset of the dictionary
+	 * @return the names
+	 */
+	private static String[] readDictionary(ByteBuffer buffer, int offset) {
+
+		int position = offset;
+		String[] names = new String[buffer.getShort(position)];
+		position += 2;
+
+		for (int i = 0; i < names.length; i++) {
+
+			byte[] name = new byte[buffer.getShort(position)];
+			position += 2;
+
+			for (int j = 0; j < name.length; j++) {
+				name[j] = buffer.get(position + j);
+			}
+			position += name.length;
+			names[i] = new String(name, StandardCharsets.UTF_8);
+		}
+		return names;
+	}
+
+	/**
+	 * Finds the end of a dictionary.
+	 *
+	 * @param buffer the mapped file
+	 * @param offset the offset of the dictionary
+	 * @return the offset after the dictionary
+	 */
+	private static int skipDictionary(ByteBuffer buffer, int offset) {
+
+		int position = offset + 2;
+
+		for (int i = buffer.getShort(offset); i > 0; i--) {
+			position += 2 + buffer.getShort(position);
+		}
+		return position;
+	}
+}
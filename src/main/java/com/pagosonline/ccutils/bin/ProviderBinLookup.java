@@ -0,0 +1,526 @@
+package com.pagosonline.ccutils.bin;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.pagosonline.ccutils.model.CreditCardType;
+import com.pagosonline.ccutils.model.FundingType;
+import com.pagosonline.ccutils.model.ProductTier;
+
+/**
+ * A BIN lookup that asks a {@link BinProvider} and caches its answers.
+ *
+ * Concurrent lookups of the same BIN share a single provider request. The known BINs are cached for
+ * a time to live and the unknown ones, answered with null, for a usually shorter negative time to
+ * live. A lookup that is not answered within the timeout returns null, so the credit card validator
+ * falls back to the regular expressions of the types; the request goes on and its answer is cached
+ * for the next lookups. Until then {@link #getFallbackStamp(long)} keeps the fallback type of that
+ * BIN out of a {@link BinCache}, the types of the other BINs staying cached. Failed requests are not
+ * cached. A request the provider does not answer, or never answers, within a maximum age fails, so
+ * the later lookups of its BIN make a new request instead of waiting for it.
+ *
+ * The range indexes of {@link BinMetadataLookup} are the indexes of the distinct records, which
+ * never change.
+ *
+ * @since 4.9.5
+ */
+public final class ProviderBinLookup implements BinMetadataLookup {
+
+	/** The number of cached BINs above which the expired ones are dropped. */
+	private static final int MAX_ENTRIES = 1 << 20;
+
+	/** The default maximum age of a request, in timeouts. */
+	private static final int MAX_AGE_TIMEOUTS = 20;
+
+	/** The minimum default maximum age of a request, in nanoseconds. */
+	private static final long MIN_MAX_AGE = TimeUnit.SECONDS.toNanos(1);
+
+	/** The provider. */
+	private final BinProvider provider;
+
+	/** The time a lookup waits for the provider, in nanoseconds. */
+	private final long timeout;
+
+	/** The time a known BIN is cached, in nanoseconds. */
+	private final long ttl;
+
+	/** The time an unknown BIN is cached, in nanoseconds. */
+	private final long negativeTtl;
+
+	/** The time after which a request not answered fails, in nanoseconds. */
+	private final long maxAge;
+
+	/** The cached answers by BIN. */
+	private final Map<Long, Entry> cache = new ConcurrentHashMap<>();
+
+	/** The requests in flight by BIN. */
+	private final Map<Long, CompletableFuture<BinRecord>> inFlight = new ConcurrentHashMap<>();
+
+	/** The BINs whose lookup timed out while their request is in flight. */
+	private final Set<Long> timedOut = ConcurrentHashMap.newKeySet();
+
+	/** The index of each distinct record. */
+	private final Map<BinRecord, Integer> indexes = new ConcurrentHashMap<>();
+
+	/** The distinct records by index, copied on write. */
+	private volatile BinRecord[] records = new BinRecord[0];
+
+	/** The number of answers that came after their lookup timed out. */
+	private final AtomicLong lateAnswers = new AtomicLong();
+
+	/** The number of provider requests. */
+	private final LongAdder requests = new LongAdder();
+
+	/** The number of lookups that joined a request in flight. */
+	private final LongAdder coalesced = new LongAdder();
+
+	/** The number of lookups that timed out. */
+	private final LongAdder timeouts = new LongAdder();
+
+	/** The number of failed provider requests. */
+	private final LongAdder failures = new LongAdder();
+
+	/**
+	 * Instantiates a new provider BIN lookup whose requests fail after {@value #MAX_AGE_TIMEOUTS}
+	 * timeouts, and at least a second.
+	 *
+	 * @param provider the provider
+	 * @param timeout the time a lookup waits for the provider
+	 * @param ttl the time a known BIN is cached
+	 * @param negativeTtl the time an unknown BIN is cached
+	 * @param unit the unit of the times
+	 * @throws IllegalArgumentException if a time is negative
+	 */
+	public ProviderBinLookup(final BinProvider provider, final long timeout, final long ttl, final long negativeTtl,
+			final TimeUnit unit) {
+
+		this(provider, timeout, ttl, negativeTtl, defaultMaxAge(unit.toNanos(timeout)), TimeUnit.NANOSECONDS, unit);
+	}
+
+	/**
+	 * Instantiates a new provider BIN lookup.
+	 *
+	 * @param provider the provider
+	 * @param timeout the time a lookup waits for the provider
+	 * @param ttl the time a known BIN is cached
+	 * @param negativeTtl the time an unknown BIN is cached
+	 * @param maxAge the time after which a request not answered fails, at least the timeout
+	 * @param unit the unit of the times
+	 * @throws IllegalArgumentException if a time is negative or the maximum age shorter than the timeout
+	 */
+	public ProviderBinLookup(final BinProvider provider, final long timeout, final long ttl, final long negativeTtl,
+			final long maxAge, final TimeUnit unit) {
+
+		this(provider, timeout, ttl, negativeTtl, maxAge, unit, unit);
+	}
+
+	/**
+	 * Instantiates a new provider BIN lookup.
+	 *
+	 * @param provider the provider
+	 * @param timeout the time a lookup waits for the provider
+	 * @param ttl the time a known BIN is cached
+	 * @param negativeTtl the time an unknown BIN is cached
+	 * @param maxAge the time after which a request not answered fails
+	 * @param maxAgeUnit the unit of the maximum age
+	 * @param unit the unit of the other times
+	 */
+	private ProviderBinLookup(BinProvider provider, long timeout, long ttl, long negativeTtl, long maxAge,
+			TimeUnit maxAgeUnit, TimeUnit unit) {
+
+		if (timeout < 0 || ttl < 0 || negativeTtl < 0) {
+			throw new IllegalArgumentException("The times must not be negative");
+		}
+
+		if (maxAgeUnit.toNanos(maxAge) < unit.toNanos(timeout)) {
+			throw new IllegalArgumentException("The maximum age must not be shorter than the timeout");
+		}
+
+		this.provider = provider;
+		this.timeout = unit.toNanos(timeout);
+		this.ttl = unit.toNanos(ttl);
+		this.negativeTtl = unit.toNanos(negativeTtl);
+		this.maxAge = maxAgeUnit.toNanos(maxAge);
+	}
+
+	/**
+	 * Looks the attributes of a BIN up, from the cache or from the provider.
+	 *
+	 * @param bin the BIN, the first {@value #BIN_DIGITS} digits of a number
+	 * @return the future attributes, completed with null if the BIN is not known
+	 */
+	public CompletableFuture<BinRecord> lookup(final long bin) {
+
+		Entry entry = cache.get(bin);
+
+		if (entry != null && entry.expires - System.nanoTime() > 0) {
+			return CompletableFuture.completedFuture(entry.record);
+		}
+
+		CompletableFuture<BinRecord> request = new CompletableFuture<>();
+		CompletableFuture<BinRecord> existing = inFlight.putIfAbsent(bin, request);
+
+		if (existing != null) {
+			coalesced.increment();
+			return existing;
+		}
+
+		requests.increment();
+
+		CompletableFuture<BinRecord> answer;
+
+		try {
+			answer = provider.lookup(bin);
+
+			if (answer == null) {
+				throw new IllegalStateException("The BIN provider returned no answer");
+			}
+		} catch (RuntimeException e) {
+			answer = new CompletableFuture<>();
+			answer.completeExceptionally(e);
+		}
+
+		CompletableFuture<BinRecord> bounded = answer.isDone() ? answer : expiring(answer);
+
+		bounded.whenComplete((record, error) -> answered(bin, request, record, error));
+		return request;
+	}
+
+	/**
+	 * Returns a future completed with an answer, or failed after the maximum age if the answer
+	 * does not come by then.
+	 *
+	 * @param answer the answer of the provider
+	 * @return the future
+	 */
+	private CompletableFuture<BinRecord> expiring(final CompletableFuture<BinRecord> answer) {
+
+		CompletableFuture<BinRecord> expiring = new CompletableFuture<>();
+		ScheduledFuture<?> expiry = Expiry.SCHEDULER.schedule(() -> expiring.completeExceptionally(
+				new TimeoutException("The BIN provider did not answer in " + maxAge + " ns")), maxAge, TimeUnit.NANOSECONDS);
+
+		answer.whenComplete((record, error) -> {
+
+			expiry.cancel(false);
+
+			if (error == null) {
+				expiring.complete(record);
+			} else {
+				expiring.completeExceptionally(error);
+			}
+		});
+		return expiring;
+	}
+
+	/**
+	 * Returns the default maximum age of a request.
+	 *
+	 * @param timeout the timeout, in nanoseconds
+	 * @return the maximum age, in nanoseconds
+	 */
+	private static long defaultMaxAge(long timeout) {
+
+		return timeout > Long.MAX_VALUE / MAX_AGE_TIMEOUTS ? Long.MAX_VALUE
+				: Math.max(timeout * MAX_AGE_TIMEOUTS, MIN_MAX_AGE);
+	}
+
+	/**
+	 * Finds the attributes of a BIN, waiting for the provider at most the timeout.
+	 *
+	 * @param bin the BIN, the first {@value #BIN_DIGITS} digits of a number
+	 * @return the attributes, null if the BIN is not known, the provider failed or timed out
+	 */
+	public BinRecord find(final long bin) {
+
+		CompletableFuture<BinRecord> future = lookup(bin);
+
+		try {
+			return future.isDone() ? future.get() : future.get(timeout, TimeUnit.NANOSECONDS);
+		} catch (TimeoutException e) {
+			timeouts.increment();
+			timedOut.add(bin);
+
+			// the answer may have come in between, then it may not have seen the BIN timed out
+			if (future.isDone()) {
+				lateAnswer(bin);
+			}
+			return null;
+		} catch (ExecutionException e) {
+			return null;
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			return null;
+		}
+	}
+
+	/* (non-Javadoc)
+	 * @see com.pagosonline.ccutils.bin.BinLookup#findCreditCardType(long)
+	 */
+	@Override
+	public CreditCardType findCreditCardType(final long bin) {
+
+		BinRecord record = find(bin);
+
+		return record != null ? record.getType() : null;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.pagosonline.ccutils.bin.BinMetadataLookup#indexOf(long)
+	 */
+	@Override
+	public int indexOf(final long bin) {
+
+		BinRecord record = find(bin);
+
+		if (record == null) {
+			return -1;
+		}
+
+		Integer index = indexes.get(record);
+
+		return index != null ? index : add(record);
+	}
+
+	/* (non-Javadoc)
+	 * @see com.pagosonline.ccutils.bin.BinMetadataLookup#getType(int)
+	 */
+	@Override
+	public CreditCardType getType(final int index) {
+
+		return records[index].getType();
+	}
+
+	/* (non-Javadoc)
+	 * @see com.pagosonline.ccutils.bin.BinMetadataLookup#getCountry(int)
+	 */
+	@Override
+	public String getCountry(final int index) {
+
+		return records[index].getCountry();
+	}
+
+	/* (non-Javadoc)
+	 * @see com.pagosonline.ccutils.bin.BinMetadataLookup#getFundingType(int)
+	 */
+	@Override
+	public FundingType getFundingType(final int index) {
+
+		return records[index].getFundingType();
+	}
+
+	/* (non-Javadoc)
+	 * @see com.pagosonline.ccutils.bin.BinMetadataLookup#getProductTier(int)
+	 */
+	@Override
+	public ProductTier getProductTier(final int index) {
+
+		return records[index].getProductTier();
+	}
+
+	/**
+	 * Returns {@link #PENDING} while the lookup of a BIN timed out and its answer may still come, so
+	 * the type found with the fallback is not cached; the number of late answers otherwise.
+	 *
+	 * @param bin the BIN
+	 * @return the stamp
+	 */
+	@Override
+	public long getFallbackStamp(final long bin) {
+
+		return timedOut.contains(bin) ? PENDING : lateAnswers.get();
+	}
+
+	/**
+	 * Gets the number of provider requests.
+	 *
+	 * @return the requests
+	 */
+	public long getRequests() {
+
+		return requests.sum();
+	}
+
+	/**
+	 * Gets the number of lookups that joined a request in flight instead of making one.
+	 *
+	 * @return the coalesced lookups
+	 */
+	public long getCoalesced() {
+
+		return coalesced.sum();
+	}
+
+	/**
+	 * Gets the number of lookups that timed out and fell back.
+	 *
+	 * @return the timeouts
+	 */
+	public long getTimeouts() {
+
+		return timeouts.sum();
+	}
+
+	/**
+	 * Gets the number of failed provider requests, including the requests not answered within the
+	 * maximum age.
+	 *
+	 * @return the failures
+	 */
+	public long getFailures() {
+
+		return failures.sum();
+	}
+
+	/**
+	 * Caches the answer of a request and completes it.
+	 *
+	 * @param bin the BIN
+	 * @param request the request
+	 * @param record the attributes, null if the BIN is not known
+	 * @param error the error, null if the provider answered
+	 */
+	private void answered(final long bin, final CompletableFuture<BinRecord> request, final BinRecord record,
+			final Throwable error) {
+
+		if (error == null) {
+
+			if (cache.size() >= MAX_ENTRIES) {
+				purge();
+			}
+			cache.put(bin, new Entry(record, System.nanoTime() + (record != null ? ttl : negativeTtl)));
+		} else {
+			failures.increment();
+		}
+
+		inFlight.remove(bin, request);
+
+		// before the completion, so the lookups waiting for the answer see the BIN answered
+		if (timedOut.contains(bin)) {
+			lateAnswer(bin);
+		}
+
+		if (error == null) {
+			request.complete(record);
+		} else {
+			request.completeExceptionally(error);
+		}
+
+		// and after: a lookup timing out in between either sees the request done or is seen here
+		if (timedOut.contains(bin)) {
+			lateAnswer(bin);
+		}
+	}
+
+	/**
+	 * Records the late answer of a timed out lookup. The stamp changes before the BIN stops being
+	 * pending, so a lookup that sees the BIN answered also sees the new stamp.
+	 *
+	 * @param bin the BIN
+	 */
+	private void lateAnswer(final long bin) {
+
+		lateAnswers.incrementAndGet();
+		timedOut.remove(bin);
+	}
+
+	/**
+	 * Drops the expired answers, and all of them if there are still too many.
+	 */
+	private void purge() {
+
+		long now = System.nanoTime();
+
+		for (Iterator<Entry> entries = cache.values().iterator(); entries.hasNext();) {
+			if (entries.next().expires - now <= 0) {
+				entries.remove();
+			}
+		}
+
+		if (cache.size() >= MAX_ENTRIES) {
+			cache.clear();
+		}
+	}
+
+	/**
+	 * Adds a distinct record.
+	 *
+	 * @param record the record
+	 * @return the index of the record
+	 */
+	private synchronized int add(final BinRecord record) {
+
+		Integer index = indexes.get(record);
+
+		if (index == null) {
+
+			BinRecord[] added = Arrays.copyOf(records, records.length + 1);
+			added[records.length] = record;
+			records = added;
+
+			index = records.length - 1;
+			indexes.put(record, index);
+		}
+		return index;
+	}
+
+	/**
+	 * The scheduler of the expiry of the requests, started on first use.
+	 */
+	private static final class Expiry {
+
+		/** The scheduler, on a daemon thread, dropping the cancelled expiries. */
+		private static final ScheduledThreadPoolExecutor SCHEDULER = scheduler();
+
+		/**
+		 * Creates the scheduler.
+		 *
+		 * @return the scheduler
+		 */
+		private static ScheduledThreadPoolExecutor scheduler() {
+
+			ScheduledThreadPoolExecutor scheduler = new ScheduledThreadPoolExecutor(1, task -> {
+				Thread thread = new Thread(task, "bin-provider-expiry");
+				thread.setDaemon(true);
+				return thread;
+			});
+
+			scheduler.setRemoveOnCancelPolicy(true);
+			return scheduler;
+		}
+	}
+
+	/**
+	 * A cached answer.
+	 */
+	private static final class Entry {
+
+		/** The attributes, null if the BIN is not known. */
+		private final BinRecord record;
+
+		/** The expiration time, in {@link System#nanoTime()} nanoseconds. */
+		private final long expires;
+
+		/**
+		 * Instantiates a new entry.
+		 *
+		 * @param record the attributes, null if the BIN is not known
+		 * @param expires the expiration time
+		 */
+		Entry(BinRecord record, long expires) {
+
+			this.record = record;
+			this.expires = expires;
+		}
+	}
+}
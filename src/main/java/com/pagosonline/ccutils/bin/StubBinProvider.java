@@ -0,0 +1,94 @@
+package com.pagosonline.ccutils.bin;
+
+import java.io.Closeable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An in-process {@link BinProvider} answering from a {@link BinMetadataLookup} after a fixed
+ * latency, to test and load test a {@link ProviderBinLookup} without a BIN service.
+ *
+ * @since 4.9.5
+ */
+public final class StubBinProvider implements BinProvider, Closeable {
+
+	/** The data of the answers. */
+	private final BinMetadataLookup data;
+
+	/** The latency of the answers, in nanoseconds. */
+	private final long latency;
+
+	/** The executor completing the answers after the latency, null without latency. */
+	private final ScheduledExecutorService scheduler;
+
+	/** The number of lookups. */
+	private final LongAdder requests = new LongAdder();
+
+	/**
+	 * Instantiates a new stub BIN provider.
+	 *
+	 * @param data the data of the answers, for example a {@link BinTable}
+	 * @param latency the latency of the answers, 0 to answer at once
+	 * @param unit the unit of the latency
+	 * @throws IllegalArgumentException if the latency is negative
+	 */
+	public StubBinProvider(final BinMetadataLookup data, final long latency, final TimeUnit unit) {
+
+		if (latency < 0) {
+			throw new IllegalArgumentException("The latency must not be negative: " + latency);
+		}
+
+		this.data = data;
+		this.latency = unit.toNanos(latency);
+		this.scheduler = latency > 0 ? Executors.newSingleThreadScheduledExecutor(task -> {
+			Thread thread = new Thread(task, "stub-bin-provider");
+			thread.setDaemon(true);
+			return thread;
+		}) : null;
+	}
+
+	/* (non-Javadoc)
+	 * @see com.pagosonline.ccutils.bin.BinProvider#lookup(long)
+	 */
+	@Override
+	public CompletableFuture<BinRecord> lookup(final long bin) {
+
+		requests.increment();
+
+		int index = data.indexOf(bin);
+		BinRecord record = index < 0 ? null : new BinRecord(data.getType(index), data.getCountry(index),
+				data.getFundingType(index), data.getProductTier(index));
+
+		if (scheduler == null) {
+			return CompletableFuture.completedFuture(record);
+		}
+
+		CompletableFuture<BinRecord> answer = new CompletableFuture<>();
+		scheduler.schedule(() -> answer.complete(record), latency, TimeUnit.NANOSECONDS);
+		return answer;
+	}
+
+	/**
+	 * Gets the number of lookups.
+	 *
+	 * @return the lookups
+	 */
+	public long getRequests() {
+
+		return requests.sum();
+	}
+
+	/**
+	 * Stops answering, the pending answers are never completed.
+	 */
+	@Override
+	public void close() {
+
+		if (scheduler != null) {
+			scheduler.shutdownNow();
+		}
+	}
+}
@@ -0,0 +1,151 @@
+package com.pagosonline.ccutils.bulk;
+
+import java.util.Arrays;
+
+import com.pagosonline.ccutils.model.CreditCardType;
+import com.pagosonline.ccutils.validators.CreditCardValidationCode;
+
+/**
+ * The result of scanning a file of card numbers: the number of records by type and the offset
+ * and validation code of every invalid record, in file order.
+ *
+ * @since 4.9.5
+ */
+public final class PanFileReport {
+
+	/** The validation codes, to resolve the ordinals. */
+	private static final CreditCardValidationCode[] CODES = CreditCardValidationCode.values();
+
+	/** The number of records. */
+	private long records;
+
+	/** The number of records by type ordinal. */
+	private final long[] typeCounts = new long[CreditCardType.values().length];
+
+	/** The file offset of each invalid record. */
+	private long[] invalidOffsets = new long[16];
+
+	/** The validation code ordinal of each invalid record. */
+	private byte[] invalidCodes = new byte[16];
+
+	/** The number of invalid records. */
+	private int invalid;
+
+	/**
+	 * Instantiates an empty report.
+	 */
+	PanFileReport() {
+	}
+
+	/**
+	 * Gets the number of records.
+	 *
+	 * @return the number of records
+	 */
+	public long getRecords() {
+		return records;
+	}
+
+	/**
+	 * Gets the number of valid records.
+	 *
+	 * @return the number of valid records
+	 */
+	public long getValid() {
+		return records - invalid;
+	}
+
+	/**
+	 * Gets the number of invalid records.
+	 *
+	 * @return the number of invalid records
+	 */
+	public int getInvalid() {
+		return invalid;
+	}
+
+	/**
+	 * Gets the number of records of a type.
+	 *
+	 * @param type the credit card type
+	 * @return the number of records
+	 */
+	public long getCount(final CreditCardType type) {
+		return typeCounts[type.ordinal()];
+	}
+
+	/**
+	 * Gets the file offset of an invalid record.
+	 *
+	 * @param index the index of the invalid record
+	 * @return the offset of the first byte of the record
+	 */
+	public long getInvalidOffset(final int index) {
+		return invalidOffsets[index];
+	}
+
+	/**
+	 * Gets the validation code of an invalid record.
+	 *
+	 * @param index the index of the invalid record
+	 * @return the validation code
+	 */
+	public CreditCardValidationCode getInvalidCode(final int index) {
+		return CODES[invalidCodes[index]];
+	}
+
+	/**
+	 * Gets the file offsets of the invalid records.
+	 *
+	 * @return a copy of the offsets
+	 */
+	public long[] getInvalidOffsets() {
+		return Arrays.copyOf(invalidOffsets, invalid);
+	}
+
+	/**
+	 * Records a scanned record.
+	 *
+	 * @param offset the file offset of the record
+	 * @param type the credit card type
+	 * @param code the validation code
+	 */
+	void add(long offset, CreditCardType type, CreditCardValidationCode code) {
+
+		records++;
+		typeCounts[type.ordinal()]++;
+
+		if (!code.isValid()) {
+
+			if (invalid == invalidOffsets.length) {
+				invalidOffsets = Arrays.copyOf(invalidOffsets, invalid * 2);
+				invalidCodes = Arrays.copyOf(invalidCodes, invalid * 2);
+			}
+			invalidOffsets[invalid] = offset;
+			invalidCodes[invalid] = (byte) code.ordinal();
+			invalid++;
+		}
+	}
+
+	/**
+	 * Appends the records of a report of a later region of the file.
+	 *
+	 * @param other the report
+	 */
+	void append(PanFileReport other) {
+
+		records += other.records;
+
+		for (int i = 0; i < typeCounts.length; i++) {
+			typeCounts[i] += other.typeCounts[i];
+		}
+
+		if (invalid + other.invalid > invalidOffsets.length) {
+			invalidOffsets = Arrays.copyOf(invalidOffsets, invalid + other.invalid);
+			invalidCodes = Arrays.copyOf(invalidCodes, invalid + other.invalid);
+		}
+		System.arraycopy(other.invalidOffsets, 0, invalidOffsets, invalid, other.invalid);
+		System.arraycopy(other.invalidCodes, 0, invalidCodes, invalid, other.invalid);
+		invalid += other.invalid;
+	}
+}
@@ -0,0 +1,465 @@
+package com.pagosonline.ccutils.bulk;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.Buffer;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+import com.pagosonline.ccutils.format.MaskingPolicy;
+import com.pagosonline.ccutils.model.CreditCardType;
+import com.pagosonline.ccutils.validators.CreditCardValidationCode;
+import com.pagosonline.ccutils.validators.CreditCardValidator;
+import com.pagosonline.ccutils.validators.CreditCardValidatorDelegate;
+
+/**
+ * Classifies and validates the card numbers of a newline delimited or CSV file.
+ *
+ * The file is split on line boundaries into chunks that are memory mapped and scanned in parallel
+ * on a {@link ForkJoinPool}. The records are validated straight from the mapped bytes, so no
+ * {@link String} is created per record. The numbers must be ASCII digits, optionally surrounded
+ * by whitespace or double quotes.
+ *
+ * @since 4.9.5
+ */
+public final class PanFileScanner {
+
+	/** The default size of the chunks mapped at once: 64MB. */
+	public static final int DEFAULT_CHUNK_SIZE = 64 * 1024 * 1024;
+
+	/** The size of the reads done to find the line boundaries. */
+	private static final int READ_SIZE = 8192;
+
+	/** The validator. */
+	private final CreditCardValidatorDelegate validator;
+
+	/** The index of the column holding the number, 0 based. */
+	private final int column;
+
+	/** The column delimiter. */
+	private final byte delimiter;
+
+	/** True if the first line is a header. */
+	private final boolean skipHeader;
+
+	/** The size of the chunks mapped at once. */
+	private final int chunkSize;
+
+	/** The pool that scans the chunks, null for the common pool. */
+	private final ForkJoinPool pool;
+
+	/**
+	 * Instantiates a scanner of files with one number per line, using the default validator.
+	 */
+	public PanFileScanner() {
+		this(CreditCardValidator.VALIDATOR, 0, (byte) ',', false, DEFAULT_CHUNK_SIZE, null);
+	}
+
+	/**
+	 * Instantiates a new scanner.
+	 *
+	 * @param validator the validator
+	 * @param column the index of the column holding the number, 0 based
+	 * @param delimiter the column delimiter, an ASCII character
+	 * @param skipHeader true if the first line is a header
+	 * @param chunkSize the size of the chunks mapped at once
+	 * @param pool the pool that scans the chunks, the common pool if null
+	 */
+	public PanFileScanner(final CreditCardValidatorDelegate validator, final int column, final byte delimiter,
+			final boolean skipHeader, final int chunkSize, final ForkJoinPool pool) {
+
+		if (validator == null) {
+			throw new IllegalArgumentException("the validator cannot be null");
+		}
+		if (column < 0) {
+			throw new IllegalArgumentException("the column cannot be negative");
+		}
+		if (delimiter < 0 || delimiter == '\n' || delimiter == '\r') {
+			throw new IllegalArgumentException("the delimiter must be an ASCII character other than a line break");
+		}
+		if (chunkSize <= 0) {
+			throw new IllegalArgumentException("the chunk size must be positive");
+		}
+
+		this.validator = validator;
+		this.column = column;
+		this.delimiter = delimiter;
+		this.skipHeader = skipHeader;
+		this.chunkSize = chunkSize;
+		this.pool = pool;
+	}
+
+	/**
+	 * Scans a file. Empty lines are skipped.
+	 *
+	 * @param file the file
+	 * @return the number of records by type and the invalid records
+	 * @throws IOException if the file cannot be read
+	 */
+	public PanFileReport scan(final Path file) throws IOException {
+
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+
+			long size = channel.size();
+			long start = skipHeader ? nextLine(channel, 0, size) : 0;
+			List<long[]> chunks = new ArrayList<>();
+
+			while (start < size) {
+
+				long end = start + chunkSize < size ? nextLine(channel, start + chunkSize - 1, size) : size;
+
+				if (end - start > Integer.MAX_VALUE) {
+					throw new IOException("line too long at offset " + start);
+				}
+				chunks.add(new long[] { start, end });
+				start = end;
+			}
+
+			if (chunks.isEmpty()) {
+				return new PanFileReport();
+			}
+
+			ForkJoinPool executor = pool != null ? pool : ForkJoinPool.commonPool();
+
+			try {
+				return executor.invoke(new ChunkTask(channel, chunks, 0, chunks.size()));
+			} catch (UncheckedIOException e) {
+				throw e.getCause();
+			}
+		}
+	}
+
+	/**
+	 * Writes the invalid records of a report as CSV lines with the record offset, the number masked
+	 * by {@link MaskingPolicy#FIRST6_LAST4} and the validation code.
+	 *
+	 * @param file the scanned file
+	 * @param report the report of the file
+	 * @param out where the lines are written
+	 * @throws IOException if the file cannot be read or the lines cannot be written
+	 */
+	public void writeErrorReport(final Path file, final PanFileReport report, final Appendable out)
+			throws IOException {
+
+		writeErrorReport(file, report, MaskingPolicy.FIRST6_LAST4, out);
+	}
+
+	/**
+	 * Writes the invalid records of a report as CSV lines with the record offset, the number masked
+	 * by a policy and the validation code.
+	 *
+	 * @param file the scanned file
+	 * @param report the report of the file
+	 * @param policy the masking policy
+	 * @param out where the lines are written
+	 * @throws IOException if the file cannot be read or the lines cannot be written
+	 */
+	public void writeErrorReport(final Path file, final PanFileReport report, final MaskingPolicy policy,
+			final Appendable out) throws IOException {
+
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+
+			long size = channel.size();
+			ByteBuffer line = ByteBuffer.allocate(READ_SIZE);
+
+			for (int i = 0; i < report.getInvalid(); i++) {
+
+				long offset = report.getInvalidOffset(i);
+				int length = (int) Math.min(nextLine(channel, offset, size) - offset, Integer.MAX_VALUE);
+
+				if (line.capacity() < length) {
+					line = ByteBuffer.allocate(length);
+				}
+				// through Buffer, the ByteBuffer overrides do not exist on Java 8
+				((Buffer) line).clear().limit(length);
+
+				while (line.hasRemaining() && channel.read(line, offset + line.position()) >= 0) {
+					// reads the whole line
+				}
+
+				int end = lineEnd(line, 0, line.position());
+				long field = selectField(line, 0, end);
+
+				int from = (int) (field >>> 32);
+				int to = (int) field;
+
+				policy.mask(line.array(), from, to, line.array(), from);
+
+				out.append(Long.toString(offset)).append(',');
+				for (int j = from; j < to; j++) {
+					char value = (char) (line.get(j) & 0xFF);
+					out.append(value >= ' ' && value < 0x7F ? value : '?');
+				}
+				out.append(',').append(report.getInvalidCode(i).name()).append('\n');
+			}
+		}
+	}
+
+	/**
+	 * Scans the files given in the command line and prints the number of records by type.
+	 *
+	 * Usage: {@code PanFileScanner [--column N] [--delimiter C] [--skip-header] [--errors FILE] FILE}
+	 *
+	 * @param args the command line arguments
+	 * @throws IOException if the files cannot be read or written
+	 */
+	public static void main(final String[] args) throws IOException {
+
+		int column = 0;
+		byte delimiter = ',';
+		boolean skipHeader = false;
+		Path errors = null;
+		Path file = null;
+
+		for (int i = 0; i < args.length; i++) {
+
+			if ("--column".equals(args[i]) && i + 1 < args.length) {
+				column = Integer.parseInt(args[++i]);
+			} else if ("--delimiter".equals(args[i]) && i + 1 < args.length) {
+				delimiter = "\\t".equals(args[++i]) ? (byte) '\t' : (byte) args[i].charAt(0);
+			} else if ("--skip-header".equals(args[i])) {
+				skipHeader = true;
+			} else if ("--errors".equals(args[i]) && i + 1 < args.length) {
+				errors = Paths.get(args[++i]);
+			} else if (file == null && !args[i].startsWith("--")) {
+				file = Paths.get(args[i]);
+			} else {
+				file = null;
+				break;
+			}
+		}
+
+		if (file == null) {
+			System.err.println("Usage: PanFileScanner [--column N] [--delimiter C] [--skip-header]"
+					+ " [--errors FILE] FILE");
+			System.exit(2);
+			return;
+		}
+
+		PanFileScanner scanner = new PanFileScanner(CreditCardValidator.VALIDATOR, column, delimiter, skipHeader,
+				DEFAULT_CHUNK_SIZE, null);
+		PanFileReport report = scanner.scan(file);
+
+		System.out.println("records: " + report.getRecords());
+		System.out.println("valid: " + report.getValid());
+		System.out.println("invalid: " + report.getInvalid());
+
+		for (CreditCardType type : CreditCardType.values()) {
+			if (report.getCount(type) > 0) {
+				System.out.println(type + ": " + report.getCount(type));
+			}
+		}
+
+		if (errors != null) {
+			try (Writer writer = Files.newBufferedWriter(errors, StandardCharsets.US_ASCII)) {
+				scanner.writeErrorReport(file, report, writer);
+			}
+		}
+	}
+
+	/**
+	 * Scans the records of a mapped chunk.
+	 *
+	 * @param buffer the chunk
+	 * @param chunkStart the file offset of the chunk
+	 * @return the report of the chunk
+	 */
+	PanFileReport scan(final ByteBuffer buffer, final long chunkStart) {
+
+		PanFileReport report = new PanFileReport();
+		int limit = buffer.limit();
+		int lineStart = 0;
+
+		while (lineStart < limit) {
+
+			int newline = lineStart;
+
+			while (newline < limit && buffer.get(newline) != '\n') {
+				newline++;
+			}
+
+			int end = lineEnd(buffer, lineStart, newline);
+
+			if (end > lineStart) {
+
+				long field = selectField(buffer, lineStart, end);
+				int from = (int) (field >>> 32);
+				int to = (int) field;
+
+				CreditCardType type = validator.findCreditCardType(buffer, from, to);
+				CreditCardValidationCode code = validator.checkNumber(buffer, from, to, type);
+
+				report.add(chunkStart + lineStart, type, code);
+			}
+			lineStart = newline + 1;
+		}
+		return report;
+	}
+
+	/**
+	 * Finds the bounds of the number in a line: the configured column without surrounding whitespace
+	 * or double quotes. A missing column gives an empty region.
+	 *
+	 * @param buffer the buffer
+	 * @param from the index of the first byte of the line
+	 * @param to the index of the end of the line, without the line break
+	 * @return the first index of the number in the high int and its last index, exclusive, in the low int
+	 */
+	private long selectField(ByteBuffer buffer, int from, int to) {
+
+		int start = from;
+
+		for (int i = 0; i < column && start <= to; i++) {
+			while (start < to && buffer.get(start) != delimiter) {
+				start++;
+			}
+			start++;
+		}
+
+		if (start > to) {
+			return (long) to << 32 | to;
+		}
+
+		int end = start;
+
+		while (end < to && buffer.get(end) != delimiter) {
+			end++;
+		}
+		while (start < end && isPadding(buffer.get(start))) {
+			start++;
+		}
+		while (end > start && isPadding(buffer.get(end - 1))) {
+			end--;
+		}
+		return (long) start << 32 | end;
+	}
+
+	/**
+	 * Checks if a byte surrounds a number: whitespace or a double quote.
+	 *
+	 * @param value the byte
+	 * @return true if the byte is padding
+	 */
+	private static boolean isPadding(byte value) {
+		return value == '"' || (value <= ' ' && value >= 0);
+	}
+
+	/**
+	 * Removes the carriage return of a line ended by CRLF.
+	 *
+	 * @param buffer the buffer
+	 * @param from the index of the first byte of the line
+	 * @param to the index of the line feed or the end of the buffer
+	 * @return the end of the line
+	 */
+	private static int lineEnd(ByteBuffer buffer, int from, int to) {
+		return to > from && buffer.get(to - 1) == '\r' ? to - 1 : to;
+	}
+
+	/**
+	 * Finds the start of the line after a position.
+	 *
+	 * @param channel the file channel
+	 * @param position the position
+	 * @param size the file size
+	 * @return the offset after the first line feed at or after the position, the file size if none
+	 * @throws IOException if the file cannot be read
+	 */
+	private static long nextLine(FileChannel channel, long position, long size) throws IOException {
+
+		ByteBuffer buffer = ByteBuffer.allocate(READ_SIZE);
+		long offset = position;
+
+		while (offset < size) {
+
+			((Buffer) buffer).clear();
+			int read = channel.read(buffer, offset);
+
+			if (read < 0) {
+				break;
+			}
+			for (int i = 0; i < read; i++) {
+				if (buffer.get(i) == '\n') {
+					return offset + i + 1;
+				}
+			}
+			offset += read;
+		}
+		return size;
+	}
+
+	/**
+	 * Fork/join task that maps and scans a range of chunks, splitting it in halves until a
+	 * single chunk is left.
+	 */
+	private final class ChunkTask extends RecursiveTask<PanFileReport> {
+
+		/** The serial version UID. */
+		private static final long serialVersionUID = -2806512399617345713L;
+
+		/** The file channel. */
+		private final transient FileChannel channel;
+
+		/** The offsets of the start and end of each chunk. */
+		private final transient List<long[]> chunks;
+
+		/** The first chunk of the range, inclusive. */
+		private final int from;
+
+		/** The last chunk of the range, exclusive. */
+		private final int to;
+
+		/**
+		 * Instantiates a new chunk task.
+		 *
+		 * @param channel the file channel
+		 * @param chunks the offsets of the start and end of each chunk
+		 * @param from the first chunk of the range, inclusive
+		 * @param to the last chunk of the range, exclusive
+		 */
+		ChunkTask(FileChannel channel, List<long[]> chunks, int from, int to) {
+
+			this.channel = channel;
+			this.chunks = chunks;
+			this.from = from;
+			this.to = to;
+		}
+
+		/* (non-Javadoc)
+		 * @see java.util.concurrent.RecursiveTask#compute()
+		 */
+		@Override
+		protected PanFileReport compute() {
+
+			if (to - from == 1) {
+
+				long[] chunk = chunks.get(from);
+
+				try {
+					return scan(channel.map(FileChannel.MapMode.READ_ONLY, chunk[0], chunk[1] - chunk[0]), chunk[0]);
+				} catch (IOException e) {
+					throw new UncheckedIOException(e);
+				}
+			}
+
+			int middle = (from + to) >>> 1;
+			ChunkTask right = new ChunkTask(channel, chunks, middle, to);
+
+			right.fork();
+			PanFileReport report = new ChunkTask(channel, chunks, from, middle).compute();
+			report.append(right.join());
+
+			return report;
+		}
+	}
+}
@@ -1,5 +1,7 @@
 package com.pagosonline.ccutils.format;
 
+import java.nio.CharBuffer;
+
 import org.apache.commons.lang3.StringUtils;
 
 
@@ -14,15 +16,11 @@ public final class CreditCardFormatUtils {
 	 */
 	private CreditCardFormatUtils(){}
 	
-	private static final int FIRST_VISIBLE_DIGITS = 6;
-	private static final int LAST_VISIBLE_DIGITS = 4;
-	
 	/**
 	 * Masks a credit card number.
-	 * If the number length is less or equals than (FIRST_VISIBLE_DIGITS + LAST_VISIBLE_DIGITS), 
-	 * it returns the same number, if the number length is greater than 
-	 * (FIRST_VISIBLE_DIGITS + LAST_VISIBLE_DIGITS), it masks with '*' character, all digits between
-	 * the FIRST_VISIBLE_DIGITS and the LAST_VISIBLE_DIGITS.
+	 * If the number length is less or equals than 10, it returns the same number, if the number
+	 * length is greater than 10, it masks with '*' character, all digits between the first 6 and
+	 * the last 4 digits, as {@link MaskingPolicy#FIRST6_LAST4} does.
 	 * 
 	 * For example:
 	 * Input: 1234		Output: 1234
@@ -33,23 +31,41 @@ public final class CreditCardFormatUtils {
 	 */
 	public static String mask(String number) {
 	
+		return mask((CharSequence) number);
+	}
+	
+	/**
+	 * Masks a credit card number held in a character sequence, as {@link #mask(String)} does.
+	 * 
+	 * @param number the number to mask.
+	 * @return the masked number.
+	 * @since 4.9.5
+	 */
+	public static String mask(CharSequence number) {
+	
 		if (StringUtils.isBlank(number)) {
 			throw new IllegalArgumentException("the number cannot be null or empty");
 		}
 		
-		int numbersToMask = number.length() - (FIRST_VISIBLE_DIGITS + LAST_VISIBLE_DIGITS);
-		
-		if (numbersToMask <= 0) {
-			return number;
-		}
-		
-		StringBuilder maskedNumber = new StringBuilder(number.substring(0, FIRST_VISIBLE_DIGITS));
-		
-		for (int i = 0; i < numbersToMask; i++) {
-			maskedNumber.append('*');
+		return MaskingPolicy.FIRST6_LAST4.mask(number);
+	}
+	
+	/**
+	 * Masks a credit card number held in a region of a character array, as {@link #mask(String)}
+	 * does. Only the masked number is copied, so the array can be wiped afterwards.
+	 * 
+	 * @param number the array holding the number.
+	 * @param offset the index of the first character of the number.
+	 * @param length the number length.
+	 * @return the masked number.
+	 * @since 4.9.5
+	 */
+	public static String mask(char[] number, int offset, int length) {
+	
+		if (number == null) {
+			throw new IllegalArgumentException("the number cannot be null or empty");
 		}
-		maskedNumber.append(number.substring(number.length() - LAST_VISIBLE_DIGITS));
 		
-		return maskedNumber.toString();
+		return mask(CharBuffer.wrap(number, offset, length));
 	}
 }
@@ -0,0 +1,83 @@
+package com.pagosonline.ccutils.format;
+
+/**
+ * A masked view of a credit card number, masking each character when it is read.
+ *
+ * @since 4.9.5
+ */
+final class MaskedCharSequence implements CharSequence {
+
+	/** The masking policy. */
+	private final MaskingPolicy policy;
+
+	/** The whole number. */
+	private final CharSequence number;
+
+	/** The index of the first character of the view in the number, inclusive. */
+	private final int from;
+
+	/** The index of the last character of the view in the number, exclusive. */
+	private final int to;
+
+	/**
+	 * Instantiates a new masked view.
+	 *
+	 * @param policy the masking policy
+	 * @param number the whole number
+	 * @param from the index of the first character of the view in the number, inclusive
+	 * @param to the index of the last character of the view in the number, exclusive
+	 */
+	MaskedCharSequence(MaskingPolicy policy, CharSequence number, int from, int to) {
+
+		this.policy = policy;
+		this.number = number;
+		this.from = from;
+		this.to = to;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.CharSequence#length()
+	 */
+	@Override
+	public int length() {
+		return to - from;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.CharSequence#charAt(int)
+	 */
+	@Override
+	public char charAt(int index) {
+
+		if (index < 0 || index >= to - from) {
+			throw new IndexOutOfBoundsException("index: " + index + ", length: " + (to - from));
+		}
+		return policy.isMasked(from + index, number.length()) ? policy.getMaskChar() : number.charAt(from + index);
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.CharSequence#subSequence(int, int)
+	 */
+	@Override
+	public CharSequence subSequence(int start, int end) {
+
+		if (start < 0 || end > to - from || start > end) {
+			throw new IndexOutOfBoundsException("start: " + start + ", end: " + end + ", length: " + (to - from));
+		}
+		return new MaskedCharSequence(policy, number, from + start, from + end);
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+
+		char[] masked = new char[to - from];
+
+		for (int i = 0; i < masked.length; i++) {
+			masked[i] = charAt(i);
+		}
+		return new String(masked);
+	}
+}
@@ -0,0 +1,258 @@
+package com.pagosonline.ccutils.format;
+
+/**
+ * A compiled credit card number masking policy: the number of leading and trailing characters
+ * left visible and the character that replaces the others.
+ *
+ * Numbers not longer than the visible characters are left as they are, as
+ * {@link CreditCardFormatUtils#mask(String)} always did. The policies are immutable and write
+ * the masked number into buffers supplied by the caller, so masking does not allocate.
+ *
+ * @since 4.9.5
+ */
+public final class MaskingPolicy {
+
+	/** The first six and the last four digits visible. */
+	public static final MaskingPolicy FIRST6_LAST4 = new MaskingPolicy(6, 4, '*');
+
+	/** The first eight and the last four digits visible, for eight digit BINs. */
+	public static final MaskingPolicy FIRST8_LAST4 = new MaskingPolicy(8, 4, '*');
+
+	/** Only the last four digits visible. */
+	public static final MaskingPolicy LAST4 = new MaskingPolicy(0, 4, '*');
+
+	/** The character of a pattern that keeps a digit visible. */
+	private static final char VISIBLE = '#';
+
+	/** The number of leading characters left visible. */
+	private final int first;
+
+	/** The number of trailing characters left visible. */
+	private final int last;
+
+	/** The character that replaces the masked characters. */
+	private final char maskChar;
+
+	/**
+	 * Instantiates a new masking policy.
+	 *
+	 * @param first the number of leading characters left visible
+	 * @param last the number of trailing characters left visible
+	 * @param maskChar the character that replaces the masked characters, an ASCII character
+	 */
+	public MaskingPolicy(final int first, final int last, final char maskChar) {
+
+		if (first < 0 || last < 0) {
+			throw new IllegalArgumentException("the visible characters cannot be negative");
+		}
+		if (maskChar >= 0x80) {
+			throw new IllegalArgumentException("the mask character must be an ASCII character");
+		}
+
+		this.first = first;
+		this.last = last;
+		this.maskChar = maskChar;
+	}
+
+	/**
+	 * Compiles a masking pattern: the leading visible characters as '#', the mask character and the
+	 * trailing visible characters as '#'. For example "######*####" is {@link #FIRST6_LAST4} and
+	 * "X####" leaves the last four digits visible and masks the others with 'X'.
+	 *
+	 * @param pattern the pattern
+	 * @return the policy
+	 */
+	public static MaskingPolicy compile(final String pattern) {
+
+		if (pattern == null) {
+			throw new IllegalArgumentException("the masking pattern cannot be null");
+		}
+
+		int first = 0;
+
+		while (first < pattern.length() && pattern.charAt(first) == VISIBLE) {
+			first++;
+		}
+
+		if (first == pattern.length()) {
+			throw new IllegalArgumentException("the masking pattern must be like ######*####: " + pattern);
+		}
+		for (int i = first + 1; i < pattern.length(); i++) {
+			if (pattern.charAt(i) != VISIBLE) {
+				throw new IllegalArgumentException("the masking pattern must be like ######*####: " + pattern);
+			}
+		}
+
+		return new MaskingPolicy(first, pattern.length() - first - 1, pattern.charAt(first));
+	}
+
+	/**
+	 * Masks a number into a new string.
+	 *
+	 * @param number the number
+	 * @return the masked number
+	 */
+	public String mask(final CharSequence number) {
+
+		char[] masked = new char[checkNumber(number).length()];
+
+		mask(number, 0, masked.length, masked, 0);
+
+		return new String(masked);
+	}
+
+	/**
+	 * Masks a region of a character sequence into a character array.
+	 *
+	 * @param number the character sequence
+	 * @param from the index of the first character of the number, inclusive
+	 * @param to the index of the last character of the number, exclusive
+	 * @param destination the array the masked number is written to
+	 * @param offset the index of the array the first character is written to
+	 * @return the number of characters written
+	 */
+	public int mask(final CharSequence number, final int from, final int to, final char[] destination,
+			final int offset) {
+
+		checkNumber(number);
+		int length = to - from;
+
+		for (int i = 0; i < length; i++) {
+			destination[offset + i] = isMasked(i, length) ? maskChar : number.charAt(from + i);
+		}
+		return length;
+	}
+
+	/**
+	 * Masks a region of a character sequence into a byte array, as ASCII.
+	 * Characters that are not ASCII are written as '?'.
+	 *
+	 * @param number the character sequence
+	 * @param from the index of the first character of the number, inclusive
+	 * @param to the index of the last character of the number, exclusive
+	 * @param destination the array the masked number is written to
+	 * @param offset the index of the array the first byte is written to
+	 * @return the number of bytes written
+	 */
+	public int mask(final CharSequence number, final int from, final int to, final byte[] destination,
+			final int offset) {
+
+		checkNumber(number);
+		int length = to - from;
+
+		for (int i = 0; i < length; i++) {
+			char value = isMasked(i, length) ? maskChar : number.charAt(from + i);
+			destination[offset + i] = value < 0x80 ? (byte) value : (byte) '?';
+		}
+		return length;
+	}
+
+	/**
+	 * Masks a region of a byte array holding an ASCII number into a byte array, which can be the
+	 * same array to mask the number in place.
+	 *
+	 * @param number the byte array
+	 * @param from the index of the first byte of the number, inclusive
+	 * @param to the index of the last byte of the number, exclusive
+	 * @param destination the array the masked number is written to
+	 * @param offset the index of the array the first byte is written to
+	 * @return the number of bytes written
+	 */
+	public int mask(final byte[] number, final int from, final int to, final byte[] destination, final int offset) {
+
+		if (number == null) {
+			throw new IllegalArgumentException("the number cannot be null");
+		}
+
+		int length = to - from;
+
+		for (int i = 0; i < length; i++) {
+			destination[offset + i] = isMasked(i, length) ? (byte) maskChar : number[from + i];
+		}
+		return length;
+	}
+
+	/**
+	 * Appends a masked number to a string builder.
+	 *
+	 * @param number the number
+	 * @param destination the string builder
+	 * @return the string builder
+	 */
+	public StringBuilder mask(final CharSequence number, final StringBuilder destination) {
+
+		int length = checkNumber(number).length();
+
+		destination.ensureCapacity(destination.length() + length);
+
+		for (int i = 0; i < length; i++) {
+			destination.append(isMasked(i, length) ? maskChar : number.charAt(i));
+		}
+		return destination;
+	}
+
+	/**
+	 * Returns a masked view of a number. The characters are masked when they are read and the number
+	 * is not copied, so a mutable number must keep its length while the view is used.
+	 *
+	 * @param number the number
+	 * @return the masked view
+	 */
+	public CharSequence view(final CharSequence number) {
+
+		return new MaskedCharSequence(this, checkNumber(number), 0, number.length());
+	}
+
+	/**
+	 * Checks if a character of a number is masked.
+	 *
+	 * @param index the index of the character in the number
+	 * @param length the number length
+	 * @return true if the character is masked
+	 */
+	boolean isMasked(final int index, final int length) {
+
+		return index >= first && index < length - last;
+	}
+
+	/**
+	 * Gets the character that replaces the masked characters.
+	 *
+	 * @return the mask character
+	 */
+	public char getMaskChar() {
+		return maskChar;
+	}
+
+	/**
+	 * Gets the number of leading characters left visible.
+	 *
+	 * @return the number of characters
+	 */
+	public int getFirst() {
+		return first;
+	}
+
+	/**
+	 * Gets the number of trailing characters left visible.
+	 *
+	 * @return the number of characters
+	 */
+	public int getLast() {
+		return last;
+	}
+
+	/**
+	 * Checks the number is not null.
+	 *
+	 * @param number the number
+	 * @return the number
+	 */
+	private static CharSequence checkNumber(final CharSequence number) {
+
+		if (number == null) {
+			throw new IllegalArgumentException("the number cannot be null");
+		}
+		return number;
+	}
+}
@@ -0,0 +1,319 @@
+package com.pagosonline.ccutils.model;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * A card brand: one of the built-in {@link CreditCardType}s or a custom brand defined at runtime
+ * by prefix ranges, numbers of digits and a check digit algorithm.
+ *
+ * The custom brands are read from rule files, one brand per line:
+ * <code>NAME,prefix[-prefix] ...,length[-length] ...,LUHN|NONE</code>, the prefixes and the lengths
+ * being separated by spaces. Text after a '#' is a comment. For example:
+ *
+ * <pre>
+ * # a local scheme on two ranges, with 16 or 19 digits
+ * SOLCARD,627190-627199 504999,16 19,LUHN
+ * </pre>
+ *
+ * @since 4.9.5
+ */
+public final class CardBrand {
+
+	/** The name. */
+	private final String name;
+
+	/** The built-in type, null for a custom brand. */
+	private final CreditCardType type;
+
+	/** The prefix ranges. */
+	private final List<PrefixRange> prefixRanges;
+
+	/** The check digit algorithm. */
+	private final CheckDigitAlgorithm checkDigitAlgorithm;
+
+	/** The regular expression of the numbers. */
+	private final String regExp;
+
+	/**
+	 * Instantiates a new card brand.
+	 *
+	 * @param name the name
+	 * @param type the built-in type, null for a custom brand
+	 * @param prefixRanges the prefix ranges
+	 * @param checkDigitAlgorithm the check digit algorithm
+	 * @param regExp the regular expression of the numbers
+	 */
+	private CardBrand(String name, CreditCardType type, List<PrefixRange> prefixRanges,
+			CheckDigitAlgorithm checkDigitAlgorithm, String regExp) {
+
+		this.name = name;
+		this.type = type;
+		this.prefixRanges = prefixRanges;
+		this.checkDigitAlgorithm = checkDigitAlgorithm;
+		this.regExp = regExp;
+	}
+
+	/**
+	 * Instantiates a new custom card brand.
+	 *
+	 * @param name the name, letters, digits and underscores, not the name of a built-in type
+	 * @param prefixRanges the prefix ranges, every range allowing the same numbers of digits, longer
+	 *        than its prefixes
+	 * @param checkDigitAlgorithm the check digit algorithm
+	 * @throws IllegalArgumentException if the name or the ranges are not valid
+	 */
+	public CardBrand(final String name, final List<PrefixRange> prefixRanges,
+			final CheckDigitAlgorithm checkDigitAlgorithm) {
+
+		this(checkName(name), null, Collections.unmodifiableList(new ArrayList<>(prefixRanges)),
+				checkDigitAlgorithm, PrefixRange.toRegExp(prefixRanges));
+
+		if (checkDigitAlgorithm == null) {
+			throw new IllegalArgumentException("The check digit algorithm of " + name + " is missing");
+		}
+	}
+
+	/**
+	 * Creates the brand of a built-in type from its spec. The validators share one brand by type,
+	 * see <code>CreditCardValidationPlan.getBrand()</code>.
+	 *
+	 * @param type the type
+	 * @return the brand
+	 */
+	public static CardBrand of(final CreditCardType type) {
+
+		CreditCardSpec spec = type.getSpec();
+
+		return new CardBrand(type.name(), type, spec.getPrefixRanges(), spec.getCheckDigitAlgorithm(), spec.getRegExp());
+	}
+
+	/**
+	 * Loads the custom brands of a rule file.
+	 *
+	 * @param file the file
+	 * @return the brands, in the order of the file
+	 * @throws IOException if the file cannot be read
+	 * @throws IllegalArgumentException if a line is not valid
+	 */
+	public static List<CardBrand> load(final Path file) throws IOException {
+
+		try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+			return read(reader, file.toString());
+		}
+	}
+
+	/**
+	 * Reads the custom brands of a rule file.
+	 *
+	 * @param reader the reader of the file, it is not closed
+	 * @return the brands, in the order of the file
+	 * @throws IOException if the file cannot be read
+	 * @throws IllegalArgumentException if a line is not valid
+	 */
+	public static List<CardBrand> read(final Reader reader) throws IOException {
+
+		return read(reader instanceof BufferedReader ? (BufferedReader) reader : new BufferedReader(reader), "reader");
+	}
+
+	/**
+	 * Tells if this is a custom brand.
+	 *
+	 * @return true if the brand is not a built-in type
+	 */
+	public boolean isCustom() {
+
+		return type == null;
+	}
+
+	/**
+	 * Gets the name, the name of the type for a built-in brand.
+	 *
+	 * @return the name
+	 */
+	public String getName() {
+
+		return name;
+	}
+
+	/**
+	 * Gets the built-in type.
+	 *
+	 * @return the type, null for a custom brand
+	 */
+	public CreditCardType getType() {
+
+		return type;
+	}
+
+	/**
+	 * Gets the prefix ranges, see {@link CreditCardSpec#getPrefixRanges()} for a built-in brand.
+	 *
+	 * @return the unmodifiable prefix ranges
+	 */
+	public List<PrefixRange> getPrefixRanges() {
+
+		return prefixRanges;
+	}
+
+	/**
+	 * Gets the check digit algorithm.
+	 *
+	 * @return the check digit algorithm
+	 */
+	public CheckDigitAlgorithm getCheckDigitAlgorithm() {
+
+		return checkDigitAlgorithm;
+	}
+
+	/**
+	 * Gets the regular expression of the numbers, generated from the prefix ranges, see
+	 * {@link CreditCardSpec#getRegExp()} for a built-in brand.
+	 *
+	 * @return the regular expression, null for {@link CreditCardType#UNKNOWN}
+	 */
+	public String getRegExp() {
+
+		return regExp;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+
+		return name;
+	}
+
+	/**
+	 * Reads the custom brands of a rule file.
+	 *
+	 * @param reader the reader
+	 * @param source the name of the file, for the error messages
+	 * @return the brands
+	 * @throws IOException if the file cannot be read
+	 */
+	private static List<CardBrand> read(BufferedReader reader, String source) throws IOException {
+
+		List<CardBrand> brands = new ArrayList<>();
+		Set<String> names = new HashSet<>();
+		String line;
+		int lineNumber = 0;
+
+		while ((line = reader.readLine()) != null) {
+
+			lineNumber++;
+			int comment = line.indexOf('#');
+			String entry = (comment >= 0 ? line.substring(0, comment) : line).trim();
+
+			if (!entry.isEmpty()) {
+				try {
+					CardBrand brand = parse(entry);
+
+					if (!names.add(brand.getName())) {
+						throw new IllegalArgumentException("Duplicate brand " + brand.getName());
+					}
+					brands.add(brand);
+				} catch (IllegalArgumentException e) {
+					throw new IllegalArgumentException(source + ":" + lineNumber + ": " + e.getMessage(), e);
+				}
+			}
+		}
+		return brands;
+	}
+
+	/**
+	 * Parses a rule.
+	 *
+	 * @param entry the rule, without comment
+	 * @return the brand
+	 */
+	private static CardBrand parse(String entry) {
+
+		String[] fields = entry.split(",", -1);
+
+		if (fields.length != 4) {
+			throw new IllegalArgumentException("Expected NAME,prefixes,lengths,LUHN|NONE: " + entry);
+		}
+
+		int lengths = 0;
+
+		for (String token : fields[2].trim().split("\\s+")) {
+
+			int dash = token.indexOf('-');
+			int first = parseLength(dash < 0 ? token : token.substring(0, dash));
+			int last = dash < 0 ? first : parseLength(token.substring(dash + 1));
+
+			for (int length = first; length <= last; length++) {
+				lengths |= 1 << length;
+			}
+		}
+
+		List<PrefixRange> ranges = new ArrayList<>();
+
+		for (String token : fields[1].trim().split("\\s+")) {
+
+			int dash = token.indexOf('-');
+			String first = dash < 0 ? token : token.substring(0, dash);
+			String last = dash < 0 ? token : token.substring(dash + 1);
+
+			if (first.length() != last.length() || !first.matches("\\d{1,18}") || !last.matches("\\d{1,18}")) {
+				throw new IllegalArgumentException("Invalid prefix range " + token);
+			}
+			ranges.add(new PrefixRange(Long.parseLong(first), Long.parseLong(last), first.length(), lengths, true));
+		}
+
+		CheckDigitAlgorithm algorithm;
+
+		try {
+			algorithm = CheckDigitAlgorithm.valueOf(fields[3].trim().toUpperCase(Locale.ROOT));
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Unknown check digit algorithm " + fields[3].trim(), e);
+		}
+
+		return new CardBrand(fields[0].trim().toUpperCase(Locale.ROOT), ranges, algorithm);
+	}
+
+	/**
+	 * Parses a number of digits.
+	 *
+	 * @param token the number
+	 * @return the number of digits
+	 */
+	private static int parseLength(String token) {
+
+		if (!token.matches("\\d{1,2}") || Integer.parseInt(token) < 1 || Integer.parseInt(token) > PrefixRange.MAX_LENGTH) {
+			throw new IllegalArgumentException("Invalid length " + token);
+		}
+		return Integer.parseInt(token);
+	}
+
+	/**
+	 * Checks the name of a custom brand.
+	 *
+	 * @param name the name
+	 * @return the name
+	 */
+	private static String checkName(String name) {
+
+		if (name == null || !name.matches("\\w+")) {
+			throw new IllegalArgumentException("Invalid brand name " + name);
+		}
+
+		if (CreditCardType.fromString(name) != null) {
+			throw new IllegalArgumentException(name + " is a built-in type");
+		}
+		return name;
+	}
+}
@@ -0,0 +1,15 @@
+package com.pagosonline.ccutils.model;
+
+/**
+ * The check digit algorithm of the numbers of a credit card type.
+ *
+ * @since 4.9.5
+ */
+public enum CheckDigitAlgorithm {
+
+	/** The numbers have no check digit. */
+	NONE,
+
+	/** The last digit is a Luhn (mod 10) check digit. */
+	LUHN
+}
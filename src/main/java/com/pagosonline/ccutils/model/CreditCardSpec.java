@@ -0,0 +1,347 @@
+package com.pagosonline.ccutils.model;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The immutable specification of the numbers of a credit card type, see
+ * {@link CreditCardType#getSpec()}: the ranges of prefixes with the numbers of digits allowed for
+ * each, the check digit algorithm, the lengths of the security code and the grouping of the digits
+ * for display.
+ *
+ * The specs are declared with the types and the validators compile the numbers of each type from
+ * its prefix ranges, see {@link #getRegExp()}. The ranges whose numbers must also match digits after
+ * the prefix, such as the 13 digit Diners numbers, are declared not exact: the regular expression
+ * of the type remains the reference for them.
+ *
+ * @since 4.9.5
+ */
+public final class CreditCardSpec {
+
+	/** The minimum security code length of most types, as accepted by the security code validator. */
+	static final int DEFAULT_MIN_SECURITY_CODE_LENGTH = 1;
+
+	/** The maximum security code length of most types, as accepted by the security code validator. */
+	static final int DEFAULT_MAX_SECURITY_CODE_LENGTH = 4;
+
+	/** The credit card type. */
+	private final CreditCardType type;
+
+	/** The prefix ranges, in the order declared. */
+	private final List<PrefixRange> prefixRanges;
+
+	/** The regular expression of the numbers, null if there is no range. */
+	private final String regExp;
+
+	/** The allowed numbers of digits of all the ranges. */
+	private final int lengths;
+
+	/** True if all the ranges are exact. */
+	private final boolean exact;
+
+	/** The check digit algorithm. */
+	private final CheckDigitAlgorithm checkDigitAlgorithm;
+
+	/** The minimum security code length. */
+	private final int minSecurityCodeLength;
+
+	/** The maximum security code length. */
+	private final int maxSecurityCodeLength;
+
+	/** The sizes of the groups of digits. */
+	private final int[] grouping;
+
+	/**
+	 * Instantiates a new credit card spec from the declaration of its type. The prefix ranges are
+	 * separated by spaces, each written <code>prefix[-prefix]:length[,length] ...</code>, a length
+	 * being a number of digits or a range of them such as <code>16-19</code>. A '*' prefix stands for
+	 * any prefix and a trailing '~' flags a range as not exact.
+	 *
+	 * @param type the credit card type
+	 * @param prefixRanges the declared prefix ranges, empty if the type has no regular expression
+	 * @param typeRegExp the regular expression of the type, for the ranges that are not exact
+	 * @param checkDigitAlgorithm the check digit algorithm
+	 * @param minSecurityCodeLength the minimum security code length
+	 * @param maxSecurityCodeLength the maximum security code length
+	 * @param grouping the sizes of the groups of digits
+	 * @throws IllegalArgumentException if the declaration is not valid
+	 */
+	CreditCardSpec(CreditCardType type, String prefixRanges, String typeRegExp,
+			CheckDigitAlgorithm checkDigitAlgorithm, int minSecurityCodeLength, int maxSecurityCodeLength,
+			int[] grouping) {
+
+		List<PrefixRange> ranges = parsePrefixRanges(type, prefixRanges);
+		List<PrefixRange> exactRanges = new ArrayList<>();
+		int allLengths = 0;
+
+		for (PrefixRange range : ranges) {
+			allLengths |= range.getLengths();
+
+			if (range.isExact()) {
+				exactRanges.add(range);
+			}
+		}
+
+		if (exactRanges.size() < ranges.size() && typeRegExp == null) {
+			throw new IllegalArgumentException(type + " has inexact ranges and no regular expression");
+		}
+
+		if (minSecurityCodeLength < 1 || minSecurityCodeLength > maxSecurityCodeLength || grouping.length == 0) {
+			throw new IllegalArgumentException("Invalid security code lengths or grouping of " + type);
+		}
+
+		this.type = type;
+		this.prefixRanges = Collections.unmodifiableList(ranges);
+		this.lengths = allLengths;
+		this.exact = exactRanges.size() == ranges.size();
+		this.checkDigitAlgorithm = checkDigitAlgorithm;
+		this.minSecurityCodeLength = minSecurityCodeLength;
+		this.maxSecurityCodeLength = maxSecurityCodeLength;
+		this.grouping = grouping;
+
+		if (ranges.isEmpty()) {
+			this.regExp = null;
+		} else if (exact) {
+			this.regExp = PrefixRange.toRegExp(exactRanges);
+		} else if (exactRanges.isEmpty()) {
+			this.regExp = typeRegExp;
+		} else {
+			this.regExp = PrefixRange.toRegExp(exactRanges) + "|" + typeRegExp;
+		}
+	}
+
+	/**
+	 * Parses declared prefix ranges.
+	 *
+	 * @param type the credit card type, for the error messages
+	 * @param declaration the ranges separated by spaces
+	 * @return the ranges
+	 */
+	private static List<PrefixRange> parsePrefixRanges(CreditCardType type, String declaration) {
+
+		List<PrefixRange> ranges = new ArrayList<>();
+
+		for (String token : declaration.trim().split("\\s+")) {
+
+			if (token.isEmpty()) {
+				continue;
+			}
+
+			boolean exact = !token.endsWith("~");
+			String range = exact ? token : token.substring(0, token.length() - 1);
+			int colon = range.indexOf(':');
+
+			if (colon < 0) {
+				throw new IllegalArgumentException("Invalid prefix range " + token + " of " + type);
+			}
+
+			String prefixes = range.substring(0, colon);
+			int lengths = 0;
+
+			for (String length : range.substring(colon + 1).split(",")) {
+
+				int dash = length.indexOf('-');
+				int first = parseLength(type, dash < 0 ? length : length.substring(0, dash));
+				int last = dash < 0 ? first : parseLength(type, length.substring(dash + 1));
+
+				for (int digits = first; digits <= last; digits++) {
+					lengths |= 1 << digits;
+				}
+			}
+
+			if ("*".equals(prefixes)) {
+				ranges.add(new PrefixRange(0, 0, 0, lengths, exact));
+				continue;
+			}
+
+			int dash = prefixes.indexOf('-');
+			String first = dash < 0 ? prefixes : prefixes.substring(0, dash);
+			String last = dash < 0 ? prefixes : prefixes.substring(dash + 1);
+
+			if (first.length() != last.length() || !first.matches("\\d{1,18}") || !last.matches("\\d{1,18}")) {
+				throw new IllegalArgumentException("Invalid prefix range " + token + " of " + type);
+			}
+			ranges.add(new PrefixRange(Long.parseLong(first), Long.parseLong(last), first.length(), lengths, exact));
+		}
+		return ranges;
+	}
+
+	/**
+	 * Parses a declared number of digits.
+	 *
+	 * @param type the credit card type, for the error messages
+	 * @param token the number
+	 * @return the number of digits
+	 */
+	private static int parseLength(CreditCardType type, String token) {
+
+		if (!token.matches("\\d{1,2}") || Integer.parseInt(token) < 1 || Integer.parseInt(token) > PrefixRange.MAX_LENGTH) {
+			throw new IllegalArgumentException("Invalid length " + token + " of " + type);
+		}
+		return Integer.parseInt(token);
+	}
+
+	/**
+	 * Tells if a number of digits is allowed by some prefix range.
+	 *
+	 * @param digits the number of digits
+	 * @return true if the numbers of the type can have that many digits
+	 */
+	public boolean allowsLength(final int digits) {
+
+		return digits >= 0 && digits <= PrefixRange.MAX_LENGTH && (lengths & 1 << digits) != 0;
+	}
+
+	/**
+	 * Finds the prefix range of a number. Characters that are not digits are skipped.
+	 *
+	 * @param number the number
+	 * @return the range, null if the number is in none
+	 */
+	public PrefixRange findPrefixRange(final CharSequence number) {
+
+		for (PrefixRange range : prefixRanges) {
+			if (range.contains(number)) {
+				return range;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Gets the credit card type.
+	 *
+	 * @return the credit card type
+	 */
+	public CreditCardType getType() {
+
+		return type;
+	}
+
+	/**
+	 * Gets the prefix ranges.
+	 *
+	 * @return the unmodifiable prefix ranges, in the order declared, empty if the type has no regular
+	 *         expression
+	 */
+	public List<PrefixRange> getPrefixRanges() {
+
+		return prefixRanges;
+	}
+
+	/**
+	 * Gets the regular expression of the numbers the validators compile: the expression generated
+	 * from the exact prefix ranges, or'ed with the regular expression of the type if some ranges are
+	 * not exact.
+	 *
+	 * @return the regular expression, null if there is no range
+	 */
+	public String getRegExp() {
+
+		return regExp;
+	}
+
+	/**
+	 * Gets the allowed numbers of digits of all the prefix ranges.
+	 *
+	 * @return the mask of the numbers of digits, bit n set if n digits are allowed
+	 */
+	public int getLengths() {
+
+		return lengths;
+	}
+
+	/**
+	 * Tells if the prefix ranges describe exactly the numbers of the type.
+	 *
+	 * @return true if all the ranges are exact
+	 */
+	public boolean isExact() {
+
+		return exact;
+	}
+
+	/**
+	 * Gets the check digit algorithm.
+	 *
+	 * @return the check digit algorithm
+	 */
+	public CheckDigitAlgorithm getCheckDigitAlgorithm() {
+
+		return checkDigitAlgorithm;
+	}
+
+	/**
+	 * Gets the minimum length of the security code accepted by the security code validator. The
+	 * AMEX cards of Peru also accept 3 digit codes.
+	 *
+	 * @return the minimum security code length
+	 */
+	public int getMinSecurityCodeLength() {
+
+		return minSecurityCodeLength;
+	}
+
+	/**
+	 * Gets the maximum length of the security code accepted by the security code validator.
+	 *
+	 * @return the maximum security code length
+	 */
+	public int getMaxSecurityCodeLength() {
+
+		return maxSecurityCodeLength;
+	}
+
+	/**
+	 * Gets the sizes of the groups of digits a number is displayed in. The digits after the last
+	 * group are grouped by the size of the last group.
+	 *
+	 * @return a copy of the sizes of the groups
+	 */
+	public int[] getGrouping() {
+
+		return grouping.clone();
+	}
+
+	/**
+	 * Formats a number for display, its digits separated in groups by spaces. Characters that are
+	 * not digits are skipped.
+	 *
+	 * @param number the number
+	 * @return the formatted number
+	 */
+	public String format(final CharSequence number) {
+
+		StringBuilder formatted = new StringBuilder(number.length() + number.length() / 3);
+		int group = 0;
+		int left = grouping[0];
+
+		for (int i = 0, length = number.length(); i < length; i++) {
+
+			char c = number.charAt(i);
+
+			if (c < '0' || c > '9') {
+				continue;
+			}
+
+			if (left == 0) {
+				group = Math.min(group + 1, grouping.length - 1);
+				left = grouping[group];
+				formatted.append(' ');
+			}
+			formatted.append(c);
+			left--;
+		}
+		return formatted.toString();
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+
+		return type + " " + prefixRanges + " " + checkDigitAlgorithm;
+	}
+}
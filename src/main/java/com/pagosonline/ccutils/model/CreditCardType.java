@@ -12,70 +12,74 @@ package com.pagosonline.ccutils.model;
 public enum CreditCardType {
 	
 	/** Visa type. */
-	VISA("^(4)(\\d{12}|\\d{15})$|^(606374\\d{10}$)"),
+	VISA("^(4)(\\d{12}|\\d{15})$|^(606374\\d{10}$)", "4:13,16 606374:16"),
 	
 	/** Diners type. */
-	DINERS("(^[35](?:0[0-5]|[68][0-9])[0-9]{11}$)|(^30[0-5]{11}$)|(^3095(\\d{10})$)|(^36{12}$)|(^3[89](\\d{12})$)"),
+	DINERS("(^[35](?:0[0-5]|[68][0-9])[0-9]{11}$)|(^30[0-5]{11}$)|(^3095(\\d{10})$)|(^36{12}$)|(^3[89](\\d{12})$)", true,
+			"300-305:14 3095:14 36:14 38-39:14 500-505:14 56:14 58:14 300-305:13~ 366666:13~", 1, 4, 4, 6, 4),
 	
 	/** Discover type. */
-	DISCOVER("^(6011\\d{12})$|^(64[4-9]\\d{13})$|^(65\\d{14})$"),
+	DISCOVER("^(6011\\d{12})$|^(64[4-9]\\d{13})$|^(65\\d{14})$", "6011:16 644-649:16 65:16"),
 	
 	/** Amex type. */
-	AMEX("^(3[47]\\d{13})$"),
+	AMEX("^(3[47]\\d{13})$", true, "34:15 37:15", 4, 4, 4, 6, 5),
 	
 	/** MasterCard type. Maestro's cards start with (5010 or 5887)*/
-	MASTERCARD("^((?:5010|5887)(?:\\d{12,15})$)|^(5[1-5](?:\\d{14}|\\d{17})$)|^(2(?:2(?:2[1-9]|[3-9]\\d)|[3-6]\\d\\d|7(?:[01]\\d|20))(?:\\d{12}|\\d{15})$)"),
+	MASTERCARD("^((?:5010|5887)(?:\\d{12,15})$)|^(5[1-5](?:\\d{14}|\\d{17})$)|^(2(?:2(?:2[1-9]|[3-9]\\d)|[3-6]\\d\\d|7(?:[01]\\d|20))(?:\\d{12}|\\d{15})$)",
+			"5010:16-19 5887:16-19 51-55:16,19 2221-2720:16,19"),
 	
 	/** Naranja Card Type*/
-	NARANJA("^(589562)\\d{10}$", false),
+	NARANJA("^(589562)\\d{10}$", false, "589562:16"),
 	
 	/** Shopping Card Type */
-	SHOPPING("(^603488(\\d{10})$)|(^2799(\\d{9})$)", false),
+	SHOPPING("(^603488(\\d{10})$)|(^2799(\\d{9})$)", false, "603488:16 2799:13"),
 	
 	/** Cabal Card Type */
-	CABAL("(^604(([23][0-9][0-9])|(400))(\\d{10})$)|(^589657(\\d{10})$)", false),
+	CABAL("(^604(([23][0-9][0-9])|(400))(\\d{10})$)|(^589657(\\d{10})$)", false, "604200-604400:16 589657:16"),
 	
 	/** Argencard Card Type */
-	ARGENCARD("^(501105|532362)(\\d{10}$)"),
+	ARGENCARD("^(501105|532362)(\\d{10}$)", "501105:16 532362:16"),
 	
 	/** Cencosud Card Type */
-	CENCOSUD("^603493(\\d{10})$", false),
+	CENCOSUD("^603493(\\d{10})$", false, "603493:16"),
 	
 	/** Hipercard Card Type */
-	HIPERCARD("^(3841[046]0|606282|637(5(68|99)|095|6(09|12)))(\\d{7}|\\d{10}|\\d{13})$", false),
+	HIPERCARD("^(3841[046]0|606282|637(5(68|99)|095|6(09|12)))(\\d{7}|\\d{10}|\\d{13})$", false,
+			"384100:13,16,19 384140:13,16,19 384160:13,16,19 606282:13,16,19 637568:13,16,19 637599:13,16,19 "
+			+ "637095:13,16,19 637609:13,16,19 637612:13,16,19"),
 	
 	/** Codensa Card Type*/
-	CODENSA("^590712(\\d{10})$", false),
+	CODENSA("^590712(\\d{10})$", false, "590712:16"),
 	
 	/** Credencial type. */
-	CREDENCIAL("^(541203|540625|549151)(\\d{10})$", false),
+	CREDENCIAL("^(541203|540625|549151)(\\d{10})$", false, "541203:16 540625:16 549151:16"),
 	
 	/** Elo card. */
-	ELO("\\d{16}$", false),
+	ELO("\\d{16}$", false, "*:16"),
 	
 	/** Presto Card Type*/
-	PRESTO("\\d{16}$", false),
+	PRESTO("\\d{16}$", false, "*:16"),
 	
 	/** Ripley Card Type */
-	RIPLEY("\\d{16}$", false),
+	RIPLEY("\\d{16}$", false, "*:16"),
 	
 	/**  Visa debit card type. */
-	VISA_DEBIT("\\d{16}$", false),
+	VISA_DEBIT("\\d{16}$", false, "*:16"),
 	
 	/** MasterCard debit card type. */
-	MASTERCARD_DEBIT("\\d{16}|\\d{19}$", false),
+	MASTERCARD_DEBIT("\\d{16}|\\d{19}$", false, "*:16,19"),
 	
 	/** Unknown Card Type */
-	UNKNOWN(null, false),
+	UNKNOWN(null, false, ""),
 
 	/**  Falabella card type. */
-	CMR("^(627180|528209|513689)(\\d{10})$", false),
+	CMR("^(627180|528209|513689)(\\d{10})$", false, "627180:16 528209:16 513689:16"),
 	
 	/** jcb Card Type. */
-	JCB("\\d{16}$", false),
+	JCB("\\d{16}$", false, "*:16"),
 
 	/** Aura Card Type. */
-	AURA("\\d{16}$", false);
+	AURA("\\d{16}$", false, "*:16");
 	
 	
 	
@@ -85,14 +89,17 @@ public enum CreditCardType {
 	/** The luhn check. */
 	private Boolean luhnCheck;
 	
+	/** The spec, declared with the type. */
+	private CreditCardSpec spec;
+	
 	/**
 	 * Instantiates a new credit card type.
 	 *
 	 * @param regExp the regular expression
+	 * @param prefixRanges the prefix ranges, see {@link CreditCardSpec}
 	 */
-	private CreditCardType(String regExp) {
-		this.regExp = regExp;
-		this.luhnCheck = true;
+	private CreditCardType(String regExp, String prefixRanges) {
+		this(regExp, true, prefixRanges);
 	}
 	
 	/**
@@ -100,10 +107,30 @@ public enum CreditCardType {
 	 *
 	 * @param regExp the regular expression
 	 * @param luhnCheck true if should be validated using the luhn check digit 
+	 * @param prefixRanges the prefix ranges, see {@link CreditCardSpec}
 	 */
-	private CreditCardType(String regExp, Boolean luhnCheck) {
+	private CreditCardType(String regExp, Boolean luhnCheck, String prefixRanges) {
+		this(regExp, luhnCheck, prefixRanges, CreditCardSpec.DEFAULT_MIN_SECURITY_CODE_LENGTH,
+				CreditCardSpec.DEFAULT_MAX_SECURITY_CODE_LENGTH, 4);
+	}
+	
+	/**
+	 * Instantiates a new credit card type.
+	 *
+	 * @param regExp the regular expression
+	 * @param luhnCheck true if should be validated using the luhn check digit 
+	 * @param prefixRanges the prefix ranges, see {@link CreditCardSpec}
+	 * @param minSecurityCodeLength the minimum security code length
+	 * @param maxSecurityCodeLength the maximum security code length
+	 * @param grouping the sizes of the groups of digits for display
+	 */
+	private CreditCardType(String regExp, Boolean luhnCheck, String prefixRanges, int minSecurityCodeLength,
+			int maxSecurityCodeLength, int... grouping) {
 		this.regExp = regExp;
 		this.luhnCheck = luhnCheck;
+		this.spec = new CreditCardSpec(this, prefixRanges, regExp,
+				luhnCheck ? CheckDigitAlgorithm.LUHN : CheckDigitAlgorithm.NONE, minSecurityCodeLength,
+				maxSecurityCodeLength, grouping);
 	}
 
 	/**
@@ -115,6 +142,17 @@ public enum CreditCardType {
 		return regExp;
 	}
 	
+	/**
+	 * Gets the spec: the prefix ranges, lengths, check digit, security code lengths and grouping
+	 * the validators are built from. The regular expression is the reference for the ranges it
+	 * flags as not exact.
+	 *
+	 * @return the spec
+	 */
+	public CreditCardSpec getSpec() {
+		return spec;
+	}
+	
 
 	/**
 	 * Apply luhn check.
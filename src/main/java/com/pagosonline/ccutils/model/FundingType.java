@@ -0,0 +1,40 @@
+package com.pagosonline.ccutils.model;
+
+/**
+ * The funding type of a card.
+ *
+ * @since 4.9.5
+ */
+public enum FundingType {
+
+	/** The funding type is not known. */
+	UNKNOWN,
+
+	/** Credit card. */
+	CREDIT,
+
+	/** Debit card. */
+	DEBIT,
+
+	/** Prepaid card. */
+	PREPAID;
+
+	/**
+	 * Return a {@link FundingType} from a given string.
+	 *
+	 * @param fundingType the string funding type.
+	 * @return the {@link FundingType} if the type exist. null otherwise.
+	 */
+	public static FundingType fromString(String fundingType) {
+
+		if (fundingType != null) {
+
+			for (FundingType type : FundingType.values()) {
+				if (type.name().equalsIgnoreCase(fundingType)) {
+					return type;
+				}
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,321 @@
+package com.pagosonline.ccutils.model;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * An immutable range of card number prefixes and the numbers of digits allowed for them.
+ *
+ * A number is in the range when its first {@link #getPrefixDigits()} digits, padded with zeros on
+ * the right if it is shorter, are between {@link #getFirst()} and {@link #getLast()}, and its number
+ * of digits is in {@link #getLengths()}. A range is exact when every such number matches the
+ * regular expression of its type; otherwise the type also constrains the digits after the prefix.
+ *
+ * @since 4.9.5
+ */
+public final class PrefixRange {
+
+	/** The maximum number of digits of a number allowed by a range. */
+	public static final int MAX_LENGTH = 31;
+
+	/** The first prefix, inclusive. */
+	private final long first;
+
+	/** The last prefix, inclusive. */
+	private final long last;
+
+	/** The number of digits of the prefixes. */
+	private final int prefixDigits;
+
+	/** The allowed numbers of digits, bit n set if n digits are allowed. */
+	private final int lengths;
+
+	/** True if every number in the range matches. */
+	private final boolean exact;
+
+	/**
+	 * Instantiates a new prefix range.
+	 *
+	 * @param first the first prefix, inclusive
+	 * @param last the last prefix, inclusive
+	 * @param prefixDigits the number of digits of the prefixes, at most 18
+	 * @param lengths the allowed numbers of digits, bit n set if n digits are allowed
+	 * @param exact true if every number in the range matches
+	 * @throws IllegalArgumentException if the prefixes do not have the given number of digits
+	 */
+	public PrefixRange(final long first, final long last, final int prefixDigits, final int lengths,
+			final boolean exact) {
+
+		if (prefixDigits < 0 || prefixDigits > 18 || first < 0 || first > last || last >= pow10(prefixDigits)) {
+			throw new IllegalArgumentException("Invalid prefix range " + first + "-" + last + " of " + prefixDigits
+					+ " digits");
+		}
+
+		this.first = first;
+		this.last = last;
+		this.prefixDigits = prefixDigits;
+		this.lengths = lengths;
+		this.exact = exact;
+	}
+
+	/**
+	 * Tells if a number is in the range. Characters that are not digits are skipped.
+	 *
+	 * @param number the number
+	 * @return true if the prefix and the number of digits of the number are in the range
+	 */
+	public boolean contains(final CharSequence number) {
+
+		long prefix = 0;
+		int digits = 0;
+
+		for (int i = 0, length = number.length(); i < length; i++) {
+
+			int digit = number.charAt(i) - '0';
+
+			if (digit >= 0 && digit <= 9) {
+
+				if (digits < prefixDigits) {
+					prefix = prefix * 10 + digit;
+				}
+				digits++;
+			}
+		}
+
+		if (digits < prefixDigits) {
+			prefix *= pow10(prefixDigits - digits);
+		}
+		return prefix >= first && prefix <= last && allowsLength(digits);
+	}
+
+	/**
+	 * Tells if a number of digits is allowed.
+	 *
+	 * @param digits the number of digits
+	 * @return true if the numbers of the range can have that many digits
+	 */
+	public boolean allowsLength(final int digits) {
+
+		return digits >= 0 && digits <= MAX_LENGTH && (lengths & 1 << digits) != 0;
+	}
+
+	/**
+	 * Gets the first prefix.
+	 *
+	 * @return the first prefix, inclusive
+	 */
+	public long getFirst() {
+
+		return first;
+	}
+
+	/**
+	 * Gets the last prefix.
+	 *
+	 * @return the last prefix, inclusive
+	 */
+	public long getLast() {
+
+		return last;
+	}
+
+	/**
+	 * Gets the number of digits of the prefixes.
+	 *
+	 * @return the number of digits
+	 */
+	public int getPrefixDigits() {
+
+		return prefixDigits;
+	}
+
+	/**
+	 * Gets the allowed numbers of digits.
+	 *
+	 * @return the mask of the numbers of digits, bit n set if n digits are allowed
+	 */
+	public int getLengths() {
+
+		return lengths;
+	}
+
+	/**
+	 * Tells if every number in the range matches the regular expression of its type.
+	 *
+	 * @return false if the type also constrains the digits after the prefix
+	 */
+	public boolean isExact() {
+
+		return exact;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#equals(java.lang.Object)
+	 */
+	@Override
+	public boolean equals(final Object obj) {
+
+		if (this == obj) {
+			return true;
+		}
+
+		if (!(obj instanceof PrefixRange)) {
+			return false;
+		}
+
+		PrefixRange other = (PrefixRange) obj;
+
+		return first == other.first && last == other.last && prefixDigits == other.prefixDigits
+				&& lengths == other.lengths && exact == other.exact;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#hashCode()
+	 */
+	@Override
+	public int hashCode() {
+
+		int result = Long.hashCode(first);
+		result = 31 * result + Long.hashCode(last);
+		result = 31 * result + prefixDigits;
+		result = 31 * result + lengths;
+		return 31 * result + (exact ? 1 : 0);
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+
+		StringBuilder builder = new StringBuilder();
+
+		builder.append(first);
+		if (last != first) {
+			builder.append('-').append(last);
+		}
+		builder.append(" lengths");
+
+		for (int digits = 0; digits <= MAX_LENGTH; digits++) {
+			if (allowsLength(digits)) {
+				builder.append(' ').append(digits);
+			}
+		}
+		return exact ? builder.toString() : builder.append(" (inexact)").toString();
+	}
+
+	/**
+	 * Generates the regular expression of the numbers of prefix ranges, ignoring whether they are
+	 * exact.
+	 *
+	 * @param prefixRanges the prefix ranges
+	 * @return the regular expression
+	 * @throws IllegalArgumentException if there is no range or a range allows numbers not longer
+	 *         than its prefixes
+	 */
+	static String toRegExp(List<PrefixRange> prefixRanges) {
+
+		if (prefixRanges == null || prefixRanges.isEmpty()) {
+			throw new IllegalArgumentException("A prefix range is required");
+		}
+
+		StringBuilder regExp = new StringBuilder("^(?:");
+
+		for (PrefixRange range : prefixRanges) {
+
+			int digits = range.getPrefixDigits();
+
+			if (range.getLengths() == 0 || Integer.numberOfTrailingZeros(range.getLengths()) <= digits) {
+				throw new IllegalArgumentException("The numbers must be longer than the prefix " + range);
+			}
+
+			List<String> prefixes = new ArrayList<>();
+
+			if (digits > 0) {
+				addPrefixes(String.format("%0" + digits + "d", range.getFirst()),
+						String.format("%0" + digits + "d", range.getLast()), "", prefixes);
+			} else {
+				prefixes.add("");
+			}
+
+			if (regExp.length() > 4) {
+				regExp.append('|');
+			}
+			regExp.append("(?:").append(String.join("|", prefixes)).append(")(?:");
+
+			String separator = "";
+
+			for (int length = digits + 1; length <= PrefixRange.MAX_LENGTH; length++) {
+				if (range.allowsLength(length)) {
+					regExp.append(separator).append("\\d{").append(length - digits).append('}');
+					separator = "|";
+				}
+			}
+			regExp.append(')');
+		}
+		return regExp.append(")$").toString();
+	}
+
+	/**
+	 * Adds the expressions of the prefixes between two prefixes of the same number of digits, as
+	 * digit classes.
+	 *
+	 * @param first the first prefix
+	 * @param last the last prefix
+	 * @param start the digits common to the prefixes, already read
+	 * @param prefixes the expressions
+	 */
+	private static void addPrefixes(String first, String last, String start, List<String> prefixes) {
+
+		if (first.equals(last)) {
+			prefixes.add(start + first);
+			return;
+		}
+
+		char low = first.charAt(0);
+		char high = last.charAt(0);
+		String firstRest = first.substring(1);
+		String lastRest = last.substring(1);
+
+		if (low == high) {
+			addPrefixes(firstRest, lastRest, start + low, prefixes);
+			return;
+		}
+
+		// the first prefixes up to the end of their first digit, the full first digits, the last ones
+		boolean fromLow = firstRest.matches("0*");
+		boolean toHigh = lastRest.matches("9*");
+
+		if (!fromLow) {
+			addPrefixes(firstRest, firstRest.replaceAll("\\d", "9"), start + low, prefixes);
+		}
+
+		char from = fromLow ? low : (char) (low + 1);
+		char to = toHigh ? high : (char) (high - 1);
+
+		if (from <= to) {
+			prefixes.add(start + (from == to ? String.valueOf(from) : "[" + from + "-" + to + "]")
+					+ (firstRest.isEmpty() ? "" : "\\d{" + firstRest.length() + "}"));
+		}
+
+		if (!toHigh) {
+			addPrefixes(lastRest.replaceAll("\\d", "0"), lastRest, start + high, prefixes);
+		}
+	}
+
+	/**
+	 * Returns a power of ten.
+	 *
+	 * @param exponent the exponent
+	 * @return ten to the exponent
+	 */
+	private static long pow10(int exponent) {
+
+		long power = 1;
+
+		for (int i = 0; i < exponent; i++) {
+			power *= 10;
+		}
+		return power;
+	}
+}
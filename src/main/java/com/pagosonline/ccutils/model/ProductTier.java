@@ -0,0 +1,49 @@
+package com.pagosonline.ccutils.model;
+
+/**
+ * The product tier of a card.
+ *
+ * @since 4.9.5
+ */
+public enum ProductTier {
+
+	/** The product tier is not known. */
+	UNKNOWN,
+
+	/** Classic or standard card. */
+	CLASSIC,
+
+	/** Gold card. */
+	GOLD,
+
+	/** Platinum card. */
+	PLATINUM,
+
+	/** Premium card: signature, infinite, black or world elite. */
+	PREMIUM,
+
+	/** Business card. */
+	BUSINESS,
+
+	/** Corporate card. */
+	CORPORATE;
+
+	/**
+	 * Return a {@link ProductTier} from a given string.
+	 *
+	 * @param productTier the string product tier.
+	 * @return the {@link ProductTier} if the tier exist. null otherwise.
+	 */
+	public static ProductTier fromString(String productTier) {
+
+		if (productTier != null) {
+
+			for (ProductTier tier : ProductTier.values()) {
+				if (tier.name().equalsIgnoreCase(productTier)) {
+					return tier;
+				}
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,175 @@
+package com.pagosonline.ccutils.util.i18n;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.text.MessageFormat;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import java.util.MissingResourceException;
+import java.util.PropertyResourceBundle;
+import java.util.ResourceBundle;
+
+import org.springframework.context.MessageSource;
+import org.springframework.context.MessageSourceResolvable;
+import org.springframework.context.NoSuchMessageException;
+
+/**
+ * Message source that reads the <code>CreditCardMessages*.properties</code> bundles directly with
+ * {@link ResourceBundle}, without an application context.
+ *
+ * It resolves the messages as {@link CreditCardMessageSource} does: UTF-8 bundles, fallback to the
+ * default locale and {@link MessageFormat} only when there are arguments.
+ *
+ * @since 4.9.5
+ */
+public final class CreditCardMessageBundle implements MessageSource {
+
+	/** The bundle base name. */
+	private static final String BASENAME = "CreditCardMessages";
+
+	/** The shared instance. */
+	private static final CreditCardMessageBundle INSTANCE = new CreditCardMessageBundle();
+
+	/** Reads the properties bundles as UTF-8. */
+	private static final ResourceBundle.Control UTF8_CONTROL = new Utf8Control();
+
+	/**
+	 * Default constructor.
+	 */
+	private CreditCardMessageBundle() {
+	}
+
+	/**
+	 * Gets the shared instance.
+	 *
+	 * @return the message bundle
+	 */
+	public static CreditCardMessageBundle getInstance() {
+		return INSTANCE;
+	}
+
+	/* (non-Javadoc)
+	 * @see org.springframework.context.MessageSource#getMessage(java.lang.String, java.lang.Object[], java.lang.String, java.util.Locale)
+	 */
+	@Override
+	public String getMessage(String code, Object[] args, String defaultMessage, Locale locale) {
+
+		String message = resolve(code, locale);
+
+		if (message == null) {
+			message = defaultMessage;
+		}
+		return format(message, args, locale);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.springframework.context.MessageSource#getMessage(java.lang.String, java.lang.Object[], java.util.Locale)
+	 */
+	@Override
+	public String getMessage(String code, Object[] args, Locale locale) throws NoSuchMessageException {
+
+		String message = resolve(code, locale);
+
+		if (message == null) {
+			throw new NoSuchMessageException(code, locale);
+		}
+		return format(message, args, locale);
+	}
+
+	/* (non-Javadoc)
+	 * @see org.springframework.context.MessageSource#getMessage(org.springframework.context.MessageSourceResolvable, java.util.Locale)
+	 */
+	@Override
+	public String getMessage(MessageSourceResolvable resolvable, Locale locale) throws NoSuchMessageException {
+
+		String[] codes = resolvable.getCodes();
+
+		if (codes != null) {
+			for (String code : codes) {
+				String message = resolve(code, locale);
+				if (message != null) {
+					return format(message, resolvable.getArguments(), locale);
+				}
+			}
+		}
+
+		if (resolvable.getDefaultMessage() != null) {
+			return format(resolvable.getDefaultMessage(), resolvable.getArguments(), locale);
+		}
+		throw new NoSuchMessageException(codes != null && codes.length > 0 ? codes[codes.length - 1] : null, locale);
+	}
+
+	/**
+	 * Resolves the message of a code.
+	 *
+	 * @param code the message code
+	 * @param locale the locale
+	 * @return the message, null if not found
+	 */
+	private static String resolve(String code, Locale locale) {
+
+		if (code == null) {
+			return null;
+		}
+
+		try {
+			ResourceBundle bundle = ResourceBundle.getBundle(BASENAME, locale != null ? locale : Locale.getDefault(),
+					CreditCardMessageBundle.class.getClassLoader(), UTF8_CONTROL);
+			return bundle.containsKey(code) ? bundle.getString(code) : null;
+		} catch (MissingResourceException e) {
+			return null;
+		}
+	}
+
+	/**
+	 * Formats a message with its arguments.
+	 *
+	 * @param message the message
+	 * @param args the arguments
+	 * @param locale the locale
+	 * @return the formatted message
+	 */
+	private static String format(String message, Object[] args, Locale locale) {
+
+		if (message == null || args == null || args.length == 0) {
+			return message;
+		}
+		return new MessageFormat(message, locale != null ? locale : Locale.getDefault()).format(args);
+	}
+
+	/**
+	 * Resource bundle control for UTF-8 properties files.
+	 */
+	private static final class Utf8Control extends ResourceBundle.Control {
+
+		/* (non-Javadoc)
+		 * @see java.util.ResourceBundle.Control#getFormats(java.lang.String)
+		 */
+		@Override
+		public List<String> getFormats(String baseName) {
+			return Collections.singletonList("java.properties");
+		}
+
+		/* (non-Javadoc)
+		 * @see java.util.ResourceBundle.Control#newBundle(java.lang.String, java.util.Locale, java.lang.String, java.lang.ClassLoader, boolean)
+		 */
+		@Override
+		public ResourceBundle newBundle(String baseName, Locale locale, String format, ClassLoader loader,
+				boolean reload) throws IOException {
+
+			String resourceName = toResourceName(toBundleName(baseName, locale), "properties");
+			InputStream stream = loader.getResourceAsStream(resourceName);
+
+			if (stream == null) {
+				return null;
+			}
+
+			try (InputStreamReader reader = new InputStreamReader(stream, StandardCharsets.UTF_8)) {
+				return new PropertyResourceBundle(reader);
+			}
+		}
+	}
+}
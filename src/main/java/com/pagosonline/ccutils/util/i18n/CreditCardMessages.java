@@ -32,6 +32,16 @@ public interface CreditCardMessages {
 	 * Message for a credit cart with invalid security code
 	 */
     String CREDIT_CARD_INVALID_LENGTH_SECURITY_CODE="credit_card_invalid_length_security_code";
+    
+	/**
+	 * Message for a credit card with a not well formed expiration date
+	 */
+	String CREDIT_CARD_EXPIRATION_DATE_NOT_VALID = "credit_card_expiration_date_not_valid";
+	
+	/**
+	 * Message for an expired credit card
+	 */
+	String CREDIT_CARD_EXPIRED = "credit_card_expired";
 	
 	
 }
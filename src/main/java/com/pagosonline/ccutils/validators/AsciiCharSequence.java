@@ -0,0 +1,81 @@
+package com.pagosonline.ccutils.validators;
+
+import java.nio.ByteBuffer;
+
+/**
+ * A view of a region of a byte buffer holding ASCII characters, reading each byte as a character
+ * when it is read.
+ *
+ * @since 4.9.5
+ */
+final class AsciiCharSequence implements CharSequence {
+
+	/** The buffer, read with absolute gets. */
+	private final ByteBuffer buffer;
+
+	/** The index of the first byte of the view in the buffer, inclusive. */
+	private final int from;
+
+	/** The index of the last byte of the view in the buffer, exclusive. */
+	private final int to;
+
+	/**
+	 * Instantiates a new view.
+	 *
+	 * @param buffer the buffer, read with absolute gets
+	 * @param from the index of the first byte of the view in the buffer, inclusive
+	 * @param to the index of the last byte of the view in the buffer, exclusive
+	 */
+	AsciiCharSequence(ByteBuffer buffer, int from, int to) {
+
+		this.buffer = buffer;
+		this.from = from;
+		this.to = to;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.CharSequence#length()
+	 */
+	@Override
+	public int length() {
+		return to - from;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.CharSequence#charAt(int)
+	 */
+	@Override
+	public char charAt(int index) {
+
+		if (index < 0 || index >= to - from) {
+			throw new IndexOutOfBoundsException("index: " + index + ", length: " + (to - from));
+		}
+		return (char) (buffer.get(from + index) & 0xFF);
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.CharSequence#subSequence(int, int)
+	 */
+	@Override
+	public CharSequence subSequence(int start, int end) {
+
+		if (start < 0 || end > to - from || start > end) {
+			throw new IndexOutOfBoundsException("start: " + start + ", end: " + end + ", length: " + (to - from));
+		}
+		return new AsciiCharSequence(buffer, from + start, from + end);
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+
+		char[] chars = new char[to - from];
+
+		for (int i = 0; i < chars.length; i++) {
+			chars[i] = charAt(i);
+		}
+		return new String(chars);
+	}
+}
@@ -0,0 +1,175 @@
+package com.pagosonline.ccutils.validators;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.pagosonline.ccutils.model.CardBrand;
+import com.pagosonline.ccutils.model.CheckDigitAlgorithm;
+import com.pagosonline.ccutils.model.CreditCardType;
+
+/**
+ * Finds the brand of a number among the built-in credit card types and custom brands defined at
+ * runtime, see {@link CardBrand#read(java.io.Reader)}.
+ *
+ * The regular expressions of the custom brands and of the specs of the types are compiled into a
+ * single {@link CardNumberAutomaton}, in the order of the {@link CardBrandPrecedence}. Finding the
+ * brand of a number is then one pass over its digits whatever the number of custom brands, as
+ * finding its type is.
+ *
+ * @since 4.9.5
+ */
+public final class CardBrandClassifier {
+
+	/** The classifier of the built-in types only. */
+	public static final CardBrandClassifier BUILT_IN = new CardBrandClassifier();
+
+	/** The brands by expression index. */
+	private final CardBrand[] brands;
+
+	/** The automaton of the brands. */
+	private final CardNumberAutomaton automaton;
+
+	/** The custom brands. */
+	private final List<CardBrand> customBrands;
+
+	/** The precedence of the custom brands. */
+	private final CardBrandPrecedence precedence;
+
+	/**
+	 * Instantiates the classifier of the built-in types, sharing the automaton of the validator.
+	 */
+	private CardBrandClassifier() {
+
+		CreditCardType[] types = CreditCardValidatorDelegate.types();
+
+		this.brands = new CardBrand[types.length];
+		this.automaton = CreditCardValidatorDelegate.typesAutomaton();
+		this.customBrands = Collections.emptyList();
+		this.precedence = CardBrandPrecedence.BUILT_IN_FIRST;
+
+		for (int i = 0; i < types.length; i++) {
+			brands[i] = CreditCardValidationPlan.of(types[i]).getBrand();
+		}
+	}
+
+	/**
+	 * Instantiates a new classifier of the built-in types and custom brands.
+	 *
+	 * @param customBrands the custom brands, the first ones winning over the next ones
+	 * @param precedence the precedence of the custom brands over the built-in types
+	 * @throws IllegalArgumentException if a brand is not custom, or the precedence is null
+	 */
+	public CardBrandClassifier(final List<CardBrand> customBrands, final CardBrandPrecedence precedence) {
+
+		if (precedence == null) {
+			throw new IllegalArgumentException("The precedence is missing");
+		}
+
+		for (CardBrand brand : customBrands) {
+			if (!brand.isCustom()) {
+				throw new IllegalArgumentException(brand + " is a built-in type");
+			}
+		}
+
+		List<CardBrand> ordered = new ArrayList<>();
+
+		if (precedence == CardBrandPrecedence.CUSTOM_FIRST) {
+			ordered.addAll(customBrands);
+		}
+
+		for (CreditCardType type : CreditCardValidatorDelegate.types()) {
+			ordered.add(CreditCardValidationPlan.of(type).getBrand());
+		}
+
+		if (precedence == CardBrandPrecedence.BUILT_IN_FIRST) {
+			ordered.addAll(customBrands);
+		}
+
+		String[] regExps = new String[ordered.size()];
+
+		for (int i = 0; i < regExps.length; i++) {
+			regExps[i] = ordered.get(i).getRegExp();
+		}
+
+		this.brands = ordered.toArray(new CardBrand[0]);
+		this.automaton = CardNumberAutomaton.compile(regExps);
+		this.customBrands = Collections.unmodifiableList(new ArrayList<>(customBrands));
+		this.precedence = precedence;
+	}
+
+	/**
+	 * Loads the custom brands of a rule file into a new classifier.
+	 *
+	 * @param file the rule file, see {@link CardBrand#read(java.io.Reader)}
+	 * @param precedence the precedence of the custom brands over the built-in types
+	 * @return the classifier
+	 * @throws IOException if the file cannot be read
+	 * @throws IllegalArgumentException if a rule is not valid
+	 */
+	public static CardBrandClassifier load(final Path file, final CardBrandPrecedence precedence) throws IOException {
+
+		return new CardBrandClassifier(CardBrand.load(file), precedence);
+	}
+
+	/**
+	 * Finds the brand of a number. Characters that are not digits are skipped.
+	 *
+	 * @param number the number
+	 * @return the brand, the brand of {@link CreditCardType#UNKNOWN} if none matches
+	 */
+	public CardBrand findCardBrand(final CharSequence number) {
+
+		int index = automaton.find(number);
+
+		return index == CardNumberAutomaton.NO_MATCH ? CreditCardValidationPlan.of(CreditCardType.UNKNOWN).getBrand()
+				: brands[index];
+	}
+
+	/**
+	 * Validates a number: it must have only digits, match a brand and have a valid check digit if
+	 * its brand has one.
+	 *
+	 * @param number the number
+	 * @return true if the number is valid
+	 */
+	public boolean isValid(final CharSequence number) {
+
+		int index = automaton.match(number);
+
+		return index != CardNumberAutomaton.NO_MATCH
+				&& (brands[index].getCheckDigitAlgorithm() != CheckDigitAlgorithm.LUHN || LuhnCheck.isValid(number));
+	}
+
+	/**
+	 * Gets the custom brands.
+	 *
+	 * @return the unmodifiable custom brands, in their order of precedence
+	 */
+	public List<CardBrand> getCustomBrands() {
+
+		return customBrands;
+	}
+
+	/**
+	 * Gets the precedence of the custom brands over the built-in types.
+	 *
+	 * @return the precedence
+	 */
+	public CardBrandPrecedence getPrecedence() {
+
+		return precedence;
+	}
+
+	/**
+	 * Gets the number of states of the automaton of the brands.
+	 *
+	 * @return the number of states
+	 */
+	public int getStateCount() {
+
+		return automaton.getStateCount();
+	}
+}
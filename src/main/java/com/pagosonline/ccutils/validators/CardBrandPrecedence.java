@@ -0,0 +1,16 @@
+package com.pagosonline.ccutils.validators;
+
+/**
+ * The brand a {@link CardBrandClassifier} finds for the numbers both a custom brand and a built-in
+ * credit card type match. Among the custom brands, the first one defined wins.
+ *
+ * @since 4.9.5
+ */
+public enum CardBrandPrecedence {
+
+	/** The custom brands override the built-in types, for example a local range of VISA BINs. */
+	CUSTOM_FIRST,
+
+	/** The built-in types win, the custom brands only cover the numbers of no type. */
+	BUILT_IN_FIRST
+}
@@ -0,0 +1,987 @@
+package com.pagosonline.ccutils.validators;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.pagosonline.ccutils.model.PrefixRange;
+
+/**
+ * A deterministic automaton over the digits of a card number.
+ *
+ * The automaton is compiled once from a list of regular expressions and answers, in a single
+ * left-to-right pass and without allocating, the index of the first expression that matches the
+ * whole input. The results are the same ones {@link String#matches(String)} gives when the
+ * expressions are tried in order.
+ *
+ * Only the subset of the regular expression syntax used by the card type definitions is supported:
+ * digits, <code>\d</code>, digit classes such as <code>[0-5]</code>, capturing and non-capturing
+ * groups, alternation, the <code>^</code> and <code>$</code> anchors and the <code>?</code>,
+ * <code>*</code>, <code>+</code> and <code>{n,m}</code> quantifiers.
+ *
+ * @since 4.9.5
+ */
+public final class CardNumberAutomaton implements CardNumberClassifier {
+
+	/** The value returned when no expression matches. */
+	public static final int NO_MATCH = -1;
+
+	/**
+	 * The value returned by {@link #findUniform(CharSequence, int)} when the matching expression
+	 * depends on the digits after the prefix.
+	 */
+	public static final int MIXED = -2;
+
+	/** The maximum number of digits after the prefix of {@link #findUniform(CharSequence, int)}. */
+	public static final int MAX_UNIFORM_DIGITS = 31;
+
+	/** The number of symbols of the automaton alphabet. */
+	private static final int RADIX = 10;
+
+	/** The initial state. */
+	private static final int START = 0;
+
+	/** The dead state, once reached no expression can match. */
+	private static final int DEAD = -1;
+
+	/** The transitions table, indexed by <code>state * RADIX + digit</code>. */
+	private final int[] transitions;
+
+	/** The index of the first matching expression by state, {@link #NO_MATCH} if none. */
+	private final int[] accepts;
+
+	/**
+	 * The expression matched by every suffix of a given length by state, {@link #MIXED} if it
+	 * depends on the suffix, indexed by <code>state * (MAX_UNIFORM_DIGITS + 1) + length</code>.
+	 */
+	private final int[] uniform;
+
+	/**
+	 * Instantiates a new card number automaton.
+	 *
+	 * @param transitions the transitions table
+	 * @param accepts the accepted expression by state
+	 */
+	private CardNumberAutomaton(int[] transitions, int[] accepts) {
+
+		this.transitions = transitions;
+		this.accepts = accepts;
+		this.uniform = buildUniform(transitions, accepts);
+	}
+
+	/**
+	 * Compiles the given regular expressions into a single automaton.
+	 * The position of each expression defines its priority.
+	 *
+	 * @param regExps the regular expressions
+	 * @return the compiled automaton
+	 * @throws IllegalArgumentException if an expression uses an unsupported construct
+	 */
+	public static CardNumberAutomaton compile(final String... regExps) {
+
+		Nfa nfa = new Nfa();
+		List<Integer> entries = new ArrayList<>(regExps.length);
+
+		for (int i = 0; i < regExps.length; i++) {
+			Node node = new Parser(regExps[i]).parse();
+			entries.add(nfa.emit(node, nfa.accept(i)));
+		}
+
+		return new SubsetBuilder(nfa, nfa.split(entries)).build();
+	}
+
+	/**
+	 * Returns the index of the first expression that matches the whole input.
+	 * Any character that is not an ASCII digit makes the input not match.
+	 *
+	 * @param number the input
+	 * @return the expression index, {@link #NO_MATCH} if none matches
+	 */
+	public int match(final CharSequence number) {
+
+		return match(number, 0, number.length());
+	}
+
+	/**
+	 * Returns the index of the first expression that matches the given region of the input.
+	 * Any character that is not an ASCII digit makes the input not match.
+	 *
+	 * @param number the input
+	 * @param from the index of the first character, inclusive
+	 * @param to the index of the last character, exclusive
+	 * @return the expression index, {@link #NO_MATCH} if none matches
+	 */
+	public int match(final CharSequence number, final int from, final int to) {
+
+		int state = START;
+
+		for (int i = from; i < to; i++) {
+
+			int digit = number.charAt(i) - '0';
+
+			if (digit < 0 || digit >= RADIX) {
+				return NO_MATCH;
+			}
+
+			state = transitions[state * RADIX + digit];
+
+			if (state == DEAD) {
+				return NO_MATCH;
+			}
+		}
+
+		return accepts[state];
+	}
+
+	/**
+	 * Returns the index of the first expression that matches the digits of the input.
+	 * Characters that are not ASCII digits are skipped, as <code>replaceAll("\\D+", "")</code> does.
+	 *
+	 * @param number the input
+	 * @return the expression index, {@link #NO_MATCH} if none matches
+	 */
+	@Override
+	public int find(final CharSequence number) {
+
+		int state = START;
+
+		for (int i = 0, length = number.length(); i < length; i++) {
+
+			int digit = number.charAt(i) - '0';
+
+			if (digit < 0 || digit >= RADIX) {
+				continue;
+			}
+
+			state = transitions[state * RADIX + digit];
+
+			if (state == DEAD) {
+				return NO_MATCH;
+			}
+		}
+
+		return accepts[state];
+	}
+
+	/**
+	 * Returns the index of the first expression that matches the given region of a byte buffer.
+	 * Any byte that is not an ASCII digit makes the input not match.
+	 *
+	 * @param number the buffer, read with absolute gets
+	 * @param from the index of the first byte, inclusive
+	 * @param to the index of the last byte, exclusive
+	 * @return the expression index, {@link #NO_MATCH} if none matches
+	 */
+	public int match(final ByteBuffer number, final int from, final int to) {
+
+		int state = START;
+
+		for (int i = from; i < to; i++) {
+
+			int digit = number.get(i) - '0';
+
+			if (digit < 0 || digit >= RADIX) {
+				return NO_MATCH;
+			}
+
+			state = transitions[state * RADIX + digit];
+
+			if (state == DEAD) {
+				return NO_MATCH;
+			}
+		}
+
+		return accepts[state];
+	}
+
+	/**
+	 * Returns the index of the first expression that matches the digits of the given region of a
+	 * byte buffer. Bytes that are not ASCII digits are skipped.
+	 *
+	 * @param number the buffer, read with absolute gets
+	 * @param from the index of the first byte, inclusive
+	 * @param to the index of the last byte, exclusive
+	 * @return the expression index, {@link #NO_MATCH} if none matches
+	 */
+	public int find(final ByteBuffer number, final int from, final int to) {
+
+		int state = START;
+
+		for (int i = from; i < to; i++) {
+
+			int digit = number.get(i) - '0';
+
+			if (digit < 0 || digit >= RADIX) {
+				continue;
+			}
+
+			state = transitions[state * RADIX + digit];
+
+			if (state == DEAD) {
+				return NO_MATCH;
+			}
+		}
+
+		return accepts[state];
+	}
+
+	/**
+	 * Returns the index of the expression that matches every input with the same first digits and
+	 * the same number of digits as the given input. Characters that are not ASCII digits are
+	 * skipped, as {@link #find(CharSequence)} does, so when the result is not {@link #MIXED} it is
+	 * the result of {@link #find(CharSequence)} for all those inputs.
+	 *
+	 * @param number the input
+	 * @param prefixDigits the number of first digits the other inputs share
+	 * @return the expression index, {@link #NO_MATCH} if none matches any of the inputs,
+	 *         {@link #MIXED} if the result depends on the digits after the prefix
+	 */
+	public int findUniform(final CharSequence number, final int prefixDigits) {
+
+		int state = START;
+		int digits = 0;
+
+		for (int i = 0, length = number.length(); i < length; i++) {
+
+			int digit = number.charAt(i) - '0';
+
+			if (digit < 0 || digit >= RADIX) {
+				continue;
+			}
+
+			if (digits++ < prefixDigits && state != DEAD) {
+				state = transitions[state * RADIX + digit];
+			}
+		}
+
+		if (state == DEAD) {
+			return NO_MATCH;
+		}
+
+		int remaining = Math.max(0, digits - prefixDigits);
+
+		return remaining > MAX_UNIFORM_DIGITS ? MIXED : uniform[state * (MAX_UNIFORM_DIGITS + 1) + remaining];
+	}
+
+	/**
+	 * Returns the state reached from a state with a digit.
+	 *
+	 * @param state the state, the initial one is 0
+	 * @param digit the digit
+	 * @return the next state, -1 once no expression can match
+	 */
+	int next(final int state, final int digit) {
+
+		return state == DEAD ? DEAD : transitions[state * RADIX + digit];
+	}
+
+	/**
+	 * Returns the expression accepted in a state.
+	 *
+	 * @param state the state, -1 once no expression can match
+	 * @return the expression index, {@link #NO_MATCH} if none
+	 */
+	int accept(final int state) {
+
+		return state == DEAD ? NO_MATCH : accepts[state];
+	}
+
+	/**
+	 * Returns the expression matched by every suffix of a given length from a state.
+	 *
+	 * @param state the state, -1 once no expression can match
+	 * @param remaining the length of the suffixes, at most {@link #MAX_UNIFORM_DIGITS}
+	 * @return the expression index, {@link #NO_MATCH} if none matches, {@link #MIXED} if it depends
+	 *         on the suffix
+	 */
+	int uniform(final int state, final int remaining) {
+
+		return state == DEAD ? NO_MATCH : uniform[state * (MAX_UNIFORM_DIGITS + 1) + remaining];
+	}
+
+	/**
+	 * Returns the ranges of the prefixes of the numbers matched by any expression, with the numbers
+	 * of digits allowed after each. The digits are read until every number with the prefix matches
+	 * or not by its number of digits only; the ranges still depending on the next digits after
+	 * <code>maxPrefixDigits</code> digits are not exact. All the ranges have the number of digits of
+	 * the longest prefix and the adjacent ranges with the same numbers of digits are merged.
+	 *
+	 * @param maxPrefixDigits the maximum number of digits of the prefixes, at most 18
+	 * @return the sorted ranges, for the numbers of up to {@value #MAX_UNIFORM_DIGITS} digits
+	 * @throws IllegalArgumentException if the maximum number of digits is not between 0 and 18
+	 */
+	public List<PrefixRange> getPrefixRanges(final int maxPrefixDigits) {
+
+		if (maxPrefixDigits < 0 || maxPrefixDigits > 18) {
+			throw new IllegalArgumentException("The prefixes must have 0 to 18 digits: " + maxPrefixDigits);
+		}
+
+		// prefix, number of digits, lengths, exact flag and whether only the prefix matches
+		List<long[]> found = new ArrayList<>();
+		addPrefixRanges(START, 0, 0, maxPrefixDigits, found);
+
+		int prefixDigits = 0;
+
+		for (long[] range : found) {
+			prefixDigits = Math.max(prefixDigits, (int) range[1]);
+		}
+
+		List<PrefixRange> ranges = new ArrayList<>();
+		long[] merged = null;
+
+		for (long[] range : found) {
+
+			long scale = 1;
+
+			for (int i = (int) range[1]; i < prefixDigits; i++) {
+				scale *= RADIX;
+			}
+
+			long first = range[0] * scale;
+			long last = range[4] != 0 ? first : first + scale - 1;
+
+			if (merged != null && merged[1] + 1 == first && merged[2] == range[2] && merged[3] == range[3]) {
+				merged[1] = last;
+				continue;
+			}
+
+			if (merged != null) {
+				ranges.add(new PrefixRange(merged[0], merged[1], prefixDigits, (int) merged[2], merged[3] != 0));
+			}
+			merged = new long[] { first, last, range[2], range[3] };
+		}
+
+		if (merged != null) {
+			ranges.add(new PrefixRange(merged[0], merged[1], prefixDigits, (int) merged[2], merged[3] != 0));
+		}
+		return ranges;
+	}
+
+	/**
+	 * Adds the prefix ranges of the numbers from a state, in the order of their prefixes.
+	 *
+	 * @param state the state after the prefix
+	 * @param prefix the prefix
+	 * @param depth the number of digits of the prefix
+	 * @param maxPrefixDigits the maximum number of digits of the prefixes
+	 * @param ranges the prefix, number of digits, lengths, exact flag and whether only the prefix
+	 *        matches, of the ranges found
+	 */
+	private void addPrefixRanges(int state, long prefix, int depth, int maxPrefixDigits, List<long[]> ranges) {
+
+		int lengths = 0;
+		boolean exact = true;
+
+		for (int remaining = 0; depth + remaining <= MAX_UNIFORM_DIGITS; remaining++) {
+
+			int matched = uniform(state, remaining);
+
+			if (matched != NO_MATCH) {
+				lengths |= 1 << (depth + remaining);
+				exact &= matched != MIXED;
+			}
+		}
+
+		if (lengths == 0) {
+			return;
+		}
+
+		if (exact || depth == maxPrefixDigits) {
+			ranges.add(new long[] { prefix, depth, lengths & 0xFFFFFFFFL, exact ? 1 : 0, 0 });
+			return;
+		}
+
+		// the prefix itself, padded with zeros as a shorter number is
+		if (accept(state) != NO_MATCH) {
+			ranges.add(new long[] { prefix, depth, (1L << depth) & 0xFFFFFFFFL, 1, 1 });
+		}
+
+		for (int digit = 0; digit < RADIX; digit++) {
+
+			int next = next(state, digit);
+
+			if (next != DEAD) {
+				addPrefixRanges(next, prefix * RADIX + digit, depth + 1, maxPrefixDigits, ranges);
+			}
+		}
+	}
+
+	/**
+	 * Gets the number of states.
+	 *
+	 * @return the number of states
+	 */
+	public int getStateCount() {
+
+		return accepts.length;
+	}
+
+	/**
+	 * Builds the table of the expressions matched by every suffix of each length from each state.
+	 *
+	 * @param transitions the transitions table
+	 * @param accepts the accepted expression by state
+	 * @return the table indexed by <code>state * (MAX_UNIFORM_DIGITS + 1) + length</code>
+	 */
+	private static int[] buildUniform(int[] transitions, int[] accepts) {
+
+		int width = MAX_UNIFORM_DIGITS + 1;
+		int[] uniform = new int[accepts.length * width];
+
+		for (int state = 0; state < accepts.length; state++) {
+			uniform[state * width] = accepts[state];
+		}
+
+		for (int length = 1; length < width; length++) {
+			for (int state = 0; state < accepts.length; state++) {
+
+				int result = 0;
+
+				for (int digit = 0; digit < RADIX; digit++) {
+
+					int next = transitions[state * RADIX + digit];
+					int matched = next == DEAD ? NO_MATCH : uniform[next * width + length - 1];
+
+					if (digit == 0) {
+						result = matched;
+					} else if (matched != result) {
+						result = MIXED;
+						break;
+					}
+				}
+				uniform[state * width + length] = result;
+			}
+		}
+		return uniform;
+	}
+
+	/**
+	 * A regular expression syntax tree node.
+	 */
+	private abstract static class Node {
+	}
+
+	/**
+	 * Matches one digit of a set.
+	 */
+	private static final class DigitsNode extends Node {
+
+		/** The bit mask of the accepted digits. */
+		private final int mask;
+
+		DigitsNode(int mask) {
+			this.mask = mask;
+		}
+	}
+
+	/**
+	 * Zero width assertion.
+	 */
+	private static final class AnchorNode extends Node {
+
+		/** True for the beginning of input, false for the end of input. */
+		private final boolean begin;
+
+		AnchorNode(boolean begin) {
+			this.begin = begin;
+		}
+	}
+
+	/**
+	 * A sequence of nodes.
+	 */
+	private static final class SequenceNode extends Node {
+
+		/** The nodes. */
+		private final List<Node> nodes;
+
+		SequenceNode(List<Node> nodes) {
+			this.nodes = nodes;
+		}
+	}
+
+	/**
+	 * An alternation of nodes.
+	 */
+	private static final class AlternationNode extends Node {
+
+		/** The alternatives. */
+		private final List<Node> alternatives;
+
+		AlternationNode(List<Node> alternatives) {
+			this.alternatives = alternatives;
+		}
+	}
+
+	/**
+	 * A node repeated between a minimum and a maximum of times.
+	 */
+	private static final class RepeatNode extends Node {
+
+		/** The repeated node. */
+		private final Node node;
+
+		/** The minimum number of repetitions. */
+		private final int min;
+
+		/** The maximum number of repetitions, negative if unbounded. */
+		private final int max;
+
+		RepeatNode(Node node, int min, int max) {
+			this.node = node;
+			this.min = min;
+			this.max = max;
+		}
+	}
+
+	/**
+	 * Recursive descent parser for the supported regular expression subset.
+	 */
+	private static final class Parser {
+
+		/** The all digits mask. */
+		private static final int ALL_DIGITS = (1 << RADIX) - 1;
+
+		/** The regular expression. */
+		private final String regExp;
+
+		/** The current position. */
+		private int position;
+
+		Parser(String regExp) {
+			this.regExp = regExp;
+		}
+
+		Node parse() {
+
+			if (regExp == null) {
+				throw new IllegalArgumentException("the regular expression cannot be null");
+			}
+
+			Node node = parseAlternation();
+
+			if (position < regExp.length()) {
+				throw unsupported();
+			}
+			return node;
+		}
+
+		private Node parseAlternation() {
+
+			List<Node> alternatives = new ArrayList<>();
+			alternatives.add(parseSequence());
+
+			while (peek() == '|') {
+				position++;
+				alternatives.add(parseSequence());
+			}
+
+			return alternatives.size() == 1 ? alternatives.get(0) : new AlternationNode(alternatives);
+		}
+
+		private Node parseSequence() {
+
+			List<Node> nodes = new ArrayList<>();
+
+			while (position < regExp.length() && peek() != '|' && peek() != ')') {
+				nodes.add(parseQuantifier(parseAtom()));
+			}
+
+			return nodes.size() == 1 ? nodes.get(0) : new SequenceNode(nodes);
+		}
+
+		private Node parseAtom() {
+
+			char c = regExp.charAt(position++);
+
+			switch (c) {
+				case '(':
+					if (regExp.startsWith("?:", position)) {
+						position += 2;
+					} else if (peek() == '?') {
+						throw unsupported();
+					}
+					Node group = parseAlternation();
+					expect(')');
+					return group;
+				case '[':
+					return new DigitsNode(parseClass());
+				case '\\':
+					return new DigitsNode(parseEscape());
+				case '^':
+					return new AnchorNode(true);
+				case '$':
+					return new AnchorNode(false);
+				default:
+					return new DigitsNode(digitMask(c));
+			}
+		}
+
+		private int parseClass() {
+
+			if (peek() == '^') {
+				throw unsupported();
+			}
+
+			int mask = 0;
+
+			while (peek() != ']') {
+
+				char c = next();
+
+				if (c == '\\') {
+					mask |= parseEscape();
+				} else if (peek() == '-' && position + 1 < regExp.length() && regExp.charAt(position + 1) != ']') {
+					position++;
+					int low = digit(c);
+					int high = digit(next());
+					for (int digit = low; digit <= high; digit++) {
+						mask |= 1 << digit;
+					}
+				} else {
+					mask |= digitMask(c);
+				}
+			}
+			position++;
+
+			return mask;
+		}
+
+		private int parseEscape() {
+
+			if (next() != 'd') {
+				throw unsupported();
+			}
+			return ALL_DIGITS;
+		}
+
+		private Node parseQuantifier(Node node) {
+
+			Node quantified = node;
+
+			while (position < regExp.length()) {
+
+				char c = peek();
+
+				if (c == '?') {
+					quantified = new RepeatNode(quantified, 0, 1);
+				} else if (c == '*') {
+					quantified = new RepeatNode(quantified, 0, -1);
+				} else if (c == '+') {
+					quantified = new RepeatNode(quantified, 1, -1);
+				} else if (c == '{') {
+					position++;
+					int min = parseNumber();
+					int max = min;
+					if (peek() == ',') {
+						position++;
+						max = peek() == '}' ? -1 : parseNumber();
+					}
+					if (peek() != '}' || (max >= 0 && max < min)) {
+						throw unsupported();
+					}
+					quantified = new RepeatNode(quantified, min, max);
+				} else {
+					break;
+				}
+				position++;
+			}
+
+			return quantified;
+		}
+
+		private int parseNumber() {
+
+			int start = position;
+
+			while (position < regExp.length() && Character.isDigit(peek())) {
+				position++;
+			}
+
+			if (start == position) {
+				throw unsupported();
+			}
+			return Integer.parseInt(regExp.substring(start, position));
+		}
+
+		private int digitMask(char c) {
+
+			return 1 << digit(c);
+		}
+
+		private int digit(char c) {
+
+			if (c < '0' || c > '9') {
+				throw unsupported();
+			}
+			return c - '0';
+		}
+
+		private void expect(char c) {
+
+			if (next() != c) {
+				throw unsupported();
+			}
+		}
+
+		private char next() {
+
+			if (position >= regExp.length()) {
+				throw unsupported();
+			}
+			return regExp.charAt(position++);
+		}
+
+		private char peek() {
+
+			return position < regExp.length() ? regExp.charAt(position) : '\0';
+		}
+
+		private IllegalArgumentException unsupported() {
+
+			return new IllegalArgumentException("Unsupported regular expression [" + regExp + "] at index "
+					+ Math.max(0, position - 1));
+		}
+	}
+
+	/**
+	 * Nondeterministic automaton built from the syntax trees.
+	 */
+	private static final class Nfa {
+
+		/** Matches one digit of {@link #masks}. */
+		static final int DIGITS = 0;
+
+		/** Epsilon transitions to {@link #splits}. */
+		static final int SPLIT = 1;
+
+		/** Beginning of input assertion. */
+		static final int BEGIN = 2;
+
+		/** End of input assertion. */
+		static final int END = 3;
+
+		/** Accepts the expression {@link #masks}. */
+		static final int ACCEPT = 4;
+
+		/** The state kinds. */
+		final List<Integer> kinds = new ArrayList<>();
+
+		/** The digits mask or the accepted expression by state. */
+		final List<Integer> masks = new ArrayList<>();
+
+		/** The next state by state. */
+		final List<Integer> nexts = new ArrayList<>();
+
+		/** The epsilon transitions by state. */
+		final List<List<Integer>> splits = new ArrayList<>();
+
+		int accept(int expression) {
+
+			return add(ACCEPT, expression, -1, null);
+		}
+
+		int split(List<Integer> targets) {
+
+			return add(SPLIT, 0, -1, targets);
+		}
+
+		int emit(Node node, int next) {
+
+			if (node instanceof DigitsNode) {
+				return add(DIGITS, ((DigitsNode) node).mask, next, null);
+			}
+
+			if (node instanceof AnchorNode) {
+				return add(((AnchorNode) node).begin ? BEGIN : END, 0, next, null);
+			}
+
+			if (node instanceof SequenceNode) {
+				List<Node> nodes = ((SequenceNode) node).nodes;
+				int entry = next;
+				for (int i = nodes.size() - 1; i >= 0; i--) {
+					entry = emit(nodes.get(i), entry);
+				}
+				return entry;
+			}
+
+			if (node instanceof AlternationNode) {
+				List<Integer> targets = new ArrayList<>();
+				for (Node alternative : ((AlternationNode) node).alternatives) {
+					targets.add(emit(alternative, next));
+				}
+				return split(targets);
+			}
+
+			RepeatNode repeat = (RepeatNode) node;
+			int entry = next;
+
+			if (repeat.max < 0) {
+				List<Integer> targets = new ArrayList<>();
+				entry = split(targets);
+				targets.add(emit(repeat.node, entry));
+				targets.add(next);
+			} else {
+				for (int i = repeat.min; i < repeat.max; i++) {
+					List<Integer> targets = new ArrayList<>();
+					targets.add(emit(repeat.node, entry));
+					targets.add(next);
+					entry = split(targets);
+				}
+			}
+
+			for (int i = 0; i < repeat.min; i++) {
+				entry = emit(repeat.node, entry);
+			}
+			return entry;
+		}
+
+		private int add(int kind, int mask, int next, List<Integer> targets) {
+
+			kinds.add(kind);
+			masks.add(mask);
+			nexts.add(next);
+			splits.add(targets);
+			return kinds.size() - 1;
+		}
+
+		/**
+		 * Adds to the set the states reachable from the given one without consuming a digit.
+		 */
+		void close(int state, boolean begin, boolean end, BitSet set) {
+
+			Deque<Integer> pending = new ArrayDeque<>();
+			pending.push(state);
+
+			while (!pending.isEmpty()) {
+
+				int current = pending.pop();
+
+				if (set.get(current)) {
+					continue;
+				}
+				set.set(current);
+
+				switch (kinds.get(current)) {
+					case SPLIT:
+						for (int target : splits.get(current)) {
+							pending.push(target);
+						}
+						break;
+					case BEGIN:
+						if (begin) {
+							pending.push(nexts.get(current));
+						}
+						break;
+					case END:
+						if (end) {
+							pending.push(nexts.get(current));
+						}
+						break;
+					default:
+						break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Builds the deterministic automaton with the subset construction.
+	 */
+	private static final class SubsetBuilder {
+
+		/** The nondeterministic automaton. */
+		private final Nfa nfa;
+
+		/** The entry state of the nondeterministic automaton. */
+		private final int entry;
+
+		/** The deterministic states, as sets of nondeterministic states. */
+		private final List<BitSet> states = new ArrayList<>();
+
+		/** The deterministic state by set, the initial state is never shared. */
+		private final Map<BitSet, Integer> index = new HashMap<>();
+
+		SubsetBuilder(Nfa nfa, int entry) {
+			this.nfa = nfa;
+			this.entry = entry;
+		}
+
+		CardNumberAutomaton build() {
+
+			BitSet initial = new BitSet();
+			nfa.close(entry, true, false, initial);
+			states.add(initial);
+
+			List<int[]> rows = new ArrayList<>();
+
+			for (int state = 0; state < states.size(); state++) {
+
+				BitSet set = states.get(state);
+				int[] row = new int[RADIX];
+
+				for (int digit = 0; digit < RADIX; digit++) {
+					row[digit] = target(set, digit);
+				}
+				rows.add(row);
+			}
+
+			int[] transitions = new int[states.size() * RADIX];
+			int[] accepts = new int[states.size()];
+
+			for (int state = 0; state < states.size(); state++) {
+				System.arraycopy(rows.get(state), 0, transitions, state * RADIX, RADIX);
+				accepts[state] = accepted(states.get(state), state == START);
+			}
+
+			return new CardNumberAutomaton(transitions, accepts);
+		}
+
+		private int target(BitSet set, int digit) {
+
+			BitSet next = new BitSet();
+
+			for (int state = set.nextSetBit(0); state >= 0; state = set.nextSetBit(state + 1)) {
+				if (nfa.kinds.get(state) == Nfa.DIGITS && (nfa.masks.get(state) & (1 << digit)) != 0) {
+					nfa.close(nfa.nexts.get(state), false, false, next);
+				}
+			}
+
+			if (next.isEmpty()) {
+				return DEAD;
+			}
+
+			Integer existing = index.get(next);
+
+			if (existing == null) {
+				existing = states.size();
+				states.add(next);
+				index.put(next, existing);
+			}
+			return existing;
+		}
+
+		private int accepted(BitSet set, boolean begin) {
+
+			BitSet closure = new BitSet();
+
+			for (int state = set.nextSetBit(0); state >= 0; state = set.nextSetBit(state + 1)) {
+				nfa.close(state, begin, true, closure);
+			}
+
+			int accepted = NO_MATCH;
+
+			for (int state = closure.nextSetBit(0); state >= 0; state = closure.nextSetBit(state + 1)) {
+				if (nfa.kinds.get(state) == Nfa.ACCEPT && (accepted == NO_MATCH || nfa.masks.get(state) < accepted)) {
+					accepted = nfa.masks.get(state);
+				}
+			}
+			return accepted;
+		}
+	}
+}
@@ -0,0 +1,78 @@
+package com.pagosonline.ccutils.validators;
+
+import com.pagosonline.ccutils.model.CreditCardType;
+
+/**
+ * Reads the packed results of {@link CreditCardValidatorDelegate#classifyAndValidate(CharSequence)}:
+ * the type, the validity and the number of digits of a number in a single int, so checking a number
+ * creates no object.
+ *
+ * @since 4.9.5
+ */
+public final class CardNumberCheck {
+
+	/** The mask of the type ordinal. */
+	private static final int TYPE_MASK = 0xFF;
+
+	/** The valid bit. */
+	private static final int VALID = 1 << 8;
+
+	/** The shift of the number of digits. */
+	private static final int DIGITS_SHIFT = 9;
+
+	/** The credit card types by ordinal. */
+	private static final CreditCardType[] TYPES = CreditCardType.values();
+
+	/**
+	 * Default constructor.
+	 */
+	private CardNumberCheck() {
+	}
+
+	/**
+	 * Packs a result.
+	 *
+	 * @param type the credit card type
+	 * @param valid true if the number is valid for the type
+	 * @param digits the number of digits
+	 * @return the packed result
+	 */
+	static int pack(final CreditCardType type, final boolean valid, final int digits) {
+
+		return type.ordinal() | (valid ? VALID : 0) | digits << DIGITS_SHIFT;
+	}
+
+	/**
+	 * Gets the credit card type of a result.
+	 *
+	 * @param result the packed result
+	 * @return the credit card type, {@link CreditCardType#UNKNOWN} if none matches
+	 */
+	public static CreditCardType getType(final int result) {
+
+		return TYPES[result & TYPE_MASK];
+	}
+
+	/**
+	 * Tells if the number of a result is valid for its type.
+	 *
+	 * @param result the packed result
+	 * @return true if the number is valid
+	 */
+	public static boolean isValid(final int result) {
+
+		return (result & VALID) != 0;
+	}
+
+	/**
+	 * Gets the number of digits of the number of a result.
+	 *
+	 * @param result the packed result
+	 * @return the number of digits, 0 if the number has a character that is neither a digit nor a
+	 *         separator
+	 */
+	public static int getDigits(final int result) {
+
+		return result >>> DIGITS_SHIFT;
+	}
+}
@@ -0,0 +1,19 @@
+package com.pagosonline.ccutils.validators;
+
+/**
+ * Finds the first of a list of regular expressions that matches the digits of a card number.
+ *
+ * @see CardNumberAutomaton
+ * @since 4.9.5
+ */
+interface CardNumberClassifier {
+
+	/**
+	 * Returns the index of the first expression that matches the digits of the input. Characters
+	 * that are not ASCII digits are skipped.
+	 *
+	 * @param number the input
+	 * @return the expression index, {@link CardNumberAutomaton#NO_MATCH} if none matches
+	 */
+	int find(CharSequence number);
+}
@@ -0,0 +1,123 @@
+package com.pagosonline.ccutils.validators;
+
+import com.pagosonline.ccutils.model.CreditCardType;
+
+/**
+ * The result of a batch validation, kept in primitive arrays instead of one object per card:
+ * the {@link CreditCardType#ordinal()} and the {@link CreditCardValidationCode#ordinal()} of each
+ * element.
+ *
+ * @since 4.9.5
+ */
+public final class CreditCardBatchResult {
+
+	/** The credit card types, to resolve the ordinals. */
+	private static final CreditCardType[] TYPES = CreditCardType.values();
+
+	/** The validation codes, to resolve the ordinals. */
+	private static final CreditCardValidationCode[] CODES = CreditCardValidationCode.values();
+
+	/** The type ordinal of each element. */
+	private final byte[] types;
+
+	/** The validation code ordinal of each element. */
+	private final byte[] codes;
+
+	/**
+	 * Instantiates a new batch result.
+	 *
+	 * @param size the number of elements
+	 */
+	CreditCardBatchResult(int size) {
+
+		this.types = new byte[size];
+		this.codes = new byte[size];
+	}
+
+	/**
+	 * Gets the number of elements.
+	 *
+	 * @return the number of elements
+	 */
+	public int size() {
+		return types.length;
+	}
+
+	/**
+	 * Gets the type of an element.
+	 *
+	 * @param index the element index
+	 * @return the credit card type
+	 */
+	public CreditCardType getType(final int index) {
+		return TYPES[types[index]];
+	}
+
+	/**
+	 * Gets the validation code of an element.
+	 *
+	 * @param index the element index
+	 * @return the validation code
+	 */
+	public CreditCardValidationCode getCode(final int index) {
+		return CODES[codes[index]];
+	}
+
+	/**
+	 * Checks if an element is valid.
+	 *
+	 * @param index the element index
+	 * @return true if valid, false otherwise
+	 */
+	public boolean isValid(final int index) {
+		return codes[index] == CreditCardValidationCode.VALID.ordinal();
+	}
+
+	/**
+	 * Gets the type ordinal of each element, the array is not copied.
+	 *
+	 * @return the type ordinals
+	 */
+	public byte[] getTypeOrdinals() {
+		return types;
+	}
+
+	/**
+	 * Gets the validation code ordinal of each element, the array is not copied.
+	 *
+	 * @return the validation code ordinals
+	 */
+	public byte[] getCodeOrdinals() {
+		return codes;
+	}
+
+	/**
+	 * Counts the elements that are not valid.
+	 *
+	 * @return the number of invalid elements
+	 */
+	public int countInvalid() {
+
+		int invalid = 0;
+
+		for (byte code : codes) {
+			if (code != CreditCardValidationCode.VALID.ordinal()) {
+				invalid++;
+			}
+		}
+		return invalid;
+	}
+
+	/**
+	 * Records the result of an element.
+	 *
+	 * @param index the element index
+	 * @param type the credit card type
+	 * @param code the validation code
+	 */
+	void set(int index, CreditCardType type, CreditCardValidationCode code) {
+
+		types[index] = (byte) type.ordinal();
+		codes[index] = (byte) code.ordinal();
+	}
+}
@@ -0,0 +1,115 @@
+package com.pagosonline.ccutils.validators;
+
+import java.util.List;
+import java.util.concurrent.RecursiveAction;
+
+import com.pagosonline.ccutils.model.CreditCardType;
+
+/**
+ * Fork/join task that validates a range of a batch, splitting it in halves until the ranges are
+ * small enough to be validated sequentially.
+ *
+ * @since 4.9.5
+ */
+final class CreditCardBatchTask extends RecursiveAction {
+
+	/** The serial version UID. */
+	private static final long serialVersionUID = 6283374916620532135L;
+
+	/** The minimum number of cards validated sequentially. */
+	private static final int MIN_THRESHOLD = 1024;
+
+	/** The validator. */
+	private final transient CreditCardValidatorDelegate validator;
+
+	/** The numbers. */
+	private final transient List<String> numbers;
+
+	/** The types of the numbers, null to find them. */
+	private final transient List<CreditCardType> types;
+
+	/** The result. */
+	private final transient CreditCardBatchResult result;
+
+	/** The first index of the range, inclusive. */
+	private final int from;
+
+	/** The last index of the range, exclusive. */
+	private final int to;
+
+	/** The number of cards validated sequentially. */
+	private final int threshold;
+
+	/**
+	 * Instantiates a new batch task.
+	 *
+	 * @param validator the validator
+	 * @param numbers the numbers
+	 * @param types the types of the numbers, null to find them
+	 * @param result the result
+	 * @param from the first index of the range, inclusive
+	 * @param to the last index of the range, exclusive
+	 * @param threshold the number of cards validated sequentially
+	 */
+	CreditCardBatchTask(CreditCardValidatorDelegate validator, List<String> numbers, List<CreditCardType> types,
+			CreditCardBatchResult result, int from, int to, int threshold) {
+
+		this.validator = validator;
+		this.numbers = numbers;
+		this.types = types;
+		this.result = result;
+		this.from = from;
+		this.to = to;
+		this.threshold = threshold;
+	}
+
+	/**
+	 * Computes the sequential threshold of a batch: about eight tasks per worker.
+	 *
+	 * @param size the batch size
+	 * @param parallelism the pool parallelism
+	 * @return the threshold
+	 */
+	static int threshold(int size, int parallelism) {
+
+		return Math.max(MIN_THRESHOLD, size / (parallelism * 8));
+	}
+
+	/* (non-Javadoc)
+	 * @see java.util.concurrent.RecursiveAction#compute()
+	 */
+	@Override
+	protected void compute() {
+
+		if (to - from <= threshold) {
+			validate();
+			return;
+		}
+
+		int middle = (from + to) >>> 1;
+
+		invokeAll(new CreditCardBatchTask(validator, numbers, types, result, from, middle, threshold),
+				new CreditCardBatchTask(validator, numbers, types, result, middle, to, threshold));
+	}
+
+	/**
+	 * Validates the range sequentially.
+	 */
+	private void validate() {
+
+		for (int i = from; i < to; i++) {
+
+			String number = numbers.get(i);
+			CreditCardType type;
+
+			if (types != null) {
+				type = types.get(i);
+			} else {
+				type = number != null ? validator.findCreditCardType(number) : CreditCardType.UNKNOWN;
+			}
+
+			CreditCardValidationCode code = validator.checkNumber(number, type);
+			result.set(i, type != null ? type : CreditCardType.UNKNOWN, code);
+		}
+	}
+}
@@ -1,14 +1,13 @@
 package com.pagosonline.ccutils.validators;
 
 import org.apache.commons.lang3.StringUtils;
-import org.springframework.context.ApplicationContext;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
-import org.springframework.context.support.ClassPathXmlApplicationContext;
 
 import com.pagosonline.ccutils.model.CreditCardCountry;
+import com.pagosonline.ccutils.model.CreditCardSpec;
 import com.pagosonline.ccutils.model.CreditCardType;
-import com.pagosonline.ccutils.util.i18n.CreditCardMessages;
+import com.pagosonline.ccutils.util.i18n.CreditCardMessageBundle;
 
 /**
  * The credit card security code validator.
@@ -28,34 +27,26 @@ public final class CreditCardSecurityCodeValidator {
 	/**
 	 * The message source for i18n.
 	 */
-	private static MessageSource messageSource;
+	private static volatile MessageSource messageSource;
 
-	/**
-	 * AMEX Cvv2 Credit Card length: 4 digits
-	 */
-	private static final int AMEX_CVV2_LENGTH = 4;
-	
 	/**
 	 * AMEX Cvv2 Credit Card length: 3 digits for Perú
 	 */
 	private static final int AMEX_CVV2_PE_LENGTH = 3;	
+
+	static {
+		// Load the message bundles directly, without starting an ApplicationContext
+		messageSource = CreditCardMessageBundle.getInstance();
+	}
 	
 	/**
-	 *  Cvv2 Credit Card Min length: 1 digits 
-	 */
-	private static final int DEFAULT_CVV2_MIN_LENGTH = 1;
-	
-	/**
-	 *  Cvv2 Credit Card Max length: 4 digits 
+	 * Replaces the message source used to render the validation messages.
+	 *
+	 * @param source the message source
 	 */
-	private static final int DEFAULT_CVV2_MAX_LENGTH = 4;
-
-	static {
-		// Load the ApplicationContext and the 'creditCardMessageSource' bean
-		@SuppressWarnings("resource")
-		final ApplicationContext context = new ClassPathXmlApplicationContext(
-				new String[] { "application-context.xml" });
-		messageSource = (MessageSource) context.getBean("creditCardMessageSource");
+	public static void setMessageSource(final MessageSource source) {
+		
+		messageSource = source;
 	}
 	
 	/**
@@ -69,44 +60,77 @@ public final class CreditCardSecurityCodeValidator {
 	 */
 	public static void validateSecurityCode(final String securityCode, final CreditCardType type, final String country) {
 
-		switch (type) {
-			case AMEX:
-				if (StringUtils.isBlank(securityCode)) {
-					throw new IllegalArgumentException(messageSource.getMessage(
-							CreditCardMessages.CREDIT_CARD_INVALID_SECURITY_CODE,
-							new Object[] {}, LocaleContextHolder.getLocale()));
-				}
-				if(country.equals(CreditCardCountry.PE.name())) {
-					if (securityCode.length() != AMEX_CVV2_PE_LENGTH) {
-						if(securityCode.length() != AMEX_CVV2_LENGTH) {
-							throw new IllegalArgumentException(messageSource.getMessage(
-									CreditCardMessages.CREDIT_CARD_AMEX_PE_INVALID_LENGTH_SECURITY_CODE,
-									new Object[] {}, LocaleContextHolder.getLocale()));
-						}
-					}
-				}else {
-					if (securityCode.length() != AMEX_CVV2_LENGTH) {
-						throw new IllegalArgumentException(messageSource.getMessage(
-								CreditCardMessages.CREDIT_CARD_AMEX_INVALID_LENGTH_SECURITY_CODE,
-								new Object[] {}, LocaleContextHolder.getLocale()));
-					}
-				}
-				break;
-			default:
-				if(StringUtils.isBlank(securityCode)) {
-					throw new IllegalArgumentException(messageSource.getMessage(
-							CreditCardMessages.CREDIT_CARD_INVALID_SECURITY_CODE,
-							new Object[] {}, LocaleContextHolder.getLocale()));
-				}
-				
-				if(securityCode.length() <  DEFAULT_CVV2_MIN_LENGTH || securityCode.length() > DEFAULT_CVV2_MAX_LENGTH) {
-					throw new IllegalArgumentException(messageSource.getMessage(
-							CreditCardMessages.CREDIT_CARD_INVALID_LENGTH_SECURITY_CODE,
-							new Object[] {}, LocaleContextHolder.getLocale()));
+		validateSecurityCode((CharSequence) securityCode, type, country);
+	}
+
+	/**
+	 * Validates a security code held in a character sequence by credit card type.
+	 *
+	 * @param securityCode the security code
+	 * @param type the credit card type
+	 * @param country the credit card country
+	 * @throws IllegalArgumentException if security code is not valid
+	 * @since 4.9.5
+	 */
+	public static void validateSecurityCode(final CharSequence securityCode, final CreditCardType type,
+			final String country) {
+
+		CreditCardValidationCode code = checkSecurityCode(securityCode, type, country);
+
+		if (!code.isValid()) {
+			throw new CreditCardValidationException(code, null, type, messageSource, LocaleContextHolder.getLocale());
+		}
+	}
+
+	/**
+	 * Checks the security code by credit card type, without throwing an exception.
+	 *
+	 * @param securityCode the security code
+	 * @param type the credit card type, the default rules apply if null
+	 * @param country the credit card country
+	 * @return {@link CreditCardValidationCode#VALID} or the code of the error
+	 */
+	public static CreditCardValidationCode checkSecurityCode(final String securityCode, final CreditCardType type,
+			final String country) {
+
+		return checkSecurityCode((CharSequence) securityCode, type, country);
+	}
+
+	/**
+	 * Checks a security code held in a character sequence by credit card type, without throwing an
+	 * exception.
+	 *
+	 * @param securityCode the security code
+	 * @param type the credit card type, the default rules apply if null
+	 * @param country the credit card country
+	 * @return {@link CreditCardValidationCode#VALID} or the code of the error
+	 * @since 4.9.5
+	 */
+	public static CreditCardValidationCode checkSecurityCode(final CharSequence securityCode,
+			final CreditCardType type, final String country) {
+
+		if (StringUtils.isBlank(securityCode)) {
+			return CreditCardValidationCode.SECURITY_CODE_NOT_VALID;
+		}
+
+		// the lengths are declared with the types, see CreditCardSpec
+		CreditCardSpec spec = (type != null ? type : CreditCardType.UNKNOWN).getSpec();
+		boolean validLength = securityCode.length() >= spec.getMinSecurityCodeLength()
+				&& securityCode.length() <= spec.getMaxSecurityCodeLength();
+
+		if (type == CreditCardType.AMEX) {
+
+			if (CreditCardCountry.PE.name().equals(country)) {
+				if (securityCode.length() != AMEX_CVV2_PE_LENGTH && !validLength) {
+					return CreditCardValidationCode.AMEX_PE_SECURITY_CODE_INVALID_LENGTH;
 				}
-				
-				break;
+			} else if (!validLength) {
+				return CreditCardValidationCode.AMEX_SECURITY_CODE_INVALID_LENGTH;
+			}
+		} else if (!validLength) {
+			return CreditCardValidationCode.SECURITY_CODE_INVALID_LENGTH;
 		}
 
+		return CreditCardValidationCode.VALID;
 	}
 }
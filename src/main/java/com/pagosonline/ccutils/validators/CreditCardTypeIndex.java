@@ -0,0 +1,378 @@
+package com.pagosonline.ccutils.validators;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.pagosonline.ccutils.bin.BinLookup;
+import com.pagosonline.ccutils.bin.BinTable;
+import com.pagosonline.ccutils.model.CreditCardType;
+
+/**
+ * A two level table of the credit card types indexed by BIN, built once from the regular
+ * expressions of the specs of the types and an optional {@link BinTable}.
+ *
+ * The first level has one byte per 6 digit BIN. It holds a profile, the types of the numbers of
+ * that BIN by number of digits, or a reference to a second level page of 100 profiles by 8 digit
+ * BIN, for the BINs whose type depends on the 7th and 8th digits. Finding the type of most numbers
+ * is then one array read after reading their digits; the numbers whose type depends on digits after
+ * the BIN, such as some Diners numbers, and the numbers too short to index fall back to the
+ * {@link BinTable} and the regular expressions. The first level takes 1 MB.
+ *
+ * @since 4.9.5
+ */
+public final class CreditCardTypeIndex {
+
+	/** The number of digits of the first level BINs. */
+	static final int FIRST_DIGITS = 6;
+
+	/** The maximum number of digits of an indexed number. */
+	static final int MAX_DIGITS = 31;
+
+	/** The number of first level BINs. */
+	private static final int FIRST_SIZE = 1000000;
+
+	/** The number of profiles of a page. */
+	private static final int PAGE_SIZE = 100;
+
+	/** The first level entry of the BINs with a page. */
+	private static final int PAGED = 0xFF;
+
+	/** The entry of the BINs that fall back to the regular expressions. */
+	private static final int FALLBACK = 0xFE;
+
+	/** The maximum number of profiles. */
+	private static final int MAX_PROFILES = FALLBACK;
+
+	/** The width of a profile, the types by number of digits. */
+	private static final int WIDTH = MAX_DIGITS + 1;
+
+	/** The BIN status of the 6 digit BINs partially covered by ranges. */
+	private static final byte PARTIAL = -1;
+
+	/** The profile by 6 digit BIN. */
+	private final byte[] first;
+
+	/** The sorted 6 digit BINs with a page. */
+	private final int[] pagedBins;
+
+	/** The pages, {@link #PAGE_SIZE} profiles by 8 digit BIN in the order of {@link #pagedBins}. */
+	private final byte[] pages;
+
+	/** The types by profile and number of digits, null to fall back. */
+	private final CreditCardType[] profiles;
+
+	/** The BIN table tried before the regular expressions, null if none. */
+	private final BinTable binTable;
+
+	/**
+	 * Instantiates a new credit card type index.
+	 *
+	 * @param first the profile by 6 digit BIN
+	 * @param pagedBins the 6 digit BINs with a page
+	 * @param pages the pages
+	 * @param profiles the types by profile and number of digits
+	 * @param binTable the BIN table, null if none
+	 */
+	private CreditCardTypeIndex(byte[] first, int[] pagedBins, byte[] pages, CreditCardType[] profiles,
+			BinTable binTable) {
+
+		this.first = first;
+		this.pagedBins = pagedBins;
+		this.pages = pages;
+		this.profiles = profiles;
+		this.binTable = binTable;
+	}
+
+	/**
+	 * Builds the index of the types of the regular expressions.
+	 *
+	 * @return the index
+	 */
+	public static CreditCardTypeIndex build() {
+
+		return build(null);
+	}
+
+	/**
+	 * Builds the index of the types of a BIN table first and of the regular expressions for the BINs
+	 * not in the table, as {@link CreditCardValidatorDelegate#findCreditCardType(CharSequence)} does.
+	 *
+	 * @param binTable the BIN table, null to use only the regular expressions
+	 * @return the index
+	 */
+	public static CreditCardTypeIndex build(final BinTable binTable) {
+
+		return new Builder(binTable).build();
+	}
+
+	/**
+	 * Finds the credit card type of a number. Characters that are not digits are skipped.
+	 *
+	 * @param number the number
+	 * @return the credit card type, {@link CreditCardType#UNKNOWN} if none matches
+	 */
+	public CreditCardType findCreditCardType(final CharSequence number) {
+
+		int bin = 0;
+		int digits = 0;
+
+		for (int i = 0, length = number.length(); i < length; i++) {
+
+			int digit = number.charAt(i) - '0';
+
+			if (digit >= 0 && digit <= 9) {
+
+				if (digits < BinLookup.BIN_DIGITS) {
+					bin = bin * 10 + digit;
+				}
+				digits++;
+			}
+		}
+
+		if (digits < FIRST_DIGITS || digits > MAX_DIGITS) {
+			return fallback(number);
+		}
+
+		int pagedDigits = Math.min(digits, BinLookup.BIN_DIGITS) - FIRST_DIGITS;
+		int profile = first[pagedDigits == 0 ? bin : pagedDigits == 1 ? bin / 10 : bin / PAGE_SIZE] & 0xFF;
+
+		if (profile == PAGED) {
+
+			if (digits < BinLookup.BIN_DIGITS) {
+				return fallback(number);
+			}
+
+			int page = Arrays.binarySearch(pagedBins, bin / PAGE_SIZE);
+			profile = pages[page * PAGE_SIZE + bin % PAGE_SIZE] & 0xFF;
+		}
+
+		CreditCardType type = profile == FALLBACK ? null : profiles[profile * WIDTH + digits];
+
+		return type != null ? type : fallback(number);
+	}
+
+	/**
+	 * Gets the BIN table tried before the regular expressions.
+	 *
+	 * @return the BIN table, null if none
+	 */
+	public BinTable getBinTable() {
+
+		return binTable;
+	}
+
+	/**
+	 * Gets the number of 6 digit BINs with a second level page.
+	 *
+	 * @return the number of pages
+	 */
+	public int getPageCount() {
+
+		return pagedBins.length;
+	}
+
+	/**
+	 * Gets the number of distinct profiles, the types by number of digits.
+	 *
+	 * @return the number of profiles
+	 */
+	public int getProfileCount() {
+
+		return profiles.length / WIDTH;
+	}
+
+	/**
+	 * Finds the credit card type of a number with the BIN table and the regular expressions.
+	 *
+	 * @param number the number
+	 * @return the credit card type
+	 */
+	private CreditCardType fallback(final CharSequence number) {
+
+		if (binTable != null) {
+
+			CreditCardType type = binTable.findCreditCardType(number);
+
+			if (type != null) {
+				return type;
+			}
+		}
+
+		int index = CreditCardValidatorDelegate.typesClassifier().find(number);
+
+		return index == CardNumberAutomaton.NO_MATCH ? CreditCardType.UNKNOWN
+				: CreditCardValidatorDelegate.types()[index];
+	}
+
+	/**
+	 * Builds the tables of an index.
+	 */
+	private static final class Builder {
+
+		/** The automaton of the types. */
+		private final CardNumberAutomaton automaton = CreditCardValidatorDelegate.typesAutomaton();
+
+		/** The types by expression index. */
+		private final CreditCardType[] types = CreditCardValidatorDelegate.types();
+
+		/** The BIN table, null if none. */
+		private final BinTable binTable;
+
+		/** The profiles, by content. */
+		private final Map<ByteBuffer, Integer> profileIds = new HashMap<>();
+
+		/** The profiles, by automaton state, depth and BIN type. */
+		private final Map<Long, Integer> profilesByState = new HashMap<>();
+
+		/** The profile types. */
+		private final List<CreditCardType> profileTypes = new ArrayList<>();
+
+		Builder(BinTable binTable) {
+			this.binTable = binTable;
+		}
+
+		CreditCardTypeIndex build() {
+
+			byte[] binStatus = binStatus();
+			int[] states = new int[FIRST_SIZE / PAGE_SIZE];
+
+			for (int prefix = 0; prefix < states.length; prefix++) {
+
+				int state = 0;
+
+				for (int divisor = states.length / 10; divisor > 0; divisor /= 10) {
+					state = automaton.next(state, prefix / divisor % 10);
+				}
+				states[prefix] = state;
+			}
+
+			byte[] first = new byte[FIRST_SIZE];
+			int[] pagedBins = new int[16];
+			byte[] pages = new byte[16 * PAGE_SIZE];
+			int pageCount = 0;
+
+			for (int bin = 0; bin < FIRST_SIZE; bin++) {
+
+				int state = automaton.next(automaton.next(states[bin / PAGE_SIZE], bin / 10 % 10), bin % 10);
+				byte status = binStatus != null ? binStatus[bin] : 0;
+				int profile = status == PARTIAL ? PAGED : profile(state, FIRST_DIGITS, status - 1);
+
+				if (profile == PAGED) {
+
+					if (pageCount == pagedBins.length) {
+						pagedBins = Arrays.copyOf(pagedBins, pageCount * 2);
+						pages = Arrays.copyOf(pages, pageCount * 2 * PAGE_SIZE);
+					}
+
+					for (int digits = 0; digits < PAGE_SIZE; digits++) {
+
+						int pageState = automaton.next(automaton.next(state, digits / 10), digits % 10);
+						CreditCardType binType = binTable != null ? binTable.findCreditCardType(bin * PAGE_SIZE + digits) : null;
+						pages[pageCount * PAGE_SIZE + digits] = (byte) profile(pageState, BinLookup.BIN_DIGITS,
+								binType != null ? binType.ordinal() : -1);
+					}
+					pagedBins[pageCount++] = bin;
+				}
+				first[bin] = (byte) profile;
+			}
+
+			return new CreditCardTypeIndex(first, Arrays.copyOf(pagedBins, pageCount),
+					Arrays.copyOf(pages, pageCount * PAGE_SIZE), profileTypes.toArray(new CreditCardType[0]), binTable);
+		}
+
+		/**
+		 * Returns the status of each 6 digit BIN in the BIN table.
+		 *
+		 * @return the type ordinal plus one of the BINs covered by a single range, 0 for the BINs not
+		 *         covered, {@link #PARTIAL} for the others; null without BIN table
+		 */
+		private byte[] binStatus() {
+
+			if (binTable == null) {
+				return null;
+			}
+
+			byte[] status = new byte[FIRST_SIZE];
+
+			for (int i = 0; i < binTable.size(); i++) {
+
+				long start = binTable.getStart(i);
+				long end = binTable.getEnd(i);
+
+				for (long bin = start / PAGE_SIZE; bin <= end / PAGE_SIZE; bin++) {
+
+					boolean covered = bin * PAGE_SIZE >= start && bin * PAGE_SIZE + PAGE_SIZE - 1 <= end;
+					status[(int) bin] = covered ? (byte) (binTable.getType(i).ordinal() + 1) : PARTIAL;
+				}
+			}
+			return status;
+		}
+
+		/**
+		 * Returns the profile of the numbers of a BIN.
+		 *
+		 * @param state the automaton state after the BIN
+		 * @param depth the number of digits of the BIN
+		 * @param binType the type ordinal of the BIN in the BIN table, -1 if none
+		 * @return the profile, {@link #PAGED} if the 6 digit BIN needs a page, {@link #FALLBACK} if
+		 *         there are too many profiles
+		 */
+		private int profile(int state, int depth, int binType) {
+
+			long key = ((long) depth << 40) | ((long) (state + 1) << 8) | (binType + 1);
+			Integer known = profilesByState.get(key);
+
+			if (known != null) {
+				return known;
+			}
+
+			byte[] profile = new byte[WIDTH];
+			Arrays.fill(profile, (byte) -1);
+
+			for (int digits = depth; digits <= MAX_DIGITS; digits++) {
+
+				if (binType >= 0 && digits >= BinLookup.BIN_DIGITS) {
+					profile[digits] = (byte) binType;
+					continue;
+				}
+
+				int index = automaton.uniform(state, digits - depth);
+
+				if (index == CardNumberAutomaton.MIXED) {
+
+					// the 7th and 8th digits may tell the type apart
+					if (depth < BinLookup.BIN_DIGITS && digits >= BinLookup.BIN_DIGITS) {
+						profilesByState.put(key, PAGED);
+						return PAGED;
+					}
+					continue;
+				}
+				profile[digits] = (byte) (index == CardNumberAutomaton.NO_MATCH ? CreditCardType.UNKNOWN : types[index])
+						.ordinal();
+			}
+
+			Integer id = profileIds.get(ByteBuffer.wrap(profile));
+
+			if (id == null) {
+
+				id = profileIds.size() < MAX_PROFILES ? profileIds.size() : FALLBACK;
+
+				if (id != FALLBACK) {
+
+					profileIds.put(ByteBuffer.wrap(profile), id);
+
+					for (byte ordinal : profile) {
+						profileTypes.add(ordinal < 0 ? null : CreditCardType.values()[ordinal]);
+					}
+				}
+			}
+
+			profilesByState.put(key, id);
+			return id;
+		}
+	}
+}
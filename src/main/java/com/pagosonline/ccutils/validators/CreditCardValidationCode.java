@@ -0,0 +1,83 @@
+package com.pagosonline.ccutils.validators;
+
+import com.pagosonline.ccutils.util.i18n.CreditCardMessages;
+
+/**
+ * The result codes of the credit card validations.
+ *
+ * Each code other than {@link #VALID} has a bit in the error mask of a
+ * {@link CreditCardValidationResult} and the key of its i18n message.
+ *
+ * @since 4.9.5
+ */
+public enum CreditCardValidationCode {
+
+	/** The validated field is valid. */
+	VALID(null),
+
+	/** The card number is null or empty. */
+	NUMBER_NOT_NULL_EMPTY(CreditCardMessages.CREDIT_CARD_NUMBER_NOT_NULL_EMPTY),
+
+	/** The card type is null. */
+	TYPE_NOT_NULL(CreditCardMessages.CREDIT_CARD_TYPE_NOT_NULL),
+
+	/** The card number does not match its type or its check digit. */
+	NUMBER_NOT_VALID(CreditCardMessages.CREDIT_CARD_NUMBER_NOT_VALID),
+
+	/** The security code is null or empty. */
+	SECURITY_CODE_NOT_VALID(CreditCardMessages.CREDIT_CARD_INVALID_SECURITY_CODE),
+
+	/** The security code of an AMEX card does not have 4 digits. */
+	AMEX_SECURITY_CODE_INVALID_LENGTH(CreditCardMessages.CREDIT_CARD_AMEX_INVALID_LENGTH_SECURITY_CODE),
+
+	/** The security code of an AMEX card from Perú does not have 3 or 4 digits. */
+	AMEX_PE_SECURITY_CODE_INVALID_LENGTH(CreditCardMessages.CREDIT_CARD_AMEX_PE_INVALID_LENGTH_SECURITY_CODE),
+
+	/** The security code length is out of the allowed range. */
+	SECURITY_CODE_INVALID_LENGTH(CreditCardMessages.CREDIT_CARD_INVALID_LENGTH_SECURITY_CODE),
+
+	/** The expiration date is null or not well formed. */
+	EXPIRATION_DATE_NOT_VALID(CreditCardMessages.CREDIT_CARD_EXPIRATION_DATE_NOT_VALID),
+
+	/** The card is expired. */
+	EXPIRED(CreditCardMessages.CREDIT_CARD_EXPIRED);
+
+	/** The i18n message key. */
+	private final String messageKey;
+
+	/**
+	 * Instantiates a new validation code.
+	 *
+	 * @param messageKey the i18n message key
+	 */
+	private CreditCardValidationCode(final String messageKey) {
+		this.messageKey = messageKey;
+	}
+
+	/**
+	 * Gets the i18n message key.
+	 *
+	 * @return the message key, null for {@link #VALID}
+	 */
+	public String getMessageKey() {
+		return messageKey;
+	}
+
+	/**
+	 * Gets the bit of this code in an error mask.
+	 *
+	 * @return the bit, 0 for {@link #VALID}
+	 */
+	public int getMask() {
+		return this == VALID ? 0 : 1 << ordinal();
+	}
+
+	/**
+	 * Checks if the code is {@link #VALID}.
+	 *
+	 * @return true if valid, false otherwise
+	 */
+	public boolean isValid() {
+		return this == VALID;
+	}
+}
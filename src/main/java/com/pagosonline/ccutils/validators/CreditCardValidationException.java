@@ -0,0 +1,99 @@
+package com.pagosonline.ccutils.validators;
+
+import java.util.Locale;
+
+import org.springframework.context.MessageSource;
+
+import com.pagosonline.ccutils.model.CreditCardType;
+
+/**
+ * The exception thrown when a credit card field is not valid.
+ *
+ * It carries the validation code and the arguments of its message, the localized message is only
+ * rendered the first time {@link #getMessage()} is called, in the locale of the thread that threw
+ * the exception. Only the masked number is kept, so serializing the exception does not expose the
+ * card number.
+ *
+ * @since 4.9.5
+ */
+public class CreditCardValidationException extends IllegalArgumentException {
+
+	/** The serial version UID. */
+	private static final long serialVersionUID = -2372645087364720154L;
+
+	/** The validation code. */
+	private final CreditCardValidationCode code;
+
+	/** The masked validated number, used by the message, null if the message does not use it. */
+	private final String maskedNumber;
+
+	/** The validated type, used by the message. */
+	private final CreditCardType type;
+
+	/** The locale of the message. */
+	private final Locale locale;
+
+	/** The message source for i18n. */
+	private final transient MessageSource messageSource;
+
+	/** The rendered message. */
+	private String message;
+
+	/**
+	 * Instantiates a new credit card validation exception.
+	 *
+	 * @param code the validation code
+	 * @param number the validated number, only its masked form is kept
+	 * @param type the validated type
+	 * @param messageSource the message source
+	 * @param locale the locale of the message
+	 */
+	public CreditCardValidationException(CreditCardValidationCode code, CharSequence number, CreditCardType type,
+			MessageSource messageSource, Locale locale) {
+
+		this.code = code;
+		this.maskedNumber = CreditCardValidationMessages.mask(code.getMask(), number);
+		this.type = type;
+		this.messageSource = messageSource;
+		this.locale = locale;
+	}
+
+	/**
+	 * Gets the validation code.
+	 *
+	 * @return the validation code
+	 */
+	public CreditCardValidationCode getCode() {
+		return code;
+	}
+
+	/**
+	 * Gets the i18n message key.
+	 *
+	 * @return the message key
+	 */
+	public String getMessageKey() {
+		return code.getMessageKey();
+	}
+
+	/**
+	 * Gets the arguments of the i18n message, the number is masked.
+	 *
+	 * @return the message arguments
+	 */
+	public Object[] getMessageArguments() {
+		return CreditCardValidationMessages.arguments(code, maskedNumber, type);
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Throwable#getMessage()
+	 */
+	@Override
+	public String getMessage() {
+
+		if (message == null) {
+			message = CreditCardValidationMessages.render(messageSource, code, maskedNumber, type, locale);
+		}
+		return message;
+	}
+}
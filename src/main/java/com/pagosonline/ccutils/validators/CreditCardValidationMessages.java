@@ -0,0 +1,75 @@
+package com.pagosonline.ccutils.validators;
+
+import java.util.Locale;
+
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.context.MessageSource;
+
+import com.pagosonline.ccutils.format.CreditCardFormatUtils;
+import com.pagosonline.ccutils.model.CreditCardType;
+
+/**
+ * Renders the i18n messages of the validation codes.
+ *
+ * @since 4.9.5
+ */
+final class CreditCardValidationMessages {
+
+	/** The arguments of the messages without parameters. */
+	private static final Object[] NO_ARGUMENTS = new Object[] {};
+
+	/**
+	 * Default constructor.
+	 */
+	private CreditCardValidationMessages() {
+	}
+
+	/**
+	 * Masks a number for the messages of some errors, so that the exceptions and results never
+	 * hold the whole number.
+	 *
+	 * @param errors the error mask, made of {@link CreditCardValidationCode#getMask()} bits
+	 * @param number the validated number
+	 * @return the masked number, null if the messages do not use it
+	 */
+	static String mask(int errors, CharSequence number) {
+
+		return (errors & CreditCardValidationCode.NUMBER_NOT_VALID.getMask()) != 0 && !StringUtils.isBlank(number)
+				? CreditCardFormatUtils.mask(number) : null;
+	}
+
+	/**
+	 * Builds the arguments of the message of a code.
+	 *
+	 * @param code the validation code
+	 * @param maskedNumber the masked validated number, see {@link #mask(int, CharSequence)}
+	 * @param type the validated type
+	 * @return the message arguments
+	 */
+	static Object[] arguments(CreditCardValidationCode code, String maskedNumber, CreditCardType type) {
+
+		if (code == CreditCardValidationCode.NUMBER_NOT_VALID) {
+			return new Object[] { maskedNumber, type };
+		}
+		return NO_ARGUMENTS;
+	}
+
+	/**
+	 * Renders the message of a code.
+	 *
+	 * @param messageSource the message source, the message key is returned if null
+	 * @param code the validation code
+	 * @param maskedNumber the masked validated number, see {@link #mask(int, CharSequence)}
+	 * @param type the validated type
+	 * @param locale the locale
+	 * @return the message
+	 */
+	static String render(MessageSource messageSource, CreditCardValidationCode code, String maskedNumber,
+			CreditCardType type, Locale locale) {
+
+		if (messageSource == null) {
+			return code.getMessageKey();
+		}
+		return messageSource.getMessage(code.getMessageKey(), arguments(code, maskedNumber, type), locale);
+	}
+}
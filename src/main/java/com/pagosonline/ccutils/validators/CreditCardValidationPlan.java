@@ -0,0 +1,169 @@
+package com.pagosonline.ccutils.validators;
+
+import java.nio.ByteBuffer;
+
+import com.pagosonline.ccutils.model.CardBrand;
+import com.pagosonline.ccutils.model.CheckDigitAlgorithm;
+import com.pagosonline.ccutils.model.CreditCardSpec;
+import com.pagosonline.ccutils.model.CreditCardType;
+import com.pagosonline.ccutils.model.PrefixRange;
+
+/**
+ * The immutable validation plan of a credit card type: the regular expression of its
+ * {@link CreditCardSpec} compiled into a {@link CardNumberAutomaton}, the numbers of digits of the
+ * spec to reject the numbers of other lengths early, and its check digit algorithm.
+ *
+ * The plans are built once per type and shared by all the threads.
+ *
+ * @since 4.9.5
+ */
+public final class CreditCardValidationPlan {
+
+	/** The plans indexed by {@link CreditCardType#ordinal()}. */
+	private static final CreditCardValidationPlan[] PLANS = buildPlans();
+
+	/** The credit card type. */
+	private final CreditCardType type;
+
+	/** The compiled regular expression of the spec, null if the type has none. */
+	private final CardNumberAutomaton automaton;
+
+	/** The card brand. */
+	private final CardBrand brand;
+
+	/** The allowed numbers of digits, see {@link CreditCardSpec#getLengths()}. */
+	private final int lengths;
+
+	/** True if the number has a luhn check digit. */
+	private final boolean luhnCheck;
+
+	/**
+	 * Instantiates a new validation plan.
+	 *
+	 * @param type the credit card type
+	 */
+	private CreditCardValidationPlan(CreditCardType type) {
+
+		CreditCardSpec spec = type.getSpec();
+
+		this.type = type;
+		this.automaton = spec.getRegExp() != null ? CardNumberAutomaton.compile(spec.getRegExp()) : null;
+		this.brand = CardBrand.of(type);
+		this.lengths = spec.getLengths();
+		this.luhnCheck = spec.getCheckDigitAlgorithm() == CheckDigitAlgorithm.LUHN;
+	}
+
+	/**
+	 * Returns the validation plan of a credit card type.
+	 *
+	 * @param type the credit card type
+	 * @return the plan
+	 */
+	public static CreditCardValidationPlan of(final CreditCardType type) {
+
+		return PLANS[type.ordinal()];
+	}
+
+	/**
+	 * Validates a region of a character sequence holding a card number.
+	 * The region must not include leading or trailing whitespace.
+	 *
+	 * @param number the character sequence
+	 * @param from the index of the first digit, inclusive
+	 * @param to the index of the last digit, exclusive
+	 * @return true if the number matches the type and its check digit, false otherwise
+	 */
+	public boolean isValid(final CharSequence number, final int from, final int to) {
+
+		if (automaton == null || !allowsLength(to - from) || automaton.match(number, from, to) == CardNumberAutomaton.NO_MATCH) {
+			return false;
+		}
+
+		return !luhnCheck || LuhnCheck.isValid(number, from, to);
+	}
+
+	/**
+	 * Validates a region of a byte buffer holding a card number in ASCII.
+	 * The region must not include leading or trailing whitespace.
+	 *
+	 * @param number the buffer, read with absolute gets
+	 * @param from the index of the first digit, inclusive
+	 * @param to the index of the last digit, exclusive
+	 * @return true if the number matches the type and its check digit, false otherwise
+	 */
+	public boolean isValid(final ByteBuffer number, final int from, final int to) {
+
+		if (automaton == null || !allowsLength(to - from) || automaton.match(number, from, to) == CardNumberAutomaton.NO_MATCH) {
+			return false;
+		}
+
+		return !luhnCheck || LuhnCheck.isValid(number, from, to);
+	}
+
+	/**
+	 * Tells if a number of digits may match the regular expression, without reading the digits.
+	 *
+	 * @param digits the number of digits
+	 * @return false if no number of that many digits matches
+	 */
+	boolean allowsLength(final int digits) {
+
+		return digits > PrefixRange.MAX_LENGTH || (lengths & 1 << digits) != 0;
+	}
+
+	/**
+	 * Gets the compiled regular expression.
+	 *
+	 * @return the automaton, null if the type has no regular expression
+	 */
+	CardNumberAutomaton getAutomaton() {
+
+		return automaton;
+	}
+
+	/**
+	 * Tells if the number has a luhn check digit.
+	 *
+	 * @return true if the luhn check digit is validated
+	 */
+	boolean hasLuhnCheck() {
+
+		return luhnCheck;
+	}
+
+	/**
+	 * Gets the credit card type.
+	 *
+	 * @return the credit card type
+	 */
+	public CreditCardType getType() {
+
+		return type;
+	}
+
+	/**
+	 * Gets the card brand of the type, shared by all the classifiers.
+	 *
+	 * @return the brand
+	 */
+	public CardBrand getBrand() {
+
+		return brand;
+	}
+
+	/**
+	 * Builds the plans of all the credit card types.
+	 *
+	 * @return the plans indexed by ordinal
+	 */
+	private static CreditCardValidationPlan[] buildPlans() {
+
+		CreditCardType[] types = CreditCardType.values();
+		CreditCardValidationPlan[] plans = new CreditCardValidationPlan[types.length];
+
+		for (CreditCardType type : types) {
+			plans[type.ordinal()] = new CreditCardValidationPlan(type);
+		}
+		return plans;
+	}
+}
@@ -0,0 +1,142 @@
+package com.pagosonline.ccutils.validators;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import org.springframework.context.MessageSource;
+
+import com.pagosonline.ccutils.model.CreditCardType;
+
+/**
+ * The result of validating a whole credit card: number, type, security code and expiration date.
+ *
+ * The errors are kept as a mask of {@link CreditCardValidationCode#getMask()} bits, the messages
+ * are only rendered when they are asked for. A valid card always gets the shared {@link #VALID}
+ * instance, so no object is created.
+ *
+ * @since 4.9.5
+ */
+public final class CreditCardValidationResult {
+
+	/** The result of a valid card. */
+	public static final CreditCardValidationResult VALID = new CreditCardValidationResult(0, null, null, null, null);
+
+	/** The error mask. */
+	private final int errors;
+
+	/** The masked validated number, used by the messages, null if they do not use it. */
+	private final String maskedNumber;
+
+	/** The validated type, used by the messages. */
+	private final CreditCardType type;
+
+	/** The message source for i18n. */
+	private final MessageSource messageSource;
+
+	/** The locale of the messages. */
+	private final Locale locale;
+
+	/**
+	 * Instantiates a new validation result.
+	 *
+	 * @param errors the error mask
+	 * @param number the validated number, only its masked form is kept
+	 * @param type the validated type
+	 * @param messageSource the message source
+	 * @param locale the locale of the messages
+	 */
+	CreditCardValidationResult(int errors, CharSequence number, CreditCardType type, MessageSource messageSource,
+			Locale locale) {
+
+		this.errors = errors;
+		this.maskedNumber = CreditCardValidationMessages.mask(errors, number);
+		this.type = type;
+		this.messageSource = messageSource;
+		this.locale = locale;
+	}
+
+	/**
+	 * Checks if the card is valid.
+	 *
+	 * @return true if there are no errors, false otherwise
+	 */
+	public boolean isValid() {
+		return errors == 0;
+	}
+
+	/**
+	 * Gets the error mask, made of {@link CreditCardValidationCode#getMask()} bits.
+	 *
+	 * @return the error mask, 0 if the card is valid
+	 */
+	public int getErrors() {
+		return errors;
+	}
+
+	/**
+	 * Checks if the result has an error.
+	 *
+	 * @param code the error code
+	 * @return true if the result has the error, false otherwise
+	 */
+	public boolean hasError(final CreditCardValidationCode code) {
+		return (errors & code.getMask()) != 0;
+	}
+
+	/**
+	 * Gets the error codes.
+	 *
+	 * @return the error codes, in declaration order
+	 */
+	public List<CreditCardValidationCode> getCodes() {
+
+		List<CreditCardValidationCode> codes = new ArrayList<>(Integer.bitCount(errors));
+
+		for (CreditCardValidationCode code : CreditCardValidationCode.values()) {
+			if (hasError(code)) {
+				codes.add(code);
+			}
+		}
+		return codes;
+	}
+
+	/**
+	 * Renders the i18n message of an error.
+	 *
+	 * @param code the error code
+	 * @return the message, null if the result does not have the error
+	 */
+	public String getMessage(final CreditCardValidationCode code) {
+
+		if (!hasError(code)) {
+			return null;
+		}
+
+		return CreditCardValidationMessages.render(messageSource, code, maskedNumber, type, locale);
+	}
+
+	/**
+	 * Renders the i18n messages of all the errors.
+	 *
+	 * @return the messages, in declaration order of the codes
+	 */
+	public List<String> getMessages() {
+
+		List<String> messages = new ArrayList<>(Integer.bitCount(errors));
+
+		for (CreditCardValidationCode code : getCodes()) {
+			messages.add(getMessage(code));
+		}
+		return messages;
+	}
+
+	/* (non-Javadoc)
+	 * @see java.lang.Object#toString()
+	 */
+	@Override
+	public String toString() {
+
+		return "CreditCardValidationResult " + getCodes();
+	}
+}
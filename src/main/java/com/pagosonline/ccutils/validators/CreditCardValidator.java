@@ -1,12 +1,21 @@
 package com.pagosonline.ccutils.validators;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
-import org.springframework.context.ApplicationContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.context.MessageSource;
-import org.springframework.context.support.ClassPathXmlApplicationContext;
 
+import com.pagosonline.ccutils.bin.BinCache;
+import com.pagosonline.ccutils.bin.BinCacheSnapshot;
+import com.pagosonline.ccutils.bin.BinLookup;
+import com.pagosonline.ccutils.model.CardBrand;
 import com.pagosonline.ccutils.model.CreditCardType;
+import com.pagosonline.ccutils.util.i18n.CreditCardMessageBundle;
 
 
 /**
@@ -34,17 +43,33 @@ import com.pagosonline.ccutils.model.CreditCardType;
  */
 public final class CreditCardValidator {
 	
+	/** The logger. */
+	private static final Logger LOGGER = LoggerFactory.getLogger(CreditCardValidator.class);
+	
+	/** The lock held to change the settings and publish the validator delegate built with them. */
+	private static final Object LOCK = new Object();
+	
 	/** The message source for i18n. */
-	private static MessageSource messageSource;
+	private static volatile MessageSource messageSource;
+	
+	/** The BIN lookup tried before the regular expressions, null if none. */
+	private static volatile BinLookup binLookup;
+	
+	/** The cache of the types found by BIN and number of digits, null if none. */
+	private static volatile BinCache typeCache;
 	
-	/** Singleton credit card validator delegate instance. */
-	public static CreditCardValidatorDelegate VALIDATOR;
+	/** The index of the types by BIN, null if none. */
+	private static volatile CreditCardTypeIndex typeIndex;
+	
+	/** The classifier of the card brands with the custom brands, null for the built-in types only. */
+	private static volatile CardBrandClassifier cardBrands;
+	
+	/** Singleton credit card validator delegate instance, replaced whenever a setting changes. */
+	public static volatile CreditCardValidatorDelegate VALIDATOR;
 	
 	static{
-		//Load the ApplicationContext and the 'creditCardMessageSource' bean
-		ApplicationContext context = new ClassPathXmlApplicationContext(new String[] {"application-context.xml"});
-		
-		messageSource = (MessageSource)context.getBean("creditCardMessageSource");
+		//Load the message bundles directly, without starting an ApplicationContext
+		messageSource = CreditCardMessageBundle.getInstance();
 		
 		VALIDATOR = new CreditCardValidatorDelegate(messageSource);
 	}
@@ -55,6 +80,128 @@ public final class CreditCardValidator {
 	private CreditCardValidator(){
 	}
 	
+	/**
+	 * Replaces the message source used to render the validation messages, for example with the
+	 * 'creditCardMessageSource' bean of an application context.
+	 * 
+	 * @param source the message source.
+	 */
+	public static void setMessageSource(final MessageSource source) {
+		
+		synchronized (LOCK) {
+			messageSource = source;
+			VALIDATOR = newValidator();
+			CreditCardSecurityCodeValidator.setMessageSource(source);
+		}
+	}
+	
+	/**
+	 * Sets a BIN lookup, for example a {@link com.pagosonline.ccutils.bin.BinTable}, tried before the
+	 * regular expressions of the types when finding the type of a number.
+	 * 
+	 * @param lookup the BIN lookup, null to use only the regular expressions.
+	 */
+	public static void setBinLookup(final BinLookup lookup) {
+		
+		synchronized (LOCK) {
+			binLookup = lookup;
+			typeIndex = null;
+			VALIDATOR = newValidator();
+		}
+	}
+	
+	/**
+	 * Sets a cache of the types found by BIN and number of digits, so the types of the numbers
+	 * with an already seen BIN are found with a single cache lookup.
+	 * 
+	 * @param cache the type cache, null to find the type of every number.
+	 */
+	public static void setTypeCache(final BinCache cache) {
+		
+		synchronized (LOCK) {
+			typeCache = cache;
+			typeIndex = null;
+			VALIDATOR = newValidator();
+		}
+	}
+	
+	/**
+	 * Sets an index of the types by BIN, replacing the BIN lookup by the BIN table of the index and
+	 * the type cache.
+	 * 
+	 * @param index the type index, null to find the types with the BIN lookup and type cache.
+	 */
+	public static void setTypeIndex(final CreditCardTypeIndex index) {
+		
+		synchronized (LOCK) {
+			typeIndex = index;
+			
+			if (index != null) {
+				binLookup = index.getBinTable();
+				typeCache = null;
+			}
+			VALIDATOR = newValidator();
+		}
+	}
+	
+	/**
+	 * Sets the classifier of the card brands, to find the custom brands of
+	 * {@link #findCardBrand(CharSequence)} along with the built-in types.
+	 * 
+	 * @param classifier the classifier, null for the built-in types only.
+	 */
+	public static void setCardBrands(final CardBrandClassifier classifier) {
+		
+		synchronized (LOCK) {
+			cardBrands = classifier;
+		}
+	}
+	
+	/**
+	 * Creates the validator delegate with the current settings, the {@link #LOCK} must be held.
+	 * 
+	 * @return the validator delegate.
+	 */
+	private static CreditCardValidatorDelegate newValidator() {
+		
+		return typeIndex != null ? CreditCardValidatorDelegate.withTypeIndex(messageSource, typeIndex)
+				: new CreditCardValidatorDelegate(messageSource, binLookup, typeCache);
+	}
+	
+	/**
+	 * Warms the type cache up with the keys saved by a
+	 * {@link com.pagosonline.ccutils.bin.BinCacheSnapshot}, and saves it back to the same file when
+	 * the JVM shuts down and periodically.
+	 * 
+	 * A snapshot that cannot be read, corrupt or of another version, is logged and the cache starts
+	 * cold: the snapshot is only a hint, it must not stop the application from starting.
+	 * 
+	 * @param file the snapshot file, it is created if it does not exist.
+	 * @param period the time between saves in seconds, 0 to save on shutdown only.
+	 * @return the snapshot, to save it on demand or stop saving it.
+	 * @throws IllegalStateException if no type cache is set.
+	 */
+	public static BinCacheSnapshot persistTypeCache(final Path file, final long period) {
+		
+		CreditCardValidatorDelegate validator = VALIDATOR;
+		
+		if (validator.getTypeCache() == null) {
+			throw new IllegalStateException("No type cache is set");
+		}
+		
+		if (Files.exists(file)) {
+			try {
+				validator.warmUp(BinCacheSnapshot.read(file));
+			} catch (IOException e) {
+				LOGGER.warn("The BIN cache snapshot " + file + " cannot be read, starting with a cold cache", e);
+			}
+		}
+		
+		BinCacheSnapshot snapshot = new BinCacheSnapshot(validator.getTypeCache(), file).saveOnShutdown();
+		
+		return period > 0 ? snapshot.saveEvery(period, TimeUnit.SECONDS) : snapshot;
+	}
+	
 	/**
 	 * Returns the credit card type given a number.
 	 * 
@@ -66,17 +213,168 @@ public final class CreditCardValidator {
 		return VALIDATOR.findCreditCardType(cardNumber);
 	}
 	
+	/**
+	 * Returns the credit card type given a number held in a character sequence.
+	 * 
+	 * @param cardNumber the credit card number.
+	 * @return the {@link CreditCardType} that match. UNKNOWN otherwise.
+	 */
+	public static CreditCardType findCreditCardType(CharSequence cardNumber) {
+		
+		return VALIDATOR.findCreditCardType(cardNumber);
+	}
+	
+	/**
+	 * Returns the card brand given a number, a custom brand set with
+	 * {@link #setCardBrands(CardBrandClassifier)} or a built-in type. The BIN lookup is not used.
+	 * 
+	 * @param cardNumber the credit card number.
+	 * @return the {@link CardBrand} that match. The brand of UNKNOWN otherwise.
+	 */
+	public static CardBrand findCardBrand(CharSequence cardNumber) {
+		
+		CardBrandClassifier classifier = cardBrands;
+		
+		return (classifier != null ? classifier : CardBrandClassifier.BUILT_IN).findCardBrand(cardNumber);
+	}
+	
+	/**
+	 * Finds the credit card type of a number and validates the number for that type in a single
+	 * pass, see {@link CreditCardValidatorDelegate#classifyAndValidate(CharSequence)}.
+	 * 
+	 * @param cardNumber the credit card number.
+	 * @return the type, the validity and the number of digits, read with {@link CardNumberCheck}.
+	 */
+	public static int classifyAndValidate(CharSequence cardNumber) {
+		
+		return VALIDATOR.classifyAndValidate(cardNumber);
+	}
+	
+	/**
+	 * Returns the credit card type given a number held in a region of a character array.
+	 * 
+	 * @param cardNumber the array holding the credit card number, it is neither copied nor kept.
+	 * @param offset the index of the first character.
+	 * @param length the number of characters.
+	 * @return the {@link CreditCardType} that match. UNKNOWN otherwise.
+	 */
+	public static CreditCardType findCreditCardType(char[] cardNumber, int offset, int length) {
+		
+		return VALIDATOR.findCreditCardType(cardNumber, offset, length);
+	}
+	
 	/**
 	 * Validates a credit card number given its type.
 	 * 
 	 * @param number the number of the credit card.
 	 * @param creditCardType the type of the credit card.
+	 * @throws CreditCardValidationException if the number is not valid.
 	 */
 	public static void validate(final String number, final CreditCardType creditCardType) {
 		
 		VALIDATOR.validate(number, creditCardType);
 	}
 	
+	/**
+	 * Validates a credit card number held in a character sequence given its type.
+	 * 
+	 * @param number the number of the credit card.
+	 * @param creditCardType the type of the credit card.
+	 * @throws CreditCardValidationException if the number is not valid, it keeps a masked copy of the number.
+	 */
+	public static void validate(final CharSequence number, final CreditCardType creditCardType) {
+		
+		VALIDATOR.validate(number, creditCardType);
+	}
+	
+	/**
+	 * Validates a credit card number held in a region of a character array given its type.
+	 * 
+	 * @param number the array holding the number of the credit card, it is neither copied nor kept.
+	 * @param offset the index of the first character.
+	 * @param length the number of characters.
+	 * @param creditCardType the type of the credit card.
+	 * @throws CreditCardValidationException if the number is not valid, it keeps a masked copy of the number.
+	 */
+	public static void validate(final char[] number, final int offset, final int length,
+			final CreditCardType creditCardType) {
+		
+		VALIDATOR.validate(number, offset, length, creditCardType);
+	}
+	
+	/**
+	 * Checks a credit card number given its type, without throwing an exception.
+	 * 
+	 * @param number the number of the credit card.
+	 * @param creditCardType the type of the credit card.
+	 * @return {@link CreditCardValidationCode#VALID} or the code of the error.
+	 */
+	public static CreditCardValidationCode checkNumber(final String number, final CreditCardType creditCardType) {
+		
+		return VALIDATOR.checkNumber(number, creditCardType);
+	}
+	
+	/**
+	 * Checks a credit card number held in a character sequence given its type, without throwing an exception.
+	 * 
+	 * @param number the number of the credit card.
+	 * @param creditCardType the type of the credit card.
+	 * @return {@link CreditCardValidationCode#VALID} or the code of the error.
+	 */
+	public static CreditCardValidationCode checkNumber(final CharSequence number, final CreditCardType creditCardType) {
+		
+		return VALIDATOR.checkNumber(number, creditCardType);
+	}
+	
+	/**
+	 * Checks a credit card number held in a region of a character array given its type, without throwing an
+	 * exception.
+	 * 
+	 * @param number the array holding the number of the credit card, it is neither copied nor kept.
+	 * @param offset the index of the first character.
+	 * @param length the number of characters.
+	 * @param creditCardType the type of the credit card.
+	 * @return {@link CreditCardValidationCode#VALID} or the code of the error.
+	 */
+	public static CreditCardValidationCode checkNumber(final char[] number, final int offset, final int length,
+			final CreditCardType creditCardType) {
+		
+		return VALIDATOR.checkNumber(number, offset, length, creditCardType);
+	}
+	
+	/**
+	 * Validates a whole credit card and reports all the errors at once, without throwing an exception.
+	 * 
+	 * @param number the number of the credit card.
+	 * @param creditCardType the type of the credit card.
+	 * @param securityCode the security code.
+	 * @param country the country account.
+	 * @param expirationDate the expiration date (AAAA/MM).
+	 * @return {@link CreditCardValidationResult#VALID} if the card is valid, the errors otherwise.
+	 */
+	public static CreditCardValidationResult validateCard(final String number, final CreditCardType creditCardType,
+			final String securityCode, final String country, final String expirationDate) {
+		
+		return VALIDATOR.validateCard(number, creditCardType, securityCode, country, expirationDate);
+	}
+	
+	/**
+	 * Validates a whole credit card whose number and security code are held in character sequences.
+	 * 
+	 * @param number the number of the credit card.
+	 * @param creditCardType the type of the credit card.
+	 * @param securityCode the security code.
+	 * @param country the country account.
+	 * @param expirationDate the expiration date (AAAA/MM).
+	 * @return {@link CreditCardValidationResult#VALID} if the card is valid, the errors otherwise.
+	 */
+	public static CreditCardValidationResult validateCard(final CharSequence number,
+			final CreditCardType creditCardType, final CharSequence securityCode, final String country,
+			final String expirationDate) {
+		
+		return VALIDATOR.validateCard(number, creditCardType, securityCode, country, expirationDate);
+	}
+	
 	/**
 	 * Validates if a credit card will be expired for the next payment
 	 * 
@@ -89,6 +387,34 @@ public final class CreditCardValidator {
 		return VALIDATOR.willExpireOnPaymentDate(expirationDate, paymentDate);
 	}
 	
+	/**
+	 * Validates if a credit card will be expired for the next payment
+	 * 
+	 * @param expirationDate the expiration date
+	 * @param format the format of the expiration date
+	 * @param paymentDate the next payment date
+	 * @return true if will expire, false otherwise
+	 * @throws IllegalArgumentException if the expiration date is not well formed
+	 */
+	public static boolean willExpireOnPaymentDate(final CharSequence expirationDate,
+			final ExpirationDateFormat format, final Date paymentDate) {
+		
+		return VALIDATOR.willExpireOnPaymentDate(expirationDate, format, paymentDate);
+	}
+	
+	/**
+	 * Validates if a credit card is expired
+	 * 
+	 * @param expirationDate the expiration date
+	 * @param format the format of the expiration date
+	 * @return true if expired, false otherwise
+	 * @throws IllegalArgumentException if the expiration date is not well formed
+	 */
+	public static boolean isExpired(final CharSequence expirationDate, final ExpirationDateFormat format) {
+		
+		return VALIDATOR.isExpired(expirationDate, format);
+	}
+	
 	/**
 	 * validate the security code by credit card type
 	 * @param securityCode the security code
@@ -102,4 +428,68 @@ public final class CreditCardValidator {
 		CreditCardSecurityCodeValidator.validateSecurityCode(securityCode, type, country);
 
 	}
+	
+	/**
+	 * Validates a security code held in a character sequence by credit card type.
+	 * 
+	 * @param securityCode the security code
+	 * @param type  the credit card type
+	 * @param country the country account
+	 * @throws IllegalArgumentException if security code is not valid
+	 */
+	public static void validateSecurityCode(CharSequence securityCode, CreditCardType type, String country) {
+
+		CreditCardSecurityCodeValidator.validateSecurityCode(securityCode, type, country);
+	}
+	
+	/**
+	 * Validates the security code by credit card type and the issuer country found by the BIN lookup.
+	 * 
+	 * @param securityCode the security code
+	 * @param number the card number, used to find the issuer country
+	 * @param type  the credit card type
+	 * @throws IllegalArgumentException if security code is not valid
+	 */
+	public static void validateSecurityCode(CharSequence securityCode, CharSequence number, CreditCardType type) {
+
+		VALIDATOR.validateSecurityCode(securityCode, number, type);
+	}
+	
+	/**
+	 * Returns the issuer country of a card number found by the BIN lookup.
+	 * 
+	 * @param number the card number
+	 * @return the ISO 3166 alpha-2 code of the country, null if not known
+	 */
+	public static String findIssuerCountry(CharSequence number) {
+
+		return VALIDATOR.findIssuerCountry(number);
+	}
+	
+	/**
+	 * Checks the security code by credit card type, without throwing an exception.
+	 * 
+	 * @param securityCode the security code
+	 * @param type  the credit card type
+	 * @param country the country account
+	 * @return {@link CreditCardValidationCode#VALID} or the code of the error
+	 */
+	public static CreditCardValidationCode checkSecurityCode(String securityCode, CreditCardType type, String country) {
+
+		return CreditCardSecurityCodeValidator.checkSecurityCode(securityCode, type, country);
+	}
+	
+	/**
+	 * Checks a security code held in a character sequence by credit card type, without throwing an exception.
+	 * 
+	 * @param securityCode the security code
+	 * @param type  the credit card type
+	 * @param country the country account
+	 * @return {@link CreditCardValidationCode#VALID} or the code of the error
+	 */
+	public static CreditCardValidationCode checkSecurityCode(CharSequence securityCode, CreditCardType type,
+			String country) {
+
+		return CreditCardSecurityCodeValidator.checkSecurityCode(securityCode, type, country);
+	}
 }
@@ -1,19 +1,20 @@
 package com.pagosonline.ccutils.validators;
 
-import java.util.ArrayList;
-import java.util.Calendar;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 import org.apache.commons.lang3.StringUtils;
-import org.apache.commons.validator.routines.CodeValidator;
-import org.apache.commons.validator.routines.checkdigit.LuhnCheckDigit;
 import org.springframework.context.MessageSource;
 import org.springframework.context.i18n.LocaleContextHolder;
 
-import com.pagosonline.ccutils.format.CreditCardFormatUtils;
+import com.pagosonline.ccutils.bin.BinCache;
+import com.pagosonline.ccutils.bin.BinLookup;
+import com.pagosonline.ccutils.bin.BinMetadataLookup;
 import com.pagosonline.ccutils.model.CreditCardType;
-import com.pagosonline.ccutils.util.i18n.CreditCardMessages;
 
 /**
  * The credit card validator delegate.
@@ -23,9 +24,50 @@ import com.pagosonline.ccutils.util.i18n.CreditCardMessages;
  */
 public class CreditCardValidatorDelegate {
 
+	/** The types with a defined regular expression, in the order they are tried. */
+	private static final CreditCardType[] TYPES = new CreditCardType[] {
+			CreditCardType.VISA,
+			CreditCardType.MASTERCARD,
+			CreditCardType.AMEX,
+			CreditCardType.DISCOVER,
+			CreditCardType.DINERS,
+			CreditCardType.NARANJA,
+			CreditCardType.SHOPPING,
+			CreditCardType.CABAL,
+			CreditCardType.ARGENCARD,
+			CreditCardType.CENCOSUD,
+			CreditCardType.HIPERCARD,
+			CreditCardType.CODENSA,
+			CreditCardType.CREDENCIAL
+			};
+	
+	/** The simple name of the classifier generated at build time. */
+	static final String GENERATED_CLASSIFIER = "GeneratedCardNumberClassifier";
+	
+	/**
+	 * The classifier generated from the regular expressions of {@link #TYPES} at build time, their
+	 * automaton if none.
+	 */
+	private static final CardNumberClassifier TYPES_CLASSIFIER = loadClassifier();
+	
+	/** The radix of the card numbers. */
+	private static final int RADIX = 10;
+	
+	/** The value of the separators read by {@link #digit(CharSequence, int)}. */
+	private static final int SEPARATOR = -2;
+	
 	/** The message source for i18n. */
 	private MessageSource messageSource;
 	
+	/** The BIN lookup tried before the regular expressions, null if none. */
+	private final BinLookup binLookup;
+	
+	/** The cache of the types found by BIN and number of digits, null if none. */
+	private final BinCache typeCache;
+	
+	/** The index of the types by BIN, null if none. */
+	private final CreditCardTypeIndex typeIndex;
+	
 	/**
 	 * Instantiates a new credit card validator delegate.
 	 *
@@ -33,7 +75,142 @@ public class CreditCardValidatorDelegate {
 	 */
 	public CreditCardValidatorDelegate(MessageSource messageSource) {
 		
+		this(messageSource, null);
+	}
+	
+	/**
+	 * Instantiates a new credit card validator delegate that finds the credit card types by BIN
+	 * first, and by the regular expressions of the types when the BIN is not known.
+	 *
+	 * @param messageSource the message source
+	 * @param binLookup the BIN lookup, null to use only the regular expressions
+	 */
+	public CreditCardValidatorDelegate(MessageSource messageSource, BinLookup binLookup) {
+		
+		this(messageSource, binLookup, null);
+	}
+	
+	/**
+	 * Instantiates a new credit card validator delegate that caches the credit card types it finds
+	 * by BIN and number of digits. Only the types shared by every number with the same BIN and
+	 * number of digits are cached, so the results do not change; the BIN lookup must depend on the
+	 * BIN only.
+	 *
+	 * @param messageSource the message source
+	 * @param binLookup the BIN lookup, null to use only the regular expressions
+	 * @param typeCache the type cache, null to find the type of every number
+	 */
+	public CreditCardValidatorDelegate(MessageSource messageSource, BinLookup binLookup, BinCache typeCache) {
+		
+		this(messageSource, binLookup, typeCache, null);
+	}
+	
+	/**
+	 * Instantiates a new credit card validator delegate.
+	 *
+	 * @param messageSource the message source
+	 * @param binLookup the BIN lookup, null to use only the regular expressions
+	 * @param typeCache the type cache, null to find the type of every number
+	 * @param typeIndex the index of the types by BIN, null if none
+	 */
+	private CreditCardValidatorDelegate(MessageSource messageSource, BinLookup binLookup, BinCache typeCache,
+			CreditCardTypeIndex typeIndex) {
+		
 		this.messageSource = messageSource;
+		this.binLookup = binLookup;
+		this.typeCache = typeCache;
+		this.typeIndex = typeIndex;
+	}
+	
+	/**
+	 * Creates a credit card validator delegate that finds the credit card types with an index by
+	 * BIN, and its BIN table.
+	 *
+	 * @param messageSource the message source
+	 * @param typeIndex the index of the types by BIN
+	 * @return the validator delegate
+	 */
+	public static CreditCardValidatorDelegate withTypeIndex(MessageSource messageSource, CreditCardTypeIndex typeIndex) {
+		
+		return new CreditCardValidatorDelegate(messageSource, typeIndex.getBinTable(), null, typeIndex);
+	}
+	
+	/**
+	 * Gets the automaton compiled from the regular expressions of the specs of the types, compiling
+	 * it on first use.
+	 *
+	 * @return the automaton, its expression indexes are the indexes of {@link #types()}
+	 */
+	static CardNumberAutomaton typesAutomaton() {
+		
+		return TypesAutomaton.AUTOMATON;
+	}
+	
+	/**
+	 * Returns a hash of the regular expressions of the specs of the types, in order, to tell whether code
+	 * generated from them is still up to date without compiling them.
+	 *
+	 * @return the fingerprint
+	 */
+	static int typesFingerprint() {
+		
+		int fingerprint = 1;
+		
+		for (CreditCardType type : TYPES) {
+			fingerprint = 31 * fingerprint + type.getSpec().getRegExp().hashCode();
+		}
+		return fingerprint;
+	}
+	
+	/**
+	 * Gets the classifier of the numbers by type regular expression, the class generated at build
+	 * time or the automaton.
+	 *
+	 * @return the classifier, its expression indexes are the indexes of {@link #types()}
+	 */
+	static CardNumberClassifier typesClassifier() {
+		
+		return TYPES_CLASSIFIER;
+	}
+	
+	/**
+	 * Gets the types with a defined regular expression, in the order they are tried.
+	 *
+	 * @return the types, not to be modified
+	 */
+	static CreditCardType[] types() {
+		
+		return TYPES;
+	}
+	
+	/**
+	 * Gets the BIN lookup tried before the regular expressions.
+	 *
+	 * @return the BIN lookup, null if none
+	 */
+	public BinLookup getBinLookup() {
+		
+		return binLookup;
+	}
+	
+	/**
+	 * Gets the cache of the types found by BIN and number of digits.
+	 *
+	 * @return the type cache, null if none
+	 */
+	public BinCache getTypeCache() {
+		
+		return typeCache;
+	}
+	
+	/**
+	 * Gets the index of the types by BIN.
+	 *
+	 * @return the type index, null if none
+	 */
+	public CreditCardTypeIndex getTypeIndex() {
+		
+		return typeIndex;
 	}
 
 	/**
@@ -44,33 +221,304 @@ public class CreditCardValidatorDelegate {
 	 */
 	public CreditCardType findCreditCardType(String cardNumber) {
 		
-		cardNumber = cardNumber.replaceAll("\\D+", "");
-		
-		// types with a defined regular expression
-		CreditCardType[] types = new CreditCardType[] {
-				CreditCardType.VISA,
-				CreditCardType.MASTERCARD,
-				CreditCardType.AMEX,
-				CreditCardType.DISCOVER,
-				CreditCardType.DINERS,
-				CreditCardType.NARANJA,
-				CreditCardType.SHOPPING,				
-				CreditCardType.CABAL,
-				CreditCardType.ARGENCARD,
-				CreditCardType.CENCOSUD,
-				CreditCardType.HIPERCARD,
-				CreditCardType.CODENSA,
-				CreditCardType.CREDENCIAL				
-				};
+		return findCreditCardType((CharSequence) cardNumber);
+	}
+	
+	/**
+	 * Find credit card type of a number held in a character sequence.
+	 * Characters that are not digits are skipped.
+	 *
+	 * @param cardNumber the card number
+	 * @return the credit card type
+	 */
+	public CreditCardType findCreditCardType(final CharSequence cardNumber) {
 		
-		for (int i = 0; i < types.length; i++) {
+		if (typeIndex != null) {
+			return typeIndex.findCreditCardType(cardNumber);
+		}
+		
+		if (typeCache != null) {
+			return findCachedCreditCardType(cardNumber);
+		}
+		
+		if (binLookup != null) {
+			
+			CreditCardType type = binLookup.findCreditCardType(cardNumber);
+			
+			if (type != null) {
+				return type;
+			}
+		}
+		
+		int index = TYPES_CLASSIFIER.find(cardNumber);
+		
+		return index == CardNumberAutomaton.NO_MATCH ? CreditCardType.UNKNOWN : TYPES[index];
+	}
+	
+	/**
+	 * Finds the credit card type of a number and validates the number for that type in a single
+	 * pass, as {@link #findCreditCardType(CharSequence)} then {@link #checkNumber(CharSequence,
+	 * CreditCardType)} on its digits would. Spaces and dashes are skipped and any Unicode decimal
+	 * digit, such as the fullwidth ones, is read as a digit; any other character makes the number
+	 * {@link CreditCardType#UNKNOWN} and not valid. The pass reads the BIN, walks the automaton of
+	 * the types and adds up both Luhn sums, one for each parity of the number of digits.
+	 *
+	 * When the BIN lookup finds a type other than the one of the regular expressions, the digits are
+	 * matched against the regular expression of that type in a second pass. The type cache and the
+	 * type index are not used.
+	 *
+	 * @param number the number
+	 * @return the type, the validity and the number of digits, read with {@link CardNumberCheck}
+	 */
+	public int classifyAndValidate(final CharSequence number) {
+		
+		if (number == null) {
+			return CardNumberCheck.pack(CreditCardType.UNKNOWN, false, 0);
+		}
+		
+		CardNumberAutomaton automaton = typesAutomaton();
+		int state = 0;
+		int digits = 0;
+		long bin = 0;
+		
+		// the Luhn sums doubling the digits at even and at odd indexes
+		int evenSum = 0;
+		int oddSum = 0;
+		
+		for (int i = 0, length = number.length(); i < length; i++) {
+			
+			int digit = digit(number, i);
+			
+			if (digit == SEPARATOR) {
+				continue;
+			}
+			
+			if (digit < 0) {
+				return CardNumberCheck.pack(CreditCardType.UNKNOWN, false, 0);
+			}
+			
+			if (digit >= RADIX) {
+				
+				// a supplementary code point, two chars
+				digit -= RADIX;
+				i++;
+			}
+			
+			state = automaton.next(state, digit);
+			
+			if (digits < BinLookup.BIN_DIGITS) {
+				bin = bin * RADIX + digit;
+			}
+			
+			if ((digits & 1) == 0) {
+				evenSum += LuhnCheck.DOUBLED[digit];
+				oddSum += digit;
+			} else {
+				evenSum += digit;
+				oddSum += LuhnCheck.DOUBLED[digit];
+			}
+			digits++;
+		}
+		
+		// the digit before the check digit is doubled, at an index of the same parity as the count
+		int luhnSum = (digits & 1) == 0 ? evenSum : oddSum;
+		boolean luhnValid = luhnSum != 0 && luhnSum % RADIX == 0;
+		
+		CreditCardType type = binLookup != null && digits >= BinLookup.BIN_DIGITS ? binLookup.findCreditCardType(bin)
+				: null;
+		int index = automaton.accept(state);
+		
+		if (type == null || index != CardNumberAutomaton.NO_MATCH && TYPES[index] == type) {
+			
+			if (index == CardNumberAutomaton.NO_MATCH) {
+				return CardNumberCheck.pack(CreditCardType.UNKNOWN, false, digits);
+			}
+			
+			type = TYPES[index];
+			return CardNumberCheck.pack(type, luhnValid || !type.applyLuhnCheck(), digits);
+		}
+		
+		CreditCardValidationPlan plan = CreditCardValidationPlan.of(type);
+		boolean valid = (luhnValid || !plan.hasLuhnCheck()) && plan.getAutomaton() != null
+				&& plan.getAutomaton().accept(matchDigits(plan.getAutomaton(), number)) != CardNumberAutomaton.NO_MATCH;
+		
+		return CardNumberCheck.pack(type, valid, digits);
+	}
+	
+	/**
+	 * Reads the digit at an index of a number for {@link #classifyAndValidate(CharSequence)}.
+	 *
+	 * @param number the number
+	 * @param index the index
+	 * @return the digit, the digit plus {@link #RADIX} if it is a supplementary code point,
+	 *         {@link #SEPARATOR} for a separator, -1 for any other character
+	 */
+	private static int digit(final CharSequence number, final int index) {
+		
+		char c = number.charAt(index);
+		
+		if (c >= '0' && c <= '9') {
+			return c - '0';
+		}
+		
+		if (c == ' ' || c == '-' || Character.isSpaceChar(c)) {
+			return SEPARATOR;
+		}
+		
+		if (Character.isHighSurrogate(c) && index + 1 < number.length()) {
+			
+			int digit = Character.digit(Character.codePointAt(number, index), RADIX);
+			
+			return digit < 0 ? digit : digit + RADIX;
+		}
+		
+		return Character.digit(c, RADIX);
+	}
+	
+	/**
+	 * Walks an automaton with the digits of a number, as read by {@link #digit(CharSequence, int)}.
+	 *
+	 * @param automaton the automaton
+	 * @param number the number, with only digits and separators
+	 * @return the state reached
+	 */
+	private static int matchDigits(final CardNumberAutomaton automaton, final CharSequence number) {
+		
+		int state = 0;
+		
+		for (int i = 0, length = number.length(); i < length; i++) {
+			
+			int digit = digit(number, i);
+			
+			if (digit == SEPARATOR) {
+				continue;
+			}
+			
+			if (digit >= RADIX) {
+				digit -= RADIX;
+				i++;
+			}
+			state = automaton.next(state, digit);
+		}
+		return state;
+	}
+	
+	/**
+	 * Find credit card type of a number in the type cache first.
+	 *
+	 * @param cardNumber the card number
+	 * @return the credit card type
+	 */
+	private CreditCardType findCachedCreditCardType(final CharSequence cardNumber) {
+		
+		BinLookup lookup = binLookup != null ? binLookup.snapshot() : null;
+		long key = BinCache.key(cardNumber);
+		int generation = typeCache.getGeneration(lookup);
+		
+		CreditCardType type = key != BinCache.NO_KEY ? typeCache.get(key, generation) : null;
+		
+		if (type != null) {
+			return type;
+		}
+		
+		long bin = lookup != null ? BinLookup.bin(cardNumber) : BinLookup.NO_BIN;
+		long stamp = bin != BinLookup.NO_BIN ? lookup.getFallbackStamp(bin) : 0;
+		
+		type = lookup != null ? lookup.findCreditCardType(cardNumber) : null;
+		
+		if (type == null) {
+			
+			int index = typesAutomaton().findUniform(cardNumber, BinLookup.BIN_DIGITS);
+			
+			if (index == CardNumberAutomaton.MIXED) {
+				index = TYPES_CLASSIFIER.find(cardNumber);
+				return index == CardNumberAutomaton.NO_MATCH ? CreditCardType.UNKNOWN : TYPES[index];
+			}
+			
+			type = index == CardNumberAutomaton.NO_MATCH ? CreditCardType.UNKNOWN : TYPES[index];
+			
+			// the answer for the BIN may still come: the fallback type is not cached
+			if (bin != BinLookup.NO_BIN && (stamp == BinLookup.PENDING || lookup.getFallbackStamp(bin) != stamp)) {
+				return type;
+			}
+		}
+		
+		if (key != BinCache.NO_KEY) {
+			typeCache.put(key, type, generation);
+		}
+		return type;
+	}
+	
+	/**
+	 * Warms the type cache up with the BINs and numbers of digits of another cache, for example
+	 * saved by a {@link com.pagosonline.ccutils.bin.BinCacheSnapshot} before a restart. The types
+	 * are found again with the data in service.
+	 *
+	 * @param keys the cache keys, see {@link BinCache#keys()}
+	 * @return the number of keys looked up, the invalid ones are skipped
+	 */
+	public int warmUp(final long[] keys) {
+		
+		if (typeCache == null) {
+			return 0;
+		}
+		
+		int count = 0;
+		
+		for (long key : keys) {
+			
+			String number = BinCache.sample(key);
+			
+			if (number != null) {
+				findCachedCreditCardType(number);
+				count++;
+			}
+		}
+		return count;
+	}
+	
+	/**
+	 * Find credit card type of a number held in a region of a character array.
+	 * Characters that are not digits are skipped.
+	 *
+	 * @param cardNumber the array, it is neither copied nor kept
+	 * @param offset the index of the first character
+	 * @param length the number of characters
+	 * @return the credit card type
+	 */
+	public CreditCardType findCreditCardType(final char[] cardNumber, final int offset, final int length) {
+		
+		return findCreditCardType(CharBuffer.wrap(cardNumber, offset, length));
+	}
+	
+	/**
+	 * Find credit card type of a number held in ASCII in a region of a byte buffer.
+	 * Bytes that are not digits are skipped. The type index and the type cache are used as by
+	 * {@link #findCreditCardType(CharSequence)}, through a view of the region that is not copied.
+	 *
+	 * @param buffer the buffer, read with absolute gets
+	 * @param from the index of the first byte, inclusive
+	 * @param to the index of the last byte, exclusive
+	 * @return the credit card type
+	 */
+	public CreditCardType findCreditCardType(final ByteBuffer buffer, final int from, final int to) {
+
+		if (typeIndex != null || typeCache != null) {
+			return findCreditCardType(new AsciiCharSequence(buffer, from, to));
+		}
+
+		if (binLookup != null) {
 			
-			if(cardNumber.matches(types[i].getRegExp())) {
-				return types[i];
+			CreditCardType type = binLookup.findCreditCardType(buffer, from, to);
+			
+			if (type != null) {
+				return type;
 			}
 		}
 		
-		return CreditCardType.UNKNOWN;
+		int index = typesAutomaton().find(buffer, from, to);
+		
+		return index == CardNumberAutomaton.NO_MATCH ? CreditCardType.UNKNOWN : TYPES[index];
 	}
 	
 	/**
@@ -78,29 +526,340 @@ public class CreditCardValidatorDelegate {
 	 *
 	 * @param number the number
 	 * @param creditCardType the credit card type
+	 * @throws CreditCardValidationException if the number is not valid, the message is rendered on demand
 	 */
 	public void validate(final String number, final CreditCardType creditCardType) {
 		
+		CreditCardValidationCode code = checkNumber(number, creditCardType);
+		
+		if (!code.isValid()) {
+			
+			throw new CreditCardValidationException(code, number, creditCardType, messageSource,
+					LocaleContextHolder.getLocale());
+		}
+	}
+	
+	/**
+	 * Validates a credit card number held in a character sequence given its type.
+	 * The exception keeps a masked copy of the number instead of the sequence.
+	 *
+	 * @param number the number
+	 * @param creditCardType the credit card type
+	 * @throws CreditCardValidationException if the number is not valid, the message is rendered on demand
+	 */
+	public void validate(final CharSequence number, final CreditCardType creditCardType) {
+		
+		CreditCardValidationCode code = checkNumber(number, creditCardType);
+		
+		if (!code.isValid()) {
+			
+			throw new CreditCardValidationException(code, number, creditCardType, messageSource,
+					LocaleContextHolder.getLocale());
+		}
+	}
+	
+	/**
+	 * Validates a credit card number held in a region of a character array given its type.
+	 * The exception keeps a masked copy of the number, so the array can be wiped afterwards.
+	 *
+	 * @param number the array, it is neither copied nor kept
+	 * @param offset the index of the first character
+	 * @param length the number of characters
+	 * @param creditCardType the credit card type
+	 * @throws CreditCardValidationException if the number is not valid, the message is rendered on demand
+	 */
+	public void validate(final char[] number, final int offset, final int length,
+			final CreditCardType creditCardType) {
+		
+		validate(number != null ? CharBuffer.wrap(number, offset, length) : null, creditCardType);
+	}
+	
+	/**
+	 * Checks a credit card number given its type, without throwing an exception.
+	 *
+	 * @param number the number
+	 * @param creditCardType the credit card type
+	 * @return {@link CreditCardValidationCode#VALID} or the code of the error
+	 */
+	public CreditCardValidationCode checkNumber(final String number, final CreditCardType creditCardType) {
+		
+		return checkNumber((CharSequence) number, creditCardType);
+	}
+	
+	/**
+	 * Checks a credit card number held in a character sequence given its type, without throwing an
+	 * exception. Leading and trailing whitespace is ignored.
+	 *
+	 * @param number the number
+	 * @param creditCardType the credit card type
+	 * @return {@link CreditCardValidationCode#VALID} or the code of the error
+	 */
+	public CreditCardValidationCode checkNumber(final CharSequence number, final CreditCardType creditCardType) {
+		
 		if (StringUtils.isBlank(number)) {
-			throw new IllegalArgumentException(messageSource.getMessage(CreditCardMessages.CREDIT_CARD_NUMBER_NOT_NULL_EMPTY,
-					new Object[] {}, LocaleContextHolder.getLocale()));
+			return CreditCardValidationCode.NUMBER_NOT_NULL_EMPTY;
 		}
-
+		
 		if (creditCardType == null) {
-			throw new IllegalArgumentException(messageSource.getMessage(CreditCardMessages.CREDIT_CARD_TYPE_NOT_NULL,
-					new Object[] {}, LocaleContextHolder.getLocale()));
-		}		
+			return CreditCardValidationCode.TYPE_NOT_NULL;
+		}
 		
-		List<CodeValidator> issuerValidators = buildIssuerValidators(creditCardType);
+		// same bounds as number.trim(), without creating a new string
+		int from = 0;
+		int to = number.length();
 		
-		org.apache.commons.validator.routines.CreditCardValidator validator = 
-				new org.apache.commons.validator.routines.CreditCardValidator(issuerValidators.toArray(new CodeValidator[issuerValidators.size()]));
+		while (from < to && number.charAt(from) <= ' ') {
+			from++;
+		}
+		while (to > from && number.charAt(to - 1) <= ' ') {
+			to--;
+		}
 		
-		if( !validator.isValid(number)) {
-			
-			throw new IllegalArgumentException(messageSource.getMessage(CreditCardMessages.CREDIT_CARD_NUMBER_NOT_VALID,
-					new Object[] { CreditCardFormatUtils.mask(number), creditCardType }, LocaleContextHolder.getLocale()));
-		}		
+		if (!CreditCardValidationPlan.of(creditCardType).isValid(number, from, to)) {
+			return CreditCardValidationCode.NUMBER_NOT_VALID;
+		}
+		
+		return CreditCardValidationCode.VALID;
+	}
+	
+	/**
+	 * Checks a credit card number held in a region of a character array given its type, without
+	 * throwing an exception. Leading and trailing whitespace is ignored.
+	 *
+	 * @param number the array, it is neither copied nor kept
+	 * @param offset the index of the first character
+	 * @param length the number of characters
+	 * @param creditCardType the credit card type
+	 * @return {@link CreditCardValidationCode#VALID} or the code of the error
+	 */
+	public CreditCardValidationCode checkNumber(final char[] number, final int offset, final int length,
+			final CreditCardType creditCardType) {
+		
+		return checkNumber(number != null ? CharBuffer.wrap(number, offset, length) : null, creditCardType);
+	}
+	
+	/**
+	 * Checks a credit card number held in ASCII in a region of a byte buffer, without throwing an
+	 * exception. Leading and trailing whitespace is ignored.
+	 *
+	 * @param buffer the buffer, read with absolute gets
+	 * @param from the index of the first byte, inclusive
+	 * @param to the index of the last byte, exclusive
+	 * @param creditCardType the credit card type
+	 * @return {@link CreditCardValidationCode#VALID} or the code of the error
+	 */
+	public CreditCardValidationCode checkNumber(final ByteBuffer buffer, final int from, final int to,
+			final CreditCardType creditCardType) {
+		
+		int start = from;
+		int end = to;
+		
+		while (start < end && buffer.get(start) <= ' ' && buffer.get(start) >= 0) {
+			start++;
+		}
+		while (end > start && buffer.get(end - 1) <= ' ' && buffer.get(end - 1) >= 0) {
+			end--;
+		}
+		
+		if (start == end) {
+			return CreditCardValidationCode.NUMBER_NOT_NULL_EMPTY;
+		}
+		
+		if (creditCardType == null) {
+			return CreditCardValidationCode.TYPE_NOT_NULL;
+		}
+		
+		if (!CreditCardValidationPlan.of(creditCardType).isValid(buffer, start, end)) {
+			return CreditCardValidationCode.NUMBER_NOT_VALID;
+		}
+		
+		return CreditCardValidationCode.VALID;
+	}
+	
+	/**
+	 * Returns the issuer country of a number, when the BIN lookup is a {@link BinMetadataLookup}.
+	 *
+	 * @param number the number
+	 * @return the ISO 3166 alpha-2 code of the country, null if not known
+	 */
+	public String findIssuerCountry(final CharSequence number) {
+		
+		BinLookup lookup = binLookup != null ? binLookup.snapshot() : null;
+		
+		if (!(lookup instanceof BinMetadataLookup) || number == null) {
+			return null;
+		}
+		
+		BinMetadataLookup metadata = (BinMetadataLookup) lookup;
+		int index = metadata.indexOf(number);
+		
+		return index < 0 ? null : metadata.getCountry(index);
+	}
+	
+	/**
+	 * Checks a security code by credit card type and the issuer country of the card number, without
+	 * throwing an exception. The default rules of the type apply if the country is not known.
+	 *
+	 * @param securityCode the security code
+	 * @param number the card number, used to find the issuer country
+	 * @param creditCardType the credit card type
+	 * @return {@link CreditCardValidationCode#VALID} or the code of the error
+	 */
+	public CreditCardValidationCode checkSecurityCode(final CharSequence securityCode, final CharSequence number,
+			final CreditCardType creditCardType) {
+		
+		return CreditCardSecurityCodeValidator.checkSecurityCode(securityCode, creditCardType,
+				findIssuerCountry(number));
+	}
+	
+	/**
+	 * Validates a security code by credit card type and the issuer country of the card number.
+	 * The default rules of the type apply if the country is not known.
+	 *
+	 * @param securityCode the security code
+	 * @param number the card number, used to find the issuer country
+	 * @param creditCardType the credit card type
+	 * @throws CreditCardValidationException if the security code is not valid
+	 */
+	public void validateSecurityCode(final CharSequence securityCode, final CharSequence number,
+			final CreditCardType creditCardType) {
+		
+		CreditCardSecurityCodeValidator.validateSecurityCode(securityCode, creditCardType, findIssuerCountry(number));
+	}
+	
+	/**
+	 * Checks a credit card expiration date against the current month, without throwing an exception.
+	 *
+	 * @param expirationDate the expiration date (AAAA/MM)
+	 * @return {@link CreditCardValidationCode#VALID} or the code of the error
+	 */
+	public CreditCardValidationCode checkExpirationDate(final String expirationDate) {
+		
+		int month = ExpirationDateFormat.YYYY_MM.parse(expirationDate);
+		
+		if (month < 0) {
+			return CreditCardValidationCode.EXPIRATION_DATE_NOT_VALID;
+		}
+		
+		return month < ExpirationCalendar.getDefault().currentMonth() ? CreditCardValidationCode.EXPIRED
+				: CreditCardValidationCode.VALID;
+	}
+	
+	/**
+	 * Validates a whole credit card and reports all the errors at once, without throwing an exception.
+	 *
+	 * @param number the number
+	 * @param creditCardType the credit card type
+	 * @param securityCode the security code
+	 * @param country the credit card country
+	 * @param expirationDate the expiration date (AAAA/MM)
+	 * @return {@link CreditCardValidationResult#VALID} if the card is valid, the errors otherwise
+	 */
+	public CreditCardValidationResult validateCard(final String number, final CreditCardType creditCardType,
+			final String securityCode, final String country, final String expirationDate) {
+		
+		int errors = checkCard(number, creditCardType, securityCode, country, expirationDate);
+		
+		if (errors == 0) {
+			return CreditCardValidationResult.VALID;
+		}
+		
+		return new CreditCardValidationResult(errors, number, creditCardType, messageSource,
+				LocaleContextHolder.getLocale());
+	}
+	
+	/**
+	 * Validates a whole credit card whose number and security code are held in character sequences.
+	 * The result keeps a masked copy of the number instead of the sequence.
+	 *
+	 * @param number the number
+	 * @param creditCardType the credit card type
+	 * @param securityCode the security code
+	 * @param country the credit card country
+	 * @param expirationDate the expiration date (AAAA/MM)
+	 * @return {@link CreditCardValidationResult#VALID} if the card is valid, the errors otherwise
+	 */
+	public CreditCardValidationResult validateCard(final CharSequence number, final CreditCardType creditCardType,
+			final CharSequence securityCode, final String country, final String expirationDate) {
+		
+		int errors = checkCard(number, creditCardType, securityCode, country, expirationDate);
+		
+		if (errors == 0) {
+			return CreditCardValidationResult.VALID;
+		}
+		
+		return new CreditCardValidationResult(errors, number, creditCardType, messageSource,
+				LocaleContextHolder.getLocale());
+	}
+	
+	/**
+	 * Checks all the fields of a credit card.
+	 *
+	 * @param number the number
+	 * @param creditCardType the credit card type
+	 * @param securityCode the security code
+	 * @param country the credit card country
+	 * @param expirationDate the expiration date (AAAA/MM)
+	 * @return the error mask, 0 if the card is valid
+	 */
+	private int checkCard(final CharSequence number, final CreditCardType creditCardType,
+			final CharSequence securityCode, final String country, final String expirationDate) {
+		
+		return (creditCardType == null ? CreditCardValidationCode.TYPE_NOT_NULL.getMask() : 0)
+				| checkNumber(number, creditCardType).getMask()
+				| CreditCardSecurityCodeValidator.checkSecurityCode(securityCode, creditCardType, country).getMask()
+				| checkExpirationDate(expirationDate).getMask();
+	}
+	
+	/**
+	 * Finds the type of each number and validates them in parallel.
+	 *
+	 * @param numbers the numbers
+	 * @param pool the pool that runs the validation, the common pool if null
+	 * @return the type and the validation code of each number
+	 */
+	public CreditCardBatchResult validateAll(final String[] numbers, final ForkJoinPool pool) {
+		
+		return validateAll(Arrays.asList(numbers), null, pool);
+	}
+	
+	/**
+	 * Validates numbers given their types in parallel.
+	 *
+	 * @param numbers the numbers
+	 * @param types the type of each number, null to find them
+	 * @param pool the pool that runs the validation, the common pool if null
+	 * @return the type and the validation code of each number
+	 */
+	public CreditCardBatchResult validateAll(final String[] numbers, final CreditCardType[] types,
+			final ForkJoinPool pool) {
+		
+		return validateAll(Arrays.asList(numbers), types != null ? Arrays.asList(types) : null, pool);
+	}
+	
+	/**
+	 * Validates numbers given their types in parallel.
+	 * The lists should support fast random access.
+	 *
+	 * @param numbers the numbers
+	 * @param types the type of each number, null to find them
+	 * @param pool the pool that runs the validation, the common pool if null
+	 * @return the type and the validation code of each number
+	 */
+	public CreditCardBatchResult validateAll(final List<String> numbers, final List<CreditCardType> types,
+			final ForkJoinPool pool) {
+		
+		if (types != null && types.size() != numbers.size()) {
+			throw new IllegalArgumentException("the numbers and the types must have the same size");
+		}
+		
+		ForkJoinPool executor = pool != null ? pool : ForkJoinPool.commonPool();
+		CreditCardBatchResult result = new CreditCardBatchResult(numbers.size());
+		int threshold = CreditCardBatchTask.threshold(numbers.size(), executor.getParallelism());
+		
+		executor.invoke(new CreditCardBatchTask(this, numbers, types, result, 0, numbers.size(), threshold));
+		
+		return result;
 	}
 	
 	/**
@@ -112,48 +871,91 @@ public class CreditCardValidatorDelegate {
 	 */
 	public boolean willExpireOnPaymentDate(final String expirationDate, final Date paymentDate){
 		
-		String pattern = "(19|20)(\\d{2})/(0[1-9]|1[0-2])";
-		if (!expirationDate.matches(pattern)) {
+		int month = ExpirationDateFormat.YYYY_MM.parse(expirationDate);
+		
+		if (month < 0) {
 			throw new IllegalArgumentException("The expiration date is not well formed (AAAA/MM)");
 		}
-
-		int year = Integer.valueOf(expirationDate.split("/")[0]);
-		int month = Integer.valueOf(expirationDate.split("/")[1]);
-
-		Calendar paymentDateCal = Calendar.getInstance();
-		paymentDateCal.setTime(paymentDate);
-		int monthPayment = paymentDateCal.get(Calendar.MONTH) + 1;
-		int yearPayment = paymentDateCal.get(Calendar.YEAR);
 		
-		return year < yearPayment || (yearPayment == year && month < monthPayment);
+		return month < ExpirationCalendar.getDefault().monthIndex(paymentDate.getTime());
+	}
+	
+	/**
+	 * Validates if a credit card will be expired for the next payment, in the default time zone.
+	 *
+	 * @param expirationDate the expiration date
+	 * @param format the format of the expiration date
+	 * @param paymentDate the next payment date
+	 * @return true if will expire, false otherwise
+	 * @throws IllegalArgumentException if the expiration date is not well formed
+	 */
+	public boolean willExpireOnPaymentDate(final CharSequence expirationDate, final ExpirationDateFormat format,
+			final Date paymentDate) {
+		
+		return ExpirationCalendar.getDefault().willExpireOn(expirationDate, format, paymentDate.getTime());
 	}
 	
 	/**
-	 * Builds the issuer validators.
-	 * @param creditCardType 
+	 * Validates if a credit card is expired, in the default time zone.
 	 *
-	 * @return the validators list
+	 * @param expirationDate the expiration date
+	 * @param format the format of the expiration date
+	 * @return true if expired, false otherwise
+	 * @throws IllegalArgumentException if the expiration date is not well formed
 	 */
-	private List<CodeValidator> buildIssuerValidators(CreditCardType type) {
+	public boolean isExpired(final CharSequence expirationDate, final ExpirationDateFormat format) {
 		
-		List<CodeValidator> validators = new ArrayList<>(CreditCardType.values().length);
+		return ExpirationCalendar.getDefault().isExpired(expirationDate, format);
+	}
+	
+	/**
+	 * Compiles the regular expressions of the specs of the given types into a single automaton,
+	 * see {@link com.pagosonline.ccutils.model.CreditCardSpec#getRegExp()}.
+	 *
+	 * @param types the types, in priority order
+	 * @return the automaton
+	 */
+	private static CardNumberAutomaton compile(CreditCardType[] types) {
 		
-		// build the card type validator if has a regexp defined
-		if (type.getRegExp() != null) {
-			
-			CodeValidator codeValidator = null;
+		String[] regExps = new String[types.length];
+		
+		for (int i = 0; i < types.length; i++) {
+			regExps[i] = types[i].getSpec().getRegExp();
+		}
+		
+		return CardNumberAutomaton.compile(regExps);
+	}
+	
+	/**
+	 * Loads the classifier generated at build time by <code>CardNumberClassifierGenerator</code>. The
+	 * regular expressions are only compiled if it is missing or out of date.
+	 *
+	 * @return the generated classifier, {@link #typesAutomaton()} if it is missing or was generated
+	 *         from other regular expressions
+	 */
+	private static CardNumberClassifier loadClassifier() {
+		
+		try {
+			Class<?> generated = Class.forName(CreditCardValidatorDelegate.class.getPackage().getName() + "."
+					+ GENERATED_CLASSIFIER);
 			
-			if (type.applyLuhnCheck()) {
-				codeValidator = new CodeValidator(type.getRegExp(), LuhnCheckDigit.LUHN_CHECK_DIGIT);
+			if (generated.getDeclaredField("FINGERPRINT").getInt(null) == typesFingerprint()) {
+				return (CardNumberClassifier) generated.getDeclaredConstructor().newInstance();
 			}
-			else {
-				codeValidator = new CodeValidator(type.getRegExp(), NoCheckDigit.NO_CHECK_DIGIT);
-			}
-			
-			validators.add(codeValidator);
+		} catch (ReflectiveOperationException e) {
+			// not generated, as when running from the sources
 		}
+		return typesAutomaton();
+	}
+	
+	/**
+	 * Holds the automaton of the types, compiled on first use: the generated classifier finds the
+	 * types of most numbers without it.
+	 */
+	private static final class TypesAutomaton {
 		
-		return validators;
+		/** The automaton compiled from the specs of {@link CreditCardValidatorDelegate#TYPES}. */
+		static final CardNumberAutomaton AUTOMATON = compile(TYPES);
 	}
 	
 }
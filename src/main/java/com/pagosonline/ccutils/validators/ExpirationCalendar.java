@@ -0,0 +1,239 @@
+package com.pagosonline.ccutils.validators;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Resolves instants to month indexes (<code>year * 12 + month - 1</code>) in a time zone and
+ * compares them with expiration dates.
+ *
+ * The boundaries of the current month and of the last other month resolved are cached, so the
+ * calendar is only used when an instant falls outside both of them: once a month for the current
+ * month and once per payment date for a billing run.
+ *
+ * @since 4.9.5
+ */
+public final class ExpirationCalendar {
+
+	/** The calendars by time zone ID. */
+	private static final ConcurrentMap<String, ExpirationCalendar> ZONES = new ConcurrentHashMap<>();
+
+	/** The time zone. */
+	private final TimeZone timeZone;
+
+	/** The current month. */
+	private volatile Month current;
+
+	/** The last other month resolved. */
+	private volatile Month last;
+
+	/**
+	 * Instantiates a new expiration calendar.
+	 *
+	 * @param timeZone the time zone
+	 */
+	private ExpirationCalendar(TimeZone timeZone) {
+
+		this.timeZone = timeZone;
+		this.current = resolve(System.currentTimeMillis());
+		this.last = current;
+	}
+
+	/**
+	 * Returns the calendar of the current default time zone. The default time zone is read on every
+	 * call, so a change of it applies at once, as with <code>Calendar.getInstance()</code>.
+	 *
+	 * @return the calendar
+	 */
+	public static ExpirationCalendar getDefault() {
+
+		return of(TimeZone.getDefault());
+	}
+
+	/**
+	 * Returns the calendar of a time zone. The calendars are created once per time zone ID.
+	 *
+	 * @param timeZone the time zone
+	 * @return the calendar
+	 */
+	public static ExpirationCalendar of(final TimeZone timeZone) {
+
+		if (timeZone == null) {
+			throw new IllegalArgumentException("the time zone cannot be null");
+		}
+
+		ExpirationCalendar calendar = ZONES.get(timeZone.getID());
+
+		if (calendar == null) {
+			ExpirationCalendar created = new ExpirationCalendar((TimeZone) timeZone.clone());
+			calendar = ZONES.putIfAbsent(timeZone.getID(), created);
+			calendar = calendar != null ? calendar : created;
+		}
+		return calendar;
+	}
+
+	/**
+	 * Returns the index of the month of an instant.
+	 *
+	 * @param millis the instant
+	 * @return the month index
+	 */
+	public int monthIndex(final long millis) {
+
+		Month month = current;
+
+		if (month.contains(millis)) {
+			return month.index;
+		}
+
+		month = last;
+
+		if (!month.contains(millis)) {
+			month = resolve(millis);
+			last = month;
+		}
+		return month.index;
+	}
+
+	/**
+	 * Returns the index of the current month.
+	 *
+	 * @return the month index
+	 */
+	public int currentMonth() {
+
+		long now = System.currentTimeMillis();
+		Month month = current;
+
+		if (!month.contains(now)) {
+			month = resolve(now);
+			current = month;
+		}
+		return month.index;
+	}
+
+	/**
+	 * Checks if a card is expired at the current time.
+	 *
+	 * @param expirationDate the expiration date
+	 * @param format the format of the expiration date
+	 * @return true if the expiration month is before the current month
+	 * @throws IllegalArgumentException if the expiration date is not well formed
+	 */
+	public boolean isExpired(final CharSequence expirationDate, final ExpirationDateFormat format) {
+
+		return parse(expirationDate, format) < currentMonth();
+	}
+
+	/**
+	 * Checks if a card is expired at an instant.
+	 *
+	 * @param expirationDate the expiration date
+	 * @param format the format of the expiration date
+	 * @param nowMillis the instant
+	 * @return true if the expiration month is before the month of the instant
+	 * @throws IllegalArgumentException if the expiration date is not well formed
+	 */
+	public boolean isExpired(final CharSequence expirationDate, final ExpirationDateFormat format,
+			final long nowMillis) {
+
+		return parse(expirationDate, format) < monthIndex(nowMillis);
+	}
+
+	/**
+	 * Checks if a card will be expired on a payment date.
+	 *
+	 * @param expirationDate the expiration date
+	 * @param format the format of the expiration date
+	 * @param paymentMillis the payment date
+	 * @return true if the expiration month is before the payment month
+	 * @throws IllegalArgumentException if the expiration date is not well formed
+	 */
+	public boolean willExpireOn(final CharSequence expirationDate, final ExpirationDateFormat format,
+			final long paymentMillis) {
+
+		return isExpired(expirationDate, format, paymentMillis);
+	}
+
+	/**
+	 * Parses an expiration date.
+	 *
+	 * @param expirationDate the expiration date
+	 * @param format the format of the expiration date
+	 * @return the month index
+	 * @throws IllegalArgumentException if the expiration date is not well formed
+	 */
+	private static int parse(CharSequence expirationDate, ExpirationDateFormat format) {
+
+		int month = format.parse(expirationDate);
+
+		if (month < 0) {
+			throw new IllegalArgumentException("The expiration date is not well formed (" + format + ")");
+		}
+		return month;
+	}
+
+	/**
+	 * Resolves the month of an instant with a calendar.
+	 *
+	 * @param millis the instant
+	 * @return the month
+	 */
+	private Month resolve(long millis) {
+
+		Calendar calendar = Calendar.getInstance(timeZone);
+		calendar.setTimeInMillis(millis);
+		calendar.set(Calendar.DAY_OF_MONTH, 1);
+		calendar.set(Calendar.HOUR_OF_DAY, 0);
+		calendar.set(Calendar.MINUTE, 0);
+		calendar.set(Calendar.SECOND, 0);
+		calendar.set(Calendar.MILLISECOND, 0);
+
+		int index = calendar.get(Calendar.YEAR) * 12 + calendar.get(Calendar.MONTH);
+		long start = calendar.getTimeInMillis();
+		calendar.add(Calendar.MONTH, 1);
+
+		return new Month(index, start, calendar.getTimeInMillis());
+	}
+
+	/**
+	 * The boundaries of a month.
+	 */
+	private static final class Month {
+
+		/** The month index. */
+		private final int index;
+
+		/** The first millisecond of the month. */
+		private final long start;
+
+		/** The first millisecond of the next month. */
+		private final long end;
+
+		/**
+		 * Instantiates a new month.
+		 *
+		 * @param index the month index
+		 * @param start the first millisecond of the month
+		 * @param end the first millisecond of the next month
+		 */
+		Month(int index, long start, long end) {
+
+			this.index = index;
+			this.start = start;
+			this.end = end;
+		}
+
+		/**
+		 * Checks if an instant is in the month.
+		 *
+		 * @param millis the instant
+		 * @return true if the instant is in the month
+		 */
+		boolean contains(long millis) {
+			return millis >= start && millis < end;
+		}
+	}
+}
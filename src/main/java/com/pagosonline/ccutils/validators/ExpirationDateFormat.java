@@ -0,0 +1,102 @@
+package com.pagosonline.ccutils.validators;
+
+/**
+ * The formats of a credit card expiration date, parsed straight from the characters into a month
+ * index: <code>year * 12 + month - 1</code>.
+ *
+ * The two digit years are years of the 21st century.
+ *
+ * @since 4.9.5
+ */
+public enum ExpirationDateFormat {
+
+	/** Four digit year, slash and month, for example 2025/07. The year must be 19xx or 20xx. */
+	YYYY_MM(7, 2, 5, '/'),
+
+	/** Month, slash and two digit year, for example 07/25. */
+	MM_YY(5, 3, 0, '/'),
+
+	/** Month and two digit year, for example 0725. */
+	MMYY(4, 2, 0, (char) 0),
+
+	/** Two digit year and month, for example 2507. */
+	YYMM(4, 0, 2, (char) 0);
+
+	/** The century of the two digit years. */
+	private static final int CENTURY = 20;
+
+	/** The length of a date. */
+	private final int length;
+
+	/** The index of the last two digits of the year. */
+	private final int yearIndex;
+
+	/** The index of the month digits. */
+	private final int monthIndex;
+
+	/** The separator after the first field, 0 if none. */
+	private final char separator;
+
+	/**
+	 * Instantiates a new expiration date format.
+	 *
+	 * @param length the length of a date
+	 * @param yearIndex the index of the last two digits of the year
+	 * @param monthIndex the index of the month digits
+	 * @param separator the separator after the first field, 0 if none
+	 */
+	private ExpirationDateFormat(final int length, final int yearIndex, final int monthIndex, final char separator) {
+
+		this.length = length;
+		this.yearIndex = yearIndex;
+		this.monthIndex = monthIndex;
+		this.separator = separator;
+	}
+
+	/**
+	 * Parses an expiration date.
+	 *
+	 * @param expirationDate the expiration date
+	 * @return the month index (year * 12 + month - 1), -1 if null or not well formed
+	 */
+	public int parse(final CharSequence expirationDate) {
+
+		if (expirationDate == null || expirationDate.length() != length) {
+			return -1;
+		}
+
+		if (separator != 0 && expirationDate.charAt(length - 3) != separator) {
+			return -1;
+		}
+
+		int century = this == YYYY_MM ? digits(expirationDate, 0) : CENTURY;
+		int year = digits(expirationDate, yearIndex);
+		int month = digits(expirationDate, monthIndex);
+
+		if ((century != 19 && century != 20) || year < 0 || month < 1 || month > 12) {
+			return -1;
+		}
+
+		year += century * 100;
+
+		return year * 12 + month - 1;
+	}
+
+	/**
+	 * Parses two decimal digits.
+	 *
+	 * @param value the characters
+	 * @param index the index of the first digit
+	 * @return the value of the digits, -1 if they are not digits
+	 */
+	private static int digits(CharSequence value, int index) {
+
+		int high = value.charAt(index) - '0';
+		int low = value.charAt(index + 1) - '0';
+
+		if (high < 0 || high > 9 || low < 0 || low > 9) {
+			return -1;
+		}
+		return high * 10 + low;
+	}
+}
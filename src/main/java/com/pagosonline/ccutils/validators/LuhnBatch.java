@@ -0,0 +1,102 @@
+package com.pagosonline.ccutils.validators;
+
+/**
+ * Validates the digits and the Luhn check digit of many fixed width numbers stored one after the
+ * other in a byte array, for example a column of a settlement file.
+ *
+ * Each number takes exactly <code>width</code> bytes of ASCII digits; shorter numbers can be padded
+ * with leading zeros, which do not change their check digit. On Java 17 and later, from the
+ * multi-release jar, the numbers are validated with the <code>jdk.incubator.vector</code> API when
+ * the JVM is started with <code>--add-modules jdk.incubator.vector</code>, and with a scalar loop
+ * otherwise.
+ *
+ * @since 4.9.5
+ */
+public final class LuhnBatch {
+
+	/**
+	 * Default constructor.
+	 */
+	private LuhnBatch() {
+	}
+
+	/**
+	 * Validates the numbers of a column.
+	 *
+	 * @param column the column
+	 * @param offset the index of the first number
+	 * @param width the number of bytes of each number
+	 * @param count the number of numbers
+	 * @param results receives true for each number with only digits and a valid check digit
+	 * @return the number of valid numbers
+	 * @throws IllegalArgumentException if the width is not positive or the arrays are too short
+	 */
+	public static int validate(final byte[] column, final int offset, final int width, final int count,
+			final boolean[] results) {
+
+		if (width <= 0 || count < 0 || offset < 0 || (long) offset + (long) width * count > column.length
+				|| results.length < count) {
+			throw new IllegalArgumentException("The column does not hold " + count + " numbers of " + width
+					+ " bytes from " + offset);
+		}
+
+		return LuhnBatchKernel.validate(column, offset, width, count, results);
+	}
+
+	/**
+	 * Gets the implementation in use.
+	 *
+	 * @return "vector" or "scalar"
+	 */
+	public static String getImplementation() {
+
+		return LuhnBatchKernel.getName();
+	}
+
+	/**
+	 * Validates some numbers of a column with a scalar loop.
+	 *
+	 * @param column the column
+	 * @param offset the index of the first number of the column
+	 * @param width the number of bytes of each number
+	 * @param from the index of the first number to validate
+	 * @param to the index of the last number to validate plus one
+	 * @param results receives the result of each number, by number index
+	 * @return the number of valid numbers
+	 */
+	static int validateScalar(final byte[] column, final int offset, final int width, final int from, final int to,
+			final boolean[] results) {
+
+		int valid = 0;
+
+		for (int number = from; number < to; number++) {
+
+			int start = offset + number * width;
+			int sum = 0;
+			boolean digits = true;
+
+			// the digit before the check digit is doubled
+			int doubled = (width - 1) & 1;
+
+			for (int i = start, end = start + width; i < end; i++) {
+
+				int digit = column[i] - '0';
+
+				if (digit < 0 || digit > 9) {
+					digits = false;
+					break;
+				}
+
+				sum += LuhnCheck.VALUES[doubled][digit];
+				doubled ^= 1;
+			}
+
+			results[number] = digits && sum != 0 && sum % 10 == 0;
+
+			if (results[number]) {
+				valid++;
+			}
+		}
+		return valid;
+	}
+}
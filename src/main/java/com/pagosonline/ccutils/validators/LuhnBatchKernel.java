@@ -0,0 +1,41 @@
+package com.pagosonline.ccutils.validators;
+
+/**
+ * The {@link LuhnBatch} implementation, replaced in the multi-release jar for Java 17 and later.
+ *
+ * @since 4.9.5
+ */
+final class LuhnBatchKernel {
+
+	/**
+	 * Default constructor.
+	 */
+	private LuhnBatchKernel() {
+	}
+
+	/**
+	 * Gets the name of the implementation.
+	 *
+	 * @return the name
+	 */
+	static String getName() {
+
+		return "scalar";
+	}
+
+	/**
+	 * Validates the numbers of a column.
+	 *
+	 * @param column the column
+	 * @param offset the index of the first number
+	 * @param width the number of bytes of each number
+	 * @param count the number of numbers
+	 * @param results receives the result of each number
+	 * @return the number of valid numbers
+	 */
+	static int validate(final byte[] column, final int offset, final int width, final int count,
+			final boolean[] results) {
+
+		return LuhnBatch.validateScalar(column, offset, width, 0, count, results);
+	}
+}
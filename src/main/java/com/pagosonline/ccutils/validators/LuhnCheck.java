@@ -0,0 +1,96 @@
+package com.pagosonline.ccutils.validators;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Luhn (mod 10) check digit validation working directly on the digit characters.
+ *
+ * Unlike {@link org.apache.commons.validator.routines.checkdigit.LuhnCheckDigit} it does not
+ * create substrings or exceptions, so validating a number does not allocate.
+ *
+ * http://en.wikipedia.org/wiki/Luhn_algorithm
+ *
+ * @since 4.9.5
+ */
+public final class LuhnCheck {
+
+	/** The Luhn value of each digit when it is doubled: the digits of the product added. */
+	static final int[] DOUBLED = { 0, 2, 4, 6, 8, 1, 3, 5, 7, 9 };
+
+	/** The Luhn value of each digit, by doubled flag: 0 as is, 1 doubled. */
+	static final int[][] VALUES = { { 0, 1, 2, 3, 4, 5, 6, 7, 8, 9 }, DOUBLED };
+
+	/**
+	 * Default constructor.
+	 */
+	private LuhnCheck() {
+	}
+
+	/**
+	 * Validates the check digit of a number.
+	 *
+	 * @param number the number including its check digit as the last character
+	 * @return true if the number has only digits and a valid check digit, false otherwise
+	 */
+	public static boolean isValid(final CharSequence number) {
+
+		return number != null && isValid(number, 0, number.length());
+	}
+
+	/**
+	 * Validates the check digit of a region of a character sequence.
+	 *
+	 * @param number the character sequence
+	 * @param from the index of the first digit, inclusive
+	 * @param to the index of the check digit plus one
+	 * @return true if the region has only digits and a valid check digit, false otherwise
+	 */
+	public static boolean isValid(final CharSequence number, final int from, final int to) {
+
+		int sum = 0;
+		int doubled = 0;
+
+		for (int i = to - 1; i >= from; i--) {
+
+			int digit = number.charAt(i) - '0';
+
+			if (digit < 0 || digit > 9) {
+				return false;
+			}
+
+			sum += VALUES[doubled][digit];
+			doubled ^= 1;
+		}
+
+		// an all zeros number is rejected, as commons-validator does
+		return sum != 0 && sum % 10 == 0;
+	}
+
+	/**
+	 * Validates the check digit of a region of a byte buffer holding ASCII digits.
+	 *
+	 * @param number the buffer, read with absolute gets
+	 * @param from the index of the first digit, inclusive
+	 * @param to the index of the check digit plus one
+	 * @return true if the region has only digits and a valid check digit, false otherwise
+	 */
+	public static boolean isValid(final ByteBuffer number, final int from, final int to) {
+
+		int sum = 0;
+		int doubled = 0;
+
+		for (int i = to - 1; i >= from; i--) {
+
+			int digit = number.get(i) - '0';
+
+			if (digit < 0 || digit > 9) {
+				return false;
+			}
+
+			sum += VALUES[doubled][digit];
+			doubled ^= 1;
+		}
+
+		return sum != 0 && sum % 10 == 0;
+	}
+}
@@ -9,7 +9,10 @@ import org.apache.commons.validator.routines.checkdigit.CheckDigitException;
  * 
  * @author <a href="juan.roman@payulatam.com">Juan C. Roman</a>
  * @since 4.9.5
+ * @deprecated the validator no longer uses a check digit object for the types without one,
+ * see {@link com.pagosonline.ccutils.model.CreditCardType#applyLuhnCheck()} and {@link LuhnCheck}.
  */
+@Deprecated
 public final class NoCheckDigit implements CheckDigit {
 	
 	/** Singleton Check Digit instance */
@@ -0,0 +1,68 @@
+package com.pagosonline.ccutils.validators;
+
+/**
+ * The {@link LuhnBatch} implementation for Java 17 and later: the vector one when the
+ * <code>jdk.incubator.vector</code> module is available, the scalar one otherwise.
+ *
+ * @since 4.9.5
+ */
+final class LuhnBatchKernel {
+
+	/** The system property to disable the vector implementation. */
+	private static final String VECTOR_PROPERTY = "ccutils.luhn.vector";
+
+	/** True if the vector implementation is used. */
+	private static final boolean VECTOR = isVectorAvailable();
+
+	/**
+	 * Default constructor.
+	 */
+	private LuhnBatchKernel() {
+	}
+
+	/**
+	 * Gets the name of the implementation.
+	 *
+	 * @return the name
+	 */
+	static String getName() {
+
+		return VECTOR ? "vector" : "scalar";
+	}
+
+	/**
+	 * Validates the numbers of a column.
+	 *
+	 * @param column the column
+	 * @param offset the index of the first number
+	 * @param width the number of bytes of each number
+	 * @param count the number of numbers
+	 * @param results receives the result of each number
+	 * @return the number of valid numbers
+	 */
+	static int validate(final byte[] column, final int offset, final int width, final int count,
+			final boolean[] results) {
+
+		return VECTOR ? VectorLuhnKernel.validate(column, offset, width, count, results)
+				: LuhnBatch.validateScalar(column, offset, width, 0, count, results);
+	}
+
+	/**
+	 * Tells if the vector implementation can be used.
+	 *
+	 * @return true if the vector module is available and not disabled
+	 */
+	private static boolean isVectorAvailable() {
+
+		if (!Boolean.parseBoolean(System.getProperty(VECTOR_PROPERTY, "true"))
+				|| ModuleLayer.boot().findModule("jdk.incubator.vector").isEmpty()) {
+			return false;
+		}
+
+		try {
+			return VectorLuhnKernel.isSupported();
+		} catch (LinkageError e) {
+			return false;
+		}
+	}
+}
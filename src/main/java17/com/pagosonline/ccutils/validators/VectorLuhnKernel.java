@@ -0,0 +1,127 @@
+package com.pagosonline.ccutils.validators;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorOperators;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Validates fixed width numbers with the vector API, a number per vector.
+ *
+ * Each number is loaded whole in a vector of the smallest species that holds it, with the first
+ * bytes of the next number in the lanes after it. The digit check, the doubling of every other
+ * digit and the sum are lane-wise operations without masked loads, which are slow on some CPUs;
+ * the lanes after the number are cleared with a constant vector before the sum of the lanes. The
+ * last numbers, whose vector would read past the column, are validated with the scalar loop.
+ *
+ * @since 4.9.5
+ */
+final class VectorLuhnKernel {
+
+	/** The species of the numbers of up to 16 digits. */
+	private static final VectorSpecies<Byte> SPECIES_128 = ByteVector.SPECIES_128;
+
+	/** The species of the numbers of 17 to {@value #MAX_WIDTH} digits. */
+	private static final VectorSpecies<Byte> SPECIES_256 = ByteVector.SPECIES_256;
+
+	/** The maximum width, whose byte sums cannot overflow: 9 * 28 = 252. */
+	private static final int MAX_WIDTH = 28;
+
+	/**
+	 * Default constructor.
+	 */
+	private VectorLuhnKernel() {
+	}
+
+	/**
+	 * Tells if the CPU has vectors of 16 bytes at least.
+	 *
+	 * @return true if the vector implementation is worth using
+	 */
+	static boolean isSupported() {
+
+		return ByteVector.SPECIES_PREFERRED.length() >= SPECIES_128.length();
+	}
+
+	/**
+	 * Validates the numbers of a column.
+	 *
+	 * @param column the column
+	 * @param offset the index of the first number
+	 * @param width the number of bytes of each number
+	 * @param count the number of numbers
+	 * @param results receives the result of each number
+	 * @return the number of valid numbers
+	 */
+	static int validate(final byte[] column, final int offset, final int width, final int count,
+			final boolean[] results) {
+
+		if (width <= SPECIES_128.length()) {
+			return validate(SPECIES_128, column, offset, width, count, results);
+		}
+
+		if (width <= MAX_WIDTH && ByteVector.SPECIES_PREFERRED.length() >= SPECIES_256.length()) {
+			return validate(SPECIES_256, column, offset, width, count, results);
+		}
+
+		return LuhnBatch.validateScalar(column, offset, width, 0, count, results);
+	}
+
+	/**
+	 * Validates the numbers of a column with vectors of a species.
+	 *
+	 * @param species the species, at least as long as the numbers
+	 * @param column the column
+	 * @param offset the index of the first number
+	 * @param width the number of bytes of each number
+	 * @param count the number of numbers
+	 * @param results receives the result of each number
+	 * @return the number of valid numbers
+	 */
+	private static int validate(final VectorSpecies<Byte> species, final byte[] column, final int offset,
+			final int width, final int count, final boolean[] results) {
+
+		byte[] inNumber = new byte[species.length()];
+		byte[] doubled = new byte[species.length()];
+
+		for (int lane = 0; lane < width; lane++) {
+
+			inNumber[lane] = -1;
+			doubled[lane] = (byte) (((width - 1 - lane) & 1) == 1 ? -1 : 0);
+		}
+
+		ByteVector inNumberBits = ByteVector.fromArray(species, inNumber, 0);
+		ByteVector doubledBits = ByteVector.fromArray(species, doubled, 0);
+		VectorMask<Byte> inNumberLanes = inNumberBits.compare(VectorOperators.NE, 0);
+
+		// the numbers whose vector stays in the column, none if the column is shorter than a vector
+		int available = column.length - offset;
+		int vectors = available < species.length() ? 0
+				: Math.min(count, (available - species.length()) / width + 1);
+		int valid = 0;
+
+		for (int number = 0; number < vectors; number++) {
+
+			ByteVector digit = ByteVector.fromArray(species, column, offset + number * width).sub((byte) '0');
+
+			if (digit.compare(VectorOperators.UNSIGNED_GT, 9).and(inNumberLanes).anyTrue()) {
+				results[number] = false;
+				continue;
+			}
+
+			// the doubled digit is 2 * d - 9 when d > 4, (d + 3) >> 3 being 1 then
+			ByteVector carry = digit.add((byte) 3).lanewise(VectorOperators.LSHR, 3);
+			ByteVector twice = digit.add(digit).sub(carry.mul((byte) 9));
+			ByteVector luhn = digit.add(twice.sub(digit).and(doubledBits)).and(inNumberBits);
+			int sum = luhn.reduceLanes(VectorOperators.ADD) & 0xFF;
+
+			results[number] = sum != 0 && sum % 10 == 0;
+
+			if (results[number]) {
+				valid++;
+			}
+		}
+
+		return valid + LuhnBatch.validateScalar(column, offset, width, vectors, count, results);
+	}
+}
@@ -0,0 +1,89 @@
+package com.pagosonline.ccutils.bin;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.pagosonline.ccutils.model.CreditCardType;
+import com.pagosonline.ccutils.validators.CreditCardValidatorDelegate;
+
+/**
+ * Checks a {@link BinCacheSnapshot} warms a new cache up with the BINs of another one.
+ */
+public class BinCacheSnapshotTest {
+
+	private static final String[] NUMBERS = { "4111111111111111", "4111111111111", "5555 5555 5555 4444",
+			"378282246310005", "6011111111111117", "36", "0" };
+
+	@Test
+	public void sampleKeepsTheKey() {
+
+		for (String number : NUMBERS) {
+			Assert.assertEquals(BinCache.key(BinCache.sample(BinCache.key(number))), BinCache.key(number), number);
+		}
+
+		Assert.assertEquals(BinCache.sample(BinCache.key(41111111L, 16)), "4111111100000000");
+		Assert.assertEquals(BinCache.sample(BinCache.key(36L, 2)), "36");
+		Assert.assertNull(BinCache.sample(BinCache.key(360L, 2)));
+		Assert.assertNull(BinCache.sample(BinCache.key(36L, 0)));
+	}
+
+	@Test
+	public void warmsANewCacheUp() throws IOException {
+
+		CreditCardValidatorDelegate before = new CreditCardValidatorDelegate(null, null, new BinCache(64));
+
+		for (String number : NUMBERS) {
+			before.findCreditCardType(number);
+		}
+
+		Path file = Files.createTempFile("bins", ".cache");
+
+		try {
+			new BinCacheSnapshot(before.getTypeCache(), file).save();
+
+			long[] keys = BinCacheSnapshot.read(file);
+			long[] expected = before.getTypeCache().keys();
+
+			Arrays.sort(keys);
+			Arrays.sort(expected);
+			Assert.assertEquals(keys, expected);
+
+			CreditCardValidatorDelegate after = new CreditCardValidatorDelegate(null, null, new BinCache(64));
+			Assert.assertEquals(after.warmUp(keys), keys.length);
+
+			long misses = after.getTypeCache().getMisses();
+
+			for (String number : NUMBERS) {
+				Assert.assertEquals(after.findCreditCardType(number), before.findCreditCardType(number), number);
+			}
+
+			Assert.assertEquals(after.getTypeCache().getMisses(), misses);
+			Assert.assertEquals(after.findCreditCardType("4111111111111111"), CreditCardType.VISA);
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test(expectedExceptions = IOException.class)
+	public void corruptSnapshotIsRejected() throws IOException {
+
+		Path file = Files.createTempFile("bins", ".cache");
+
+		try {
+			BinCacheSnapshot.write(new long[] { BinCache.key(41111111L, 16) }, file);
+
+			byte[] bytes = Files.readAllBytes(file);
+			bytes[bytes.length - 1] ^= 1;
+			Files.write(file, bytes);
+
+			BinCacheSnapshot.read(file);
+		} finally {
+			Files.delete(file);
+		}
+	}
+}
@@ -0,0 +1,99 @@
+package com.pagosonline.ccutils.bin;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.pagosonline.ccutils.model.CreditCardType;
+import com.pagosonline.ccutils.validators.CreditCardValidatorDelegate;
+
+/**
+ * Checks the {@link BinCache} entries and the types found through it.
+ */
+public class BinCacheTest {
+
+	@Test
+	public void keyHoldsTheBinAndTheNumberOfDigits() {
+
+		Assert.assertEquals(BinCache.key("4111 1111 1111 1111"), BinCache.key(41111111L, 16));
+		Assert.assertEquals(BinCache.key("4111-1111-9999-9999"), BinCache.key(41111111L, 16));
+		Assert.assertEquals(BinCache.key("411"), BinCache.key(411L, 3));
+		Assert.assertNotEquals(BinCache.key("0411"), BinCache.key("411"));
+		Assert.assertEquals(BinCache.key(" - "), BinCache.NO_KEY);
+		Assert.assertEquals(BinCache.key("12345678901234567890123456789012"), BinCache.NO_KEY);
+	}
+
+	@Test
+	public void evictsWhenFull() {
+
+		BinCache cache = new BinCache(16);
+		int generation = cache.getGeneration(null);
+
+		Assert.assertEquals(cache.getCapacity(), 16);
+
+		for (int bin = 0; bin < 1000; bin++) {
+			cache.put(BinCache.key(bin, 16), CreditCardType.VISA, generation);
+		}
+
+		int cached = 0;
+
+		for (int bin = 0; bin < 1000; bin++) {
+			if (cache.get(BinCache.key(bin, 16), generation) != null) {
+				cached++;
+			}
+		}
+
+		Assert.assertTrue(cached > 0 && cached <= 16, "" + cached);
+		Assert.assertEquals(cache.getHits(), cached);
+		Assert.assertEquals(cache.getMisses(), 1000 - cached);
+		Assert.assertTrue(cache.getEvictions() >= 1000 - 16);
+	}
+
+	@Test
+	public void changingTheDataDropsTheEntries() {
+
+		BinCache cache = new BinCache(64);
+		Object first = new Object();
+		int generation = cache.getGeneration(first);
+
+		cache.put(BinCache.key(41111111L, 16), CreditCardType.VISA, generation);
+		Assert.assertEquals(cache.get(BinCache.key(41111111L, 16), cache.getGeneration(first)), CreditCardType.VISA);
+		Assert.assertNull(cache.get(BinCache.key(41111111L, 15), generation));
+
+		int second = cache.getGeneration(new Object());
+
+		Assert.assertNotEquals(second, generation);
+		Assert.assertNull(cache.get(BinCache.key(41111111L, 16), second));
+
+		cache.put(BinCache.key(41111111L, 16), CreditCardType.MASTERCARD, second);
+		cache.clear();
+		Assert.assertNull(cache.get(BinCache.key(41111111L, 16), cache.getGeneration(null)));
+	}
+
+	@Test
+	public void cachedTypesAgreeWithTheUncachedOnes() throws IOException {
+
+		BinTable table = BinTable.read(new StringReader("41111111\n36000000-36999999,ELO\n"), CreditCardType.MASTERCARD);
+		CreditCardValidatorDelegate uncached = new CreditCardValidatorDelegate(null, table);
+		CreditCardValidatorDelegate cached = new CreditCardValidatorDelegate(null, table, new BinCache(256));
+		String[] prefixes = { "4111111", "411111111", "36", "30", "305", "3095", "3841", "38", "5", "589562", "6" };
+		Random random = new Random(20141209L);
+
+		for (int i = 0; i < 20000; i++) {
+
+			StringBuilder number = new StringBuilder(prefixes[random.nextInt(prefixes.length)]);
+			int length = 1 + random.nextInt(20);
+
+			while (number.length() < length) {
+				number.append(random.nextInt(10));
+			}
+
+			Assert.assertEquals(cached.findCreditCardType(number), uncached.findCreditCardType(number), number.toString());
+		}
+
+		Assert.assertTrue(cached.getTypeCache().getHits() > 0);
+	}
+}
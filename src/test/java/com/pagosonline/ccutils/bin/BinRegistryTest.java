@@ -0,0 +1,116 @@
+package com.pagosonline.ccutils.bin;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.pagosonline.ccutils.model.CreditCardType;
+import com.pagosonline.ccutils.validators.CreditCardValidatorDelegate;
+
+/**
+ * Checks the {@link BinRegistry} puts the changes of its directory in service.
+ */
+public class BinRegistryTest {
+
+	@Test
+	public void reloadPublishesANewVersion() throws IOException {
+
+		Path directory = Files.createTempDirectory("bins");
+
+		try {
+			write(directory.resolve("VISA-BIN.txt"), "411111");
+			BinRegistry registry = new BinRegistry(directory, false);
+
+			Assert.assertEquals(registry.getVersion(), 1);
+			Assert.assertEquals(registry.findCreditCardType("4111111111111111"), CreditCardType.VISA);
+			Assert.assertNull(registry.findCreditCardType("5555555555554444"));
+
+			BinTable first = registry.snapshot();
+			write(directory.resolve("other.txt"), "555555,MASTERCARD,US");
+			registry.reload();
+
+			Assert.assertEquals(registry.getVersion(), 2);
+			Assert.assertEquals(registry.findCreditCardType("5555555555554444"), CreditCardType.MASTERCARD);
+			Assert.assertEquals(registry.snapshot().getCountry(registry.snapshot().indexOf("5555555555554444")), "US");
+			Assert.assertNull(first.findCreditCardType("5555555555554444"));
+
+			CreditCardValidatorDelegate delegate = new CreditCardValidatorDelegate(null, registry);
+			Assert.assertEquals(delegate.findIssuerCountry("5555555555554444"), "US");
+			Assert.assertEquals(delegate.findCreditCardType("5555555555554444"), CreditCardType.MASTERCARD);
+		} finally {
+			delete(directory);
+		}
+	}
+
+	@Test
+	public void failedReloadKeepsTheTableInService() throws IOException {
+
+		Path directory = Files.createTempDirectory("bins");
+
+		try {
+			write(directory.resolve("VISA-BIN.txt"), "411111");
+			BinRegistry registry = new BinRegistry(directory, false);
+			long loaded = registry.getLastReload();
+
+			write(directory.resolve("broken.txt"), "4x1111");
+
+			try {
+				registry.reload();
+				Assert.fail();
+			} catch (IllegalArgumentException e) {
+				Assert.assertTrue(e.getMessage().startsWith("broken.txt:1:"), e.getMessage());
+				Assert.assertSame(registry.getLastError(), e);
+			}
+
+			Assert.assertEquals(registry.getVersion(), 1);
+			Assert.assertEquals(registry.getLastReload(), loaded);
+			Assert.assertEquals(registry.findCreditCardType("4111111111111111"), CreditCardType.VISA);
+		} finally {
+			delete(directory);
+		}
+	}
+
+	@Test
+	public void watcherReloadsChangedFiles() throws IOException, InterruptedException {
+
+		Path directory = Files.createTempDirectory("bins");
+
+		try (BinRegistry registry = new BinRegistry(directory, true)) {
+
+			Assert.assertNull(registry.findCreditCardType("6062821234567890"));
+			write(directory.resolve("HIPERCARD-BIN.txt"), "606282");
+
+			long deadline = System.currentTimeMillis() + 30000;
+
+			while (registry.getVersion() == 1 && System.currentTimeMillis() < deadline) {
+				Thread.sleep(50);
+			}
+
+			Assert.assertTrue(registry.getVersion() > 1);
+			Assert.assertEquals(registry.findCreditCardType("6062821234567890"), CreditCardType.HIPERCARD);
+		} finally {
+			delete(directory);
+		}
+	}
+
+	private static void write(Path file, String... lines) throws IOException {
+
+		Files.write(file, Arrays.asList(lines), StandardCharsets.UTF_8);
+	}
+
+	private static void delete(Path directory) throws IOException {
+
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(directory)) {
+			for (Path file : files) {
+				Files.delete(file);
+			}
+		}
+		Files.delete(directory);
+	}
+}
@@ -0,0 +1,149 @@
+package com.pagosonline.ccutils.bin;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.pagosonline.ccutils.model.CreditCardType;
+import com.pagosonline.ccutils.model.FundingType;
+import com.pagosonline.ccutils.model.ProductTier;
+import com.pagosonline.ccutils.util.i18n.CreditCardMessageBundle;
+import com.pagosonline.ccutils.validators.CreditCardValidationCode;
+import com.pagosonline.ccutils.validators.CreditCardValidatorDelegate;
+
+/**
+ * BIN table tests.
+ */
+public class BinTableTest {
+
+	private static final String BIN_FILES_DIRECTORY = "src/test/resources";
+
+	@Test
+	public void findsEveryBinOfTheFiles() throws IOException {
+
+		Map<CreditCardType, Path> files = new LinkedHashMap<>();
+		files.put(CreditCardType.VISA, Paths.get(BIN_FILES_DIRECTORY, "VISA-BIN.txt"));
+		files.put(CreditCardType.MASTERCARD, Paths.get(BIN_FILES_DIRECTORY, "Mastercard-BIN.txt"));
+		files.put(CreditCardType.AMEX, Paths.get(BIN_FILES_DIRECTORY, "Amex-BIN.txt"));
+		files.put(CreditCardType.DINERS, Paths.get(BIN_FILES_DIRECTORY, "Diners-BIN.txt"));
+		files.put(CreditCardType.CABAL, Paths.get(BIN_FILES_DIRECTORY, "CABAL-BIN.txt"));
+
+		BinTable table = BinTable.load(files);
+
+		for (Map.Entry<CreditCardType, Path> file : files.entrySet()) {
+			for (String line : Files.readAllLines(file.getValue(), StandardCharsets.UTF_8)) {
+
+				String number = (line.trim() + "0000000000000000").substring(0, 16);
+				Assert.assertEquals(table.findCreditCardType(number), file.getKey(), number);
+			}
+		}
+
+		Assert.assertNull(table.findCreditCardType("1111111111111111"));
+		Assert.assertNull(table.findCreditCardType("4001"));
+	}
+
+	@Test
+	public void narrowestRangeWins() throws IOException {
+
+		BinTable table = BinTable.read(new StringReader(
+				"# network ranges\n"
+				+ "4,VISA\n"
+				+ "400000-409999 , VISA_DEBIT  # debit\n"
+				+ "\n"
+				+ "45678901,ELO\n"
+				+ "4567890123,JCB\n"), null);
+
+		Assert.assertEquals(table.findCreditCardType("4111111111111111"), CreditCardType.VISA);
+		Assert.assertEquals(table.findCreditCardType("4000 0000 0000 0002"), CreditCardType.VISA_DEBIT);
+		Assert.assertEquals(table.findCreditCardType("4099999999999999"), CreditCardType.VISA_DEBIT);
+		Assert.assertEquals(table.findCreditCardType("4567890000000000"), CreditCardType.VISA);
+		// the 10 digit prefix is truncated to 8 digits and replaces the equal ELO range
+		Assert.assertEquals(table.findCreditCardType("4567890199999999"), CreditCardType.JCB);
+		Assert.assertEquals(table.findCreditCardType("4567890200000000"), CreditCardType.VISA);
+		Assert.assertEquals(table.size(), 4);
+	}
+
+	@Test
+	public void keepsTheMetadataOfTheRanges() throws IOException {
+
+		BinTable table = BinTable.read(new StringReader(
+				"4,VISA\n"
+				+ "451234,VISA,pe,debit,classic\n"
+				+ "451235,VISA,PE,DEBIT,CLASSIC\n"
+				+ "37,AMEX,,CREDIT\n"
+				+ "377798,AMEX,PE,credit,platinum\n"), null);
+
+		int index = table.indexOf("4512345678901234");
+
+		Assert.assertEquals(table.getType(index), CreditCardType.VISA);
+		Assert.assertEquals(table.getCountry(index), "PE");
+		Assert.assertEquals(table.getFundingType(index), FundingType.DEBIT);
+		Assert.assertEquals(table.getProductTier(index), ProductTier.CLASSIC);
+		// the adjacent ranges with the same data are merged
+		Assert.assertEquals(table.indexOf("4512359999999999"), index);
+
+		index = table.indexOf("4111111111111111");
+		Assert.assertNull(table.getCountry(index));
+		Assert.assertEquals(table.getFundingType(index), FundingType.UNKNOWN);
+		Assert.assertEquals(table.getProductTier(index), ProductTier.UNKNOWN);
+
+		index = table.indexOf("371449635398431");
+		Assert.assertNull(table.getCountry(index));
+		Assert.assertEquals(table.getFundingType(index), FundingType.CREDIT);
+		Assert.assertEquals(table.getProductTier(table.indexOf("377798000000000")), ProductTier.PLATINUM);
+		Assert.assertEquals(table.indexOf("1234"), -1);
+	}
+
+	@Test
+	public void securityCodeRulesUseTheIssuerCountry() throws IOException {
+
+		BinTable table = BinTable.read(new StringReader("377798,AMEX,PE\n37,AMEX,AR\n"), null);
+		CreditCardValidatorDelegate validator = new CreditCardValidatorDelegate(CreditCardMessageBundle.getInstance(),
+				table);
+
+		Assert.assertEquals(validator.findIssuerCountry("377798000000000"), "PE");
+		Assert.assertEquals(validator.checkSecurityCode("123", "377798000000000", CreditCardType.AMEX),
+				CreditCardValidationCode.VALID);
+		Assert.assertEquals(validator.checkSecurityCode("123", "371449635398431", CreditCardType.AMEX),
+				CreditCardValidationCode.AMEX_SECURITY_CODE_INVALID_LENGTH);
+		Assert.assertEquals(validator.checkSecurityCode("123", "4111111111111111", CreditCardType.VISA),
+				CreditCardValidationCode.VALID);
+	}
+
+	@Test
+	public void rejectsMalformedLines() throws IOException {
+
+		String[] lines = new String[] { "4a,VISA", "4,NOPE", "5-4,VISA", "-4,VISA", "4", "4,VISA,PER",
+				"4,VISA,PE,CHEQUE", "4,VISA,PE,DEBIT,GOLDEN", "4,VISA,PE,DEBIT,GOLD,1" };
+
+		for (String line : lines) {
+			try {
+				BinTable.read(new StringReader(line), null);
+				Assert.fail(line);
+			} catch (IllegalArgumentException e) {
+				Assert.assertTrue(e.getMessage().startsWith("reader:1: "), e.getMessage());
+			}
+		}
+	}
+
+	@Test
+	public void delegateFindsTypesByBinFirst() throws IOException {
+
+		BinTable table = BinTable.read(new StringReader("636368,ELO\n3528-3589,JCB\n"), null);
+		CreditCardValidatorDelegate validator = new CreditCardValidatorDelegate(CreditCardMessageBundle.getInstance(),
+				table);
+
+		Assert.assertEquals(validator.findCreditCardType("6363680000000000"), CreditCardType.ELO);
+		Assert.assertEquals(validator.findCreditCardType("3530111333300000"), CreditCardType.JCB);
+		Assert.assertEquals(validator.findCreditCardType("4111111111111111"), CreditCardType.VISA);
+		Assert.assertTrue(validator.checkNumber("6363680000000000", CreditCardType.ELO).isValid());
+	}
+}
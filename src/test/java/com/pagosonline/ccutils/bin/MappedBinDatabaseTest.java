@@ -0,0 +1,143 @@
+package com.pagosonline.ccutils.bin;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.pagosonline.ccutils.model.CreditCardType;
+import com.pagosonline.ccutils.model.ProductTier;
+
+/**
+ * Checks a compiled {@link MappedBinDatabase} gives the same results as the {@link BinTable} it is
+ * compiled from.
+ */
+public class MappedBinDatabaseTest {
+
+	private static final String BIN_FILES_DIRECTORY = "src/test/resources";
+
+	@Test
+	public void agreesWithTheTable() throws IOException {
+
+		Map<CreditCardType, Path> files = new LinkedHashMap<>();
+		files.put(CreditCardType.VISA, Paths.get(BIN_FILES_DIRECTORY, "VISA-BIN.txt"));
+		files.put(CreditCardType.MASTERCARD, Paths.get(BIN_FILES_DIRECTORY, "Mastercard-BIN.txt"));
+		files.put(CreditCardType.AMEX, Paths.get(BIN_FILES_DIRECTORY, "Amex-BIN.txt"));
+		files.put(CreditCardType.DINERS, Paths.get(BIN_FILES_DIRECTORY, "Diners-BIN.txt"));
+		files.put(CreditCardType.CABAL, Paths.get(BIN_FILES_DIRECTORY, "CABAL-BIN.txt"));
+
+		BinTable table = BinTable.load(files);
+		Path file = Files.createTempFile("bins", ".db");
+
+		try {
+			BinDatabaseCompiler.write(table, file);
+			MappedBinDatabase database = MappedBinDatabase.open(file);
+
+			Assert.assertEquals(database.size(), table.size());
+
+			for (int i = 0; i < table.size(); i++) {
+				Assert.assertEquals(database.getStart(i), table.getStart(i));
+				Assert.assertEquals(database.getEnd(i), table.getEnd(i));
+				Assert.assertEquals(database.findCreditCardType(table.getStart(i)), table.getType(i));
+				Assert.assertEquals(database.findCreditCardType(table.getEnd(i)), table.getType(i));
+			}
+
+			Random random = new Random(20141209L);
+
+			for (int i = 0; i < 100000; i++) {
+				long bin = random.nextInt(100000000);
+				Assert.assertEquals(database.findCreditCardType(bin), table.findCreditCardType(bin), "" + bin);
+			}
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	public void keepsTheMetadata() throws IOException {
+
+		Path file = Files.createTempFile("bins", ".db");
+
+		try {
+			BinTable table = BinTable.read(new StringReader("4,VISA,US,CREDIT\n451234,VISA,PE,DEBIT,GOLD\n"
+					+ "51-55,MASTERCARD,,PREPAID,BUSINESS\n"), null);
+			BinDatabaseCompiler.write(table, file);
+			MappedBinDatabase database = MappedBinDatabase.open(file);
+
+			Assert.assertEquals(database.getVersion(), 2);
+
+			for (int i = 0; i < table.size(); i++) {
+				Assert.assertEquals(database.getType(i), table.getType(i));
+				Assert.assertEquals(database.getCountry(i), table.getCountry(i));
+				Assert.assertEquals(database.getFundingType(i), table.getFundingType(i));
+				Assert.assertEquals(database.getProductTier(i), table.getProductTier(i));
+			}
+
+			int index = database.indexOf("4512341111111111");
+			Assert.assertEquals(database.getCountry(index), "PE");
+			Assert.assertEquals(database.getProductTier(index), ProductTier.GOLD);
+			Assert.assertNull(database.getCountry(database.indexOf("5212341111111111")));
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	public void emptyDatabase() throws IOException {
+
+		Path file = Files.createTempFile("bins", ".db");
+
+		try {
+			BinDatabaseCompiler.write(BinTable.read(new StringReader("# nothing\n"), null), file);
+			MappedBinDatabase database = MappedBinDatabase.open(file);
+
+			Assert.assertEquals(database.size(), 0);
+			Assert.assertNull(database.findCreditCardType("4111111111111111"));
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	public void rejectsCorruptFiles() throws IOException {
+
+		Path file = Files.createTempFile("bins", ".db");
+
+		try {
+			BinDatabaseCompiler.write(BinTable.read(new StringReader("4,VISA\n5,MASTERCARD\n"), null), file);
+			byte[] content = Files.readAllBytes(file);
+
+			content[content.length - 5] ^= 1;
+			assertRejected(file, content, "wrong checksum");
+
+			content[content.length - 5] ^= 1;
+			content[0] = 'X';
+			assertRejected(file, content, "is not a BIN database");
+
+			content[0] = 'C';
+			assertRejected(file, Arrays.copyOf(content, content.length - 1), "truncated");
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	private void assertRejected(Path file, byte[] content, String message) throws IOException {
+
+		Files.write(file, content);
+
+		try {
+			MappedBinDatabase.open(file);
+			Assert.fail(message);
+		} catch (IOException e) {
+			Assert.assertTrue(e.getMessage().contains(message), e.getMessage());
+		}
+	}
+}
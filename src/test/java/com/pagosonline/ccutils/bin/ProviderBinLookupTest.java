@@ -0,0 +1,230 @@
+package com.pagosonline.ccutils.bin;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.pagosonline.ccutils.model.CreditCardType;
+import com.pagosonline.ccutils.model.FundingType;
+import com.pagosonline.ccutils.validators.CreditCardValidatorDelegate;
+
+/**
+ * Checks the {@link ProviderBinLookup} coalesces, caches and falls back.
+ */
+public class ProviderBinLookupTest {
+
+	private static BinTable table() throws IOException {
+
+		return BinTable.read(new StringReader("41111111,ELO,BR,DEBIT\n55555555,MASTERCARD,US\n"), null);
+	}
+
+	@Test
+	public void concurrentLookupsShareOneRequest() throws IOException, InterruptedException, ExecutionException {
+
+		try (StubBinProvider provider = new StubBinProvider(table(), 100, TimeUnit.MILLISECONDS)) {
+
+			ProviderBinLookup lookup = new ProviderBinLookup(provider, 1, 1, 1, TimeUnit.MINUTES);
+			List<CompletableFuture<BinRecord>> futures = new ArrayList<>();
+
+			for (int i = 0; i < 10; i++) {
+				futures.add(lookup.lookup(41111111L));
+			}
+
+			for (CompletableFuture<BinRecord> future : futures) {
+				Assert.assertEquals(future.get(), new BinRecord(CreditCardType.ELO, "BR", FundingType.DEBIT, null));
+			}
+
+			Assert.assertEquals(provider.getRequests(), 1);
+			Assert.assertEquals(lookup.getCoalesced(), 9);
+			Assert.assertEquals(lookup.findCreditCardType(41111111L), CreditCardType.ELO);
+			Assert.assertEquals(provider.getRequests(), 1);
+		}
+	}
+
+	@Test
+	public void unknownBinsAreCached() throws IOException {
+
+		try (StubBinProvider provider = new StubBinProvider(table(), 0, TimeUnit.MILLISECONDS)) {
+
+			ProviderBinLookup lookup = new ProviderBinLookup(provider, 1, 1, 1, TimeUnit.MINUTES);
+
+			Assert.assertNull(lookup.findCreditCardType(12345678L));
+			Assert.assertNull(lookup.findCreditCardType(12345678L));
+			Assert.assertEquals(provider.getRequests(), 1);
+
+			ProviderBinLookup expiring = new ProviderBinLookup(provider, 1, 1, 0, TimeUnit.MINUTES);
+
+			Assert.assertNull(expiring.findCreditCardType(12345678L));
+			Assert.assertNull(expiring.findCreditCardType(12345678L));
+			Assert.assertEquals(provider.getRequests(), 3);
+		}
+	}
+
+	@Test
+	public void failedRequestsAreNotCached() {
+
+		BinProvider provider = bin -> {
+			CompletableFuture<BinRecord> answer = new CompletableFuture<>();
+			answer.completeExceptionally(new IOException("down"));
+			return answer;
+		};
+		ProviderBinLookup lookup = new ProviderBinLookup(provider, 1, 1, 1, TimeUnit.MINUTES);
+
+		Assert.assertNull(lookup.findCreditCardType(41111111L));
+		Assert.assertNull(lookup.findCreditCardType(41111111L));
+		Assert.assertEquals(lookup.getRequests(), 2);
+		Assert.assertEquals(lookup.getFailures(), 2);
+	}
+
+	@Test
+	public void unansweredRequestsExpire() throws InterruptedException {
+
+		List<CompletableFuture<BinRecord>> answers = new ArrayList<>();
+		BinProvider provider = bin -> {
+			CompletableFuture<BinRecord> answer = new CompletableFuture<>();
+			answers.add(answer);
+			return answer;
+		};
+		ProviderBinLookup lookup = new ProviderBinLookup(provider, 1, 60000, 60000, 50, TimeUnit.MILLISECONDS);
+
+		Assert.assertNull(lookup.findCreditCardType(41111111L));
+		Assert.assertNull(lookup.findCreditCardType(41111111L));
+		Assert.assertEquals(lookup.getRequests(), 1);
+
+		long deadline = System.currentTimeMillis() + 10000;
+
+		while (lookup.getFailures() == 0 && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+
+		Assert.assertEquals(lookup.getFailures(), 1);
+		Assert.assertNull(lookup.findCreditCardType(41111111L));
+		Assert.assertEquals(lookup.getRequests(), 2);
+
+		// the late answer of the expired request is dropped
+		answers.get(0).complete(new BinRecord(CreditCardType.ELO, "BR", FundingType.DEBIT, null));
+		answers.get(1).complete(new BinRecord(CreditCardType.ELO, "BR", FundingType.DEBIT, null));
+		Assert.assertEquals(lookup.findCreditCardType(41111111L), CreditCardType.ELO);
+		Assert.assertEquals(lookup.getRequests(), 2);
+	}
+
+	@Test
+	public void providerWithoutAnswerFails() {
+
+		ProviderBinLookup lookup = new ProviderBinLookup(bin -> null, 1, 1, 1, TimeUnit.MINUTES);
+
+		Assert.assertNull(lookup.findCreditCardType(41111111L));
+		Assert.assertNull(lookup.findCreditCardType(41111111L));
+		Assert.assertEquals(lookup.getRequests(), 2);
+		Assert.assertEquals(lookup.getFailures(), 2);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void maxAgeShorterThanTheTimeoutIsRejected() {
+
+		new ProviderBinLookup(bin -> null, 10, 1, 1, 5, TimeUnit.MILLISECONDS);
+	}
+
+	@Test
+	public void slowProviderFallsBackToTheRegularExpressions()
+			throws IOException, InterruptedException, ExecutionException {
+
+		try (StubBinProvider provider = new StubBinProvider(table(), 200, TimeUnit.MILLISECONDS)) {
+
+			ProviderBinLookup lookup = new ProviderBinLookup(provider, 5, 60000, 60000, TimeUnit.MILLISECONDS);
+			CreditCardValidatorDelegate validator = new CreditCardValidatorDelegate(null, lookup, new BinCache(64));
+
+			Assert.assertEquals(validator.findCreditCardType("4111111111111111"), CreditCardType.VISA);
+			Assert.assertEquals(lookup.getTimeouts(), 1);
+
+			long deadline = System.currentTimeMillis() + 10000;
+
+			while (validator.findCreditCardType("4111111111111111") != CreditCardType.ELO
+					&& System.currentTimeMillis() < deadline) {
+				Thread.sleep(20);
+			}
+
+			Assert.assertEquals(validator.findCreditCardType("4111111111111111"), CreditCardType.ELO);
+			Assert.assertEquals(validator.findIssuerCountry("4111111111111111"), "BR");
+			Assert.assertNull(validator.findIssuerCountry("5555555555554444"));
+			lookup.lookup(55555555L).get();
+			Assert.assertEquals(validator.findIssuerCountry("5555555555554444"), "US");
+			Assert.assertEquals(provider.getRequests(), 2);
+		}
+	}
+
+	@Test
+	public void lateAnswersKeepTheOtherCachedTypes() throws IOException, InterruptedException, ExecutionException {
+
+		try (StubBinProvider provider = new StubBinProvider(table(), 200, TimeUnit.MILLISECONDS)) {
+
+			ProviderBinLookup lookup = new ProviderBinLookup(provider, 5, 60000, 60000, TimeUnit.MILLISECONDS);
+			CreditCardValidatorDelegate validator = new CreditCardValidatorDelegate(null, lookup, new BinCache(64));
+
+			lookup.lookup(60111111L).get();
+			Assert.assertEquals(validator.findCreditCardType("6011111111111117"), CreditCardType.DISCOVER);
+			Assert.assertEquals(validator.findCreditCardType("4111111111111111"), CreditCardType.VISA);
+			Assert.assertEquals(lookup.getFallbackStamp(41111111L), BinLookup.PENDING);
+
+			// the fallback type of the pending BIN is not cached
+			Assert.assertEquals(validator.getTypeCache().keys(), new long[] { BinCache.key("6011111111111117") });
+
+			lookup.lookup(41111111L).get();
+			Assert.assertNotEquals(lookup.getFallbackStamp(41111111L), BinLookup.PENDING);
+			Assert.assertEquals(validator.findCreditCardType("4111111111111111"), CreditCardType.ELO);
+
+			long hits = validator.getTypeCache().getHits();
+
+			Assert.assertEquals(validator.findCreditCardType("6011111111111117"), CreditCardType.DISCOVER);
+			Assert.assertEquals(validator.findCreditCardType("4111111111111111"), CreditCardType.ELO);
+			Assert.assertEquals(validator.getTypeCache().getHits(), hits + 2);
+			Assert.assertEquals(provider.getRequests(), 2);
+		}
+	}
+
+	@Test
+	public void answersRacingTheTimeoutAreNotPending() throws InterruptedException, ExecutionException {
+
+		ExecutorService finder = Executors.newSingleThreadExecutor();
+
+		try {
+			for (int round = 0; round < 5000; round++) {
+
+				CountDownLatch requested = new CountDownLatch(1);
+				CompletableFuture<BinRecord> answer = new CompletableFuture<>();
+				BinProvider provider = bin -> {
+					requested.countDown();
+					return answer;
+				};
+				ProviderBinLookup lookup = new ProviderBinLookup(provider, 20, 60000000, 60000000, 60000000,
+						TimeUnit.MICROSECONDS);
+				Future<CreditCardType> found = finder.submit(() -> lookup.findCreditCardType(41111111L));
+
+				// answer when the lookup is about to time out, in a different place at each round
+				requested.await();
+				long answerAt = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(round % 40);
+
+				while (System.nanoTime() - answerAt < 0) {
+					Thread.yield();
+				}
+				answer.complete(new BinRecord(CreditCardType.ELO, "BR", FundingType.DEBIT, null));
+				found.get();
+
+				Assert.assertNotEquals(lookup.getFallbackStamp(41111111L), BinLookup.PENDING, "round " + round);
+			}
+		} finally {
+			finder.shutdown();
+		}
+	}
+}
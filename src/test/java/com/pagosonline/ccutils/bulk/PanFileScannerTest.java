@@ -0,0 +1,136 @@
+package com.pagosonline.ccutils.bulk;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.pagosonline.ccutils.model.CreditCardType;
+import com.pagosonline.ccutils.validators.CreditCardValidationCode;
+import com.pagosonline.ccutils.validators.CreditCardValidator;
+
+/**
+ * Checks the {@link PanFileScanner} gives the same results as validating each line.
+ */
+public class PanFileScannerTest {
+
+	private static final String[] PREFIXES = new String[] { "4", "51", "2221", "34", "6011", "36", "589562", "603488",
+			"604201", "501105", "603493", "606282", "590712", "541203", "9" };
+
+	private static final int[] LENGTHS = new int[] { 13, 14, 15, 16, 19 };
+
+	private final Random random = new Random(20141209L);
+
+	@Test
+	public void scansChunksSplitInsideLines() throws IOException {
+
+		List<String> numbers = new ArrayList<>();
+		StringBuilder content = new StringBuilder("id,number,holder\r\n");
+
+		for (int i = 0; i < 2000; i++) {
+
+			String number = randomNumber();
+			numbers.add(number);
+			content.append(i).append(',');
+			content.append(i % 3 == 0 ? "\"" + number + "\"" : " " + number + " ");
+			content.append(",holder ").append(i).append(i % 2 == 0 ? "\r\n" : "\n");
+
+			if (i % 100 == 0) {
+				content.append('\n');
+			}
+		}
+		content.append("2000,,empty\n");
+		numbers.add("");
+		content.append("2001");
+		numbers.add("");
+
+		Path file = Files.createTempFile("pans", ".csv");
+
+		try {
+			Files.write(file, content.toString().getBytes(StandardCharsets.US_ASCII));
+
+			ForkJoinPool pool = new ForkJoinPool(4);
+			PanFileReport report;
+
+			try {
+				report = new PanFileScanner(CreditCardValidator.VALIDATOR, 1, (byte) ',', true, 37, pool).scan(file);
+			} finally {
+				pool.shutdown();
+			}
+
+			long[] counts = new long[CreditCardType.values().length];
+			List<CreditCardValidationCode> codes = new ArrayList<>();
+
+			for (String number : numbers) {
+
+				CreditCardType type = CreditCardValidator.findCreditCardType(number);
+				CreditCardValidationCode code = CreditCardValidator.checkNumber(number, type);
+
+				counts[type.ordinal()]++;
+				if (!code.isValid()) {
+					codes.add(code);
+				}
+			}
+
+			Assert.assertEquals(report.getRecords(), numbers.size());
+			Assert.assertEquals(report.getInvalid(), codes.size());
+
+			for (CreditCardType type : CreditCardType.values()) {
+				Assert.assertEquals(report.getCount(type), counts[type.ordinal()], type.name());
+			}
+			for (int i = 0; i < codes.size(); i++) {
+				Assert.assertEquals(report.getInvalidCode(i), codes.get(i));
+			}
+
+			long[] offsets = report.getInvalidOffsets();
+
+			for (int i = 1; i < offsets.length; i++) {
+				Assert.assertTrue(offsets[i - 1] < offsets[i]);
+			}
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	@Test
+	public void writesMaskedErrorReport() throws IOException {
+
+		Path file = Files.createTempFile("pans", ".txt");
+
+		try {
+			Files.write(file, "4111111111111111\n4111111111111112\n\n 123 \n".getBytes(StandardCharsets.US_ASCII));
+
+			PanFileScanner scanner = new PanFileScanner();
+			PanFileReport report = scanner.scan(file);
+			StringBuilder errors = new StringBuilder();
+
+			scanner.writeErrorReport(file, report, errors);
+
+			Assert.assertEquals(report.getRecords(), 3);
+			Assert.assertEquals(report.getValid(), 1);
+			Assert.assertEquals(report.getCount(CreditCardType.VISA), 2);
+			Assert.assertEquals(report.getCount(CreditCardType.UNKNOWN), 1);
+			Assert.assertEquals(errors.toString(), "17,411111******1112,NUMBER_NOT_VALID\n35,123,NUMBER_NOT_VALID\n");
+		} finally {
+			Files.delete(file);
+		}
+	}
+
+	private String randomNumber() {
+
+		StringBuilder number = new StringBuilder(PREFIXES[random.nextInt(PREFIXES.length)]);
+		int length = LENGTHS[random.nextInt(LENGTHS.length)];
+
+		while (number.length() < length) {
+			number.append(random.nextInt(10));
+		}
+		return number.toString();
+	}
+}
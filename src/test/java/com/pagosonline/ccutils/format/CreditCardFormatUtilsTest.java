@@ -86,6 +86,16 @@ public class CreditCardFormatUtilsTest {
 		
 		Assert.assertEquals("412341******5321", masked);
 	}
+
+	@Test
+	public void mask4() {
+		
+		char[] number = "xx4123412341235321xx".toCharArray();
+		String masked = CreditCardFormatUtils.mask(number, 2, 16);
+		
+		Assert.assertEquals("412341******5321", masked);
+		Assert.assertEquals(CreditCardFormatUtils.mask(new StringBuilder("01234")), "01234");
+	}
 	
 	
 	@SuppressWarnings("rawtypes")
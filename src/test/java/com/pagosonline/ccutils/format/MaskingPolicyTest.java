@@ -0,0 +1,83 @@
+package com.pagosonline.ccutils.format;
+
+import java.nio.charset.StandardCharsets;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Masking policies tests.
+ */
+public class MaskingPolicyTest {
+
+	private static final String NUMBER = "4123412341235321";
+
+	@Test
+	public void predefinedPolicies() {
+
+		Assert.assertEquals(MaskingPolicy.FIRST6_LAST4.mask(NUMBER), "412341******5321");
+		Assert.assertEquals(MaskingPolicy.FIRST8_LAST4.mask(NUMBER), "41234123****5321");
+		Assert.assertEquals(MaskingPolicy.LAST4.mask(NUMBER), "************5321");
+		Assert.assertEquals(MaskingPolicy.FIRST6_LAST4.mask("0123456789"), "0123456789");
+		Assert.assertEquals(MaskingPolicy.LAST4.mask("123"), "123");
+	}
+
+	@Test
+	public void compiledPatterns() {
+
+		MaskingPolicy policy = MaskingPolicy.compile("####X###");
+
+		Assert.assertEquals(policy.getFirst(), 4);
+		Assert.assertEquals(policy.getLast(), 3);
+		Assert.assertEquals(policy.mask(NUMBER), "4123XXXXXXXXX321");
+		Assert.assertEquals(MaskingPolicy.compile("######*####").mask(NUMBER), MaskingPolicy.FIRST6_LAST4.mask(NUMBER));
+		Assert.assertEquals(MaskingPolicy.compile("-").mask("1234"), "----");
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void patternWithoutMaskCharacterIsRejected() {
+
+		MaskingPolicy.compile("##########");
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void patternWithTwoMaskCharactersIsRejected() {
+
+		MaskingPolicy.compile("######**####");
+	}
+
+	@Test
+	public void masksIntoCallerBuffers() {
+
+		char[] chars = new char[20];
+		Assert.assertEquals(MaskingPolicy.FIRST6_LAST4.mask("xx" + NUMBER, 2, 18, chars, 1), 16);
+		Assert.assertEquals(new String(chars, 1, 16), "412341******5321");
+
+		byte[] bytes = new byte[16];
+		MaskingPolicy.FIRST6_LAST4.mask(NUMBER, 0, 16, bytes, 0);
+		Assert.assertEquals(new String(bytes, StandardCharsets.US_ASCII), "412341******5321");
+
+		byte[] ascii = (" " + NUMBER).getBytes(StandardCharsets.US_ASCII);
+		MaskingPolicy.LAST4.mask(ascii, 1, 17, ascii, 1);
+		Assert.assertEquals(new String(ascii, StandardCharsets.US_ASCII), " ************5321");
+
+		StringBuilder builder = new StringBuilder("card: ");
+		MaskingPolicy.FIRST8_LAST4.mask(NUMBER, builder);
+		Assert.assertEquals(builder.toString(), "card: 41234123****5321");
+	}
+
+	@Test
+	public void viewMasksWithoutCopying() {
+
+		StringBuilder number = new StringBuilder(NUMBER);
+		CharSequence view = MaskingPolicy.FIRST6_LAST4.view(number);
+
+		Assert.assertEquals(view.length(), 16);
+		Assert.assertEquals(view.toString(), "412341******5321");
+		Assert.assertEquals(view.subSequence(4, 12).toString(), "41******");
+
+		number.setCharAt(0, '5');
+		number.setCharAt(8, '0');
+		Assert.assertEquals(view.toString(), "512341******5321");
+	}
+}
@@ -0,0 +1,123 @@
+package com.pagosonline.ccutils.model;
+
+import java.util.List;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Checks the {@link CreditCardSpec} of each type agrees with its regular expression.
+ */
+public class CreditCardSpecTest {
+
+	@Test
+	public void rangesAgreeWithRegExps() {
+
+		Random random = new Random(20141209L);
+
+		for (CreditCardType type : CreditCardType.values()) {
+
+			CreditCardSpec spec = spec(type);
+			List<PrefixRange> ranges = spec.getPrefixRanges();
+
+			Assert.assertEquals(spec.getType(), type);
+
+			for (int i = 0; i < 20000; i++) {
+
+				String number = i % 2 == 0 && !ranges.isEmpty() ? inRange(random, ranges.get(random.nextInt(ranges.size())))
+						: randomNumber(random);
+				boolean matches = type.getRegExp() != null && number.matches(type.getRegExp());
+				PrefixRange range = spec.findPrefixRange(number);
+
+				if (matches) {
+					Assert.assertNotNull(range, type + " " + number);
+					Assert.assertTrue(spec.allowsLength(number.length()), type + " " + number);
+				} else if (range != null) {
+					Assert.assertFalse(range.isExact(), type + " " + number);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void describesTheTypes() {
+
+		CreditCardSpec amex = spec(CreditCardType.AMEX);
+
+		Assert.assertEquals(amex.getPrefixRanges().toString(), "[34 lengths 15, 37 lengths 15]");
+		Assert.assertTrue(amex.isExact());
+		Assert.assertEquals(amex.getCheckDigitAlgorithm(), CheckDigitAlgorithm.LUHN);
+		Assert.assertEquals(amex.getMinSecurityCodeLength(), 4);
+		Assert.assertEquals(amex.getMaxSecurityCodeLength(), 4);
+		Assert.assertEquals(amex.format("378282246310005"), "3782 822463 10005");
+
+		CreditCardSpec visa = spec(CreditCardType.VISA);
+
+		Assert.assertTrue(visa.allowsLength(13));
+		Assert.assertTrue(visa.allowsLength(16));
+		Assert.assertFalse(visa.allowsLength(15));
+		Assert.assertFalse(visa.allowsLength(40));
+		Assert.assertEquals(visa.getMinSecurityCodeLength(), 1);
+		Assert.assertEquals(visa.getMaxSecurityCodeLength(), 4);
+		Assert.assertEquals(visa.format("4111-1111-1111-1111-111"), "4111 1111 1111 1111 111");
+
+		Assert.assertFalse(spec(CreditCardType.DINERS).isExact());
+		Assert.assertEquals(spec(CreditCardType.NARANJA).getCheckDigitAlgorithm(), CheckDigitAlgorithm.NONE);
+		Assert.assertTrue(spec(CreditCardType.UNKNOWN).getPrefixRanges().isEmpty());
+		Assert.assertEquals(spec(CreditCardType.UNKNOWN).getLengths(), 0);
+	}
+
+	@Test
+	public void containsPaddedShortNumbers() {
+
+		PrefixRange range = new PrefixRange(3400, 3499, 4, 1 << 2 | 1 << 15, true);
+
+		Assert.assertTrue(range.contains("3482 8224 6310 005"));
+		Assert.assertTrue(range.contains("34"));
+		Assert.assertFalse(range.contains("3"));
+		Assert.assertFalse(range.contains("3482"));
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void rejectsPrefixesLongerThanTheirDigits() {
+
+		new PrefixRange(100, 1000, 3, 1 << 16, true);
+	}
+
+	private static CreditCardSpec spec(CreditCardType type) {
+
+		return type.getSpec();
+	}
+
+	private static String inRange(Random random, PrefixRange range) {
+
+		StringBuilder number = new StringBuilder();
+		long prefix = range.getFirst() + (long) (random.nextDouble() * (range.getLast() - range.getFirst() + 1));
+
+		if (range.getPrefixDigits() > 0) {
+			number.append(String.format("%0" + range.getPrefixDigits() + "d", prefix));
+		}
+
+		int length;
+		do {
+			length = random.nextInt(PrefixRange.MAX_LENGTH + 1);
+		} while (!range.allowsLength(length) || length < number.length());
+
+		while (number.length() < length) {
+			number.append(random.nextInt(10));
+		}
+		return number.toString();
+	}
+
+	private static String randomNumber(Random random) {
+
+		StringBuilder number = new StringBuilder(random.nextBoolean() ? "3" : "");
+		int length = 12 + random.nextInt(9);
+
+		while (number.length() < length) {
+			number.append(random.nextInt(10));
+		}
+		return number.toString();
+	}
+}
@@ -0,0 +1,51 @@
+package com.pagosonline.ccutils.util.i18n;
+
+import java.lang.reflect.Field;
+import java.util.Locale;
+
+import org.springframework.context.NoSuchMessageException;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Checks {@link CreditCardMessageBundle} renders the same messages as the Spring
+ * {@link CreditCardMessageSource}.
+ */
+public class CreditCardMessageBundleTest {
+
+	private static final Locale[] LOCALES = new Locale[] { Locale.ENGLISH, Locale.US, new Locale("es", "CO"),
+			new Locale("pt", "BR") };
+
+	@Test
+	public void sameMessagesAsTheSpringMessageSource() throws IllegalAccessException {
+
+		CreditCardMessageSource springSource = new CreditCardMessageSource();
+		CreditCardMessageBundle bundle = CreditCardMessageBundle.getInstance();
+		Object[] arguments = new Object[] { "411111******1111", "VISA" };
+
+		for (Field field : CreditCardMessages.class.getFields()) {
+
+			String key = (String) field.get(null);
+
+			for (Locale locale : LOCALES) {
+				Assert.assertEquals(bundle.getMessage(key, arguments, locale),
+						springSource.getMessage(key, arguments, locale), key + " " + locale);
+				Assert.assertEquals(bundle.getMessage(key, new Object[] {}, locale),
+						springSource.getMessage(key, new Object[] {}, locale), key + " " + locale);
+			}
+		}
+	}
+
+	@Test
+	public void defaultMessageForUnknownCodes() {
+
+		Assert.assertEquals(CreditCardMessageBundle.getInstance().getMessage("unknown", null, "default", Locale.US),
+				"default");
+	}
+
+	@Test(expectedExceptions = NoSuchMessageException.class)
+	public void unknownCodesAreRejected() {
+
+		CreditCardMessageBundle.getInstance().getMessage("unknown", null, Locale.US);
+	}
+}
@@ -0,0 +1,147 @@
+package com.pagosonline.ccutils.validators;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.pagosonline.ccutils.model.CardBrand;
+import com.pagosonline.ccutils.model.CheckDigitAlgorithm;
+import com.pagosonline.ccutils.model.CreditCardType;
+import com.pagosonline.ccutils.model.PrefixRange;
+
+/**
+ * Checks the custom brands compiled with the built-in types find the same brands as their rules.
+ */
+public class CardBrandClassifierTest {
+
+	/** The rules of the tests: a brand inside the VISA range, and two brands of no type. */
+	private static final String RULES = "# local brands\n"
+			+ "LOCALVISA,459870-459899 4611,16,LUHN\n"
+			+ "solcard , 9170-9185 92 , 16 18-19 , luhn # a comment\n"
+			+ "\n"
+			+ "STORE,990000001-990000123,12,NONE\n";
+
+	@Test
+	public void findsTheBrandsOfTheRules() throws IOException {
+
+		List<CardBrand> brands = CardBrand.read(new StringReader(RULES));
+		CardBrandClassifier classifier = new CardBrandClassifier(brands, CardBrandPrecedence.CUSTOM_FIRST);
+		Random random = new Random(20141209L);
+
+		Assert.assertEquals(brands.toString(), "[LOCALVISA, SOLCARD, STORE]");
+		Assert.assertEquals(brands.get(1).getPrefixRanges().get(1).getLengths(), 1 << 16 | 1 << 18 | 1 << 19);
+		Assert.assertEquals(brands.get(2).getCheckDigitAlgorithm(), CheckDigitAlgorithm.NONE);
+
+		for (int i = 0; i < 100000; i++) {
+
+			String prefix = i % 3 == 0 ? "4" : i % 3 == 1 ? "9" : "";
+			StringBuilder number = new StringBuilder(prefix);
+			int length = 11 + random.nextInt(10);
+
+			while (number.length() < length) {
+				number.append((char) ('0' + random.nextInt(10)));
+			}
+
+			CardBrand expected = null;
+
+			for (CardBrand brand : brands) {
+				if (expected == null && matches(brand, number)) {
+					expected = brand;
+				}
+			}
+
+			CardBrand found = classifier.findCardBrand(number);
+
+			if (expected != null) {
+				Assert.assertSame(found, expected, number.toString());
+				Assert.assertTrue(number.toString().matches(expected.getRegExp()), number.toString());
+			} else {
+				Assert.assertSame(found.getType(), CreditCardValidator.VALIDATOR.findCreditCardType(number),
+						number.toString());
+			}
+		}
+	}
+
+	@Test
+	public void appliesThePrecedence() throws IOException {
+
+		List<CardBrand> brands = CardBrand.read(new StringReader(RULES));
+		CardBrandClassifier customFirst = new CardBrandClassifier(brands, CardBrandPrecedence.CUSTOM_FIRST);
+		CardBrandClassifier builtInFirst = new CardBrandClassifier(brands, CardBrandPrecedence.BUILT_IN_FIRST);
+
+		Assert.assertEquals(customFirst.findCardBrand("4598 8012 3456 7890").getName(), "LOCALVISA");
+		Assert.assertEquals(builtInFirst.findCardBrand("4598 8012 3456 7890").getType(), CreditCardType.VISA);
+		Assert.assertEquals(customFirst.findCardBrand("4598801234567").getType(), CreditCardType.VISA);
+		Assert.assertEquals(builtInFirst.findCardBrand("9175000000000001").getName(), "SOLCARD");
+		Assert.assertEquals(builtInFirst.findCardBrand("9175000000000").getType(), CreditCardType.UNKNOWN);
+		Assert.assertSame(CardBrandClassifier.BUILT_IN.findCardBrand("4111111111111111"),
+				CreditCardValidationPlan.of(CreditCardType.VISA).getBrand());
+
+		for (String number : new String[] { "378282246310005", "5555555555554444", "30569309025904" }) {
+			Assert.assertSame(builtInFirst.findCardBrand(number),
+					CreditCardValidationPlan.of(CreditCardValidator.VALIDATOR.findCreditCardType(number)).getBrand(), number);
+		}
+	}
+
+	@Test
+	public void validatesTheCheckDigit() throws IOException {
+
+		CardBrandClassifier classifier = new CardBrandClassifier(CardBrand.read(new StringReader(RULES)),
+				CardBrandPrecedence.CUSTOM_FIRST);
+
+		Assert.assertTrue(classifier.isValid("9175000000000000"));
+		Assert.assertFalse(classifier.isValid("9175000000000001"));
+		Assert.assertFalse(classifier.isValid("9175 0000 0000 0000"));
+		Assert.assertTrue(classifier.isValid("990000100009"));
+		Assert.assertTrue(classifier.isValid("990000100001"));
+		Assert.assertFalse(classifier.isValid("990000124000"));
+		Assert.assertTrue(classifier.isValid("4111111111111111"));
+	}
+
+	@Test
+	public void rejectsInvalidRules() throws IOException {
+
+		String[] invalid = { "X,4,16", "X,4-45,16,LUHN", "X,5-4,16,LUHN", "X,4a,16,LUHN", "X,4,0,LUHN", "X,4,32,LUHN",
+				"X,4,16,MOD11", "VISA,4,16,LUHN", "X-Y,4,16,LUHN", "X,1234,4,LUHN", "X,4,16,LUHN\nX,5,16,LUHN" };
+
+		for (String rules : invalid) {
+			try {
+				CardBrand.read(new StringReader("# rules\n" + rules));
+				Assert.fail(rules);
+			} catch (IllegalArgumentException e) {
+				Assert.assertTrue(e.getMessage().startsWith("reader:"), e.getMessage());
+			}
+		}
+
+		try {
+			new CardBrandClassifier(
+					java.util.Collections.singletonList(CreditCardValidationPlan.of(CreditCardType.VISA).getBrand()),
+					CardBrandPrecedence.CUSTOM_FIRST);
+			Assert.fail();
+		} catch (IllegalArgumentException e) {
+			Assert.assertEquals(e.getMessage(), "VISA is a built-in type");
+		}
+	}
+
+	/**
+	 * Tells if a number is in a prefix range of a brand and has one of its lengths.
+	 *
+	 * @param brand the brand
+	 * @param number the number
+	 * @return true if the brand rules match the number
+	 */
+	private static boolean matches(CardBrand brand, CharSequence number) {
+
+		for (PrefixRange range : brand.getPrefixRanges()) {
+			if (number.length() > range.getPrefixDigits() && range.contains(number)
+					&& range.allowsLength(number.length())) {
+				return true;
+			}
+		}
+		return false;
+	}
+}
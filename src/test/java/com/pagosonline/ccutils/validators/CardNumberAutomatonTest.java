@@ -0,0 +1,204 @@
+package com.pagosonline.ccutils.validators;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.pagosonline.ccutils.model.CreditCardType;
+
+/**
+ * Checks the {@link CardNumberAutomaton} gives the same results as the regular expressions it is
+ * compiled from.
+ */
+public class CardNumberAutomatonTest {
+
+	private static final String BIN_FILES_DIRECTORY = "src/test/resources";
+
+	private static final int MAX_LENGTH = 22;
+
+	private final Random random = new Random(20141209L);
+
+	@Test
+	public void matchAgreesWithEveryTypeRegularExpression() throws IOException {
+
+		List<String> numbers = buildNumbers();
+
+		for (CreditCardType type : CreditCardType.values()) {
+
+			if (type.getRegExp() == null) {
+				continue;
+			}
+
+			CardNumberAutomaton automaton = CardNumberAutomaton.compile(type.getRegExp());
+
+			for (String number : numbers) {
+				boolean expected = number.matches(type.getRegExp());
+				Assert.assertEquals(automaton.match(number) == 0, expected, type + " " + number);
+			}
+		}
+	}
+
+	@Test
+	public void specsAgreeWithEveryTypeRegularExpression() throws IOException {
+
+		List<String> numbers = buildNumbers();
+
+		for (CreditCardType type : CreditCardType.values()) {
+
+			if (type.getRegExp() == null) {
+				Assert.assertNull(type.getSpec().getRegExp(), type.name());
+				continue;
+			}
+
+			CardNumberAutomaton spec = CardNumberAutomaton.compile(type.getSpec().getRegExp());
+			CardNumberAutomaton regExp = CardNumberAutomaton.compile(type.getRegExp());
+
+			// the same languages have the same prefixes at every depth
+			for (int digits = 0; digits <= 8; digits++) {
+				Assert.assertEquals(spec.getPrefixRanges(digits), regExp.getPrefixRanges(digits), type + " " + digits);
+			}
+
+			for (String number : numbers) {
+				Assert.assertEquals(spec.match(number), regExp.match(number), type + " " + number);
+			}
+		}
+	}
+
+	@Test
+	public void findCreditCardTypeAgreesWithRegularExpressions() throws IOException {
+
+		CreditCardType[] types = new CreditCardType[] {
+				CreditCardType.VISA, CreditCardType.MASTERCARD, CreditCardType.AMEX, CreditCardType.DISCOVER,
+				CreditCardType.DINERS, CreditCardType.NARANJA, CreditCardType.SHOPPING, CreditCardType.CABAL,
+				CreditCardType.ARGENCARD, CreditCardType.CENCOSUD, CreditCardType.HIPERCARD,
+				CreditCardType.CODENSA, CreditCardType.CREDENCIAL };
+
+		for (String number : buildNumbers()) {
+
+			String formatted = number.length() > 4 ? number.substring(0, 4) + "-" + number.substring(4) : number;
+			CreditCardType expected = CreditCardType.UNKNOWN;
+
+			for (CreditCardType type : types) {
+				if (number.matches(type.getRegExp())) {
+					expected = type;
+					break;
+				}
+			}
+
+			Assert.assertEquals(CreditCardValidator.findCreditCardType(formatted), expected, number);
+		}
+	}
+
+	@Test
+	public void uniformResultsAgreeWithFind() throws IOException {
+
+		CardNumberAutomaton automaton = CardNumberAutomaton.compile(CreditCardType.DINERS.getRegExp(),
+				CreditCardType.VISA.getRegExp(), CreditCardType.HIPERCARD.getRegExp());
+		int uniform = 0;
+
+		for (String number : buildNumbers()) {
+
+			int expected = automaton.findUniform(number, 6);
+
+			if (expected == CardNumberAutomaton.MIXED) {
+				continue;
+			}
+			uniform++;
+
+			for (int i = 0; i < 10; i++) {
+				String other = randomDigits(number.substring(0, Math.min(6, number.length())), number.length());
+				Assert.assertEquals(automaton.find(other), expected, number + " " + other);
+			}
+		}
+
+		Assert.assertTrue(uniform > 0);
+		Assert.assertEquals(automaton.findUniform("3666", 2), CardNumberAutomaton.NO_MATCH);
+		Assert.assertEquals(automaton.findUniform("3666666666666", 2), CardNumberAutomaton.MIXED);
+		Assert.assertEquals(automaton.findUniform("4111111111111111", 1), 1);
+	}
+
+	@Test
+	public void matchRejectsNonDigits() {
+
+		CardNumberAutomaton automaton = CardNumberAutomaton.compile("\\d{4}");
+
+		Assert.assertEquals(automaton.match("1234"), 0);
+		Assert.assertEquals(automaton.match("12 4"), CardNumberAutomaton.NO_MATCH);
+		Assert.assertEquals(automaton.find("12 34"), 0);
+	}
+
+	@Test
+	public void firstMatchingExpressionWins() {
+
+		CardNumberAutomaton automaton = CardNumberAutomaton.compile("4\\d*", "\\d+", "^4(?:1|2){2,3}$");
+
+		Assert.assertEquals(automaton.match("4111"), 0);
+		Assert.assertEquals(automaton.match("5111"), 1);
+		Assert.assertEquals(automaton.match(""), CardNumberAutomaton.NO_MATCH);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void unsupportedConstructIsRejected() {
+
+		CardNumberAutomaton.compile("4[^5]\\d+");
+	}
+
+	/**
+	 * Builds card numbers from the test BIN files, the Diners edge cases and random digits.
+	 */
+	private List<String> buildNumbers() throws IOException {
+
+		List<String> prefixes = new ArrayList<>();
+
+		try (DirectoryStream<Path> files = Files.newDirectoryStream(Paths.get(BIN_FILES_DIRECTORY), "*-BIN.txt")) {
+			for (Path file : files) {
+				for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+					if (!line.trim().isEmpty()) {
+						prefixes.add(line.trim());
+					}
+				}
+			}
+		}
+
+		for (int i = 0; i < 100; i++) {
+			prefixes.add(Integer.toString(i));
+		}
+		prefixes.add("3095");
+		prefixes.add("3841");
+		prefixes.add("6375");
+		prefixes.add("6376");
+		prefixes.add("2720");
+		prefixes.add("2221");
+
+		List<String> numbers = new ArrayList<>();
+		numbers.add("3666666666666");
+		numbers.add("3000000000000");
+		numbers.add("3055555555555");
+
+		for (String prefix : prefixes) {
+			for (int length = prefix.length(); length <= MAX_LENGTH; length++) {
+				numbers.add(randomDigits(prefix, length));
+			}
+		}
+		return numbers;
+	}
+
+	private String randomDigits(String prefix, int length) {
+
+		StringBuilder number = new StringBuilder(prefix);
+
+		while (number.length() < length) {
+			number.append(random.nextInt(10));
+		}
+		return number.toString();
+	}
+}
@@ -0,0 +1,95 @@
+package com.pagosonline.ccutils.validators;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.pagosonline.ccutils.bin.BinTable;
+import com.pagosonline.ccutils.model.CreditCardType;
+
+/**
+ * Checks {@link CreditCardValidatorDelegate#classifyAndValidate(CharSequence)} agrees with finding
+ * the type then checking the number.
+ */
+public class CardNumberCheckTest {
+
+	private static final String[] PREFIXES = { "4", "411111", "41111111", "5", "55", "2221", "34", "37", "30",
+			"305", "3095", "36", "38", "3841", "6011", "65", "589562", "603488", "606282", "637568", "606374", "0",
+			"" };
+
+	@Test
+	public void agreesWithFindAndCheck() throws IOException {
+
+		assertAgrees(new CreditCardValidatorDelegate(null));
+		assertAgrees(new CreditCardValidatorDelegate(null, BinTable.read(
+				new StringReader("41111111\n36000000-36999999,ELO\n55555555,DINERS\n"), CreditCardType.MASTERCARD)));
+	}
+
+	@Test
+	public void readsUnicodeDigitsAndSeparators() {
+
+		CreditCardValidatorDelegate validator = new CreditCardValidatorDelegate(null);
+
+		int result = validator.classifyAndValidate("４１１１　１１１１-1111 1111");
+		Assert.assertEquals(CardNumberCheck.getType(result), CreditCardType.VISA);
+		Assert.assertTrue(CardNumberCheck.isValid(result));
+		Assert.assertEquals(CardNumberCheck.getDigits(result), 16);
+
+		result = validator.classifyAndValidate("4111 1111 1111 111𝟏");
+		Assert.assertEquals(CardNumberCheck.getType(result), CreditCardType.VISA);
+		Assert.assertTrue(CardNumberCheck.isValid(result));
+
+		result = validator.classifyAndValidate("4111 1111 1111 1112");
+		Assert.assertEquals(CardNumberCheck.getType(result), CreditCardType.VISA);
+		Assert.assertFalse(CardNumberCheck.isValid(result));
+
+		result = validator.classifyAndValidate("4111/1111/1111/1111");
+		Assert.assertEquals(CardNumberCheck.getType(result), CreditCardType.UNKNOWN);
+		Assert.assertFalse(CardNumberCheck.isValid(result));
+
+		Assert.assertFalse(CardNumberCheck.isValid(validator.classifyAndValidate(null)));
+		Assert.assertFalse(CardNumberCheck.isValid(validator.classifyAndValidate("")));
+	}
+
+	private static void assertAgrees(CreditCardValidatorDelegate validator) {
+
+		Random random = new Random(20141209L);
+
+		for (int i = 0; i < 100000; i++) {
+
+			StringBuilder digits = new StringBuilder(PREFIXES[random.nextInt(PREFIXES.length)]);
+			int length = random.nextInt(22);
+
+			while (digits.length() < length) {
+				digits.append(random.nextInt(10));
+			}
+
+			// makes the check digit right half of the time
+			if (digits.length() > 1 && random.nextBoolean()) {
+				for (int check = 0; check < 10 && !LuhnCheck.isValid(digits); check++) {
+					digits.setCharAt(digits.length() - 1, (char) ('0' + check));
+				}
+			}
+
+			StringBuilder formatted = new StringBuilder();
+
+			for (int j = 0; j < digits.length(); j++) {
+				if (j > 0 && j % 4 == 0) {
+					formatted.append(random.nextBoolean() ? ' ' : '-');
+				}
+				formatted.append(digits.charAt(j));
+			}
+
+			CreditCardType type = validator.findCreditCardType(digits);
+			boolean valid = type != CreditCardType.UNKNOWN && validator.checkNumber(digits, type).isValid();
+			int result = validator.classifyAndValidate(formatted);
+
+			Assert.assertEquals(CardNumberCheck.getType(result), type, formatted.toString());
+			Assert.assertEquals(CardNumberCheck.isValid(result), valid, formatted.toString());
+			Assert.assertEquals(CardNumberCheck.getDigits(result), digits.length());
+		}
+	}
+}
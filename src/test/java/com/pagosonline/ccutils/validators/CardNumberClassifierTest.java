@@ -0,0 +1,65 @@
+package com.pagosonline.ccutils.validators;
+
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Checks the classifier generated at build time is loaded and agrees with the automaton of the type
+ * regular expressions.
+ */
+public class CardNumberClassifierTest {
+
+	private static final String[] PREFIXES = { "4", "5", "2221", "2720", "34", "37", "300", "3095", "36", "38",
+			"3841", "6011", "65", "589562", "603488", "6034880", "606282", "637568", "637599", "606374", "5895",
+			"504", "0", "" };
+
+	@Test
+	public void generatedClassifierIsLoaded() {
+
+		Assert.assertEquals(CreditCardValidatorDelegate.typesClassifier().getClass().getSimpleName(),
+				CreditCardValidatorDelegate.GENERATED_CLASSIFIER);
+	}
+
+	@Test
+	public void agreesWithAutomaton() {
+
+		CardNumberClassifier classifier = CreditCardValidatorDelegate.typesClassifier();
+		CardNumberAutomaton automaton = CreditCardValidatorDelegate.typesAutomaton();
+		Random random = new Random(20141209L);
+
+		// every prefix of up to 4 digits, with every number of digits
+		for (int width = 0, prefixes = 1; width <= 4; width++, prefixes *= 10) {
+			for (int prefix = 0; prefix < prefixes; prefix++) {
+
+				String start = Integer.toString(prefixes + prefix).substring(1);
+
+				for (int length = width; length <= 34; length++) {
+					assertAgrees(classifier, automaton, digits(random, start, length));
+				}
+			}
+		}
+
+		for (int i = 0; i < 100000; i++) {
+
+			String number = digits(random, PREFIXES[random.nextInt(PREFIXES.length)], random.nextInt(35));
+			assertAgrees(classifier, automaton, i % 2 == 0 ? number : number.replaceAll("(\\d{4})", "$1 "));
+		}
+	}
+
+	private static String digits(Random random, String prefix, int length) {
+
+		StringBuilder digits = new StringBuilder(prefix);
+
+		while (digits.length() < length) {
+			digits.append(random.nextInt(10));
+		}
+		return digits.toString();
+	}
+
+	private static void assertAgrees(CardNumberClassifier classifier, CardNumberAutomaton automaton, String number) {
+
+		Assert.assertEquals(classifier.find(number), automaton.find(number), number);
+	}
+}
@@ -0,0 +1,91 @@
+package com.pagosonline.ccutils.validators;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.pagosonline.ccutils.model.CreditCardType;
+
+/**
+ * Checks the batch validation gives the same results as validating each card.
+ */
+public class CreditCardBatchTest {
+
+	private static final String[] PREFIXES = new String[] { "4", "51", "2221", "34", "6011", "36", "589562", "603488",
+			"604201", "501105", "603493", "606282", "590712", "541203", "9" };
+
+	private static final int[] LENGTHS = new int[] { 13, 14, 15, 16, 19 };
+
+	private final Random random = new Random(20141209L);
+
+	@Test
+	public void findsTypesAndValidatesInParallel() {
+
+		String[] numbers = randomNumbers(20000);
+		numbers[7] = null;
+		numbers[11] = " ";
+
+		ForkJoinPool pool = new ForkJoinPool(4);
+
+		try {
+			CreditCardBatchResult result = CreditCardValidator.VALIDATOR.validateAll(numbers, pool);
+			int invalid = 0;
+
+			for (int i = 0; i < numbers.length; i++) {
+
+				CreditCardType type = numbers[i] != null ? CreditCardValidator.findCreditCardType(numbers[i])
+						: CreditCardType.UNKNOWN;
+				CreditCardValidationCode code = CreditCardValidator.checkNumber(numbers[i], type);
+
+				Assert.assertEquals(result.getType(i), type, numbers[i]);
+				Assert.assertEquals(result.getCode(i), code, numbers[i]);
+				invalid += code.isValid() ? 0 : 1;
+			}
+
+			Assert.assertEquals(result.countInvalid(), invalid);
+			Assert.assertEquals(result.getCode(7), CreditCardValidationCode.NUMBER_NOT_NULL_EMPTY);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void validatesWithTheGivenTypes() {
+
+		String[] numbers = new String[] { "4111111111111111", "4111111111111111", "378282246310005" };
+		CreditCardType[] types = new CreditCardType[] { CreditCardType.VISA, null, CreditCardType.VISA };
+
+		CreditCardBatchResult result = CreditCardValidator.VALIDATOR.validateAll(numbers, types, null);
+
+		Assert.assertTrue(result.isValid(0));
+		Assert.assertEquals(result.getCode(1), CreditCardValidationCode.TYPE_NOT_NULL);
+		Assert.assertEquals(result.getType(1), CreditCardType.UNKNOWN);
+		Assert.assertEquals(result.getCode(2), CreditCardValidationCode.NUMBER_NOT_VALID);
+		Assert.assertEquals(result.getType(2), CreditCardType.VISA);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void typesMustMatchTheNumbers() {
+
+		CreditCardValidator.VALIDATOR.validateAll(new String[] { "4111111111111111" }, new CreditCardType[0], null);
+	}
+
+	private String[] randomNumbers(int count) {
+
+		String[] numbers = new String[count];
+
+		for (int i = 0; i < count; i++) {
+
+			StringBuilder number = new StringBuilder(PREFIXES[random.nextInt(PREFIXES.length)]);
+			int length = LENGTHS[random.nextInt(LENGTHS.length)];
+
+			while (number.length() < length) {
+				number.append(random.nextInt(10));
+			}
+			numbers[i] = number.toString();
+		}
+		return numbers;
+	}
+}
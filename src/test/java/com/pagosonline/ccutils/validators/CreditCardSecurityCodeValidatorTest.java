@@ -8,6 +8,7 @@ import org.testng.annotations.BeforeTest;
 import org.testng.annotations.Test;
 
 import com.pagosonline.ccutils.model.CreditCardCountry;
+import com.pagosonline.ccutils.model.CreditCardSpec;
 import com.pagosonline.ccutils.model.CreditCardType;
 
 /**
@@ -105,4 +106,26 @@ public class CreditCardSecurityCodeValidatorTest {
 				CreditCardCountry.PE.name());
 		Assert.fail("is valid?");
 	}
+	
+	/**
+	 * test the security code lengths of the specs are the ones accepted out of Peru
+	 */
+	@Test
+	public void specLengthsAgreeWithTheValidator() {
+
+		for (CreditCardType type : CreditCardType.values()) {
+
+			CreditCardSpec spec = type.getSpec();
+
+			for (int length = 1; length <= 6; length++) {
+
+				boolean valid = CreditCardSecurityCodeValidator.checkSecurityCode("123456".substring(0, length), type,
+						CreditCardCountry.AR.name()).isValid();
+
+				Assert.assertEquals(valid,
+						length >= spec.getMinSecurityCodeLength() && length <= spec.getMaxSecurityCodeLength(),
+						type + " " + length);
+			}
+		}
+	}
 }
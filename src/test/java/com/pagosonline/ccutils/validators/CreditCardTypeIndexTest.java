@@ -0,0 +1,121 @@
+package com.pagosonline.ccutils.validators;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+import com.pagosonline.ccutils.bin.BinCache;
+import com.pagosonline.ccutils.bin.BinTable;
+import com.pagosonline.ccutils.model.CreditCardType;
+
+/**
+ * Checks the {@link CreditCardTypeIndex} finds the same types as the validator delegate.
+ */
+public class CreditCardTypeIndexTest {
+
+	private static final String[] PREFIXES = { "4", "411111", "4111111", "41111111", "5", "55", "2221", "2720",
+			"34", "37", "3", "30", "300", "305", "3095", "36", "38", "3841", "6", "6011", "65", "589562", "603488",
+			"604201", "606282", "6375", "637568", "606374", "6363", "0", "" };
+
+	@Test
+	public void agreesWithTheRegularExpressions() {
+
+		assertAgrees(CreditCardTypeIndex.build(), new CreditCardValidatorDelegate(null));
+	}
+
+	@Test
+	public void agreesWithABinTable() throws IOException {
+
+		BinTable table = BinTable.read(new StringReader(
+				"41111111\n36000000-36999999,ELO\n60637400-60637449,CENCOSUD\n3841000-38410555,AURA\n"),
+				CreditCardType.MASTERCARD);
+		CreditCardTypeIndex index = CreditCardTypeIndex.build(table);
+
+		Assert.assertSame(index.getBinTable(), table);
+		Assert.assertTrue(index.getPageCount() > 0);
+		assertAgrees(index, new CreditCardValidatorDelegate(null, table));
+
+		Assert.assertEquals(index.findCreditCardType("6063740000000000"), CreditCardType.CENCOSUD);
+		Assert.assertEquals(index.findCreditCardType("6063745000000000"), CreditCardType.VISA);
+		Assert.assertEquals(index.findCreditCardType("4111-1111-1111-1111"), CreditCardType.MASTERCARD);
+	}
+
+	@Test
+	public void delegateUsesTheIndex() {
+
+		CreditCardValidatorDelegate validator = CreditCardValidatorDelegate.withTypeIndex(null, CreditCardTypeIndex.build());
+
+		Assert.assertNotNull(validator.getTypeIndex());
+		Assert.assertNull(validator.getBinLookup());
+		Assert.assertEquals(validator.findCreditCardType("4111 1111 1111 1111"), CreditCardType.VISA);
+		Assert.assertEquals(validator.findCreditCardType("36666666666666"), CreditCardType.DINERS);
+	}
+
+	@Test
+	public void byteBufferAgreesWithTheCharSequences() throws IOException {
+
+		BinTable table = BinTable.read(new StringReader("41111111\n36000000-36999999,ELO\n60637400-60637449,CENCOSUD\n"),
+				CreditCardType.MASTERCARD);
+
+		assertByteBufferAgrees(CreditCardValidatorDelegate.withTypeIndex(null, CreditCardTypeIndex.build(table)));
+		BinCache cache = new BinCache(1024);
+		CreditCardValidatorDelegate cached = new CreditCardValidatorDelegate(null, table, cache);
+		ByteBuffer buffer = ByteBuffer.wrap("4111111111111111".getBytes(StandardCharsets.US_ASCII));
+
+		cached.findCreditCardType(buffer, 0, buffer.limit());
+		cached.findCreditCardType(buffer, 0, buffer.limit());
+		Assert.assertEquals(cache.getMisses(), 1);
+		Assert.assertEquals(cache.getHits(), 1);
+		assertByteBufferAgrees(cached);
+		assertByteBufferAgrees(new CreditCardValidatorDelegate(null, table));
+	}
+
+	private static void assertByteBufferAgrees(CreditCardValidatorDelegate validator) {
+
+		Random random = new Random(20141210L);
+
+		for (int i = 0; i < 20000; i++) {
+
+			StringBuilder number = new StringBuilder(PREFIXES[random.nextInt(PREFIXES.length)]);
+			int length = random.nextInt(24);
+
+			while (number.length() < length) {
+				number.append(random.nextInt(10));
+			}
+
+			ByteBuffer buffer = ByteBuffer.wrap(("x," + number + ",y").getBytes(StandardCharsets.US_ASCII));
+
+			Assert.assertEquals(validator.findCreditCardType(buffer, 2, 2 + number.length()),
+					validator.findCreditCardType(number.toString()), number.toString());
+		}
+
+		ByteBuffer buffer = ByteBuffer.wrap("4111111111111111".getBytes(StandardCharsets.US_ASCII));
+
+		Assert.assertEquals(validator.findCreditCardType(buffer, 0, buffer.limit()), CreditCardType.MASTERCARD);
+	}
+
+	private static void assertAgrees(CreditCardTypeIndex index, CreditCardValidatorDelegate validator) {
+
+		Random random = new Random(20141209L);
+
+		for (int i = 0; i < 200000; i++) {
+
+			StringBuilder number = new StringBuilder(PREFIXES[random.nextInt(PREFIXES.length)]);
+			int length = random.nextInt(24);
+
+			while (number.length() < length) {
+				number.append(random.nextInt(10));
+			}
+
+			Assert.assertEquals(index.findCreditCardType(number), validator.findCreditCardType(number), number.toString());
+		}
+
+		Assert.assertEquals(index.findCreditCardType("36666666666666"), validator.findCreditCardType("36666666666666"));
+		Assert.assertEquals(index.findCreditCardType("3000000000000"), validator.findCreditCardType("3000000000000"));
+	}
+}
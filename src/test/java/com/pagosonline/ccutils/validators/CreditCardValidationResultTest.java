@@ -0,0 +1,97 @@
+package com.pagosonline.ccutils.validators;
+
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Locale;
+
+import org.springframework.context.i18n.LocaleContextHolder;
+import org.testng.Assert;
+import org.testng.annotations.BeforeTest;
+import org.testng.annotations.Test;
+
+import com.pagosonline.ccutils.model.CreditCardCountry;
+import com.pagosonline.ccutils.model.CreditCardType;
+
+/**
+ * Tests of the non-throwing validation API.
+ */
+public class CreditCardValidationResultTest {
+
+	private static final String VALID_VISA = "4111111111111111";
+
+	private static final String VALID_AMEX = "378282246310005";
+
+	@BeforeTest
+	public void init() {
+
+		LocaleContextHolder.setLocale(new Locale("es", "CO"));
+	}
+
+	@Test
+	public void validCardReturnsTheSharedResult() {
+
+		CreditCardValidationResult result = CreditCardValidator.validateCard(VALID_VISA, CreditCardType.VISA, "123",
+				CreditCardCountry.AR.name(), nextYear());
+
+		Assert.assertSame(result, CreditCardValidationResult.VALID);
+		Assert.assertTrue(result.isValid());
+		Assert.assertTrue(result.getCodes().isEmpty());
+	}
+
+	@Test
+	public void allFieldErrorsAreReported() {
+
+		CreditCardValidationResult result = CreditCardValidator.validateCard("4111111111111112", CreditCardType.VISA,
+				"", CreditCardCountry.AR.name(), "2000/01");
+
+		Assert.assertFalse(result.isValid());
+		Assert.assertEquals(result.getCodes(), Arrays.asList(CreditCardValidationCode.NUMBER_NOT_VALID,
+				CreditCardValidationCode.SECURITY_CODE_NOT_VALID, CreditCardValidationCode.EXPIRED));
+		Assert.assertEquals(result.getMessage(CreditCardValidationCode.NUMBER_NOT_VALID),
+				"El número de la tarjeta de crédito no es válido, tarjeta crédito: [411111******1112], tipo: [VISA]");
+		Assert.assertNull(result.getMessage(CreditCardValidationCode.TYPE_NOT_NULL));
+		Assert.assertEquals(result.getMessages().size(), 3);
+	}
+
+	@Test
+	public void missingTypeAndNumberAreReported() {
+
+		CreditCardValidationResult result = CreditCardValidator.validateCard(null, null, "1234", null, "2099/13");
+
+		Assert.assertTrue(result.hasError(CreditCardValidationCode.NUMBER_NOT_NULL_EMPTY));
+		Assert.assertTrue(result.hasError(CreditCardValidationCode.TYPE_NOT_NULL));
+		Assert.assertTrue(result.hasError(CreditCardValidationCode.EXPIRATION_DATE_NOT_VALID));
+		Assert.assertFalse(result.hasError(CreditCardValidationCode.SECURITY_CODE_INVALID_LENGTH));
+	}
+
+	@Test
+	public void checkNumberCodes() {
+
+		Assert.assertEquals(CreditCardValidator.checkNumber(VALID_AMEX, CreditCardType.AMEX),
+				CreditCardValidationCode.VALID);
+		Assert.assertEquals(CreditCardValidator.checkNumber(" ", CreditCardType.AMEX),
+				CreditCardValidationCode.NUMBER_NOT_NULL_EMPTY);
+		Assert.assertEquals(CreditCardValidator.checkNumber(VALID_AMEX, null),
+				CreditCardValidationCode.TYPE_NOT_NULL);
+		Assert.assertEquals(CreditCardValidator.checkNumber(VALID_AMEX, CreditCardType.VISA),
+				CreditCardValidationCode.NUMBER_NOT_VALID);
+	}
+
+	@Test
+	public void checkSecurityCodeCodes() {
+
+		Assert.assertEquals(CreditCardValidator.checkSecurityCode("123", CreditCardType.AMEX, CreditCardCountry.AR.name()),
+				CreditCardValidationCode.AMEX_SECURITY_CODE_INVALID_LENGTH);
+		Assert.assertEquals(CreditCardValidator.checkSecurityCode("12", CreditCardType.AMEX, CreditCardCountry.PE.name()),
+				CreditCardValidationCode.AMEX_PE_SECURITY_CODE_INVALID_LENGTH);
+		Assert.assertEquals(CreditCardValidator.checkSecurityCode("12345", CreditCardType.VISA, null),
+				CreditCardValidationCode.SECURITY_CODE_INVALID_LENGTH);
+		Assert.assertEquals(CreditCardValidator.checkSecurityCode("123", CreditCardType.AMEX, CreditCardCountry.PE.name()),
+				CreditCardValidationCode.VALID);
+	}
+
+	private static String nextYear() {
+
+		return (Calendar.getInstance().get(Calendar.YEAR) + 1) + "/01";
+	}
+}
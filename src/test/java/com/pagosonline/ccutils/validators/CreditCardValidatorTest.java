@@ -1,13 +1,19 @@
 package com.pagosonline.ccutils.validators;
 
 import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
 import java.io.FileNotFoundException;
 import java.io.FileReader;
 import java.io.IOException;
+import java.io.ObjectOutputStream;
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Modifier;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.List;
 import java.util.Locale;
@@ -21,6 +27,8 @@ import org.testng.annotations.BeforeTest;
 import org.testng.annotations.DataProvider;
 import org.testng.annotations.Test;
 
+import com.pagosonline.ccutils.bin.BinCache;
+import com.pagosonline.ccutils.bin.BinCacheSnapshot;
 import com.pagosonline.ccutils.model.CreditCardType;
 
 /**
@@ -178,6 +186,63 @@ public class CreditCardValidatorTest {
 		}
 	}
 
+	@Test
+	public void validateExceptionCarriesTheMessageKeyAndArguments() {
+
+		try {
+			CreditCardValidator.validate("4111111111111112", CreditCardType.VISA);
+			Assert.fail("is valid?");
+		} catch (CreditCardValidationException ex) {
+			Assert.assertEquals(ex.getCode(), CreditCardValidationCode.NUMBER_NOT_VALID);
+			Assert.assertEquals(ex.getMessageKey(), "credit_card_number_not_valid");
+			Assert.assertEquals(ex.getMessageArguments(), new Object[] { "411111******1112", CreditCardType.VISA });
+			Assert.assertEquals(ex.getMessage(),
+					"El número de la tarjeta de crédito no es válido, tarjeta crédito: [411111******1112], tipo: [VISA]");
+		}
+	}
+
+	@Test
+	public void serializedExceptionDoesNotHoldTheNumber() throws IOException {
+
+		try {
+			CreditCardValidator.validate("4111111111111112", CreditCardType.VISA);
+			Assert.fail("is valid?");
+		} catch (CreditCardValidationException ex) {
+
+			ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+
+			try (ObjectOutputStream output = new ObjectOutputStream(bytes)) {
+				output.writeObject(ex);
+			}
+			Assert.assertFalse(new String(bytes.toByteArray(), StandardCharsets.ISO_8859_1).contains("4111111111111112"));
+			Assert.assertTrue(new String(bytes.toByteArray(), StandardCharsets.ISO_8859_1).contains("411111******1112"));
+		}
+	}
+
+	@Test
+	public void charArrayOverloadsAgreeWithStrings() {
+
+		char[] buffer = "xx4111-1111-1111-1111 | 4111111111111112xx".toCharArray();
+
+		Assert.assertEquals(CreditCardValidator.findCreditCardType(buffer, 2, 19), CreditCardType.VISA);
+		Assert.assertEquals(CreditCardValidator.findCreditCardType(new StringBuilder("378282246310005")),
+				CreditCardType.AMEX);
+		Assert.assertEquals(CreditCardValidator.checkNumber(buffer, 24, 16, CreditCardType.VISA),
+				CreditCardValidationCode.NUMBER_NOT_VALID);
+		Assert.assertEquals(CreditCardValidator.checkNumber(" 4111111111111111 ".toCharArray(), 0, 18,
+				CreditCardType.VISA), CreditCardValidationCode.VALID);
+		Assert.assertEquals(CreditCardValidator.checkNumber(buffer, 0, 0, CreditCardType.VISA),
+				CreditCardValidationCode.NUMBER_NOT_NULL_EMPTY);
+
+		try {
+			CreditCardValidator.validate(buffer, 24, 16, CreditCardType.VISA);
+			Assert.fail("is valid?");
+		} catch (CreditCardValidationException ex) {
+			Arrays.fill(buffer, '0');
+			Assert.assertEquals(ex.getMessageArguments(), new Object[] { "411111******1112", CreditCardType.VISA });
+		}
+	}
+
 	@Test
 	public void validateVisa10() {
 
@@ -1309,6 +1374,26 @@ public class CreditCardValidatorTest {
 	
 	}
 	
+	@Test(description = "A corrupt type cache snapshot starts a cold cache instead of failing")
+	public void persistTypeCacheIgnoresCorruptSnapshot() throws IOException {
+		
+		Path file = Files.createTempFile("bins", ".cache");
+		
+		try {
+			Files.write(file, new byte[] { 1, 2, 3 });
+			CreditCardValidator.setTypeCache(new BinCache(64));
+			
+			BinCacheSnapshot snapshot = CreditCardValidator.persistTypeCache(file, 0);
+			
+			snapshot.close();
+			Assert.assertEquals(CreditCardValidator.findCreditCardType("4111111111111111"), CreditCardType.VISA);
+			Assert.assertEquals(CreditCardValidator.VALIDATOR.getTypeCache().keys().length, 1);
+		} finally {
+			CreditCardValidator.setTypeCache(null);
+			Files.delete(file);
+		}
+	}
+	
 
 	/**
 	 * This method is responsable for read the file that contain BIN's to validate
@@ -0,0 +1,105 @@
+package com.pagosonline.ccutils.validators;
+
+import java.util.Calendar;
+import java.util.TimeZone;
+
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Checks the expiration date formats and the {@link ExpirationCalendar}.
+ */
+public class ExpirationCalendarTest {
+
+	private static final int JULY_2025 = 2025 * 12 + 6;
+
+	@Test
+	public void parsesEveryFormat() {
+
+		Assert.assertEquals(ExpirationDateFormat.YYYY_MM.parse("2025/07"), JULY_2025);
+		Assert.assertEquals(ExpirationDateFormat.MM_YY.parse("07/25"), JULY_2025);
+		Assert.assertEquals(ExpirationDateFormat.MMYY.parse("0725"), JULY_2025);
+		Assert.assertEquals(ExpirationDateFormat.YYMM.parse("2507"), JULY_2025);
+		Assert.assertEquals(ExpirationDateFormat.YYYY_MM.parse(new StringBuilder("1999/12")), 1999 * 12 + 11);
+	}
+
+	@Test
+	public void rejectsMalformedDates() {
+
+		String[] malformed = new String[] { null, "", "2025-07", "2125/07", "2025/13", "2025/00", "202a/07",
+				"2025/7", "13/25", "07-25", "0a25", "2513", "072" };
+
+		for (String date : malformed) {
+			for (ExpirationDateFormat format : ExpirationDateFormat.values()) {
+				Assert.assertEquals(format.parse(date), -1, format + " " + date);
+			}
+		}
+	}
+
+	@Test
+	public void defaultCalendarFollowsTheDefaultTimeZone() {
+
+		TimeZone defaultZone = TimeZone.getDefault();
+		Calendar utc = Calendar.getInstance(TimeZone.getTimeZone("UTC"));
+		utc.clear();
+		utc.set(2025, Calendar.JULY, 31, 23, 30, 0);
+		long lastUtcInstant = utc.getTimeInMillis();
+
+		try {
+			TimeZone.setDefault(TimeZone.getTimeZone("UTC"));
+			Assert.assertEquals(ExpirationCalendar.getDefault().monthIndex(lastUtcInstant), JULY_2025);
+			Assert.assertFalse(ExpirationCalendar.getDefault().isExpired("07/25", ExpirationDateFormat.MM_YY,
+					lastUtcInstant));
+
+			TimeZone.setDefault(TimeZone.getTimeZone("Etc/GMT-14"));
+			Assert.assertEquals(ExpirationCalendar.getDefault().monthIndex(lastUtcInstant), JULY_2025 + 1);
+			Assert.assertTrue(ExpirationCalendar.getDefault().isExpired("07/25", ExpirationDateFormat.MM_YY,
+					lastUtcInstant));
+		} finally {
+			TimeZone.setDefault(defaultZone);
+		}
+	}
+
+	@Test
+	public void resolvesMonthsInTheTimeZone() {
+
+		TimeZone bogota = TimeZone.getTimeZone("America/Bogota");
+		ExpirationCalendar calendar = ExpirationCalendar.of(bogota);
+
+		Assert.assertSame(ExpirationCalendar.of(TimeZone.getTimeZone("America/Bogota")), calendar);
+
+		Calendar lastInstant = Calendar.getInstance(bogota);
+		lastInstant.clear();
+		lastInstant.set(2025, Calendar.JULY, 31, 23, 59, 59);
+		long july = lastInstant.getTimeInMillis();
+		long august = july + 1000;
+
+		Assert.assertEquals(calendar.monthIndex(july), JULY_2025);
+		Assert.assertEquals(calendar.monthIndex(august), JULY_2025 + 1);
+		Assert.assertEquals(calendar.monthIndex(july), JULY_2025);
+
+		Assert.assertFalse(calendar.isExpired("07/25", ExpirationDateFormat.MM_YY, july));
+		Assert.assertTrue(calendar.isExpired("07/25", ExpirationDateFormat.MM_YY, august));
+		Assert.assertTrue(calendar.willExpireOn("2507", ExpirationDateFormat.YYMM, august));
+
+		// the same instant is already August in UTC
+		Assert.assertEquals(ExpirationCalendar.of(TimeZone.getTimeZone("UTC")).monthIndex(july), JULY_2025 + 1);
+	}
+
+	@Test
+	public void currentMonthAgreesWithTheCalendar() {
+
+		Calendar now = Calendar.getInstance();
+		int month = now.get(Calendar.YEAR) * 12 + now.get(Calendar.MONTH);
+
+		Assert.assertEquals(ExpirationCalendar.getDefault().currentMonth(), month);
+		Assert.assertTrue(CreditCardValidator.isExpired("2013/09", ExpirationDateFormat.YYYY_MM));
+		Assert.assertFalse(CreditCardValidator.isExpired("12/99", ExpirationDateFormat.MM_YY));
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void malformedDateIsRejected() {
+
+		ExpirationCalendar.getDefault().isExpired("7/25", ExpirationDateFormat.MM_YY);
+	}
+}
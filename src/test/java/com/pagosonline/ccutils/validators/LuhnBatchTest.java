@@ -0,0 +1,165 @@
+package com.pagosonline.ccutils.validators;
+
+import java.lang.reflect.Method;
+import java.net.URL;
+import java.net.URLClassLoader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Random;
+
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.Test;
+
+/**
+ * Checks {@link LuhnBatch} agrees with {@link LuhnCheck} number by number.
+ */
+public class LuhnBatchTest {
+
+	@Test
+	public void agreesWithLuhnCheck() {
+
+		assertAgreesWithLuhnCheck(LuhnBatch::validate);
+	}
+
+	/**
+	 * Runs the Java 17 implementation, which the tests of the classes directory do not load: the
+	 * versioned classes are loaded with the library by a class loader of their own.
+	 */
+	@Test
+	public void vectorKernelAgreesWithLuhnCheck() throws Exception {
+
+		Path classes = Paths.get(LuhnBatch.class.getProtectionDomain().getCodeSource().getLocation().toURI());
+		Path versioned = classes.resolve("META-INF/versions/17");
+
+		if (!Files.isDirectory(versioned)) {
+			throw new SkipException("No Java 17 classes");
+		}
+
+		try (URLClassLoader loader = new URLClassLoader(new URL[] { versioned.toUri().toURL(), classes.toUri().toURL() },
+				ClassLoader.getSystemClassLoader().getParent())) {
+
+			Class<?> batch = loader.loadClass(LuhnBatch.class.getName());
+
+			if (!"vector".equals(batch.getMethod("getImplementation").invoke(null))) {
+				throw new SkipException("The vector API is not available, see the surefire argLine");
+			}
+
+			Method validate = batch.getMethod("validate", byte[].class, int.class, int.class, int.class, boolean[].class);
+
+			assertAgreesWithLuhnCheck((column, offset, width, count, results) -> {
+				try {
+					return (Integer) validate.invoke(null, column, offset, width, count, results);
+				} catch (ReflectiveOperationException e) {
+					throw new IllegalStateException(e);
+				}
+			});
+		}
+	}
+
+	/**
+	 * Checks a batch validation agrees with {@link LuhnCheck} for columns of every width, with
+	 * or without bytes after the last number, and for columns shorter than a vector.
+	 *
+	 * @param batch the batch validation
+	 */
+	private static void assertAgreesWithLuhnCheck(BatchValidation batch) {
+
+		Random random = new Random(20141209L);
+
+		for (int width = 1; width <= 40; width++) {
+			for (int count : new int[] { 1, 2, 3, 64 }) {
+				for (int slack : new int[] { 0, 5 }) {
+
+					int offset = count == 64 ? 3 : 0;
+					char[] column = new char[offset + width * count + slack];
+
+					for (int i = 0; i < column.length; i++) {
+						column[i] = (char) ('0' + random.nextInt(10));
+					}
+
+					for (int number = 0; number < count; number++) {
+
+						int start = offset + number * width;
+
+						// fix the check digit of half of the numbers, spoil a few others
+						if (number % 2 == 0) {
+							for (int check = 0; check < 10 && !LuhnCheck.isValid(new String(column), start, start + width); check++) {
+								column[start + width - 1] = (char) ('0' + check);
+							}
+						} else if (number % 7 == 0) {
+							column[start + random.nextInt(width)] = number % 3 == 0 ? ' ' : (char) ('0' + 10);
+						} else if (number % 11 == 0) {
+							for (int i = start; i < start + width; i++) {
+								column[i] = '0';
+							}
+						}
+					}
+
+					String text = new String(column);
+					byte[] bytes = text.getBytes(StandardCharsets.US_ASCII);
+					boolean[] results = new boolean[count];
+					String message = "width " + width + ", count " + count + ", slack " + slack;
+					int valid = 0;
+
+					for (int number = 0; number < count; number++) {
+
+						int start = offset + number * width;
+
+						if (LuhnCheck.isValid(text, start, start + width)) {
+							valid++;
+						}
+					}
+
+					Assert.assertEquals(batch.validate(bytes, offset, width, count, results), valid, message);
+
+					for (int number = 0; number < count; number++) {
+
+						int start = offset + number * width;
+						Assert.assertEquals(results[number], LuhnCheck.isValid(text, start, start + width), message);
+					}
+				}
+			}
+		}
+
+		boolean[] results = new boolean[1];
+
+		Assert.assertEquals(batch.validate("4111111111".getBytes(StandardCharsets.US_ASCII), 0, 10, 1, results), 0);
+		Assert.assertEquals(batch.validate("4111111111111111".getBytes(StandardCharsets.US_ASCII), 0, 16, 1, results), 1);
+		Assert.assertEquals(batch.validate("4000000000000000006".getBytes(StandardCharsets.US_ASCII), 0, 19, 1, results), 1);
+	}
+
+	/**
+	 * The signature of {@link LuhnBatch#validate(byte[], int, int, int, boolean[])}.
+	 */
+	private interface BatchValidation {
+
+		int validate(byte[] column, int offset, int width, int count, boolean[] results);
+	}
+
+	@Test
+	public void validatesPaddedNumbers() {
+
+		byte[] column = "00041111111111111110000378282246310005".getBytes(StandardCharsets.US_ASCII);
+		boolean[] results = new boolean[2];
+
+		Assert.assertEquals(LuhnBatch.validate(column, 0, 19, 2, results), 2);
+		Assert.assertTrue(results[0]);
+		Assert.assertTrue(results[1]);
+		Assert.assertEquals(LuhnBatch.validate(column, 0, 19, 0, results), 0);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void rejectsShortColumns() {
+
+		LuhnBatch.validate(new byte[31], 0, 16, 2, new boolean[2]);
+	}
+
+	@Test(expectedExceptions = IllegalArgumentException.class)
+	public void rejectsShortResults() {
+
+		LuhnBatch.validate(new byte[32], 0, 16, 2, new boolean[1]);
+	}
+}
@@ -0,0 +1,50 @@
+package com.pagosonline.ccutils.validators;
+
+import java.util.Random;
+
+import org.apache.commons.validator.routines.checkdigit.LuhnCheckDigit;
+import org.testng.Assert;
+import org.testng.annotations.Test;
+
+/**
+ * Checks {@link LuhnCheck} against the commons-validator implementation.
+ */
+public class LuhnCheckTest {
+
+	private final Random random = new Random(20141209L);
+
+	@Test
+	public void agreesWithCommonsValidator() {
+
+		for (int i = 0; i < 20000; i++) {
+
+			StringBuilder number = new StringBuilder();
+			int length = 1 + random.nextInt(19);
+
+			for (int j = 0; j < length; j++) {
+				number.append(random.nextInt(10));
+			}
+
+			Assert.assertEquals(LuhnCheck.isValid(number), LuhnCheckDigit.LUHN_CHECK_DIGIT.isValid(number.toString()),
+					number.toString());
+		}
+	}
+
+	@Test
+	public void validNumbers() {
+
+		Assert.assertTrue(LuhnCheck.isValid("4111111111111111"));
+		Assert.assertTrue(LuhnCheck.isValid("378282246310005"));
+		Assert.assertTrue(LuhnCheck.isValid("xx4111111111111111yy", 2, 18));
+	}
+
+	@Test
+	public void invalidNumbers() {
+
+		Assert.assertFalse(LuhnCheck.isValid("4111111111111112"));
+		Assert.assertFalse(LuhnCheck.isValid("4111-1111-1111-1111"));
+		Assert.assertFalse(LuhnCheck.isValid("0000000000000000"));
+		Assert.assertFalse(LuhnCheck.isValid(""));
+		Assert.assertFalse(LuhnCheck.isValid(null));
+	}
+}